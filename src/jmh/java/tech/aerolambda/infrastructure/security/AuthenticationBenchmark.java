@@ -0,0 +1,171 @@
+package tech.aerolambda.infrastructure.security;
+
+import io.jsonwebtoken.io.Encoders;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
+import tech.aerolambda.domain.entity.User;
+import tech.aerolambda.domain.enums.UserRole;
+import tech.aerolambda.domain.repository.RevokedTokenRepository;
+import tech.aerolambda.domain.repository.UserRepository;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Authentication cost of one request, without the servlet container and the rest of the chain:
+ * verifying the token alone, and the whole JWT filter for a token carrying the current account
+ * version and for an older token that names its user only, whose user comes from the cache.
+ *
+ * <p>{@code filterLoadedUser} is the baseline those replace: every request loads its user from
+ * the repository, with no cache and no account version to check, as before stateless
+ * authentication. There is no database; each load waits {@code databaseLoadMicros} instead, a
+ * round trip to a nearby PostgreSQL by default.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthenticationBenchmark {
+
+    private static final FilterChain NO_CHAIN = (request, response) -> {
+    };
+
+    @Param("200")
+    private long databaseLoadMicros;
+
+    private JwtService jwtService;
+    private JwtAuthenticationFilter filter;
+    private JwtAuthenticationFilter loadingFilter;
+    private String statelessToken;
+    private String subjectOnlyToken;
+
+    @Setup
+    public void setUp() {
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secretKey", Encoders.BASE64.encode(secret));
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", Duration.ofHours(1).toMillis());
+        jwtService.init();
+
+        User user = user();
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+        UserRepository databaseRepository = mock(UserRepository.class);
+        when(databaseRepository.findByEmail(user.getEmail())).thenAnswer(invocation -> {
+            databaseRoundTrip();
+            return Optional.of(user());
+        });
+
+        AccountVersions accountVersions = new AccountVersions(userRepository);
+        ReflectionTestUtils.setField(accountVersions, "enabled", true);
+        accountVersions.load();
+        accountVersions.record(user.getId(), user.getAccountVersion());
+
+        UserDetailsCache userDetailsCache = new UserDetailsCache(userRepository);
+        ReflectionTestUtils.setField(userDetailsCache, "enabled", true);
+        ReflectionTestUtils.setField(userDetailsCache, "ttl", Duration.ofHours(1));
+        ReflectionTestUtils.setField(userDetailsCache, "maxEntries", 10_000);
+        UserDetailsService userDetailsService = email -> userDetailsCache.find(email)
+                .orElseThrow(() -> new UsernameNotFoundException(email));
+
+        TokenRevocations tokenRevocations = new TokenRevocations(mock(RevokedTokenRepository.class));
+        ReflectionTestUtils.setField(tokenRevocations, "expectedTokens", 100_000);
+        tokenRevocations.load();
+
+        filter = new JwtAuthenticationFilter(jwtService, userDetailsService, accountVersions, tokenRevocations);
+        UserDetailsService loadingUserDetailsService = email -> databaseRepository.findByEmail(email)
+                .orElseThrow(() -> new UsernameNotFoundException(email));
+        loadingFilter = new JwtAuthenticationFilter(jwtService, loadingUserDetailsService,
+                new AccountVersions(databaseRepository), tokenRevocations);
+        statelessToken = jwtService.generateToken(user);
+        subjectOnlyToken = jwtService.generateToken(Map.of(), user);
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public VerifiedToken verifyToken() {
+        return jwtService.verify(statelessToken);
+    }
+
+    @Benchmark
+    public Authentication filterStatelessToken() throws Exception {
+        return authenticate(statelessToken);
+    }
+
+    @Benchmark
+    public Authentication filterCachedUser() throws Exception {
+        return authenticate(subjectOnlyToken);
+    }
+
+    @Benchmark
+    public Authentication filterLoadedUser() throws Exception {
+        return authenticate(loadingFilter, subjectOnlyToken);
+    }
+
+    private Authentication authenticate(String token) throws Exception {
+        return authenticate(filter, token);
+    }
+
+    private Authentication authenticate(JwtAuthenticationFilter filter, String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/books");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilterInternal(request, new MockHttpServletResponse(), NO_CHAIN);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            throw new IllegalStateException("Request was not authenticated");
+        }
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    // A freshly loaded entity, as the repository would return
+    private static User user() {
+        return User.builder()
+                .id(1L)
+                .name("Reader")
+                .email("reader@example.com")
+                .password("unused")
+                .role(UserRole.USER)
+                .enabled(true)
+                .accountVersion(3)
+                .build();
+    }
+
+    private void databaseRoundTrip() {
+        long until = System.nanoTime() + TimeUnit.MICROSECONDS.toNanos(databaseLoadMicros);
+        while (System.nanoTime() < until) {
+            Thread.onSpinWait();
+        }
+    }
+}
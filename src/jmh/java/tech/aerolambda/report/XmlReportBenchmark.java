@@ -0,0 +1,233 @@
+package tech.aerolambda.report;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+import tech.aerolambda.domain.entity.Author;
+import tech.aerolambda.domain.entity.Book;
+import tech.aerolambda.domain.entity.Store;
+import tech.aerolambda.domain.enums.ReportType;
+import tech.aerolambda.report.render.RowChunk;
+import tech.aerolambda.report.render.RowRenderer;
+import tech.aerolambda.report.render.TextRowSink;
+import tech.aerolambda.report.strategy.impl.XmlReportStrategy;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * The books report written as XML by {@link XmlReportStrategy} and by the string-building writer
+ * it replaced, which is kept here as {@link StringBuildingXml}. Both run over the same rows and
+ * the same {@link RowRenderer}, so only the writing differs; {@code parallelism} 1 formats every
+ * chunk on the calling thread. Run with {@code -prof gc} to compare allocation as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class XmlReportBenchmark {
+
+    private static final List<ReportColumn<Book>> COLUMNS = List.of(
+            ReportColumn.ofLong("ID", Book::getId),
+            ReportColumn.ofString("Title", Book::getTitle),
+            ReportColumn.ofString("ISBN", Book::getIsbn),
+            ReportColumn.ofCurrency("Price", 10, 2, Book::getPrice),
+            ReportColumn.ofString("Author", book -> book.getAuthor() != null ? book.getAuthor().getName() : null),
+            ReportColumn.ofString("Store", book -> book.getStore() != null ? book.getStore().getName() : null),
+            ReportColumn.ofTimestamp("Created At", Book::getCreatedAt));
+
+    @Param({"10000", "100000"})
+    private int rows;
+
+    @Param({"1", "4"})
+    private int parallelism;
+
+    private List<Book> books;
+    private RowRenderer rowRenderer;
+    private XmlReportStrategy streaming;
+    private StringBuildingXml stringBuilding;
+
+    @Setup
+    public void setUp() {
+        List<Author> authors = IntStream.range(0, 200)
+                .<Author>mapToObj(i -> Author.builder().id((long) i).name("Author " + i + " & Sons").build())
+                .toList();
+        List<Store> stores = IntStream.range(0, 20)
+                .<Store>mapToObj(i -> Store.builder().id((long) i).name("Store <" + i + ">").build())
+                .toList();
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 12, 0);
+        books = IntStream.range(0, rows)
+                .<Book>mapToObj(i -> Book.builder()
+                        .id((long) i)
+                        .title("The \"Book\" of Things, volume " + i)
+                        .isbn("978-0-" + (100000 + i))
+                        .price(BigDecimal.valueOf(1000 + i % 9000, 2))
+                        .author(authors.get(i % authors.size()))
+                        .store(stores.get(i % stores.size()))
+                        .createdAt(createdAt.plusMinutes(i))
+                        .build())
+                .toList();
+
+        rowRenderer = new RowRenderer();
+        ReflectionTestUtils.setField(rowRenderer, "parallelism", parallelism);
+        ReflectionTestUtils.setField(rowRenderer, "chunkSize", 500);
+        ReflectionTestUtils.invokeMethod(rowRenderer, "init");
+        streaming = new XmlReportStrategy(rowRenderer);
+        stringBuilding = new StringBuildingXml(rowRenderer);
+    }
+
+    @TearDown
+    public void tearDown() {
+        ReflectionTestUtils.invokeMethod(rowRenderer, "shutdown");
+    }
+
+    @Benchmark
+    public long streamingWriter() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        streaming.write(reportData(), out);
+        return out.count;
+    }
+
+    @Benchmark
+    public long stringBuildingWriter() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        stringBuilding.write(reportData(), out);
+        return out.count;
+    }
+
+    private ReportData<Book> reportData() {
+        return ReportData.<Book>builder()
+                .reportType(ReportType.BOOKS)
+                .title("Books Report")
+                .data(books.stream())
+                .recordCount(books::size)
+                .columns(COLUMNS)
+                .build();
+    }
+
+    /**
+     * The XML writer before it moved to StAX: every value escaped by chained replaces and every
+     * line appended as strings. Cells are first collected as text per row, as rows were then.
+     */
+    private record StringBuildingXml(RowRenderer rowRenderer) {
+
+        <T> void write(ReportData<T> reportData, OutputStream outputStream) throws IOException {
+            Writer xml = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            String rootElement = reportData.getReportType().name().toLowerCase() + "Report";
+            String itemElement = reportData.getReportType().name().toLowerCase().replace("_", "");
+            if (itemElement.endsWith("s")) {
+                itemElement = itemElement.substring(0, itemElement.length() - 1);
+            }
+
+            xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+            xml.append("<").append(rootElement).append(">\n");
+            xml.append("  <metadata>\n");
+            xml.append("    <title>").append(escapeXml(reportData.getTitle())).append("</title>\n");
+            xml.append("    <totalRecords>").append(String.valueOf(reportData.countRecords())).append("</totalRecords>\n");
+            xml.append("    <generatedAt>").append(LocalDateTime.now().toString()).append("</generatedAt>\n");
+            xml.append("  </metadata>\n");
+            xml.append("  <records>\n");
+            xml.flush();
+
+            String recordElement = itemElement;
+            List<? extends ReportColumn<?>> columns = reportData.getColumns();
+            List<String> fieldElements = reportData.getHeaders().stream()
+                    .map(header -> header.toLowerCase().replace(" ", "_"))
+                    .toList();
+            rowRenderer.render(reportData, outputStream,
+                    (rows, chunkIndex, out) -> writeRecords(text(rows, columns), recordElement, fieldElements, out));
+
+            xml.append("  </records>\n");
+            xml.append("</").append(rootElement).append(">");
+            xml.flush();
+        }
+
+        private static List<List<String>> text(RowChunk rows, List<? extends ReportColumn<?>> columns)
+                throws IOException {
+            List<List<String>> text = new ArrayList<>(rows.size());
+            rows.replay(new TextRowSink(columns) {
+                @Override
+                public void startRow() {
+                    text.add(new ArrayList<>(columns.size()));
+                }
+
+                @Override
+                protected void cell(int column, String cell) {
+                    text.get(text.size() - 1).add(cell);
+                }
+
+                @Override
+                public void endRow() {
+                }
+            });
+            return text;
+        }
+
+        private static void writeRecords(List<List<String>> rows, String recordElement, List<String> fieldElements,
+                                         OutputStream outputStream) throws IOException {
+            Writer xml = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            for (List<String> rowData : rows) {
+                xml.append("    <").append(recordElement).append(">\n");
+                for (int i = 0; i < fieldElements.size(); i++) {
+                    String field = fieldElements.get(i);
+                    String value = i < rowData.size() ? rowData.get(i) : "";
+                    xml.append("      <").append(field).append(">")
+                            .append(escapeXml(value))
+                            .append("</").append(field).append(">\n");
+                }
+                xml.append("    </").append(recordElement).append(">\n");
+            }
+            xml.flush();
+        }
+
+        private static String escapeXml(String text) {
+            if (text == null) return "";
+            return text
+                    .replace("&", "&amp;")
+                    .replace("<", "&lt;")
+                    .replace(">", "&gt;")
+                    .replace("\"", "&quot;")
+                    .replace("'", "&apos;");
+        }
+    }
+
+    /**
+     * Discards what is written, keeping the byte count so the output cannot be optimised away.
+     */
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
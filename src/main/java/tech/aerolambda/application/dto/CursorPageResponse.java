@@ -0,0 +1,15 @@
+package tech.aerolambda.application.dto;
+
+import java.util.List;
+
+/**
+ * Page of a keyset-paginated listing. {@code nextCursor} is an opaque token to pass back for the
+ * following page, or {@code null} on the last page.
+ */
+public record CursorPageResponse<T>(
+        List<T> content,
+        int size,
+        boolean hasNext,
+        String nextCursor
+) {
+}
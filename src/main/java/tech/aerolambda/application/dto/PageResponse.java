@@ -1,45 +1,36 @@
 package tech.aerolambda.application.dto;
 
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 
+/**
+ * Page of a paginated listing. {@code totalElements} and {@code totalPages} are {@code null} when
+ * the caller asked for the page without a total count.
+ */
 public record PageResponse<T>(
         List<T> content,
         int page,
         int size,
-        long totalElements,
-        int totalPages,
+        Long totalElements,
+        Integer totalPages,
         boolean first,
         boolean last,
         boolean hasNext,
         boolean hasPrevious
 ) {
-    public static <T> PageResponse<T> from(Page<T> page) {
-        return new PageResponse<>(
-                page.getContent(),
-                page.getNumber(),
-                page.getSize(),
-                page.getTotalElements(),
-                page.getTotalPages(),
-                page.isFirst(),
-                page.isLast(),
-                page.hasNext(),
-                page.hasPrevious()
-        );
-    }
-
-    public static <T, R> PageResponse<R> from(Page<T> page, List<R> content) {
+    public static <T, R> PageResponse<R> from(Slice<T> slice, List<R> content, Long totalElements) {
+        Integer totalPages = totalElements != null ? (int) ((totalElements + slice.getSize() - 1) / slice.getSize()) : null;
         return new PageResponse<>(
                 content,
-                page.getNumber(),
-                page.getSize(),
-                page.getTotalElements(),
-                page.getTotalPages(),
-                page.isFirst(),
-                page.isLast(),
-                page.hasNext(),
-                page.hasPrevious()
+                slice.getNumber(),
+                slice.getSize(),
+                totalElements,
+                totalPages,
+                slice.isFirst(),
+                slice.isLast(),
+                slice.hasNext(),
+                slice.hasPrevious()
         );
     }
 }
@@ -0,0 +1,14 @@
+package tech.aerolambda.application.dto.book;
+
+import java.util.List;
+
+public record AutocompleteResponse(
+        List<Suggestion> titles,
+        List<Suggestion> authors
+) {
+    /**
+     * A completion and its weight: how many books carry the title, or for an author, how many
+     * books they wrote plus one.
+     */
+    public record Suggestion(String text, long weight) {}
+}
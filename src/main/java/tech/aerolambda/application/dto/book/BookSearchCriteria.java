@@ -0,0 +1,20 @@
+package tech.aerolambda.application.dto.book;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Filters of the combined book search; every one is optional and those given must all match.
+ */
+public record BookSearchCriteria(
+        String title,
+        Long authorId,
+        String authorName,
+        Long storeId,
+        BigDecimal minPrice,
+        BigDecimal maxPrice,
+        Integer minYear,
+        Integer maxYear,
+        LocalDate createdFrom,
+        LocalDate createdTo
+) {}
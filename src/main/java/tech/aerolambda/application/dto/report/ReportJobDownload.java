@@ -0,0 +1,9 @@
+package tech.aerolambda.application.dto.report;
+
+import org.springframework.core.io.Resource;
+
+public record ReportJobDownload(
+        Resource resource,
+        String contentType,
+        String filename
+) {}
@@ -0,0 +1,19 @@
+package tech.aerolambda.application.dto.report;
+
+import tech.aerolambda.domain.enums.ReportFormat;
+import tech.aerolambda.domain.enums.ReportJobStatus;
+import tech.aerolambda.domain.enums.ReportType;
+
+import java.time.LocalDateTime;
+
+public record ReportJobResponse(
+        String id,
+        ReportType type,
+        ReportFormat format,
+        ReportJobStatus status,
+        Long size,
+        String error,
+        LocalDateTime createdAt,
+        LocalDateTime startedAt,
+        LocalDateTime completedAt
+) {}
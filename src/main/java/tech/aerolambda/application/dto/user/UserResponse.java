@@ -9,6 +9,7 @@ public record UserResponse(
         String name,
         String email,
         UserRole role,
+        boolean enabled,
         LocalDateTime createdAt,
         LocalDateTime updatedAt
 ) {}
@@ -15,5 +15,7 @@ public record UserUpdateRequest(
         @Size(min = 8, max = 100, message = "Password must be between 8 and 100 characters")
         String password,
 
-        UserRole role
+        UserRole role,
+
+        Boolean enabled
 ) {}
@@ -9,6 +9,7 @@ import tech.aerolambda.application.dto.author.AuthorResponse;
 import tech.aerolambda.domain.entity.Author;
 
 import java.util.List;
+import java.util.Map;
 
 @Mapper(componentModel = "spring",
         nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE,
@@ -21,10 +22,14 @@ public interface AuthorMapper {
     @Mapping(target = "books", ignore = true)
     Author toEntity(AuthorRequest request);
 
-    @Mapping(target = "bookCount", expression = "java(author.getBooks() != null ? author.getBooks().size() : 0)")
-    AuthorResponse toResponse(Author author);
+    @Mapping(target = "bookCount", source = "bookCount")
+    AuthorResponse toResponse(Author author, int bookCount);
 
-    List<AuthorResponse> toResponseList(List<Author> authors);
+    default List<AuthorResponse> toResponseList(List<Author> authors, Map<Long, Long> bookCounts) {
+        return authors.stream()
+                .map(author -> toResponse(author, bookCounts.getOrDefault(author.getId(), 0L).intValue()))
+                .toList();
+    }
 
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
@@ -9,6 +9,7 @@ import tech.aerolambda.application.dto.store.StoreResponse;
 import tech.aerolambda.domain.entity.Store;
 
 import java.util.List;
+import java.util.Map;
 
 @Mapper(componentModel = "spring",
         nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE,
@@ -21,10 +22,14 @@ public interface StoreMapper {
     @Mapping(target = "books", ignore = true)
     Store toEntity(StoreRequest request);
 
-    @Mapping(target = "bookCount", expression = "java(store.getBooks() != null ? store.getBooks().size() : 0)")
-    StoreResponse toResponse(Store store);
+    @Mapping(target = "bookCount", source = "bookCount")
+    StoreResponse toResponse(Store store, int bookCount);
 
-    List<StoreResponse> toResponseList(List<Store> stores);
+    default List<StoreResponse> toResponseList(List<Store> stores, Map<Long, Long> bookCounts) {
+        return stores.stream()
+                .map(store -> toResponse(store, bookCounts.getOrDefault(store.getId(), 0L).intValue()))
+                .toList();
+    }
 
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
@@ -21,6 +21,7 @@ public interface UserMapper {
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     @Mapping(target = "enabled", constant = "true")
+    @Mapping(target = "accountVersion", ignore = true)
     User toEntity(UserRequest request);
 
     @Mapping(target = "id", ignore = true)
@@ -28,6 +29,7 @@ public interface UserMapper {
     @Mapping(target = "updatedAt", ignore = true)
     @Mapping(target = "role", constant = "USER")
     @Mapping(target = "enabled", constant = "true")
+    @Mapping(target = "accountVersion", ignore = true)
     User toEntity(RegisterRequest request);
 
     UserResponse toResponse(User user);
@@ -37,5 +39,6 @@ public interface UserMapper {
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "accountVersion", ignore = true)
     void updateEntity(UserUpdateRequest request, @MappingTarget User user);
 }
@@ -0,0 +1,533 @@
+package tech.aerolambda.application.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * Weighted prefix completion over short texts. A text completes a prefix when one of its words
+ * starts with it, and the heaviest texts are suggested first.
+ *
+ * <p>Texts live in an immutable base: every word-start suffix of every normalized text, sorted,
+ * with a max-weight segment tree over them. The suffixes sharing a prefix are a contiguous
+ * range, and its top {@code k} come out of the tree in {@code O(k log n)} however wide the
+ * range is. Changes go to an overlay that every read scans alongside the base, so it is kept
+ * small: past {@link #FOLD_THRESHOLD} texts it is merged into a new base in linear time. Reads
+ * take no lock: base and overlay are published together and swapped as a unit.
+ */
+public final class CompletionIndex {
+
+    private static final int FOLD_THRESHOLD = 256;
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final char TERM_END = '\0';
+    private static final Comparator<Completion> BY_WEIGHT = Comparator.comparingInt(Completion::weight).reversed()
+            .thenComparing(Completion::text);
+
+    private volatile State state = new State(Base.EMPTY);
+
+    /**
+     * Adds {@code delta} to the weight of {@code text}, adding it at that weight if it is new.
+     * Texts whose weight drops to zero or below are removed.
+     */
+    public synchronized void adjust(String text, int delta) {
+        String key = normalize(text);
+        if (key.isEmpty() || delta == 0) {
+            return;
+        }
+        Entry current = lookup(key);
+        int weight = (current != null ? current.weight() : 0) + delta;
+        change(key, new Entry(current != null ? current.text() : text, Math.max(weight, 0)));
+    }
+
+    /**
+     * Moves the weight of {@code from} to {@code to}, for a text that was edited.
+     */
+    public synchronized void rename(String from, String to) {
+        String fromKey = normalize(from);
+        String toKey = normalize(to);
+        Entry current = lookup(fromKey);
+        if (current == null) {
+            return;
+        }
+        if (fromKey.equals(toKey)) {
+            change(fromKey, new Entry(to, current.weight()));
+            return;
+        }
+        change(fromKey, new Entry(current.text(), 0));
+        Entry target = lookup(toKey);
+        change(toKey, new Entry(target != null ? target.text() : to, current.weight()
+                + (target != null ? target.weight() : 0)));
+    }
+
+    /**
+     * Replaces the contents with {@code weights}, keyed by text.
+     */
+    public synchronized void load(Map<String, Integer> weights) {
+        Map<String, Entry> entries = new HashMap<>();
+        weights.forEach((text, weight) -> {
+            String key = normalize(text);
+            if (!key.isEmpty() && weight > 0) {
+                entries.merge(key, new Entry(text, weight), (a, b) -> new Entry(a.text(), a.weight() + b.weight()));
+            }
+        });
+        state = new State(Base.of(entries));
+    }
+
+    /**
+     * Up to {@code limit} texts with a word starting with {@code prefix}, heaviest first and
+     * texts of equal weight in text order.
+     */
+    public List<Completion> complete(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        State current = state;
+
+        // Lightest first, so the head is the one to drop once there are more than limit
+        PriorityQueue<Completion> heaviest = new PriorityQueue<>(limit + 1, BY_WEIGHT.reversed());
+        Set<String> seen = new HashSet<>();
+        // Overlay terms are "term\0key", so every term starting with the prefix sorts between these
+        for (String key : current.changedTerms.subMap(normalized, normalized + Character.MAX_VALUE).values()) {
+            Entry entry = current.changed.get(key);
+            if (entry != null && entry.weight() > 0 && seen.add(key)) {
+                keep(heaviest, entry.text(), entry.weight(), limit);
+            }
+        }
+        // The base leaves out every changed text, so the two never suggest the same one
+        for (Completion completion : current.base.top(normalized, limit, current.changed.keySet())) {
+            keep(heaviest, completion.text(), completion.weight(), limit);
+        }
+
+        List<Completion> completions = new ArrayList<>(heaviest);
+        completions.sort(BY_WEIGHT);
+        return completions;
+    }
+
+    public Footprint footprint() {
+        State current = state;
+        return new Footprint(current.base.keys.length, current.base.terms.length, current.changed.size(),
+                current.base.bytes());
+    }
+
+    private static void keep(PriorityQueue<Completion> heaviest, String text, int weight, int limit) {
+        Completion lightest = heaviest.size() == limit ? heaviest.peek() : null;
+        if (lightest != null && (weight < lightest.weight()
+                || weight == lightest.weight() && text.compareTo(lightest.text()) >= 0)) {
+            return;
+        }
+        heaviest.add(new Completion(text, weight));
+        if (heaviest.size() > limit) {
+            heaviest.poll();
+        }
+    }
+
+    private Entry lookup(String key) {
+        State current = state;
+        Entry changed = current.changed.get(key);
+        if (changed != null) {
+            return changed.weight() > 0 ? changed : null;
+        }
+        return current.base.get(key);
+    }
+
+    private void change(String key, Entry entry) {
+        State current = state;
+        // Order the updates so that a concurrent read sees either the old or the new entry
+        if (entry.weight() > 0) {
+            for (int start : wordStarts(key)) {
+                current.changedTerms.put(key.substring(start) + TERM_END + key, key);
+            }
+            current.changed.put(key, entry);
+        } else {
+            current.changed.put(key, entry);
+            for (int start : wordStarts(key)) {
+                current.changedTerms.remove(key.substring(start) + TERM_END + key);
+            }
+        }
+
+        if (current.changed.size() > FOLD_THRESHOLD) {
+            state = new State(current.base.with(current.changed));
+        }
+    }
+
+    static String normalize(String text) {
+        return text == null ? "" : SEPARATORS.matcher(text.toLowerCase(Locale.ROOT)).replaceAll(" ").strip();
+    }
+
+    /**
+     * Offsets in {@code key} at which a word starts.
+     */
+    private static List<Integer> wordStarts(String key) {
+        List<Integer> starts = new ArrayList<>();
+        for (int start = 0; start < key.length(); start = key.indexOf(' ', start) + 1) {
+            starts.add(start);
+            if (key.indexOf(' ', start) < 0) {
+                break;
+            }
+        }
+        return starts;
+    }
+
+    public record Completion(String text, int weight) {}
+
+    /**
+     * Number of distinct texts and word-start terms in the base, texts changed since it was
+     * built, and the approximate heap used by the base in bytes.
+     */
+    public record Footprint(int texts, int terms, int pending, long bytes) {}
+
+    private record Entry(String text, int weight) {}
+
+    private record State(Base base, Map<String, Entry> changed, ConcurrentSkipListMap<String, String> changedTerms) {
+
+        State(Base base) {
+            this(base, new ConcurrentHashMap<>(), new ConcurrentSkipListMap<>());
+        }
+    }
+
+    private static final class Base {
+
+        static final Base EMPTY = of(Map.of());
+
+        // Sorted normalized texts, with the original text and weight of each
+        final String[] keys;
+        final String[] texts;
+        final int[] weights;
+
+        // Word-start suffixes as (text index << 32 | offset), sorted by the suffix, and a segment
+        // tree holding the heaviest term of each node's range
+        final long[] terms;
+        final int[] tree;
+        final int leaves;
+
+        private Base(String[] keys, String[] texts, int[] weights, long[] terms) {
+            this.keys = keys;
+            this.texts = texts;
+            this.weights = weights;
+            this.terms = terms;
+
+            int size = 1;
+            while (size < terms.length) {
+                size <<= 1;
+            }
+            leaves = size;
+            tree = new int[2 * size];
+            Arrays.fill(tree, -1);
+            for (int i = 0; i < terms.length; i++) {
+                tree[size + i] = i;
+            }
+            for (int node = size - 1; node > 0; node--) {
+                tree[node] = heavier(tree[2 * node], tree[2 * node + 1]);
+            }
+        }
+
+        static Base of(Map<String, Entry> entries) {
+            String[] keys = entries.keySet().toArray(new String[0]);
+            Arrays.sort(keys);
+            String[] texts = new String[keys.length];
+            int[] weights = new int[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                Entry entry = entries.get(keys[i]);
+                texts[i] = entry.text();
+                weights[i] = entry.weight();
+            }
+            int[] all = new int[keys.length];
+            Arrays.setAll(all, i -> i);
+            return new Base(keys, texts, weights, termsOf(keys, all, all.length));
+        }
+
+        /**
+         * This base with {@code changed} applied. Both the texts and the terms are already sorted,
+         * so only the terms of the changed texts need sorting; the rest is merged in one pass.
+         */
+        Base with(Map<String, Entry> changed) {
+            String[] changedKeys = changed.keySet().toArray(new String[0]);
+            Arrays.sort(changedKeys);
+
+            int capacity = keys.length + changedKeys.length;
+            String[] newKeys = new String[capacity];
+            String[] newTexts = new String[capacity];
+            int[] newWeights = new int[capacity];
+            int[] renumbered = new int[keys.length];
+            int[] added = new int[changedKeys.length];
+            int size = 0;
+            int addedCount = 0;
+            for (int i = 0, j = 0; i < keys.length || j < changedKeys.length; ) {
+                int cmp = i == keys.length ? 1 : j == changedKeys.length ? -1 : keys[i].compareTo(changedKeys[j]);
+                if (cmp < 0) {
+                    newKeys[size] = keys[i];
+                    newTexts[size] = texts[i];
+                    newWeights[size] = weights[i];
+                    renumbered[i++] = size++;
+                    continue;
+                }
+                if (cmp == 0) {
+                    // Replaced, so its terms are dropped and rebuilt below
+                    renumbered[i++] = -1;
+                }
+                Entry entry = changed.get(changedKeys[j]);
+                if (entry.weight() > 0) {
+                    newKeys[size] = changedKeys[j];
+                    newTexts[size] = entry.text();
+                    newWeights[size] = entry.weight();
+                    added[addedCount++] = size++;
+                }
+                j++;
+            }
+            newKeys = Arrays.copyOf(newKeys, size);
+            newTexts = Arrays.copyOf(newTexts, size);
+            newWeights = Arrays.copyOf(newWeights, size);
+
+            // Comparing terms means reading their texts, so place the few added terms by binary
+            // search and carry the rest over in order without comparing them at all
+            long[] addedTerms = termsOf(newKeys, added, addedCount);
+            int[] positions = new int[addedTerms.length];
+            for (int a = 0; a < addedTerms.length; a++) {
+                positions[a] = insertionPoint(newKeys, renumbered, addedTerms[a]);
+            }
+            long[] merged = new long[terms.length + addedTerms.length];
+            int count = 0;
+            int a = 0;
+            for (int t = 0; t < terms.length; t++) {
+                while (a < addedTerms.length && positions[a] == t) {
+                    merged[count++] = addedTerms[a++];
+                }
+                int key = renumbered[(int) (terms[t] >>> 32)];
+                if (key >= 0) {
+                    merged[count++] = (long) key << 32 | (int) terms[t];
+                }
+            }
+            while (a < addedTerms.length) {
+                merged[count++] = addedTerms[a++];
+            }
+            return new Base(newKeys, newTexts, newWeights, Arrays.copyOf(merged, count));
+        }
+
+        /**
+         * Index of the first term of this base that sorts after {@code term}, a term of
+         * {@code newKeys}, once renumbered into {@code newKeys}. Terms of replaced texts are
+         * compared as they were; the merge drops them.
+         */
+        private int insertionPoint(String[] newKeys, int[] renumbered, long term) {
+            int lo = 0;
+            int hi = terms.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                int key = renumbered[(int) (terms[mid] >>> 32)];
+                int cmp = key >= 0
+                        ? compareTerms(newKeys, (long) key << 32 | (int) terms[mid], term)
+                        : compareSuffixes(keys[(int) (terms[mid] >>> 32)], (int) terms[mid],
+                                newKeys[(int) (term >>> 32)], (int) term);
+                if (cmp <= 0) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        Entry get(String key) {
+            int i = Arrays.binarySearch(keys, key);
+            return i >= 0 ? new Entry(texts[i], weights[i]) : null;
+        }
+
+        /**
+         * The {@code limit} heaviest texts with a term starting with {@code prefix}, heaviest
+         * first, leaving out those in {@code skipped}.
+         */
+        List<Completion> top(String prefix, int limit, Set<String> skipped) {
+            int from = lowerBound(prefix, false);
+            int to = lowerBound(prefix, true);
+            PriorityQueue<int[]> ranges = new PriorityQueue<>((a, b) -> a[2] == b[2] ? 0
+                    : heavier(a[2], b[2]) == a[2] ? -1 : 1);
+            push(ranges, from, to);
+
+            List<Completion> top = new ArrayList<>();
+            Set<Integer> seen = new HashSet<>();
+            while (top.size() < limit && !ranges.isEmpty()) {
+                int[] range = ranges.poll();
+                int term = range[2];
+                int key = keyOf(term);
+                // A text has a term per word, so it can come up more than once
+                if (seen.add(key) && !skipped.contains(keys[key])) {
+                    top.add(new Completion(texts[key], weights[key]));
+                }
+                push(ranges, range[0], term);
+                push(ranges, term + 1, range[1]);
+            }
+            return top;
+        }
+
+        long bytes() {
+            long bytes = 8L * keys.length * 2 + 4L * weights.length + 8L * terms.length + 4L * tree.length;
+            for (int i = 0; i < keys.length; i++) {
+                bytes += 80 + keys[i].length() + texts[i].length();
+            }
+            return bytes;
+        }
+
+        private int keyOf(int term) {
+            return (int) (terms[term] >>> 32);
+        }
+
+        private void push(PriorityQueue<int[]> ranges, int from, int to) {
+            if (from < to) {
+                ranges.add(new int[]{from, to, heaviest(from, to)});
+            }
+        }
+
+        private int heaviest(int from, int to) {
+            int best = -1;
+            for (int lo = from + leaves, hi = to + leaves; lo < hi; lo >>= 1, hi >>= 1) {
+                if ((lo & 1) == 1) {
+                    best = heavier(best, tree[lo++]);
+                }
+                if ((hi & 1) == 1) {
+                    best = heavier(best, tree[--hi]);
+                }
+            }
+            return best;
+        }
+
+        /**
+         * The term with the greater weight; on a tie the one whose text sorts first, as in
+         * {@link #BY_WEIGHT}, so the base and the overlay agree on which texts make the cut.
+         * -1 stands for none.
+         */
+        private int heavier(int a, int b) {
+            if (a < 0) {
+                return b;
+            }
+            if (b < 0) {
+                return a;
+            }
+            int weightA = weights[keyOf(a)];
+            int weightB = weights[keyOf(b)];
+            if (weightA != weightB) {
+                return weightA > weightB ? a : b;
+            }
+            int cmp = texts[keyOf(a)].compareTo(texts[keyOf(b)]);
+            return cmp < 0 || cmp == 0 && a < b ? a : b;
+        }
+
+        /**
+         * First term that does not sort before {@code prefix}, or with {@code past} set, first
+         * term that neither starts with it nor sorts before it.
+         */
+        private int lowerBound(String prefix, boolean past) {
+            int lo = 0;
+            int hi = terms.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                int cmp = comparePrefix(mid, prefix);
+                if (cmp < 0 || past && cmp == 0) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        /**
+         * Compares the first {@code prefix.length()} chars of {@code term} with {@code prefix}.
+         */
+        private int comparePrefix(int term, String prefix) {
+            String key = keys[keyOf(term)];
+            int offset = (int) terms[term];
+            int length = Math.min(key.length() - offset, prefix.length());
+            for (int i = 0; i < length; i++) {
+                int cmp = Character.compare(key.charAt(offset + i), prefix.charAt(i));
+                if (cmp != 0) {
+                    return cmp;
+                }
+            }
+            return length == prefix.length() ? 0 : -1;
+        }
+
+        /**
+         * Sorted terms of the texts {@code indexes[0..count)} of {@code keys}.
+         */
+        private static long[] termsOf(String[] keys, int[] indexes, int count) {
+            long[] terms = new long[16];
+            int size = 0;
+            for (int n = 0; n < count; n++) {
+                int key = indexes[n];
+                for (int offset : wordStarts(keys[key])) {
+                    if (size == terms.length) {
+                        terms = Arrays.copyOf(terms, size * 2);
+                    }
+                    terms[size++] = (long) key << 32 | offset;
+                }
+            }
+            terms = Arrays.copyOf(terms, size);
+
+            // The first chars of each suffix, packed so that most comparisons are decided
+            // without reading the texts
+            long[] heads = new long[size];
+            for (int i = 0; i < size; i++) {
+                String key = keys[(int) (terms[i] >>> 32)];
+                int offset = (int) terms[i];
+                for (int c = 0; c < 4; c++) {
+                    heads[i] = heads[i] << 16 | (offset + c < key.length() ? key.charAt(offset + c) : 0);
+                }
+            }
+
+            // Bottom-up merge sort, as there is no primitive sort taking a comparator
+            long[] termBuffer = new long[size];
+            long[] headBuffer = new long[size];
+            for (int width = 1; width < size; width *= 2) {
+                for (int from = 0; from < size; from += 2 * width) {
+                    int middle = Math.min(from + width, size);
+                    int to = Math.min(from + 2 * width, size);
+                    for (int i = from, j = middle, k = from; k < to; k++) {
+                        boolean left = j == to;
+                        if (!left && i < middle) {
+                            int cmp = Long.compareUnsigned(heads[i], heads[j]);
+                            left = cmp < 0 || cmp == 0 && compareTerms(keys, terms[i], terms[j]) <= 0;
+                        }
+                        int next = left ? i++ : j++;
+                        termBuffer[k] = terms[next];
+                        headBuffer[k] = heads[next];
+                    }
+                }
+                long[] sortedTerms = termBuffer;
+                termBuffer = terms;
+                terms = sortedTerms;
+                long[] sortedHeads = headBuffer;
+                headBuffer = heads;
+                heads = sortedHeads;
+            }
+            return terms;
+        }
+
+        private static int compareTerms(String[] keys, long a, long b) {
+            int cmp = compareSuffixes(keys[(int) (a >>> 32)], (int) a, keys[(int) (b >>> 32)], (int) b);
+            return cmp != 0 ? cmp : Long.compare(a, b);
+        }
+
+        private static int compareSuffixes(String keyA, int offsetA, String keyB, int offsetB) {
+            int length = Math.min(keyA.length() - offsetA, keyB.length() - offsetB);
+            for (int i = 0; i < length; i++) {
+                int cmp = Character.compare(keyA.charAt(offsetA + i), keyB.charAt(offsetB + i));
+                if (cmp != 0) {
+                    return cmp;
+                }
+            }
+            return Integer.compare(keyA.length() - offsetA, keyB.length() - offsetB);
+        }
+    }
+}
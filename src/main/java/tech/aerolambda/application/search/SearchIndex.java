@@ -0,0 +1,316 @@
+package tech.aerolambda.application.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tech.aerolambda.application.search.TrigramIndex.Footprint;
+import tech.aerolambda.application.search.TrigramIndex.Match;
+import tech.aerolambda.domain.repository.AuthorRepository;
+import tech.aerolambda.domain.repository.BookRepository;
+import tech.aerolambda.domain.repository.StoreRepository;
+import tech.aerolambda.domain.repository.projection.IndexedBook;
+import tech.aerolambda.domain.repository.projection.IndexedText;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Trigram indexes over book titles and author and store names, so title and name searches are
+ * answered from memory and only the requested page is loaded from the database, and completion
+ * indexes over titles and author names for type-ahead. Titles are weighted by the number of books
+ * carrying them and authors by the number of books they wrote, plus one. Enabled with
+ * {@code app.search.index.enabled}; the indexes are built once the application is ready, and
+ * until then searches go to the database.
+ *
+ * <p>The services report every committed write here. Writes committed while the indexes are
+ * being built are replayed afterwards, which is safe because every update is idempotent.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SearchIndex {
+
+    private static final String ID = "id";
+
+    private final BookRepository bookRepository;
+    private final AuthorRepository authorRepository;
+    private final StoreRepository storeRepository;
+
+    private final TrigramIndex books = new TrigramIndex();
+    private final TrigramIndex authors = new TrigramIndex();
+    private final TrigramIndex stores = new TrigramIndex();
+    private final CompletionIndex titleCompletions = new CompletionIndex();
+    private final CompletionIndex authorCompletions = new CompletionIndex();
+
+    // What each book and author was last indexed as, to take it back out of the completion
+    // weights when it changes; guarded by lock like every update
+    private final Map<Long, IndexedBook> indexedBooks = new HashMap<>();
+    private final Map<Long, String> authorNames = new HashMap<>();
+
+    private final Object lock = new Object();
+    private List<Runnable> pending;
+    private volatile boolean ready;
+
+    @Value("${app.search.index.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.search.index.min-similarity:0.5}")
+    private double minSimilarity;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (lock) {
+            pending = new ArrayList<>();
+        }
+
+        long started = System.nanoTime();
+        try {
+            loadBooks(bookRepository.findAllTitles());
+            loadAuthors(authorRepository.findAllNames());
+            load(stores, storeRepository.findAllNames());
+        } catch (RuntimeException e) {
+            synchronized (lock) {
+                pending = null;
+            }
+            log.error("Could not build the search index, searches will use the database", e);
+            return;
+        }
+
+        synchronized (lock) {
+            pending.forEach(Runnable::run);
+            pending = null;
+            ready = true;
+        }
+        log.info("Search index built in {} ms: {}", (System.nanoTime() - started) / 1_000_000, footprint());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public List<Match> books(String title, boolean fuzzy) {
+        return search(books, title, fuzzy);
+    }
+
+    public List<Match> authors(String name, boolean fuzzy) {
+        return search(authors, name, fuzzy);
+    }
+
+    public List<Match> stores(String name, boolean fuzzy) {
+        return search(stores, name, fuzzy);
+    }
+
+    public List<CompletionIndex.Completion> completeTitles(String prefix, int limit) {
+        return titleCompletions.complete(prefix, limit);
+    }
+
+    public List<CompletionIndex.Completion> completeAuthors(String prefix, int limit) {
+        return authorCompletions.complete(prefix, limit);
+    }
+
+    public Map<String, Footprint> footprint() {
+        Map<String, Footprint> footprint = new LinkedHashMap<>();
+        footprint.put("books", books.footprint());
+        footprint.put("authors", authors.footprint());
+        footprint.put("stores", stores.footprint());
+        return footprint;
+    }
+
+    public Map<String, CompletionIndex.Footprint> completionFootprint() {
+        Map<String, CompletionIndex.Footprint> footprint = new LinkedHashMap<>();
+        footprint.put("titles", titleCompletions.footprint());
+        footprint.put("authors", authorCompletions.footprint());
+        return footprint;
+    }
+
+    public void bookSaved(Long id, String title, Long authorId) {
+        afterCommit(() -> {
+            IndexedBook book = new IndexedBook(id, title, authorId);
+            IndexedBook previous = indexedBooks.put(id, book);
+            if (book.equals(previous)) {
+                return;
+            }
+            if (previous != null) {
+                uncount(previous);
+            }
+            books.put(id, title);
+            titleCompletions.adjust(title, 1);
+            adjustAuthor(authorId, 1);
+        });
+    }
+
+    public void bookDeleted(Long id) {
+        afterCommit(() -> removeBook(id));
+    }
+
+    public void authorSaved(Long id, String name) {
+        afterCommit(() -> {
+            String previous = authorNames.put(id, name);
+            authors.put(id, name);
+            if (previous == null) {
+                authorCompletions.adjust(name, 1);
+            } else if (!previous.equals(name)) {
+                authorCompletions.rename(previous, name);
+            }
+        });
+    }
+
+    /**
+     * Deleting an author also deletes its books, {@code bookIds}.
+     */
+    public void authorDeleted(Long id, Collection<Long> bookIds) {
+        afterCommit(() -> {
+            bookIds.forEach(this::removeBook);
+            authors.remove(id);
+            String name = authorNames.remove(id);
+            if (name != null) {
+                authorCompletions.adjust(name, -1);
+            }
+        });
+    }
+
+    public void storeSaved(Long id, String name) {
+        afterCommit(() -> stores.put(id, name));
+    }
+
+    public void storeDeleted(Long id, Collection<Long> bookIds) {
+        afterCommit(() -> {
+            stores.remove(id);
+            bookIds.forEach(this::removeBook);
+        });
+    }
+
+    /**
+     * Whether {@link #page} can apply {@code sort}: only the indexed text and the id are known
+     * here, so other sort properties have to be served by the database.
+     */
+    public static boolean canSort(Sort sort, String textProperty) {
+        return sort.stream().allMatch(order -> order.getProperty().equals(textProperty)
+                || order.getProperty().equals(ID));
+    }
+
+    /**
+     * Ids of the matches on the requested page. The indexed text is compared lower-cased; an
+     * unsorted request keeps the order of {@code matches}.
+     */
+    public static Slice<Long> page(List<Match> matches, Pageable pageable, String textProperty) {
+        Comparator<Match> comparator = null;
+        for (Sort.Order order : pageable.getSort()) {
+            Comparator<Match> next = order.getProperty().equals(textProperty)
+                    ? Comparator.comparing(Match::text)
+                    : Comparator.comparingLong(Match::id);
+            next = order.isDescending() ? next.reversed() : next;
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        List<Match> ordered = matches;
+        if (comparator != null) {
+            ordered = new ArrayList<>(matches);
+            ordered.sort(comparator.thenComparingLong(Match::id));
+        }
+
+        int from = (int) Math.min(pageable.getOffset(), ordered.size());
+        int to = Math.min(from + pageable.getPageSize(), ordered.size());
+        List<Long> ids = ordered.subList(from, to).stream().map(Match::id).toList();
+        return new SliceImpl<>(ids, pageable, to < ordered.size());
+    }
+
+    private List<Match> search(TrigramIndex index, String query, boolean fuzzy) {
+        return fuzzy ? index.similar(query, minSimilarity) : index.contains(query);
+    }
+
+    private void afterCommit(Runnable update) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(update);
+                }
+            });
+        } else {
+            apply(update);
+        }
+    }
+
+    private void apply(Runnable update) {
+        synchronized (lock) {
+            if (pending != null) {
+                pending.add(update);
+            } else if (ready) {
+                update.run();
+            }
+            // Before the build starts there is nothing to update; the build will read the write
+        }
+    }
+
+    private void removeBook(Long id) {
+        IndexedBook previous = indexedBooks.remove(id);
+        if (previous != null) {
+            books.remove(id);
+            uncount(previous);
+        }
+    }
+
+    private void uncount(IndexedBook book) {
+        titleCompletions.adjust(book.title(), -1);
+        adjustAuthor(book.authorId(), -1);
+    }
+
+    private void adjustAuthor(Long authorId, int delta) {
+        String name = authorId != null ? authorNames.get(authorId) : null;
+        if (name != null) {
+            authorCompletions.adjust(name, delta);
+        }
+    }
+
+    private void loadBooks(List<IndexedBook> entries) {
+        Map<String, Integer> titleWeights = new HashMap<>();
+        for (IndexedBook entry : entries) {
+            books.put(entry.id(), entry.title());
+            indexedBooks.put(entry.id(), entry);
+            titleWeights.merge(entry.title(), 1, Integer::sum);
+        }
+        titleCompletions.load(titleWeights);
+    }
+
+    private void loadAuthors(List<IndexedText> entries) {
+        Map<Long, Integer> bookCounts = new HashMap<>();
+        indexedBooks.values().forEach(book -> bookCounts.merge(book.authorId(), 1, Integer::sum));
+        Map<String, Integer> authorWeights = new HashMap<>();
+        for (IndexedText entry : entries) {
+            authors.put(entry.id(), entry.text());
+            authorNames.put(entry.id(), entry.text());
+            authorWeights.put(entry.text(), bookCounts.getOrDefault(entry.id(), 0) + 1);
+        }
+        authorCompletions.load(authorWeights);
+    }
+
+    private static void load(TrigramIndex index, List<IndexedText> entries) {
+        for (IndexedText entry : entries) {
+            index.put(entry.id(), entry.text());
+        }
+    }
+}
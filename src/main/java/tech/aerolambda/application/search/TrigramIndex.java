@@ -0,0 +1,426 @@
+package tech.aerolambda.application.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index from character trigrams to the documents containing them, for
+ * case-insensitive substring and typo-tolerant matching of short texts such as titles and names.
+ *
+ * <p>Each document gets a dense slot; postings are sorted {@code int[]} slot lists keyed by the
+ * trigram's three chars packed into a {@code long}, so neither keys nor postings are boxed.
+ * A substring query intersects the postings of its trigrams and confirms the candidates against
+ * the stored text; a fuzzy query ranks documents by the share of the query's trigrams they
+ * contain. Reads run concurrently, writes are exclusive.
+ */
+public final class TrigramIndex {
+
+    private static final int[] NO_SLOTS = new int[0];
+    private static final Comparator<Match> BY_SCORE = Comparator.comparingDouble(Match::score).reversed()
+            .thenComparingInt(match -> match.text().length())
+            .thenComparingLong(Match::id);
+    private static final Comparator<Match> BY_ID = Comparator.comparingLong(Match::id);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final LongIntMap slotsById = new LongIntMap();
+    private final LongIntMap postingsByTrigram = new LongIntMap();
+
+    private long[] ids = new long[64];
+    private String[] texts = new String[64];
+    private int slotCount;
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+
+    private int[][] postings = new int[256][];
+    private int[] postingSizes = new int[256];
+    private int trigramCount;
+
+    private long textBytes;
+
+    /**
+     * Adds the document {@code id} with {@code text}, or replaces the text it was indexed with.
+     */
+    public void put(long id, String text) {
+        String normalized = normalize(text);
+        lock.writeLock().lock();
+        try {
+            int slot = slotsById.get(id);
+            if (slot >= 0) {
+                if (texts[slot].equals(normalized)) {
+                    return;
+                }
+                unindex(slot);
+            } else {
+                slot = allocateSlot();
+                ids[slot] = id;
+                slotsById.put(id, slot);
+            }
+            texts[slot] = normalized;
+            textBytes += stringBytes(normalized);
+            for (long trigram : trigrams(normalized)) {
+                addPosting(trigram, slot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            int slot = slotsById.remove(id);
+            if (slot < 0) {
+                return;
+            }
+            unindex(slot);
+            texts[slot] = null;
+            if (freeCount == freeSlots.length) {
+                freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+            }
+            freeSlots[freeCount++] = slot;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Documents whose text contains {@code query}, ignoring case, by id. Slots are reused, so
+     * their order would change as documents come and go.
+     */
+    public List<Match> contains(String query) {
+        String needle = normalize(query);
+        lock.readLock().lock();
+        try {
+            List<Match> matches = new ArrayList<>();
+            if (needle.length() < 3) {
+                // Too short to have a trigram; a scan over the stored texts is still cheap
+                for (int slot = 0; slot < slotCount; slot++) {
+                    if (texts[slot] != null && texts[slot].contains(needle)) {
+                        matches.add(new Match(ids[slot], texts[slot], 1));
+                    }
+                }
+            } else {
+                for (int slot : candidates(trigrams(needle))) {
+                    if (texts[slot].contains(needle)) {
+                        matches.add(new Match(ids[slot], texts[slot], 1));
+                    }
+                }
+            }
+            matches.sort(BY_ID);
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Documents containing at least {@code minSimilarity} of the trigrams of {@code query}, best
+     * first: by that share, then by shorter text. Queries shorter than a trigram fall back to
+     * {@link #contains}.
+     */
+    public List<Match> similar(String query, double minSimilarity) {
+        String needle = normalize(query);
+        if (needle.length() < 3) {
+            List<Match> matches = contains(needle);
+            matches.sort(BY_SCORE);
+            return matches;
+        }
+
+        long[] queryTrigrams = trigrams(needle);
+        int required = Math.max(1, (int) Math.ceil(minSimilarity * queryTrigrams.length));
+        lock.readLock().lock();
+        try {
+            int[] shared = new int[slotCount];
+            int[] touched = new int[64];
+            int touchedCount = 0;
+            for (long trigram : queryTrigrams) {
+                int posting = postingsByTrigram.get(trigram);
+                if (posting < 0) {
+                    continue;
+                }
+                int[] slots = postings[posting];
+                for (int i = 0, n = postingSizes[posting]; i < n; i++) {
+                    int slot = slots[i];
+                    if (shared[slot]++ == 0) {
+                        if (touchedCount == touched.length) {
+                            touched = Arrays.copyOf(touched, touchedCount * 2);
+                        }
+                        touched[touchedCount++] = slot;
+                    }
+                }
+            }
+
+            List<Match> matches = new ArrayList<>();
+            for (int i = 0; i < touchedCount; i++) {
+                int slot = touched[i];
+                if (shared[slot] >= required) {
+                    matches.add(new Match(ids[slot], texts[slot], (double) shared[slot] / queryTrigrams.length));
+                }
+            }
+            matches.sort(BY_SCORE);
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Footprint footprint() {
+        lock.readLock().lock();
+        try {
+            long postingEntries = 0;
+            long bytes = 16L * ids.length + 4L * freeSlots.length + 8L * postings.length + 4L * postingSizes.length
+                    + slotsById.bytes() + postingsByTrigram.bytes() + textBytes;
+            for (int i = 0; i < trigramCount; i++) {
+                postingEntries += postingSizes[i];
+                bytes += 16 + 4L * postings[i].length;
+            }
+            return new Footprint(slotsById.size(), trigramCount, postingEntries, bytes);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int[] candidates(long[] queryTrigrams) {
+        int[][] lists = new int[queryTrigrams.length][];
+        int[] sizes = new int[queryTrigrams.length];
+        int[] order = new int[queryTrigrams.length];
+        for (int i = 0; i < queryTrigrams.length; i++) {
+            int posting = postingsByTrigram.get(queryTrigrams[i]);
+            if (posting < 0 || postingSizes[posting] == 0) {
+                return NO_SLOTS;
+            }
+            lists[i] = postings[posting];
+            sizes[i] = postingSizes[posting];
+            order[i] = i;
+        }
+        // Intersect the rarest trigrams first so the working set shrinks fastest
+        for (int i = 1; i < order.length; i++) {
+            int next = order[i];
+            int j = i;
+            for (; j > 0 && sizes[order[j - 1]] > sizes[next]; j--) {
+                order[j] = order[j - 1];
+            }
+            order[j] = next;
+        }
+
+        int[] result = Arrays.copyOf(lists[order[0]], sizes[order[0]]);
+        int resultSize = result.length;
+        for (int k = 1; k < order.length && resultSize > 0; k++) {
+            int[] other = lists[order[k]];
+            int otherSize = sizes[order[k]];
+            int kept = 0;
+            for (int i = 0, j = 0; i < resultSize && j < otherSize; i++) {
+                // Gallop ahead, then binary search: postings of common trigrams are far longer
+                int key = result[i];
+                int bound = 1;
+                while (j + bound < otherSize && other[j + bound] < key) {
+                    bound <<= 1;
+                }
+                int found = Arrays.binarySearch(other, j + (bound >> 1), Math.min(j + bound + 1, otherSize), key);
+                if (found >= 0) {
+                    result[kept++] = key;
+                    j = found + 1;
+                } else {
+                    j = -found - 1;
+                }
+            }
+            resultSize = kept;
+        }
+        return Arrays.copyOf(result, resultSize);
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (slotCount == ids.length) {
+            ids = Arrays.copyOf(ids, slotCount * 2);
+            texts = Arrays.copyOf(texts, slotCount * 2);
+        }
+        return slotCount++;
+    }
+
+    private void unindex(int slot) {
+        String text = texts[slot];
+        for (long trigram : trigrams(text)) {
+            removePosting(postingsByTrigram.get(trigram), slot);
+        }
+        textBytes -= stringBytes(text);
+    }
+
+    private void addPosting(long trigram, int slot) {
+        int posting = postingsByTrigram.get(trigram);
+        if (posting < 0) {
+            posting = trigramCount++;
+            if (posting == postings.length) {
+                postings = Arrays.copyOf(postings, posting * 2);
+                postingSizes = Arrays.copyOf(postingSizes, posting * 2);
+            }
+            postings[posting] = new int[4];
+            postingsByTrigram.put(trigram, posting);
+        }
+
+        int[] slots = postings[posting];
+        int size = postingSizes[posting];
+        int at = -Arrays.binarySearch(slots, 0, size, slot) - 1;
+        if (size == slots.length) {
+            slots = Arrays.copyOf(slots, size + (size >> 1) + 1);
+            postings[posting] = slots;
+        }
+        System.arraycopy(slots, at, slots, at + 1, size - at);
+        slots[at] = slot;
+        postingSizes[posting] = size + 1;
+    }
+
+    private void removePosting(int posting, int slot) {
+        int[] slots = postings[posting];
+        int size = postingSizes[posting];
+        int at = Arrays.binarySearch(slots, 0, size, slot);
+        System.arraycopy(slots, at + 1, slots, at, size - at - 1);
+        postingSizes[posting] = size - 1;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Distinct trigrams of {@code text}, sorted.
+     */
+    private static long[] trigrams(String text) {
+        int count = Math.max(0, text.length() - 2);
+        long[] trigrams = new long[count];
+        for (int i = 0; i < count; i++) {
+            trigrams[i] = (long) text.charAt(i) << 32 | (long) text.charAt(i + 1) << 16 | text.charAt(i + 2);
+        }
+        Arrays.sort(trigrams);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (i == 0 || trigrams[i] != trigrams[i - 1]) {
+                trigrams[distinct++] = trigrams[i];
+            }
+        }
+        return distinct == count ? trigrams : Arrays.copyOf(trigrams, distinct);
+    }
+
+    private static long stringBytes(String text) {
+        // Object header, fields and the backing array of a compact (Latin-1) or UTF-16 string
+        boolean latin1 = text.chars().allMatch(c -> c <= 0xFF);
+        return 40 + (long) text.length() * (latin1 ? 1 : 2);
+    }
+
+    /**
+     * A matching document: its id, the lower-cased text it was indexed with, and for fuzzy
+     * queries the share of the query's trigrams it contains.
+     */
+    public record Match(long id, String text, double score) {}
+
+    /**
+     * Approximate heap used by the index, in bytes, with the counts that drive it.
+     */
+    public record Footprint(int documents, int trigrams, long postings, long bytes) {}
+
+    /**
+     * Open-addressing {@code long} to non-negative {@code int} map with linear probing;
+     * {@link #get} and {@link #remove} return -1 for absent keys.
+     */
+    private static final class LongIntMap {
+
+        private static final long EMPTY = Long.MIN_VALUE;
+
+        private long[] keys = filledKeys(64);
+        private int[] values = new int[64];
+        private int size;
+
+        int get(long key) {
+            int mask = keys.length - 1;
+            for (int i = index(key, mask); ; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return values[i];
+                }
+                if (keys[i] == EMPTY) {
+                    return -1;
+                }
+            }
+        }
+
+        void put(long key, int value) {
+            if (size * 2 >= keys.length) {
+                resize();
+            }
+            int mask = keys.length - 1;
+            int i = index(key, mask);
+            while (keys[i] != EMPTY && keys[i] != key) {
+                i = (i + 1) & mask;
+            }
+            if (keys[i] == EMPTY) {
+                size++;
+            }
+            keys[i] = key;
+            values[i] = value;
+        }
+
+        int remove(long key) {
+            int mask = keys.length - 1;
+            int i = index(key, mask);
+            while (keys[i] != key) {
+                if (keys[i] == EMPTY) {
+                    return -1;
+                }
+                i = (i + 1) & mask;
+            }
+            int removed = values[i];
+            // Shift later entries of the probe run back so lookups never stop at the hole
+            int hole = i;
+            for (int j = (i + 1) & mask; keys[j] != EMPTY; j = (j + 1) & mask) {
+                int home = index(keys[j], mask);
+                if (((j - home) & mask) >= ((j - hole) & mask)) {
+                    keys[hole] = keys[j];
+                    values[hole] = values[j];
+                    hole = j;
+                }
+            }
+            keys[hole] = EMPTY;
+            size--;
+            return removed;
+        }
+
+        int size() {
+            return size;
+        }
+
+        long bytes() {
+            return 12L * keys.length;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = filledKeys(oldKeys.length * 2);
+            values = new int[oldKeys.length * 2];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private static int index(long key, int mask) {
+            long hash = key * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32)) & mask;
+        }
+
+        private static long[] filledKeys(int capacity) {
+            long[] keys = new long[capacity];
+            Arrays.fill(keys, EMPTY);
+            return keys;
+        }
+    }
+}
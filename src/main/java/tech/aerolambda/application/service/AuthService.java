@@ -8,7 +8,7 @@ public interface AuthService {
 
     AuthResponse register(RegisterRequest request);
 
-    AuthResponse login(LoginRequest request);
+    AuthResponse login(LoginRequest request, String clientAddress);
 
     AuthResponse refresh(String token);
 
@@ -1,6 +1,7 @@
 package tech.aerolambda.application.service;
 
 import org.springframework.data.domain.Pageable;
+import tech.aerolambda.application.dto.CursorPageResponse;
 import tech.aerolambda.application.dto.PageResponse;
 import tech.aerolambda.application.dto.author.AuthorRequest;
 import tech.aerolambda.application.dto.author.AuthorResponse;
@@ -15,11 +16,15 @@ public interface AuthorService {
 
     List<AuthorResponse> findAll();
 
-    PageResponse<AuthorResponse> findAll(Pageable pageable);
+    PageResponse<AuthorResponse> findAll(Pageable pageable, boolean includeTotal);
+
+    CursorPageResponse<AuthorResponse> scroll(String cursor, int size, String sortBy, String sortDir);
 
     List<AuthorResponse> searchByName(String name);
 
-    PageResponse<AuthorResponse> searchByName(String name, Pageable pageable);
+    PageResponse<AuthorResponse> searchByName(String name, Pageable pageable, boolean includeTotal);
+
+    PageResponse<AuthorResponse> fuzzySearchByName(String name, Pageable pageable, boolean includeTotal);
 
     AuthorResponse update(Long id, AuthorRequest request);
 
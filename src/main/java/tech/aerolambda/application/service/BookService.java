@@ -1,10 +1,12 @@
 package tech.aerolambda.application.service;
 
 import org.springframework.data.domain.Pageable;
+import tech.aerolambda.application.dto.CursorPageResponse;
 import tech.aerolambda.application.dto.PageResponse;
+import tech.aerolambda.application.dto.book.AutocompleteResponse;
 import tech.aerolambda.application.dto.book.BookRequest;
 import tech.aerolambda.application.dto.book.BookResponse;
-import tech.aerolambda.domain.entity.Book;
+import tech.aerolambda.application.dto.book.BookSearchCriteria;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -17,27 +19,36 @@ public interface BookService {
 
     List<BookResponse> findAll();
 
-    PageResponse<BookResponse> findAll(Pageable pageable);
+    PageResponse<BookResponse> findAll(Pageable pageable, boolean includeTotal);
+
+    CursorPageResponse<BookResponse> scroll(String cursor, int size, String sortBy, String sortDir);
 
     List<BookResponse> searchByTitle(String title);
 
-    PageResponse<BookResponse> searchByTitle(String title, Pageable pageable);
+    PageResponse<BookResponse> searchByTitle(String title, Pageable pageable, boolean includeTotal);
+
+    PageResponse<BookResponse> fuzzySearchByTitle(String title, Pageable pageable, boolean includeTotal);
+
+    AutocompleteResponse autocomplete(String prefix, int limit);
+
+    PageResponse<BookResponse> search(BookSearchCriteria criteria, Pageable pageable, boolean includeTotal);
+
+    PageResponse<BookResponse> searchFullText(String query, Pageable pageable, boolean includeTotal);
 
     List<BookResponse> findByAuthorId(Long authorId);
 
-    PageResponse<BookResponse> findByAuthorId(Long authorId, Pageable pageable);
+    PageResponse<BookResponse> findByAuthorId(Long authorId, Pageable pageable, boolean includeTotal);
 
     List<BookResponse> findByStoreId(Long storeId);
 
-    PageResponse<BookResponse> findByStoreId(Long storeId, Pageable pageable);
+    PageResponse<BookResponse> findByStoreId(Long storeId, Pageable pageable, boolean includeTotal);
 
     List<BookResponse> findByPriceRange(BigDecimal minPrice, BigDecimal maxPrice);
 
-    PageResponse<BookResponse> findByPriceRange(BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable);
+    PageResponse<BookResponse> findByPriceRange(BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable,
+                                                boolean includeTotal);
 
     BookResponse update(Long id, BookRequest request);
 
     void delete(Long id);
-
-    List<Book> findAllEntities();
 }
@@ -0,0 +1,22 @@
+package tech.aerolambda.application.service;
+
+import tech.aerolambda.application.dto.report.ReportJobDownload;
+import tech.aerolambda.application.dto.report.ReportJobResponse;
+import tech.aerolambda.domain.enums.ReportFormat;
+import tech.aerolambda.domain.enums.ReportType;
+import tech.aerolambda.presentation.dto.report.ReportRequest;
+
+import java.util.List;
+
+public interface ReportJobService {
+
+    ReportJobResponse submit(ReportType type, ReportFormat format, ReportRequest request, String owner);
+
+    ReportJobResponse findById(String jobId, String owner);
+
+    List<ReportJobResponse> findAll(String owner);
+
+    ReportJobDownload download(String jobId, String owner);
+
+    void delete(String jobId, String owner);
+}
@@ -3,16 +3,42 @@ package tech.aerolambda.application.service;
 import tech.aerolambda.domain.enums.ReportFormat;
 import tech.aerolambda.domain.enums.ReportType;
 import tech.aerolambda.presentation.dto.report.ReportRequest;
+import tech.aerolambda.report.cache.ReportCacheKey;
+
+import java.io.IOException;
+import java.io.OutputStream;
 
 public interface ReportService {
 
     byte[] generateBooksReport(ReportFormat format, Integer limit);
 
+    void writeBooksReport(ReportFormat format, Integer limit, OutputStream outputStream) throws IOException;
+
     byte[] generateReport(ReportType type, ReportFormat format, ReportRequest request);
 
+    void writeReport(ReportType type, ReportFormat format, ReportRequest request, OutputStream outputStream) throws IOException;
+
+    /**
+     * Writes the report {@code key} identifies, fetched with {@link #getReportKey} so it matches
+     * the ETag already sent for it.
+     */
+    void writeReport(ReportCacheKey key, ReportRequest request, OutputStream outputStream) throws IOException;
+
+    void validateReportRequest(ReportType type, ReportRequest request);
+
+    /**
+     * Identifies the report at the current data version; use the same key for its ETag and for
+     * writing it, so both refer to one version.
+     */
+    ReportCacheKey getReportKey(ReportType type, ReportFormat format, ReportRequest request);
+
+    String getReportETag(ReportCacheKey key);
+
     String getContentType(ReportFormat format);
 
     String getFileExtension(ReportFormat format);
 
+    boolean isCompressible(ReportFormat format);
+
     ReportType[] getAvailableReportTypes(boolean isAdmin);
 }
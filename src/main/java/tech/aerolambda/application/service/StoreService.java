@@ -1,6 +1,7 @@
 package tech.aerolambda.application.service;
 
 import org.springframework.data.domain.Pageable;
+import tech.aerolambda.application.dto.CursorPageResponse;
 import tech.aerolambda.application.dto.PageResponse;
 import tech.aerolambda.application.dto.store.StoreRequest;
 import tech.aerolambda.application.dto.store.StoreResponse;
@@ -15,11 +16,15 @@ public interface StoreService {
 
     List<StoreResponse> findAll();
 
-    PageResponse<StoreResponse> findAll(Pageable pageable);
+    PageResponse<StoreResponse> findAll(Pageable pageable, boolean includeTotal);
+
+    CursorPageResponse<StoreResponse> scroll(String cursor, int size, String sortBy, String sortDir);
 
     List<StoreResponse> searchByName(String name);
 
-    PageResponse<StoreResponse> searchByName(String name, Pageable pageable);
+    PageResponse<StoreResponse> searchByName(String name, Pageable pageable, boolean includeTotal);
+
+    PageResponse<StoreResponse> fuzzySearchByName(String name, Pageable pageable, boolean includeTotal);
 
     StoreResponse update(Long id, StoreRequest request);
 
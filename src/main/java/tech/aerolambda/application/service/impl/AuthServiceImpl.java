@@ -1,12 +1,14 @@
 package tech.aerolambda.application.service.impl;
 
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import tech.aerolambda.application.dto.auth.AuthResponse;
 import tech.aerolambda.application.dto.auth.LoginRequest;
 import tech.aerolambda.application.dto.auth.RegisterRequest;
@@ -14,11 +16,14 @@ import tech.aerolambda.application.dto.user.UserResponse;
 import tech.aerolambda.application.mapper.UserMapper;
 import tech.aerolambda.application.service.AuthService;
 import tech.aerolambda.domain.entity.User;
-import tech.aerolambda.domain.enums.UserRole;
 import tech.aerolambda.domain.repository.UserRepository;
 import tech.aerolambda.infrastructure.exception.DuplicateResourceException;
 import tech.aerolambda.infrastructure.exception.InvalidCredentialsException;
 import tech.aerolambda.infrastructure.security.JwtService;
+import tech.aerolambda.infrastructure.security.LoginThrottle;
+import tech.aerolambda.infrastructure.security.TokenRevocations;
+import tech.aerolambda.infrastructure.security.UserDetailsCache;
+import tech.aerolambda.infrastructure.security.VerifiedToken;
 
 @Service
 @RequiredArgsConstructor
@@ -29,23 +34,19 @@ public class AuthServiceImpl implements AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
+    private final UserWriter userWriter;
+    private final UserDetailsCache userDetailsCache;
+    private final TokenRevocations tokenRevocations;
+    private final LoginThrottle loginThrottle;
 
     @Override
-    @Transactional
     public AuthResponse register(RegisterRequest request) {
+        // Checked again when the user is saved; this only spares hashing for a taken email
         if (userRepository.existsByEmail(request.email())) {
             throw new DuplicateResourceException("User", "email", request.email());
         }
 
-        User user = User.builder()
-                .name(request.name())
-                .email(request.email())
-                .password(passwordEncoder.encode(request.password()))
-                .role(UserRole.USER)
-                .enabled(true)
-                .build();
-
-        User savedUser = userRepository.save(user);
+        User savedUser = userWriter.register(request, passwordEncoder.encode(request.password()));
         String token = jwtService.generateToken(savedUser);
         UserResponse userResponse = userMapper.toResponse(savedUser);
 
@@ -53,16 +54,20 @@ public class AuthServiceImpl implements AuthService {
     }
 
     @Override
-    public AuthResponse login(LoginRequest request) {
+    public AuthResponse login(LoginRequest request, String clientAddress) {
+        loginThrottle.attempt(request.email(), clientAddress);
         try {
             authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(request.email(), request.password())
             );
         } catch (BadCredentialsException e) {
             throw new InvalidCredentialsException();
+        } catch (DisabledException e) {
+            throw new InvalidCredentialsException("Account is disabled");
         }
+        loginThrottle.succeeded(request.email());
 
-        User user = userRepository.findByEmail(request.email())
+        User user = userDetailsCache.find(request.email())
                 .orElseThrow(InvalidCredentialsException::new);
 
         String token = jwtService.generateToken(user);
@@ -73,8 +78,12 @@ public class AuthServiceImpl implements AuthService {
 
     @Override
     public AuthResponse refresh(String token) {
-        String username = jwtService.extractUsername(token);
-        User user = userRepository.findByEmail(username)
+        VerifiedToken verified = jwtService.verify(token);
+        if (tokenRevocations.isRevoked(verified)) {
+            throw new InvalidCredentialsException("Token has been revoked");
+        }
+        String username = verified.subject();
+        User user = userDetailsCache.find(username)
                 .orElseThrow(InvalidCredentialsException::new);
 
         String newToken = jwtService.generateToken(user);
@@ -85,7 +94,15 @@ public class AuthServiceImpl implements AuthService {
 
     @Override
     public void logout(String token) {
-        // JWT is stateless - client should discard the token
-        // Optionally implement token blacklisting here
+        VerifiedToken verified;
+        try {
+            verified = jwtService.verify(token);
+        } catch (ExpiredJwtException e) {
+            // Already unusable
+            return;
+        } catch (JwtException e) {
+            throw new InvalidCredentialsException("Invalid token");
+        }
+        tokenRevocations.revoke(verified);
     }
 }
@@ -1,29 +1,53 @@
 package tech.aerolambda.application.service.impl;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import tech.aerolambda.application.dto.CursorPageResponse;
 import tech.aerolambda.application.dto.PageResponse;
 import tech.aerolambda.application.dto.author.AuthorRequest;
 import tech.aerolambda.application.dto.author.AuthorResponse;
 import tech.aerolambda.application.mapper.AuthorMapper;
+import tech.aerolambda.application.search.SearchIndex;
+import tech.aerolambda.application.search.TrigramIndex.Match;
 import tech.aerolambda.application.service.AuthorService;
+import tech.aerolambda.application.service.impl.KeysetPaginator.SortKey;
 import tech.aerolambda.domain.entity.Author;
+import tech.aerolambda.domain.repository.BookRepository;
 import tech.aerolambda.domain.repository.AuthorRepository;
 import tech.aerolambda.infrastructure.exception.DuplicateResourceException;
 import tech.aerolambda.infrastructure.exception.ResourceNotFoundException;
+import tech.aerolambda.report.cache.ReportCache;
 
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class AuthorServiceImpl implements AuthorService {
 
+    private static final KeysetPaginator<Author> KEYSET = new KeysetPaginator<>(Map.of(
+            "name", SortKey.ofString(Author::getName),
+            "createdAt", SortKey.ofTimestamp(Author::getCreatedAt),
+            "id", SortKey.ofLong(Author::getId)
+    ));
+
     private final AuthorRepository authorRepository;
+    private final BookRepository bookRepository;
     private final AuthorMapper authorMapper;
+    private final ReportCache reportCache;
+    private final CountCache countCache;
+    private final SearchIndex searchIndex;
 
     @Override
     @Transactional
@@ -33,38 +57,63 @@ public class AuthorServiceImpl implements AuthorService {
         }
         Author author = authorMapper.toEntity(request);
         Author savedAuthor = authorRepository.save(author);
-        return authorMapper.toResponse(savedAuthor);
+        reportCache.invalidate();
+        searchIndex.authorSaved(savedAuthor.getId(), savedAuthor.getName());
+        return authorMapper.toResponse(savedAuthor, 0);
     }
 
     @Override
     public AuthorResponse findById(Long id) {
         Author author = authorRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Author", id));
-        return authorMapper.toResponse(author);
+        return authorMapper.toResponse(author, countBooks(author));
     }
 
     @Override
     public List<AuthorResponse> findAll() {
-        return authorMapper.toResponseList(authorRepository.findAll());
+        return toResponseList(authorRepository.findAll());
     }
 
     @Override
-    public PageResponse<AuthorResponse> findAll(Pageable pageable) {
-        Page<Author> page = authorRepository.findAll(pageable);
-        List<AuthorResponse> content = authorMapper.toResponseList(page.getContent());
-        return PageResponse.from(page, content);
+    public PageResponse<AuthorResponse> findAll(Pageable pageable, boolean includeTotal) {
+        Slice<Author> slice = authorRepository.findSlice(pageable);
+        return toPageResponse(slice, includeTotal, authorRepository::count, "authors");
+    }
+
+    @Override
+    public CursorPageResponse<AuthorResponse> scroll(String cursor, int size, String sortBy, String sortDir) {
+        return KEYSET.page(cursor, size, sortBy, sortDir, authorRepository::findPage, this::toResponseList);
     }
 
     @Override
     public List<AuthorResponse> searchByName(String name) {
-        return authorMapper.toResponseList(authorRepository.findByNameContainingIgnoreCase(name));
+        if (searchIndex.isReady()) {
+            List<Long> ids = searchIndex.authors(name, false).stream()
+                    .sorted(Comparator.comparing(Match::text))
+                    .map(Match::id)
+                    .toList();
+            return toResponseList(findInOrder(ids));
+        }
+        return toResponseList(authorRepository.findByNameContainingIgnoreCase(name));
     }
 
     @Override
-    public PageResponse<AuthorResponse> searchByName(String name, Pageable pageable) {
-        Page<Author> page = authorRepository.findByNameContainingIgnoreCase(name, pageable);
-        List<AuthorResponse> content = authorMapper.toResponseList(page.getContent());
-        return PageResponse.from(page, content);
+    public PageResponse<AuthorResponse> searchByName(String name, Pageable pageable, boolean includeTotal) {
+        if (searchIndex.isReady() && SearchIndex.canSort(pageable.getSort(), "name")) {
+            return fromIndex(searchIndex.authors(name, false), pageable, includeTotal);
+        }
+        Slice<Author> slice = authorRepository.findByNameContainingIgnoreCase(name, pageable);
+        return toPageResponse(slice, includeTotal, () -> authorRepository.countByNameContainingIgnoreCase(name),
+                "authors", "name", name);
+    }
+
+    @Override
+    public PageResponse<AuthorResponse> fuzzySearchByName(String name, Pageable pageable, boolean includeTotal) {
+        if (!searchIndex.isReady()) {
+            Pageable byName = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by("name"));
+            return searchByName(name, byName, includeTotal);
+        }
+        return fromIndex(searchIndex.authors(name, true), pageable, includeTotal);
     }
 
     @Override
@@ -80,7 +129,9 @@ public class AuthorServiceImpl implements AuthorService {
 
         authorMapper.updateEntity(request, author);
         Author updatedAuthor = authorRepository.save(author);
-        return authorMapper.toResponse(updatedAuthor);
+        reportCache.invalidate();
+        searchIndex.authorSaved(updatedAuthor.getId(), updatedAuthor.getName());
+        return authorMapper.toResponse(updatedAuthor, countBooks(updatedAuthor));
     }
 
     @Override
@@ -89,6 +140,37 @@ public class AuthorServiceImpl implements AuthorService {
         if (!authorRepository.existsById(id)) {
             throw new ResourceNotFoundException("Author", id);
         }
+        // The books go with it, so note their ids for the search index while they still exist
+        List<Long> bookIds = searchIndex.isEnabled() ? bookRepository.findIdsByAuthorId(id) : List.of();
         authorRepository.deleteById(id);
+        reportCache.invalidate();
+        searchIndex.authorDeleted(id, bookIds);
+    }
+
+    private PageResponse<AuthorResponse> toPageResponse(Slice<Author> slice, boolean includeTotal, LongSupplier counter,
+                                                        Object... filter) {
+        Long total = includeTotal ? countCache.total(slice, counter, filter) : null;
+        return PageResponse.from(slice, toResponseList(slice.getContent()), total);
+    }
+
+    private PageResponse<AuthorResponse> fromIndex(List<Match> matches, Pageable pageable, boolean includeTotal) {
+        Slice<Long> ids = SearchIndex.page(matches, pageable, "name");
+        Long total = includeTotal ? (long) matches.size() : null;
+        return PageResponse.from(ids, toResponseList(findInOrder(ids.getContent())), total);
+    }
+
+    private List<Author> findInOrder(List<Long> ids) {
+        Map<Long, Author> authors = authorRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Author::getId, Function.identity()));
+        return ids.stream().map(authors::get).filter(Objects::nonNull).toList();
+    }
+
+    private int countBooks(Author author) {
+        return (int) bookRepository.countByAuthorId(author.getId());
+    }
+
+    private List<AuthorResponse> toResponseList(List<Author> authors) {
+        List<Long> ids = authors.stream().map(Author::getId).toList();
+        return authorMapper.toResponseList(authors, bookRepository.countByAuthorIds(ids));
     }
 }
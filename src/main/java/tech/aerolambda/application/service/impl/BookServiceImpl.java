@@ -1,36 +1,79 @@
 package tech.aerolambda.application.service.impl;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import tech.aerolambda.application.dto.CursorPageResponse;
 import tech.aerolambda.application.dto.PageResponse;
+import tech.aerolambda.application.dto.book.AutocompleteResponse;
+import tech.aerolambda.application.dto.book.AutocompleteResponse.Suggestion;
 import tech.aerolambda.application.dto.book.BookRequest;
 import tech.aerolambda.application.dto.book.BookResponse;
+import tech.aerolambda.application.dto.book.BookSearchCriteria;
 import tech.aerolambda.application.mapper.BookMapper;
+import tech.aerolambda.application.search.CompletionIndex.Completion;
+import tech.aerolambda.application.search.SearchIndex;
+import tech.aerolambda.application.search.TrigramIndex.Match;
 import tech.aerolambda.application.service.BookService;
+import tech.aerolambda.application.service.impl.KeysetPaginator.SortKey;
 import tech.aerolambda.domain.entity.Author;
 import tech.aerolambda.domain.entity.Book;
 import tech.aerolambda.domain.entity.Store;
 import tech.aerolambda.domain.repository.AuthorRepository;
 import tech.aerolambda.domain.repository.BookRepository;
 import tech.aerolambda.domain.repository.StoreRepository;
+import tech.aerolambda.domain.specification.BookSpecifications;
+import tech.aerolambda.domain.specification.EntitySpecifications;
+import tech.aerolambda.infrastructure.config.FullTextSearchSchema;
 import tech.aerolambda.infrastructure.exception.DuplicateResourceException;
 import tech.aerolambda.infrastructure.exception.ResourceNotFoundException;
+import tech.aerolambda.report.cache.ReportCache;
 
 import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class BookServiceImpl implements BookService {
 
+    // Only non-null columns backed by an index can be used as keyset sort keys
+    private static final KeysetPaginator<Book> KEYSET = new KeysetPaginator<>(Map.of(
+            "title", SortKey.ofString(Book::getTitle),
+            "isbn", SortKey.ofString(Book::getIsbn),
+            "createdAt", SortKey.ofTimestamp(Book::getCreatedAt),
+            "id", SortKey.ofLong(Book::getId)
+    ));
+
+    private static final int MAX_COMPLETIONS = 50;
+
+    // Each is the leading column of an index on books, so the sort can be read from the index
+    private static final Set<String> SEARCH_SORTS = Set.of("title", "price", "publicationYear", "createdAt", "id");
+
     private final BookRepository bookRepository;
     private final AuthorRepository authorRepository;
     private final StoreRepository storeRepository;
     private final BookMapper bookMapper;
+    private final ReportCache reportCache;
+    private final CountCache countCache;
+    private final FullTextSearchSchema fullTextSearchSchema;
+    private final SearchIndex searchIndex;
 
     @Override
     @Transactional
@@ -42,6 +85,8 @@ public class BookServiceImpl implements BookService {
         Book book = bookMapper.toEntity(request);
         setRelations(book, request);
         Book savedBook = bookRepository.save(book);
+        reportCache.invalidate();
+        searchIndex.bookSaved(savedBook.getId(), savedBook.getTitle(), authorId(savedBook));
         return bookMapper.toResponse(savedBook);
     }
 
@@ -58,22 +103,105 @@ public class BookServiceImpl implements BookService {
     }
 
     @Override
-    public PageResponse<BookResponse> findAll(Pageable pageable) {
-        Page<Book> page = bookRepository.findAll(pageable);
-        List<BookResponse> content = bookMapper.toResponseList(page.getContent());
-        return PageResponse.from(page, content);
+    public PageResponse<BookResponse> findAll(Pageable pageable, boolean includeTotal) {
+        Slice<Book> slice = bookRepository.findSlice(pageable);
+        return toPageResponse(slice, includeTotal, bookRepository::count, "books");
+    }
+
+    @Override
+    public CursorPageResponse<BookResponse> scroll(String cursor, int size, String sortBy, String sortDir) {
+        return KEYSET.page(cursor, size, sortBy, sortDir, bookRepository::findPage, bookMapper::toResponseList);
     }
 
     @Override
     public List<BookResponse> searchByTitle(String title) {
+        if (searchIndex.isReady()) {
+            List<Long> ids = searchIndex.books(title, false).stream()
+                    .sorted(Comparator.comparing(Match::text))
+                    .map(Match::id)
+                    .toList();
+            return bookMapper.toResponseList(findInOrder(ids));
+        }
         return bookMapper.toResponseList(bookRepository.findByTitleContainingIgnoreCase(title));
     }
 
     @Override
-    public PageResponse<BookResponse> searchByTitle(String title, Pageable pageable) {
-        Page<Book> page = bookRepository.findByTitleContainingIgnoreCase(title, pageable);
-        List<BookResponse> content = bookMapper.toResponseList(page.getContent());
-        return PageResponse.from(page, content);
+    public PageResponse<BookResponse> searchByTitle(String title, Pageable pageable, boolean includeTotal) {
+        if (searchIndex.isReady() && SearchIndex.canSort(pageable.getSort(), "title")) {
+            return fromIndex(searchIndex.books(title, false), pageable, includeTotal);
+        }
+        Slice<Book> slice = bookRepository.findByTitleContainingIgnoreCase(title, pageable);
+        return toPageResponse(slice, includeTotal, () -> bookRepository.countByTitleContainingIgnoreCase(title),
+                "books", "title", title);
+    }
+
+    @Override
+    public PageResponse<BookResponse> fuzzySearchByTitle(String title, Pageable pageable, boolean includeTotal) {
+        if (!searchIndex.isReady()) {
+            Pageable byTitle = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by("title"));
+            return searchByTitle(title, byTitle, includeTotal);
+        }
+        return fromIndex(searchIndex.books(title, true), pageable, includeTotal);
+    }
+
+    @Override
+    public AutocompleteResponse autocomplete(String prefix, int limit) {
+        if (limit < 1 || limit > MAX_COMPLETIONS) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_COMPLETIONS);
+        }
+        if (searchIndex.isReady()) {
+            return new AutocompleteResponse(toSuggestions(searchIndex.completeTitles(prefix, limit)),
+                    toSuggestions(searchIndex.completeAuthors(prefix, limit)));
+        }
+
+        String likePrefix = prefix.strip().toLowerCase(Locale.ROOT).replaceAll("[!%_]", "!$0");
+        if (likePrefix.isEmpty()) {
+            return new AutocompleteResponse(List.of(), List.of());
+        }
+        List<Suggestion> titles = bookRepository.countTitlesByWordPrefix(likePrefix, Limit.of(limit)).stream()
+                .map(title -> new Suggestion(title.text(), title.count()))
+                .toList();
+        List<Suggestion> authors = authorRepository.countBooksByNameWordPrefix(likePrefix, Limit.of(limit)).stream()
+                .map(author -> new Suggestion(author.text(), author.count()))
+                .toList();
+        return new AutocompleteResponse(titles, authors);
+    }
+
+    @Override
+    public PageResponse<BookResponse> search(BookSearchCriteria criteria, Pageable pageable, boolean includeTotal) {
+        for (Sort.Order order : pageable.getSort()) {
+            if (!SEARCH_SORTS.contains(order.getProperty())) {
+                throw new IllegalArgumentException("Cannot sort books by '" + order.getProperty() + "', use one of "
+                        + SEARCH_SORTS);
+            }
+        }
+        Specification<Book> specification = toSpecification(criteria);
+        // Rows with equal sort keys still need a fixed order for pages not to overlap; going the
+        // same direction lets the (key, id) indexes serve it
+        Sort sort = pageable.getSort();
+        if (sort.getOrderFor("id") == null) {
+            Sort.Direction direction = sort.stream().findFirst()
+                    .map(Sort.Order::getDirection)
+                    .orElse(Sort.Direction.ASC);
+            sort = sort.and(Sort.by(direction, "id"));
+        }
+        Slice<Book> slice = bookRepository.findSlice(specification,
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort));
+        return toPageResponse(slice, includeTotal, () -> bookRepository.count(specification),
+                "books", "search", criteria);
+    }
+
+    @Override
+    public PageResponse<BookResponse> searchFullText(String query, Pageable pageable, boolean includeTotal) {
+        if (!fullTextSearchSchema.isAvailable()) {
+            Pageable byTitle = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by("title"));
+            return searchByTitle(query, byTitle, includeTotal);
+        }
+
+        String tsQuery = toPrefixTsQuery(query);
+        Slice<Long> ids = bookRepository.searchIdsByText(tsQuery, pageable);
+        Slice<Book> slice = new SliceImpl<>(findInOrder(ids.getContent()), ids.getPageable(), ids.hasNext());
+        return toPageResponse(slice, includeTotal, () -> bookRepository.countByText(tsQuery), "books", "text", tsQuery);
     }
 
     @Override
@@ -85,13 +213,13 @@ public class BookServiceImpl implements BookService {
     }
 
     @Override
-    public PageResponse<BookResponse> findByAuthorId(Long authorId, Pageable pageable) {
+    public PageResponse<BookResponse> findByAuthorId(Long authorId, Pageable pageable, boolean includeTotal) {
         if (!authorRepository.existsById(authorId)) {
             throw new ResourceNotFoundException("Author", authorId);
         }
-        Page<Book> page = bookRepository.findByAuthorId(authorId, pageable);
-        List<BookResponse> content = bookMapper.toResponseList(page.getContent());
-        return PageResponse.from(page, content);
+        Slice<Book> slice = bookRepository.findByAuthorId(authorId, pageable);
+        return toPageResponse(slice, includeTotal, () -> bookRepository.countByAuthorId(authorId),
+                "books", "author", authorId);
     }
 
     @Override
@@ -103,13 +231,13 @@ public class BookServiceImpl implements BookService {
     }
 
     @Override
-    public PageResponse<BookResponse> findByStoreId(Long storeId, Pageable pageable) {
+    public PageResponse<BookResponse> findByStoreId(Long storeId, Pageable pageable, boolean includeTotal) {
         if (!storeRepository.existsById(storeId)) {
             throw new ResourceNotFoundException("Store", storeId);
         }
-        Page<Book> page = bookRepository.findByStoreId(storeId, pageable);
-        List<BookResponse> content = bookMapper.toResponseList(page.getContent());
-        return PageResponse.from(page, content);
+        Slice<Book> slice = bookRepository.findByStoreId(storeId, pageable);
+        return toPageResponse(slice, includeTotal, () -> bookRepository.countByStoreId(storeId),
+                "books", "store", storeId);
     }
 
     @Override
@@ -118,10 +246,11 @@ public class BookServiceImpl implements BookService {
     }
 
     @Override
-    public PageResponse<BookResponse> findByPriceRange(BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable) {
-        Page<Book> page = bookRepository.findByPriceBetween(minPrice, maxPrice, pageable);
-        List<BookResponse> content = bookMapper.toResponseList(page.getContent());
-        return PageResponse.from(page, content);
+    public PageResponse<BookResponse> findByPriceRange(BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable,
+                                                       boolean includeTotal) {
+        Slice<Book> slice = bookRepository.findByPriceBetween(minPrice, maxPrice, pageable);
+        return toPageResponse(slice, includeTotal, () -> bookRepository.countByPriceBetween(minPrice, maxPrice),
+                "books", "price", minPrice, maxPrice);
     }
 
     @Override
@@ -137,6 +266,8 @@ public class BookServiceImpl implements BookService {
         bookMapper.updateEntity(request, book);
         setRelations(book, request);
         Book updatedBook = bookRepository.save(book);
+        reportCache.invalidate();
+        searchIndex.bookSaved(updatedBook.getId(), updatedBook.getTitle(), authorId(updatedBook));
         return bookMapper.toResponse(updatedBook);
     }
 
@@ -147,11 +278,84 @@ public class BookServiceImpl implements BookService {
             throw new ResourceNotFoundException("Book", id);
         }
         bookRepository.deleteById(id);
+        reportCache.invalidate();
+        searchIndex.bookDeleted(id);
     }
 
-    @Override
-    public List<Book> findAllEntities() {
-        return bookRepository.findAll();
+    private PageResponse<BookResponse> toPageResponse(Slice<Book> slice, boolean includeTotal, LongSupplier counter,
+                                                      Object... filter) {
+        Long total = includeTotal ? countCache.total(slice, counter, filter) : null;
+        return PageResponse.from(slice, bookMapper.toResponseList(slice.getContent()), total);
+    }
+
+    private PageResponse<BookResponse> fromIndex(List<Match> matches, Pageable pageable, boolean includeTotal) {
+        Slice<Long> ids = SearchIndex.page(matches, pageable, "title");
+        List<Book> books = findInOrder(ids.getContent());
+        Long total = includeTotal ? (long) matches.size() : null;
+        return PageResponse.from(ids, bookMapper.toResponseList(books), total);
+    }
+
+    private static List<Suggestion> toSuggestions(List<Completion> completions) {
+        return completions.stream().map(completion -> new Suggestion(completion.text(), completion.weight())).toList();
+    }
+
+    private static Long authorId(Book book) {
+        return book.getAuthor() != null ? book.getAuthor().getId() : null;
+    }
+
+    /**
+     * Loads the books with these ids in the same order, skipping any deleted in the meantime.
+     */
+    private List<Book> findInOrder(List<Long> ids) {
+        Map<Long, Book> books = bookRepository.findByIdIn(ids).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+        return ids.stream().map(books::get).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * Turns free text into a tsquery matching every word as a prefix, so partially typed words
+     * match too. Only letters and digits are kept, which leaves no tsquery syntax to inject.
+     */
+    private static String toPrefixTsQuery(String text) {
+        String tsQuery = Arrays.stream(text.split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .map(word -> word + ":*")
+                .collect(Collectors.joining(" & "));
+        if (tsQuery.isEmpty()) {
+            throw new IllegalArgumentException("Search query must contain at least one letter or digit");
+        }
+        return tsQuery;
+    }
+
+    private static Specification<Book> toSpecification(BookSearchCriteria criteria) {
+        if (criteria.minPrice() != null && criteria.maxPrice() != null
+                && criteria.minPrice().compareTo(criteria.maxPrice()) > 0) {
+            throw new IllegalArgumentException("Minimum price must not exceed maximum price");
+        }
+        if (criteria.minYear() != null && criteria.maxYear() != null && criteria.minYear() > criteria.maxYear()) {
+            throw new IllegalArgumentException("Minimum year must not exceed maximum year");
+        }
+        if (criteria.createdFrom() != null && criteria.createdTo() != null
+                && criteria.createdFrom().isAfter(criteria.createdTo())) {
+            throw new IllegalArgumentException("Start date must not be after end date");
+        }
+
+        Specification<Book> specification = BookSpecifications.priceBetween(criteria.minPrice(), criteria.maxPrice())
+                .and(BookSpecifications.publishedBetween(criteria.minYear(), criteria.maxYear()))
+                .and(EntitySpecifications.createdBetween(criteria.createdFrom(), criteria.createdTo()));
+        if (criteria.authorId() != null) {
+            specification = specification.and(BookSpecifications.hasAuthorId(criteria.authorId()));
+        }
+        if (criteria.storeId() != null) {
+            specification = specification.and(BookSpecifications.hasStoreId(criteria.storeId()));
+        }
+        if (criteria.title() != null && !criteria.title().isBlank()) {
+            specification = specification.and(BookSpecifications.titleContains(criteria.title().strip()));
+        }
+        if (criteria.authorName() != null && !criteria.authorName().isBlank()) {
+            specification = specification.and(BookSpecifications.authorNameContains(criteria.authorName().strip()));
+        }
+        return specification;
     }
 
     private void setRelations(Book book, BookRequest request) {
@@ -0,0 +1,61 @@
+package tech.aerolambda.application.service.impl;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Total counts for paginated listings, keyed on the listing's filter and kept for
+ * {@code app.pagination.count-ttl}. Totals may therefore lag writes by up to that long, but
+ * paging through a listing runs its count query once rather than on every page.
+ */
+@Component
+public class CountCache {
+
+    private final Map<List<Object>, CachedCount> counts = new ConcurrentHashMap<>();
+
+    @Value("${app.pagination.count-ttl:PT30S}")
+    private Duration ttl;
+
+    @Value("${app.pagination.count-cache-size:10000}")
+    private int maxEntries;
+
+    /**
+     * Total number of elements in the listing {@code slice} belongs to. The last page already
+     * determines it; otherwise it is taken from the cache or computed with {@code counter}.
+     */
+    public long total(Slice<?> slice, LongSupplier counter, Object... filter) {
+        long seen = slice.getPageable().getOffset() + slice.getNumberOfElements();
+        if (!slice.hasNext() && (slice.hasContent() || slice.isFirst())) {
+            return seen;
+        }
+
+        List<Object> key = List.of(filter);
+        long now = System.nanoTime();
+        CachedCount cached = counts.get(key);
+        long count;
+        if (cached != null && now - cached.expiresAt() < 0) {
+            count = cached.count();
+        } else {
+            count = counter.getAsLong();
+            if (counts.size() >= maxEntries) {
+                counts.values().removeIf(entry -> now - entry.expiresAt() >= 0);
+                if (counts.size() >= maxEntries) {
+                    counts.clear();
+                }
+            }
+            counts.put(key, new CachedCount(count, now + ttl.toNanos()));
+        }
+
+        // A cached total can be behind the page that was just read
+        return slice.hasNext() ? Math.max(count, seen + 1) : count;
+    }
+
+    private record CachedCount(long count, long expiresAt) {}
+}
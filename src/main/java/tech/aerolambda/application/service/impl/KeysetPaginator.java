@@ -0,0 +1,115 @@
+package tech.aerolambda.application.service.impl;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import tech.aerolambda.application.dto.CursorPageResponse;
+import tech.aerolambda.domain.entity.BaseEntity;
+import tech.aerolambda.domain.specification.KeysetSpecifications;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Keyset ("seek") pagination: each page continues after the sort key and id of the previous
+ * page's last row, carried in an opaque cursor, so a page costs the same however deep it is and
+ * no count query is run. Only non-null, indexed properties are accepted as sort keys.
+ */
+final class KeysetPaginator<T extends BaseEntity> {
+
+    private static final String SEPARATOR = ":";
+
+    private final Map<String, SortKey<T, ?>> sortKeys;
+
+    KeysetPaginator(Map<String, SortKey<T, ?>> sortKeys) {
+        this.sortKeys = sortKeys;
+    }
+
+    <R> CursorPageResponse<R> page(String cursor, int size, String sortBy, String sortDir, PageQuery<T> query,
+                                   Function<List<T>, List<R>> mapper) {
+        SortKey<T, ?> sortKey = sortKeys.get(sortBy);
+        if (sortKey == null) {
+            throw new IllegalArgumentException("Cursor pagination cannot sort by '" + sortBy + "', use one of "
+                    + sortKeys.keySet());
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+        boolean descending = sortDir.equalsIgnoreCase("desc");
+
+        Specification<T> specification = cursor == null || cursor.isBlank()
+                ? Specification.where(null)
+                : after(cursor, sortBy, descending, sortKey);
+        // One extra row tells whether another page follows without counting
+        List<T> rows = query.find(specification, KeysetSpecifications.orderBy(sortBy, descending), size + 1);
+
+        boolean hasNext = rows.size() > size;
+        List<T> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? encode(sortBy, descending, sortKey, content.get(content.size() - 1)) : null;
+        return new CursorPageResponse<>(mapper.apply(content), size, hasNext, nextCursor);
+    }
+
+    private String encode(String sortBy, boolean descending, SortKey<T, ?> sortKey, T last) {
+        String position = String.join(SEPARATOR, sortBy, direction(descending), String.valueOf(last.getId()),
+                sortKey.format(last));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Specification<T> after(String cursor, String sortBy, boolean descending, SortKey<T, ?> sortKey) {
+        String[] position;
+        try {
+            position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(SEPARATOR, 4);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (position.length != 4) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (!position[0].equals(sortBy) || !position[1].equals(direction(descending))) {
+            throw new IllegalArgumentException("Cursor was issued for a different sort order");
+        }
+
+        try {
+            return sortKey.after(sortBy, descending, position[3], Long.valueOf(position[2]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    private static String direction(boolean descending) {
+        return descending ? "desc" : "asc";
+    }
+
+    @FunctionalInterface
+    interface PageQuery<T> {
+        List<T> find(Specification<T> specification, Sort sort, int limit);
+    }
+
+    record SortKey<T extends BaseEntity, Y extends Comparable<? super Y>>(Function<T, Y> extractor,
+                                                                          Function<String, Y> parser) {
+
+        static <T extends BaseEntity> SortKey<T, String> ofString(Function<T, String> extractor) {
+            return new SortKey<>(extractor, Function.identity());
+        }
+
+        static <T extends BaseEntity> SortKey<T, Long> ofLong(Function<T, Long> extractor) {
+            return new SortKey<>(extractor, Long::valueOf);
+        }
+
+        static <T extends BaseEntity> SortKey<T, LocalDateTime> ofTimestamp(Function<T, LocalDateTime> extractor) {
+            return new SortKey<>(extractor, LocalDateTime::parse);
+        }
+
+        String format(T row) {
+            return extractor.apply(row).toString();
+        }
+
+        Specification<T> after(String property, boolean descending, String value, Long id) {
+            return KeysetSpecifications.after(property, descending, parser.apply(value), id);
+        }
+    }
+}
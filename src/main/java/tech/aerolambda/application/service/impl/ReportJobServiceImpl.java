@@ -0,0 +1,225 @@
+package tech.aerolambda.application.service.impl;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import tech.aerolambda.application.dto.report.ReportJobDownload;
+import tech.aerolambda.application.dto.report.ReportJobResponse;
+import tech.aerolambda.application.service.ReportJobService;
+import tech.aerolambda.application.service.ReportService;
+import tech.aerolambda.domain.enums.ReportFormat;
+import tech.aerolambda.domain.enums.ReportJobStatus;
+import tech.aerolambda.domain.enums.ReportType;
+import tech.aerolambda.infrastructure.exception.ResourceNotFoundException;
+import tech.aerolambda.infrastructure.exception.ResourceNotReadyException;
+import tech.aerolambda.infrastructure.exception.TooManyRequestsException;
+import tech.aerolambda.presentation.dto.report.ReportRequest;
+import tech.aerolambda.report.job.ReportJob;
+import tech.aerolambda.report.job.ReportJobRunner;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReportJobServiceImpl implements ReportJobService {
+
+    private final ReportService reportService;
+    private final ReportJobRunner reportJobRunner;
+
+    private final Map<String, ReportJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, Integer> activeJobsByOwner = new ConcurrentHashMap<>();
+
+    @Value("${app.report.jobs.directory:${java.io.tmpdir}/report-jobs}")
+    private String directory;
+
+    @Value("${app.report.jobs.pool-size:2}")
+    private int poolSize;
+
+    @Value("${app.report.jobs.queue-capacity:50}")
+    private int queueCapacity;
+
+    @Value("${app.report.jobs.max-active-per-user:2}")
+    private int maxActivePerUser;
+
+    @Value("${app.report.jobs.retention:PT1H}")
+    private Duration retention;
+
+    private Path jobDirectory;
+    private ThreadPoolTaskExecutor reportJobExecutor;
+
+    @PostConstruct
+    void init() throws IOException {
+        // Kept out of the context so Boot's applicationTaskExecutor still serves MVC async requests
+        reportJobExecutor = new ThreadPoolTaskExecutor();
+        reportJobExecutor.setCorePoolSize(poolSize);
+        reportJobExecutor.setMaxPoolSize(poolSize);
+        reportJobExecutor.setQueueCapacity(queueCapacity);
+        reportJobExecutor.setThreadNamePrefix("report-job-");
+        reportJobExecutor.initialize();
+
+        jobDirectory = Files.createDirectories(Paths.get(directory));
+        // Job state lives in memory, so files left over from a previous run can never be downloaded
+        try (DirectoryStream<Path> stale = Files.newDirectoryStream(jobDirectory, ReportJobRunner.FILE_PREFIX + "*")) {
+            for (Path file : stale) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        reportJobExecutor.shutdown();
+    }
+
+    @Override
+    public ReportJobResponse submit(ReportType type, ReportFormat format, ReportRequest request, String owner) {
+        reportService.validateReportRequest(type, request);
+
+        String id = UUID.randomUUID().toString();
+        Path file = jobDirectory.resolve(ReportJobRunner.FILE_PREFIX + id + reportService.getFileExtension(format));
+        ReportJob job = new ReportJob(id, owner, type, format, request, file);
+
+        acquireSlot(owner);
+        jobs.put(id, job);
+        try {
+            reportJobExecutor.execute(() -> {
+                try {
+                    reportJobRunner.run(job);
+                } finally {
+                    releaseSlot(owner);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            jobs.remove(id);
+            releaseSlot(owner);
+            throw new TooManyRequestsException("Report job queue is full, try again later");
+        }
+
+        log.info("Queued report job {} ({} {}) for {}", id, type, format, owner);
+        return toResponse(job);
+    }
+
+    @Override
+    public ReportJobResponse findById(String jobId, String owner) {
+        return toResponse(findJob(jobId, owner));
+    }
+
+    @Override
+    public List<ReportJobResponse> findAll(String owner) {
+        return jobs.values().stream()
+                .filter(job -> job.getOwner().equals(owner))
+                .sorted(Comparator.comparing(ReportJob::getCreatedAt).reversed())
+                .map(this::toResponse)
+                .toList();
+    }
+
+    @Override
+    public ReportJobDownload download(String jobId, String owner) {
+        ReportJob job = findJob(jobId, owner);
+        if (job.getStatus() == ReportJobStatus.FAILED) {
+            throw new ResourceNotReadyException("Report job " + jobId + " failed: " + job.getError());
+        }
+        if (job.getStatus() != ReportJobStatus.COMPLETED) {
+            throw new ResourceNotReadyException("Report job " + jobId + " is " + job.getStatus());
+        }
+
+        String filename = job.getType().name().toLowerCase() + "_report_"
+                + job.getCreatedAt().toLocalDate() + reportService.getFileExtension(job.getFormat());
+        return new ReportJobDownload(
+                new FileSystemResource(job.getFile()),
+                reportService.getContentType(job.getFormat()),
+                filename
+        );
+    }
+
+    @Override
+    public void delete(String jobId, String owner) {
+        ReportJob job = findJob(jobId, owner);
+        if (job.isActive()) {
+            throw new ResourceNotReadyException("Report job " + jobId + " is still " + job.getStatus());
+        }
+        remove(job);
+    }
+
+    @Scheduled(fixedDelayString = "${app.report.jobs.sweep-interval:PT5M}")
+    void removeExpiredJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        jobs.values().stream()
+                .filter(job -> !job.isActive() && job.getCompletedAt().isBefore(cutoff))
+                .forEach(job -> {
+                    // One file that cannot be deleted must not keep the other expired jobs around
+                    try {
+                        remove(job);
+                    } catch (UncheckedIOException e) {
+                        log.warn("Could not remove expired report job {}, retrying on the next sweep", job.getId(), e);
+                    }
+                });
+    }
+
+    private ReportJob findJob(String jobId, String owner) {
+        ReportJob job = jobs.get(jobId);
+        if (job == null || !job.getOwner().equals(owner)) {
+            throw new ResourceNotFoundException("Report job", "id", jobId);
+        }
+        return job;
+    }
+
+    // The job is only forgotten once its file is gone, so a failed delete can be retried
+    private void remove(ReportJob job) {
+        try {
+            Files.deleteIfExists(job.getFile());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to delete report file for job " + job.getId(), e);
+        }
+        jobs.remove(job.getId());
+    }
+
+    private void acquireSlot(String owner) {
+        activeJobsByOwner.compute(owner, (key, active) -> {
+            int count = active != null ? active : 0;
+            if (count >= maxActivePerUser) {
+                throw new TooManyRequestsException(
+                        "Report job limit of " + maxActivePerUser + " reached, wait for a running job to finish");
+            }
+            return count + 1;
+        });
+    }
+
+    private void releaseSlot(String owner) {
+        activeJobsByOwner.computeIfPresent(owner, (key, active) -> active > 1 ? active - 1 : null);
+    }
+
+    private ReportJobResponse toResponse(ReportJob job) {
+        return new ReportJobResponse(
+                job.getId(),
+                job.getType(),
+                job.getFormat(),
+                job.getStatus(),
+                job.getStatus() == ReportJobStatus.COMPLETED ? job.getSize() : null,
+                job.getError(),
+                job.getCreatedAt(),
+                job.getStartedAt(),
+                job.getCompletedAt()
+        );
+    }
+}
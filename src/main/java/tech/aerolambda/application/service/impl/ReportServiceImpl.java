@@ -1,9 +1,10 @@
 package tech.aerolambda.application.service.impl;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import tech.aerolambda.application.service.BookService;
 import tech.aerolambda.application.service.ReportService;
 import tech.aerolambda.domain.entity.Author;
 import tech.aerolambda.domain.entity.Book;
@@ -13,228 +14,310 @@ import tech.aerolambda.domain.enums.ReportFormat;
 import tech.aerolambda.domain.enums.ReportType;
 import tech.aerolambda.domain.repository.AuthorRepository;
 import tech.aerolambda.domain.repository.BookRepository;
-import tech.aerolambda.domain.repository.StoreRepository;
-import tech.aerolambda.domain.repository.UserRepository;
+import tech.aerolambda.domain.repository.projection.InventoryValue;
+import tech.aerolambda.domain.repository.projection.PriceBucketCount;
+import tech.aerolambda.domain.repository.projection.YearBookCount;
+import tech.aerolambda.domain.specification.BookSpecifications;
+import tech.aerolambda.domain.specification.EntitySpecifications;
 import tech.aerolambda.presentation.dto.report.ReportRequest;
+import tech.aerolambda.report.ReportColumn;
 import tech.aerolambda.report.ReportData;
+import tech.aerolambda.report.cache.ReportCache;
+import tech.aerolambda.report.cache.ReportCacheKey;
 import tech.aerolambda.report.factory.ReportFactory;
+import tech.aerolambda.report.source.ReportDataSource;
+import tech.aerolambda.report.source.WithLookup;
 import tech.aerolambda.report.strategy.ReportStrategy;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class ReportServiceImpl implements ReportService {
 
+    // Open date filters are bound as distant bounds: PostgreSQL cannot infer the type of a
+    // null timestamp parameter in an "IS NULL" check
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 0, 0);
+
     private final ReportFactory reportFactory;
-    private final BookService bookService;
-    private final BookRepository bookRepository;
     private final AuthorRepository authorRepository;
-    private final UserRepository userRepository;
-    private final StoreRepository storeRepository;
+    private final BookRepository bookRepository;
+    private final ReportDataSource reportDataSource;
+    private final ReportCache reportCache;
+
+    @Value("${app.report.price-bucket-width:10}")
+    private BigDecimal priceBucketWidth;
 
     @Override
     public byte[] generateBooksReport(ReportFormat format, Integer limit) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try {
+            writeBooksReport(format, limit, baos);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to generate books report", e);
+        }
+        return baos.toByteArray();
+    }
+
+    @Override
+    public void writeBooksReport(ReportFormat format, Integer limit, OutputStream outputStream) throws IOException {
         ReportStrategy strategy = reportFactory.getStrategy(format);
-        List<Book> books = bookService.findAllEntities();
-        if (limit != null && limit > 0 && limit < books.size()) {
-            books = books.subList(0, limit);
+        Specification<Book> allBooks = Specification.where(null);
+        try (Stream<Book> books = reportDataSource.stream(Book.class, allBooks, limit, "author", "store")) {
+            strategy.write(books::iterator, () -> reportDataSource.count(Book.class, allBooks, limit), outputStream);
         }
-        return strategy.generate(books);
     }
 
     @Override
     public byte[] generateReport(ReportType type, ReportFormat format, ReportRequest request) {
-        ReportStrategy strategy = reportFactory.getStrategy(format);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try {
+            writeReport(type, format, request, baos);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to generate " + type + " report", e);
+        }
+        return baos.toByteArray();
+    }
 
-        return switch (type) {
-            case BOOKS -> generateBooksReportData(strategy, request);
-            case AUTHORS -> generateAuthorsReportData(strategy, request);
-            case USERS -> generateUsersReportData(strategy, request);
-            case STORES -> generateStoresReportData(strategy, request);
-            case BOOKS_BY_AUTHOR -> generateBooksByAuthorReportData(strategy, request);
-        };
+    @Override
+    public void writeReport(ReportType type, ReportFormat format, ReportRequest request, OutputStream outputStream)
+            throws IOException {
+        writeReport(reportCache.keyFor(type, format, request), request, outputStream);
     }
 
-    private byte[] generateBooksReportData(ReportStrategy strategy, ReportRequest request) {
-        List<Book> books = bookRepository.findAll();
+    @Override
+    public void writeReport(ReportCacheKey key, ReportRequest request, OutputStream outputStream) throws IOException {
+        ReportStrategy strategy = reportFactory.getStrategy(key.format());
+
+        reportCache.write(key, outputStream, out -> {
+            try (ReportData<?> reportData = switch (key.type()) {
+                case BOOKS -> generateBooksReportData(request);
+                case AUTHORS -> generateAuthorsReportData(request);
+                case USERS -> generateUsersReportData(request);
+                case STORES -> generateStoresReportData(request);
+                case BOOKS_BY_AUTHOR -> generateBooksByAuthorReportData(request);
+                case BOOKS_BY_YEAR -> generateBooksByYearReportData(request);
+                case PRICE_DISTRIBUTION -> generatePriceDistributionReportData(request);
+                case STORE_INVENTORY -> generateStoreInventoryReportData(request);
+                case AUTHOR_INVENTORY -> generateAuthorInventoryReportData(request);
+            }) {
+                strategy.write(reportData, out);
+            }
+        });
+    }
 
-        books = filterByDate(books, request);
+    @Override
+    public ReportCacheKey getReportKey(ReportType type, ReportFormat format, ReportRequest request) {
+        return reportCache.keyFor(type, format, request);
+    }
 
-        if (request.getLimit() != null && request.getLimit() > 0 && request.getLimit() < books.size()) {
-            books = books.subList(0, request.getLimit());
+    @Override
+    public String getReportETag(ReportCacheKey key) {
+        return reportCache.eTag(key);
+    }
+
+    @Override
+    public void validateReportRequest(ReportType type, ReportRequest request) {
+        if (type == ReportType.BOOKS_BY_AUTHOR) {
+            findReportAuthor(request);
         }
+    }
 
-        ReportData<Book> reportData = ReportData.<Book>builder()
+    private ReportData<Book> generateBooksReportData(ReportRequest request) {
+        Specification<Book> specification = EntitySpecifications.createdBetween(request.getStartDate(), request.getEndDate());
+
+        return ReportData.<Book>builder()
                 .reportType(ReportType.BOOKS)
                 .title("Books Report")
-                .headers(List.of("ID", "Title", "ISBN", "Price", "Author", "Store", "Created At"))
-                .data(books)
-                .rowMapper(book -> List.of(
-                        String.valueOf(book.getId()),
-                        book.getTitle(),
-                        book.getIsbn(),
-                        book.getPrice() != null ? "$" + book.getPrice().toString() : "N/A",
-                        book.getAuthor() != null ? book.getAuthor().getName() : "N/A",
-                        book.getStore() != null ? book.getStore().getName() : "N/A",
-                        book.getCreatedAt() != null ? book.getCreatedAt().toLocalDate().toString() : "N/A"
+                .data(reportDataSource.stream(Book.class, specification, request.getLimit(), "author", "store"))
+                .recordCount(() -> reportDataSource.count(Book.class, specification, request.getLimit()))
+                .columns(List.of(
+                        ReportColumn.ofLong("ID", Book::getId),
+                        ReportColumn.ofString("Title", Book::getTitle),
+                        ReportColumn.ofString("ISBN", Book::getIsbn),
+                        ReportColumn.ofCurrency("Price", 10, 2, Book::getPrice),
+                        ReportColumn.ofString("Author", book -> book.getAuthor() != null ? book.getAuthor().getName() : null),
+                        ReportColumn.ofString("Store", book -> book.getStore() != null ? book.getStore().getName() : null),
+                        ReportColumn.ofTimestamp("Created At", Book::getCreatedAt)
                 ))
                 .build();
-
-        return strategy.generate(reportData);
     }
 
-    private byte[] generateAuthorsReportData(ReportStrategy strategy, ReportRequest request) {
-        List<Author> authors = authorRepository.findAll();
-
-        if (request.getStartDate() != null || request.getEndDate() != null) {
-            authors = authors.stream()
-                    .filter(a -> filterByCreatedAt(a.getCreatedAt(), request))
-                    .collect(Collectors.toList());
-        }
-
-        if (request.getLimit() != null && request.getLimit() > 0 && request.getLimit() < authors.size()) {
-            authors = authors.subList(0, request.getLimit());
-        }
+    private ReportData<WithLookup<Author, Long>> generateAuthorsReportData(ReportRequest request) {
+        Specification<Author> specification = EntitySpecifications.createdBetween(request.getStartDate(), request.getEndDate());
+        Stream<Author> authors = reportDataSource.stream(Author.class, specification, request.getLimit());
 
-        ReportData<Author> reportData = ReportData.<Author>builder()
+        return ReportData.<WithLookup<Author, Long>>builder()
                 .reportType(ReportType.AUTHORS)
                 .title("Authors Report")
-                .headers(List.of("ID", "Name", "Bio", "Books Count", "Created At"))
-                .data(authors)
-                .rowMapper(author -> List.of(
-                        String.valueOf(author.getId()),
-                        author.getName(),
-                        author.getBio() != null ? truncate(author.getBio(), 50) : "N/A",
-                        String.valueOf(author.getBooks() != null ? author.getBooks().size() : 0),
-                        author.getCreatedAt() != null ? author.getCreatedAt().toLocalDate().toString() : "N/A"
+                .data(reportDataSource.withLookup(authors, bookRepository::countByAuthorIds))
+                .recordCount(() -> reportDataSource.count(Author.class, specification, request.getLimit()))
+                .columns(List.of(
+                        ReportColumn.ofLong("ID", author -> author.row().getId()),
+                        ReportColumn.ofString("Name", author -> author.row().getName()),
+                        ReportColumn.ofString("Bio", author -> truncate(author.row().getBio(), 50)),
+                        ReportColumn.ofLong("Books Count", author -> author.valueOr(0L)),
+                        ReportColumn.ofTimestamp("Created At", author -> author.row().getCreatedAt())
                 ))
                 .build();
-
-        return strategy.generate(reportData);
     }
 
-    private byte[] generateUsersReportData(ReportStrategy strategy, ReportRequest request) {
-        List<User> users = userRepository.findAll();
-
-        if (request.getStartDate() != null || request.getEndDate() != null) {
-            users = users.stream()
-                    .filter(u -> filterByCreatedAt(u.getCreatedAt(), request))
-                    .collect(Collectors.toList());
-        }
-
-        if (request.getLimit() != null && request.getLimit() > 0 && request.getLimit() < users.size()) {
-            users = users.subList(0, request.getLimit());
-        }
+    private ReportData<User> generateUsersReportData(ReportRequest request) {
+        Specification<User> specification = EntitySpecifications.createdBetween(request.getStartDate(), request.getEndDate());
 
-        ReportData<User> reportData = ReportData.<User>builder()
+        return ReportData.<User>builder()
                 .reportType(ReportType.USERS)
                 .title("System Users Report")
-                .headers(List.of("ID", "Name", "Email", "Role", "Enabled", "Created At"))
-                .data(users)
-                .rowMapper(user -> List.of(
-                        String.valueOf(user.getId()),
-                        user.getName(),
-                        user.getEmail(),
-                        user.getRole().name(),
-                        user.isEnabled() ? "Yes" : "No",
-                        user.getCreatedAt() != null ? user.getCreatedAt().toLocalDate().toString() : "N/A"
+                .data(reportDataSource.stream(User.class, specification, request.getLimit()))
+                .recordCount(() -> reportDataSource.count(User.class, specification, request.getLimit()))
+                .columns(List.of(
+                        ReportColumn.ofLong("ID", User::getId),
+                        ReportColumn.ofString("Name", User::getName),
+                        ReportColumn.ofString("Email", User::getEmail),
+                        ReportColumn.ofString("Role", user -> user.getRole().name()),
+                        ReportColumn.ofBoolean("Enabled", User::isEnabled),
+                        ReportColumn.ofTimestamp("Created At", User::getCreatedAt)
                 ))
                 .build();
-
-        return strategy.generate(reportData);
     }
 
-    private byte[] generateStoresReportData(ReportStrategy strategy, ReportRequest request) {
-        List<Store> stores = storeRepository.findAll();
-
-        if (request.getStartDate() != null || request.getEndDate() != null) {
-            stores = stores.stream()
-                    .filter(s -> filterByCreatedAt(s.getCreatedAt(), request))
-                    .collect(Collectors.toList());
-        }
-
-        if (request.getLimit() != null && request.getLimit() > 0 && request.getLimit() < stores.size()) {
-            stores = stores.subList(0, request.getLimit());
-        }
+    private ReportData<WithLookup<Store, Long>> generateStoresReportData(ReportRequest request) {
+        Specification<Store> specification = EntitySpecifications.createdBetween(request.getStartDate(), request.getEndDate());
+        Stream<Store> stores = reportDataSource.stream(Store.class, specification, request.getLimit());
 
-        ReportData<Store> reportData = ReportData.<Store>builder()
+        return ReportData.<WithLookup<Store, Long>>builder()
                 .reportType(ReportType.STORES)
                 .title("Stores Report")
-                .headers(List.of("ID", "Name", "Address", "Phone", "Email", "Books Count", "Created At"))
-                .data(stores)
-                .rowMapper(store -> List.of(
-                        String.valueOf(store.getId()),
-                        store.getName(),
-                        store.getAddress() != null ? store.getAddress() : "N/A",
-                        store.getPhone() != null ? store.getPhone() : "N/A",
-                        store.getEmail() != null ? store.getEmail() : "N/A",
-                        String.valueOf(store.getBooks() != null ? store.getBooks().size() : 0),
-                        store.getCreatedAt() != null ? store.getCreatedAt().toLocalDate().toString() : "N/A"
+                .data(reportDataSource.withLookup(stores, bookRepository::countByStoreIds))
+                .recordCount(() -> reportDataSource.count(Store.class, specification, request.getLimit()))
+                .columns(List.of(
+                        ReportColumn.ofLong("ID", store -> store.row().getId()),
+                        ReportColumn.ofString("Name", store -> store.row().getName()),
+                        ReportColumn.ofString("Address", store -> store.row().getAddress()),
+                        ReportColumn.ofString("Phone", store -> store.row().getPhone()),
+                        ReportColumn.ofString("Email", store -> store.row().getEmail()),
+                        ReportColumn.ofLong("Books Count", store -> store.valueOr(0L)),
+                        ReportColumn.ofTimestamp("Created At", store -> store.row().getCreatedAt())
                 ))
                 .build();
+    }
+
+    private ReportData<Book> generateBooksByAuthorReportData(ReportRequest request) {
+        Author author = findReportAuthor(request);
+
+        Specification<Book> specification = BookSpecifications.hasAuthorId(author.getId())
+                .and(EntitySpecifications.createdBetween(request.getStartDate(), request.getEndDate()));
 
-        return strategy.generate(reportData);
+        return ReportData.<Book>builder()
+                .reportType(ReportType.BOOKS_BY_AUTHOR)
+                .title("Books by Author: " + author.getName())
+                .data(reportDataSource.stream(Book.class, specification, request.getLimit(), "store"))
+                .recordCount(() -> reportDataSource.count(Book.class, specification, request.getLimit()))
+                .columns(List.of(
+                        ReportColumn.ofLong("ID", Book::getId),
+                        ReportColumn.ofString("Title", Book::getTitle),
+                        ReportColumn.ofString("ISBN", Book::getIsbn),
+                        ReportColumn.ofCurrency("Price", 10, 2, Book::getPrice),
+                        ReportColumn.ofInteger("Publication Year", Book::getPublicationYear),
+                        ReportColumn.ofString("Store", book -> book.getStore() != null ? book.getStore().getName() : null),
+                        ReportColumn.ofTimestamp("Created At", Book::getCreatedAt)
+                ))
+                .build();
     }
 
-    private byte[] generateBooksByAuthorReportData(ReportStrategy strategy, ReportRequest request) {
-        if (request.getAuthorId() == null) {
-            throw new IllegalArgumentException("Author ID is required for Books by Author report");
-        }
+    private ReportData<YearBookCount> generateBooksByYearReportData(ReportRequest request) {
+        List<YearBookCount> years = bookRepository.countGroupedByPublicationYear(createdFrom(request), createdTo(request));
 
-        Author author = authorRepository.findById(request.getAuthorId())
-                .orElseThrow(() -> new IllegalArgumentException("Author not found with ID: " + request.getAuthorId()));
+        return aggregateReportData(ReportType.BOOKS_BY_YEAR, "Books by Publication Year", years, request, List.of(
+                ReportColumn.ofInteger("Publication Year", YearBookCount::publicationYear),
+                ReportColumn.ofLong("Books Count", YearBookCount::count)
+        ));
+    }
 
-        List<Book> books = bookRepository.findByAuthorId(request.getAuthorId());
+    private ReportData<PriceBucketCount> generatePriceDistributionReportData(ReportRequest request) {
+        List<PriceBucketCount> buckets = bookRepository.countGroupedByPriceBucket(priceBucketWidth,
+                createdFrom(request), createdTo(request));
 
-        books = filterByDate(books, request);
+        return aggregateReportData(ReportType.PRICE_DISTRIBUTION, "Price Distribution", buckets, request, List.of(
+                ReportColumn.ofCurrency("Price From", 10, 2, bucket -> money(bucket.lowerBound())),
+                ReportColumn.ofCurrency("Price Under", 10, 2, bucket -> money(bucket.lowerBound().add(priceBucketWidth))),
+                ReportColumn.ofLong("Books Count", PriceBucketCount::count)
+        ));
+    }
 
-        if (request.getLimit() != null && request.getLimit() > 0 && request.getLimit() < books.size()) {
-            books = books.subList(0, request.getLimit());
-        }
+    private ReportData<InventoryValue> generateStoreInventoryReportData(ReportRequest request) {
+        List<InventoryValue> stores = bookRepository.sumInventoryPerStore(createdFrom(request), createdTo(request));
+        return aggregateReportData(ReportType.STORE_INVENTORY, "Inventory by Store", stores, request,
+                inventoryColumns("Store"));
+    }
 
-        ReportData<Book> reportData = ReportData.<Book>builder()
-                .reportType(ReportType.BOOKS_BY_AUTHOR)
-                .title("Books by Author: " + author.getName())
-                .headers(List.of("ID", "Title", "ISBN", "Price", "Publication Year", "Store", "Created At"))
-                .data(books)
-                .rowMapper(book -> List.of(
-                        String.valueOf(book.getId()),
-                        book.getTitle(),
-                        book.getIsbn(),
-                        book.getPrice() != null ? "$" + book.getPrice().toString() : "N/A",
-                        book.getPublicationYear() != null ? String.valueOf(book.getPublicationYear()) : "N/A",
-                        book.getStore() != null ? book.getStore().getName() : "N/A",
-                        book.getCreatedAt() != null ? book.getCreatedAt().toLocalDate().toString() : "N/A"
-                ))
+    private ReportData<InventoryValue> generateAuthorInventoryReportData(ReportRequest request) {
+        List<InventoryValue> authors = bookRepository.sumInventoryPerAuthor(createdFrom(request), createdTo(request));
+        return aggregateReportData(ReportType.AUTHOR_INVENTORY, "Inventory by Author", authors, request,
+                inventoryColumns("Author"));
+    }
+
+    private List<ReportColumn<InventoryValue>> inventoryColumns(String owner) {
+        return List.of(
+                ReportColumn.ofLong(owner + " ID", InventoryValue::ownerId),
+                ReportColumn.ofString(owner, InventoryValue::ownerName),
+                ReportColumn.ofLong("Books Count", InventoryValue::bookCount),
+                ReportColumn.ofCurrency("Total Value", 14, 2, value -> money(value.totalValue())),
+                ReportColumn.ofCurrency("Average Price", 10, 2, value -> money(value.averagePrice()))
+        );
+    }
+
+    /**
+     * Wraps rows already aggregated by the database, a few hundred at most, so they can be
+     * rendered by any format.
+     */
+    private <T> ReportData<T> aggregateReportData(ReportType type, String title, List<T> rows, ReportRequest request,
+                                                  List<ReportColumn<T>> columns) {
+        Integer limit = request.getLimit();
+        List<T> limited = limit != null && limit > 0 && limit < rows.size() ? rows.subList(0, limit) : rows;
+
+        return ReportData.<T>builder()
+                .reportType(type)
+                .title(title)
+                .data(limited.stream())
+                .recordCount(limited::size)
+                .columns(columns)
                 .build();
+    }
 
-        return strategy.generate(reportData);
+    private LocalDateTime createdFrom(ReportRequest request) {
+        LocalDate startDate = request.getStartDate();
+        return startDate != null ? startDate.atStartOfDay() : EARLIEST;
     }
 
-    private List<Book> filterByDate(List<Book> books, ReportRequest request) {
-        if (request.getStartDate() != null || request.getEndDate() != null) {
-            return books.stream()
-                    .filter(b -> filterByCreatedAt(b.getCreatedAt(), request))
-                    .collect(Collectors.toList());
-        }
-        return books;
+    private LocalDateTime createdTo(ReportRequest request) {
+        LocalDate endDate = request.getEndDate();
+        return endDate != null ? endDate.plusDays(1).atStartOfDay() : LATEST;
     }
 
-    private boolean filterByCreatedAt(LocalDateTime createdAt, ReportRequest request) {
-        if (createdAt == null) return true;
+    private BigDecimal money(BigDecimal amount) {
+        return amount != null ? amount.setScale(2, RoundingMode.HALF_UP) : null;
+    }
 
-        if (request.getStartDate() != null && createdAt.toLocalDate().isBefore(request.getStartDate())) {
-            return false;
-        }
-        if (request.getEndDate() != null && createdAt.toLocalDate().isAfter(request.getEndDate())) {
-            return false;
+    private Author findReportAuthor(ReportRequest request) {
+        if (request.getAuthorId() == null) {
+            throw new IllegalArgumentException("Author ID is required for Books by Author report");
         }
-        return true;
+
+        return authorRepository.findById(request.getAuthorId())
+                .orElseThrow(() -> new IllegalArgumentException("Author not found with ID: " + request.getAuthorId()));
     }
 
     private String truncate(String text, int maxLength) {
@@ -252,6 +335,11 @@ public class ReportServiceImpl implements ReportService {
         return reportFactory.getStrategy(format).getFileExtension();
     }
 
+    @Override
+    public boolean isCompressible(ReportFormat format) {
+        return reportFactory.getStrategy(format).isCompressible();
+    }
+
     @Override
     public ReportType[] getAvailableReportTypes(boolean isAdmin) {
         if (isAdmin) {
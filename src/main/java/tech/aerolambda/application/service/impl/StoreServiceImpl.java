@@ -1,29 +1,53 @@
 package tech.aerolambda.application.service.impl;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import tech.aerolambda.application.dto.CursorPageResponse;
 import tech.aerolambda.application.dto.PageResponse;
 import tech.aerolambda.application.dto.store.StoreRequest;
 import tech.aerolambda.application.dto.store.StoreResponse;
 import tech.aerolambda.application.mapper.StoreMapper;
+import tech.aerolambda.application.search.SearchIndex;
+import tech.aerolambda.application.search.TrigramIndex.Match;
 import tech.aerolambda.application.service.StoreService;
+import tech.aerolambda.application.service.impl.KeysetPaginator.SortKey;
 import tech.aerolambda.domain.entity.Store;
+import tech.aerolambda.domain.repository.BookRepository;
 import tech.aerolambda.domain.repository.StoreRepository;
 import tech.aerolambda.infrastructure.exception.DuplicateResourceException;
 import tech.aerolambda.infrastructure.exception.ResourceNotFoundException;
+import tech.aerolambda.report.cache.ReportCache;
 
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class StoreServiceImpl implements StoreService {
 
+    private static final KeysetPaginator<Store> KEYSET = new KeysetPaginator<>(Map.of(
+            "name", SortKey.ofString(Store::getName),
+            "createdAt", SortKey.ofTimestamp(Store::getCreatedAt),
+            "id", SortKey.ofLong(Store::getId)
+    ));
+
     private final StoreRepository storeRepository;
+    private final BookRepository bookRepository;
     private final StoreMapper storeMapper;
+    private final ReportCache reportCache;
+    private final CountCache countCache;
+    private final SearchIndex searchIndex;
 
     @Override
     @Transactional
@@ -33,38 +57,63 @@ public class StoreServiceImpl implements StoreService {
         }
         Store store = storeMapper.toEntity(request);
         Store savedStore = storeRepository.save(store);
-        return storeMapper.toResponse(savedStore);
+        reportCache.invalidate();
+        searchIndex.storeSaved(savedStore.getId(), savedStore.getName());
+        return storeMapper.toResponse(savedStore, 0);
     }
 
     @Override
     public StoreResponse findById(Long id) {
         Store store = storeRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Store", id));
-        return storeMapper.toResponse(store);
+        return storeMapper.toResponse(store, countBooks(store));
     }
 
     @Override
     public List<StoreResponse> findAll() {
-        return storeMapper.toResponseList(storeRepository.findAll());
+        return toResponseList(storeRepository.findAll());
     }
 
     @Override
-    public PageResponse<StoreResponse> findAll(Pageable pageable) {
-        Page<Store> page = storeRepository.findAll(pageable);
-        List<StoreResponse> content = storeMapper.toResponseList(page.getContent());
-        return PageResponse.from(page, content);
+    public PageResponse<StoreResponse> findAll(Pageable pageable, boolean includeTotal) {
+        Slice<Store> slice = storeRepository.findSlice(pageable);
+        return toPageResponse(slice, includeTotal, storeRepository::count, "stores");
+    }
+
+    @Override
+    public CursorPageResponse<StoreResponse> scroll(String cursor, int size, String sortBy, String sortDir) {
+        return KEYSET.page(cursor, size, sortBy, sortDir, storeRepository::findPage, this::toResponseList);
     }
 
     @Override
     public List<StoreResponse> searchByName(String name) {
-        return storeMapper.toResponseList(storeRepository.findByNameContainingIgnoreCase(name));
+        if (searchIndex.isReady()) {
+            List<Long> ids = searchIndex.stores(name, false).stream()
+                    .sorted(Comparator.comparing(Match::text))
+                    .map(Match::id)
+                    .toList();
+            return toResponseList(findInOrder(ids));
+        }
+        return toResponseList(storeRepository.findByNameContainingIgnoreCase(name));
     }
 
     @Override
-    public PageResponse<StoreResponse> searchByName(String name, Pageable pageable) {
-        Page<Store> page = storeRepository.findByNameContainingIgnoreCase(name, pageable);
-        List<StoreResponse> content = storeMapper.toResponseList(page.getContent());
-        return PageResponse.from(page, content);
+    public PageResponse<StoreResponse> searchByName(String name, Pageable pageable, boolean includeTotal) {
+        if (searchIndex.isReady() && SearchIndex.canSort(pageable.getSort(), "name")) {
+            return fromIndex(searchIndex.stores(name, false), pageable, includeTotal);
+        }
+        Slice<Store> slice = storeRepository.findByNameContainingIgnoreCase(name, pageable);
+        return toPageResponse(slice, includeTotal, () -> storeRepository.countByNameContainingIgnoreCase(name),
+                "stores", "name", name);
+    }
+
+    @Override
+    public PageResponse<StoreResponse> fuzzySearchByName(String name, Pageable pageable, boolean includeTotal) {
+        if (!searchIndex.isReady()) {
+            Pageable byName = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by("name"));
+            return searchByName(name, byName, includeTotal);
+        }
+        return fromIndex(searchIndex.stores(name, true), pageable, includeTotal);
     }
 
     @Override
@@ -80,7 +129,9 @@ public class StoreServiceImpl implements StoreService {
 
         storeMapper.updateEntity(request, store);
         Store updatedStore = storeRepository.save(store);
-        return storeMapper.toResponse(updatedStore);
+        reportCache.invalidate();
+        searchIndex.storeSaved(updatedStore.getId(), updatedStore.getName());
+        return storeMapper.toResponse(updatedStore, countBooks(updatedStore));
     }
 
     @Override
@@ -89,6 +140,36 @@ public class StoreServiceImpl implements StoreService {
         if (!storeRepository.existsById(id)) {
             throw new ResourceNotFoundException("Store", id);
         }
+        List<Long> bookIds = searchIndex.isEnabled() ? bookRepository.findIdsByStoreId(id) : List.of();
         storeRepository.deleteById(id);
+        reportCache.invalidate();
+        searchIndex.storeDeleted(id, bookIds);
+    }
+
+    private PageResponse<StoreResponse> toPageResponse(Slice<Store> slice, boolean includeTotal, LongSupplier counter,
+                                                       Object... filter) {
+        Long total = includeTotal ? countCache.total(slice, counter, filter) : null;
+        return PageResponse.from(slice, toResponseList(slice.getContent()), total);
+    }
+
+    private PageResponse<StoreResponse> fromIndex(List<Match> matches, Pageable pageable, boolean includeTotal) {
+        Slice<Long> ids = SearchIndex.page(matches, pageable, "name");
+        Long total = includeTotal ? (long) matches.size() : null;
+        return PageResponse.from(ids, toResponseList(findInOrder(ids.getContent())), total);
+    }
+
+    private List<Store> findInOrder(List<Long> ids) {
+        Map<Long, Store> stores = storeRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Store::getId, Function.identity()));
+        return ids.stream().map(stores::get).filter(Objects::nonNull).toList();
+    }
+
+    private int countBooks(Store store) {
+        return (int) bookRepository.countByStoreId(store.getId());
+    }
+
+    private List<StoreResponse> toResponseList(List<Store> stores) {
+        List<Long> ids = stores.stream().map(Store::getId).toList();
+        return storeMapper.toResponseList(stores, bookRepository.countByStoreIds(ids));
     }
 }
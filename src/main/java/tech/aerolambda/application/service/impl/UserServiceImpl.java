@@ -3,6 +3,7 @@ package tech.aerolambda.application.service.impl;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import tech.aerolambda.application.dto.user.UserRequest;
 import tech.aerolambda.application.dto.user.UserResponse;
@@ -13,6 +14,9 @@ import tech.aerolambda.domain.entity.User;
 import tech.aerolambda.domain.repository.UserRepository;
 import tech.aerolambda.infrastructure.exception.DuplicateResourceException;
 import tech.aerolambda.infrastructure.exception.ResourceNotFoundException;
+import tech.aerolambda.infrastructure.security.AccountVersions;
+import tech.aerolambda.infrastructure.security.UserDetailsCache;
+import tech.aerolambda.report.cache.ReportCache;
 
 import java.util.List;
 
@@ -24,17 +28,21 @@ public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
+    private final UserWriter userWriter;
+    private final ReportCache reportCache;
+    private final AccountVersions accountVersions;
+    private final UserDetailsCache userDetailsCache;
 
+    // Outside a transaction, so the password is hashed before UserWriter takes a connection
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public UserResponse create(UserRequest request) {
+        // Checked again when the user is saved; this only spares hashing for a taken email
         if (userRepository.existsByEmail(request.email())) {
             throw new DuplicateResourceException("User", "email", request.email());
         }
 
-        User user = userMapper.toEntity(request);
-        user.setPassword(passwordEncoder.encode(request.password()));
-        User savedUser = userRepository.save(user);
+        User savedUser = userWriter.create(request, passwordEncoder.encode(request.password()));
         return userMapper.toResponse(savedUser);
     }
 
@@ -58,32 +66,22 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public UserResponse update(Long id, UserUpdateRequest request) {
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("User", id));
-
-        if (request.email() != null && !user.getEmail().equals(request.email())
-                && userRepository.existsByEmail(request.email())) {
-            throw new DuplicateResourceException("User", "email", request.email());
-        }
-
-        userMapper.updateEntity(request, user);
-
-        if (request.password() != null && !request.password().isBlank()) {
-            user.setPassword(passwordEncoder.encode(request.password()));
-        }
-
-        User updatedUser = userRepository.save(user);
-        return userMapper.toResponse(updatedUser);
+        String passwordHash = request.password() != null && !request.password().isBlank()
+                ? passwordEncoder.encode(request.password())
+                : null;
+        return userMapper.toResponse(userWriter.update(id, request, passwordHash));
     }
 
     @Override
     @Transactional
     public void delete(Long id) {
-        if (!userRepository.existsById(id)) {
-            throw new ResourceNotFoundException("User", id);
-        }
-        userRepository.deleteById(id);
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("User", id));
+        userRepository.delete(user);
+        reportCache.invalidate();
+        accountVersions.userDeleted(id);
+        userDetailsCache.evict(user.getEmail());
     }
 }
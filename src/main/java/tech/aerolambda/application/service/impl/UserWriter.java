@@ -0,0 +1,87 @@
+package tech.aerolambda.application.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import tech.aerolambda.application.dto.auth.RegisterRequest;
+import tech.aerolambda.application.dto.user.UserRequest;
+import tech.aerolambda.application.dto.user.UserUpdateRequest;
+import tech.aerolambda.application.mapper.UserMapper;
+import tech.aerolambda.domain.entity.User;
+import tech.aerolambda.domain.enums.UserRole;
+import tech.aerolambda.domain.repository.UserRepository;
+import tech.aerolambda.infrastructure.exception.DuplicateResourceException;
+import tech.aerolambda.infrastructure.exception.ResourceNotFoundException;
+import tech.aerolambda.infrastructure.security.AccountVersions;
+import tech.aerolambda.infrastructure.security.UserDetailsCache;
+import tech.aerolambda.report.cache.ReportCache;
+
+/**
+ * The transactions that save a user. Passwords come in already hashed: BCrypt takes tens of
+ * milliseconds, and hashing inside the transaction would hold a pooled connection all that time.
+ */
+@Component
+@RequiredArgsConstructor
+@Transactional
+public class UserWriter {
+
+    private final UserRepository userRepository;
+    private final UserMapper userMapper;
+    private final ReportCache reportCache;
+    private final AccountVersions accountVersions;
+    private final UserDetailsCache userDetailsCache;
+
+    public User register(RegisterRequest request, String passwordHash) {
+        User user = userMapper.toEntity(request);
+        return insert(user, passwordHash);
+    }
+
+    public User create(UserRequest request, String passwordHash) {
+        User user = userMapper.toEntity(request);
+        return insert(user, passwordHash);
+    }
+
+    /**
+     * Applies {@code request} to the user; {@code passwordHash} is null to keep the password.
+     */
+    public User update(Long id, UserUpdateRequest request, String passwordHash) {
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("User", id));
+
+        if (request.email() != null && !user.getEmail().equals(request.email())
+                && userRepository.existsByEmail(request.email())) {
+            throw new DuplicateResourceException("User", "email", request.email());
+        }
+
+        String email = user.getEmail();
+        String password = user.getPassword();
+        UserRole role = user.getRole();
+        boolean enabled = user.isEnabled();
+        userMapper.updateEntity(request, user);
+
+        boolean passwordChanged = passwordHash != null;
+        user.setPassword(passwordChanged ? passwordHash : password);
+        // Tokens issued before a change to how the user signs in or what they may do are void
+        if (passwordChanged || !user.getEmail().equals(email) || user.getRole() != role
+                || user.isEnabled() != enabled) {
+            user.setAccountVersion(user.getAccountVersion() + 1);
+        }
+
+        User updatedUser = userRepository.save(user);
+        reportCache.invalidate();
+        accountVersions.userSaved(updatedUser);
+        userDetailsCache.evict(email);
+        return updatedUser;
+    }
+
+    private User insert(User user, String passwordHash) {
+        if (userRepository.existsByEmail(user.getEmail())) {
+            throw new DuplicateResourceException("User", "email", user.getEmail());
+        }
+        user.setPassword(passwordHash);
+        User savedUser = userRepository.save(user);
+        reportCache.invalidate();
+        accountVersions.userSaved(savedUser);
+        return savedUser;
+    }
+}
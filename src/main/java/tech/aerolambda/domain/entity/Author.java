@@ -3,6 +3,7 @@ package tech.aerolambda.domain.entity;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
@@ -15,7 +16,9 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "authors")
+@Table(name = "authors", indexes = {
+        @Index(name = "idx_authors_created_at_id", columnList = "created_at, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -3,6 +3,7 @@ package tech.aerolambda.domain.entity;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -15,7 +16,14 @@ import lombok.experimental.SuperBuilder;
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "books")
+@Table(name = "books", indexes = {
+        @Index(name = "idx_books_title_id", columnList = "title, id"),
+        @Index(name = "idx_books_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_books_author_id_title", columnList = "author_id, title"),
+        @Index(name = "idx_books_store_id_title", columnList = "store_id, title"),
+        @Index(name = "idx_books_price_id", columnList = "price, id"),
+        @Index(name = "idx_books_publication_year_id", columnList = "publication_year, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
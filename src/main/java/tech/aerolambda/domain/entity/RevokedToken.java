@@ -0,0 +1,35 @@
+package tech.aerolambda.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.SuperBuilder;
+
+import java.time.Instant;
+
+/**
+ * A token signed out before it expired, by its {@code jti} claim. Kept until the token would have
+ * expired anyway.
+ */
+@Entity
+@Table(name = "revoked_tokens", indexes = {
+        @Index(name = "idx_revoked_tokens_expires_at", columnList = "expires_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@SuperBuilder
+public class RevokedToken extends BaseEntity {
+
+    @Column(name = "token_id", unique = true, nullable = false, length = 64)
+    private String tokenId;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+}
@@ -3,6 +3,7 @@ package tech.aerolambda.domain.entity;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
@@ -15,7 +16,10 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "stores")
+@Table(name = "stores", indexes = {
+        @Index(name = "idx_stores_name_id", columnList = "name, id"),
+        @Index(name = "idx_stores_created_at_id", columnList = "created_at, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -45,6 +45,11 @@ public class User extends BaseEntity implements UserDetails {
     @lombok.Builder.Default
     private boolean enabled = true;
 
+    // Raised whenever the email, password, role or enabled flag changes, so tokens issued
+    // before the change can be told apart
+    @Column(name = "account_version", nullable = false, columnDefinition = "bigint default 0 not null")
+    private long accountVersion;
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
@@ -4,5 +4,6 @@ public enum ReportFormat {
     PDF,
     CSV,
     XML,
-    JSON
+    JSON,
+    PARQUET
 }
@@ -0,0 +1,8 @@
+package tech.aerolambda.domain.enums;
+
+public enum ReportJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -5,5 +5,9 @@ public enum ReportType {
     AUTHORS,
     USERS,
     STORES,
-    BOOKS_BY_AUTHOR
+    BOOKS_BY_AUTHOR,
+    BOOKS_BY_YEAR,
+    PRICE_DISTRIBUTION,
+    STORE_INVENTORY,
+    AUTHOR_INVENTORY
 }
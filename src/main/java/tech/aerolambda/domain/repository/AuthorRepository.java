@@ -1,11 +1,18 @@
 package tech.aerolambda.domain.repository;
 
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import tech.aerolambda.domain.entity.Author;
+import tech.aerolambda.domain.repository.projection.IndexedText;
+import tech.aerolambda.domain.repository.projection.TextCount;
 
 import java.util.List;
 import java.util.Optional;
@@ -19,5 +26,25 @@ public interface AuthorRepository extends JpaRepository<Author, Long>, JpaSpecif
 
     boolean existsByNameIgnoreCase(String name);
 
-    Page<Author> findByNameContainingIgnoreCase(String name, Pageable pageable);
+    @Query("SELECT a FROM Author a")
+    Slice<Author> findSlice(Pageable pageable);
+
+    Slice<Author> findByNameContainingIgnoreCase(String name, Pageable pageable);
+
+    long countByNameContainingIgnoreCase(String name);
+
+    @Query("SELECT new tech.aerolambda.domain.repository.projection.IndexedText(a.id, a.name) FROM Author a")
+    List<IndexedText> findAllNames();
+
+    // Same prefix rules as BookRepository#countTitlesByWordPrefix; authors without books count once
+    @Query("SELECT new tech.aerolambda.domain.repository.projection.TextCount(a.name, COUNT(b) + 1) " +
+            "FROM Author a LEFT JOIN a.books b " +
+            "WHERE LOWER(a.name) LIKE CONCAT(:prefix, '%') ESCAPE '!' " +
+            "OR LOWER(a.name) LIKE CONCAT('% ', :prefix, '%') ESCAPE '!' " +
+            "GROUP BY a.id, a.name ORDER BY COUNT(b) DESC, a.name")
+    List<TextCount> countBooksByNameWordPrefix(@Param("prefix") String prefix, Limit limit);
+
+    default List<Author> findPage(Specification<Author> specification, Sort sort, int limit) {
+        return findBy(specification, query -> query.sortBy(sort).limit(limit).all());
+    }
 }
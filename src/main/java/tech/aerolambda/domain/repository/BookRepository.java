@@ -1,7 +1,10 @@
 package tech.aerolambda.domain.repository;
 
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
@@ -9,26 +12,45 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import tech.aerolambda.domain.entity.Book;
+import tech.aerolambda.domain.repository.projection.BookCount;
+import tech.aerolambda.domain.repository.projection.IndexedBook;
+import tech.aerolambda.domain.repository.projection.InventoryValue;
+import tech.aerolambda.domain.repository.projection.PriceBucketCount;
+import tech.aerolambda.domain.repository.projection.TextCount;
+import tech.aerolambda.domain.repository.projection.YearBookCount;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Repository
-public interface BookRepository extends JpaRepository<Book, Long>, JpaSpecificationExecutor<Book> {
+public interface BookRepository extends JpaRepository<Book, Long>, JpaSpecificationExecutor<Book>, BookSearchRepository {
 
     Optional<Book> findByIsbn(String isbn);
 
+    @EntityGraph(attributePaths = {"author", "store"})
+    List<Book> findAll();
+
+    @EntityGraph(attributePaths = {"author", "store"})
     List<Book> findByTitleContainingIgnoreCase(String title);
 
+    @EntityGraph(attributePaths = {"author", "store"})
     List<Book> findByAuthorId(Long authorId);
 
+    @EntityGraph(attributePaths = {"author", "store"})
     List<Book> findByStoreId(Long storeId);
 
+    @EntityGraph(attributePaths = {"author", "store"})
     List<Book> findByPriceBetween(BigDecimal minPrice, BigDecimal maxPrice);
 
+    @EntityGraph(attributePaths = {"author", "store"})
     List<Book> findByPublicationYear(Integer year);
 
+    @EntityGraph(attributePaths = {"author", "store"})
     @Query("SELECT b FROM Book b WHERE b.author.name LIKE %:authorName%")
     List<Book> findByAuthorNameContaining(@Param("authorName") String authorName);
 
@@ -37,22 +59,117 @@ public interface BookRepository extends JpaRepository<Book, Long>, JpaSpecificat
 
     boolean existsByIsbn(String isbn);
 
+    // Paged lookups return a Slice so no count query runs; totals come from the count methods
     @EntityGraph(attributePaths = {"author", "store"})
-    Page<Book> findAll(Pageable pageable);
+    @Query("SELECT b FROM Book b")
+    Slice<Book> findSlice(Pageable pageable);
 
     @EntityGraph(attributePaths = {"author", "store"})
-    Page<Book> findByTitleContainingIgnoreCase(String title, Pageable pageable);
+    Slice<Book> findByTitleContainingIgnoreCase(String title, Pageable pageable);
 
     @EntityGraph(attributePaths = {"author", "store"})
-    Page<Book> findByAuthorId(Long authorId, Pageable pageable);
+    Slice<Book> findByAuthorId(Long authorId, Pageable pageable);
 
     @EntityGraph(attributePaths = {"author", "store"})
-    Page<Book> findByStoreId(Long storeId, Pageable pageable);
+    Slice<Book> findByStoreId(Long storeId, Pageable pageable);
 
     @EntityGraph(attributePaths = {"author", "store"})
-    Page<Book> findByPriceBetween(BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable);
+    Slice<Book> findByPriceBetween(BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable);
 
     @EntityGraph(attributePaths = {"author", "store"})
-    @Query("SELECT b FROM Book b WHERE b.author.name LIKE %:authorName%")
-    Page<Book> findByAuthorNameContaining(@Param("authorName") String authorName, Pageable pageable);
+    List<Book> findByIdIn(Collection<Long> ids);
+
+    @Query("SELECT new tech.aerolambda.domain.repository.projection.IndexedBook(b.id, b.title, b.author.id) " +
+            "FROM Book b")
+    List<IndexedBook> findAllTitles();
+
+    /**
+     * Titles with a word starting with {@code prefix}, which must be lower case with LIKE
+     * wildcards escaped by '!', most copies first.
+     */
+    @Query("SELECT new tech.aerolambda.domain.repository.projection.TextCount(b.title, COUNT(b)) FROM Book b " +
+            "WHERE LOWER(b.title) LIKE CONCAT(:prefix, '%') ESCAPE '!' " +
+            "OR LOWER(b.title) LIKE CONCAT('% ', :prefix, '%') ESCAPE '!' " +
+            "GROUP BY b.title ORDER BY COUNT(b) DESC, b.title")
+    List<TextCount> countTitlesByWordPrefix(@Param("prefix") String prefix, Limit limit);
+
+    @Query("SELECT b.id FROM Book b WHERE b.author.id = :authorId")
+    List<Long> findIdsByAuthorId(@Param("authorId") Long authorId);
+
+    @Query("SELECT b.id FROM Book b WHERE b.store.id = :storeId")
+    List<Long> findIdsByStoreId(@Param("storeId") Long storeId);
+
+    // search_vector is maintained by FullTextSearchSchema; both use the 'english' configuration
+    @Query(value = "SELECT b.id FROM books b, to_tsquery('english', :query) q WHERE b.search_vector @@ q " +
+            "ORDER BY ts_rank_cd(b.search_vector, q) DESC, b.id", nativeQuery = true)
+    Slice<Long> searchIdsByText(@Param("query") String tsQuery, Pageable pageable);
+
+    @Query(value = "SELECT count(*) FROM books b WHERE b.search_vector @@ to_tsquery('english', :query)",
+            nativeQuery = true)
+    long countByText(@Param("query") String tsQuery);
+
+    long countByTitleContainingIgnoreCase(String title);
+
+    long countByAuthorId(Long authorId);
+
+    long countByStoreId(Long storeId);
+
+    long countByPriceBetween(BigDecimal minPrice, BigDecimal maxPrice);
+
+    @Query("SELECT new tech.aerolambda.domain.repository.projection.BookCount(b.author.id, COUNT(b)) " +
+            "FROM Book b WHERE b.author.id IN :authorIds GROUP BY b.author.id")
+    List<BookCount> countGroupedByAuthorId(@Param("authorIds") Collection<Long> authorIds);
+
+    @Query("SELECT new tech.aerolambda.domain.repository.projection.BookCount(b.store.id, COUNT(b)) " +
+            "FROM Book b WHERE b.store.id IN :storeIds GROUP BY b.store.id")
+    List<BookCount> countGroupedByStoreId(@Param("storeIds") Collection<Long> storeIds);
+
+    @Query("SELECT new tech.aerolambda.domain.repository.projection.YearBookCount(b.publicationYear, COUNT(b)) " +
+            "FROM Book b WHERE b.publicationYear IS NOT NULL AND b.createdAt >= :from AND b.createdAt < :to " +
+            "GROUP BY b.publicationYear ORDER BY b.publicationYear")
+    List<YearBookCount> countGroupedByPublicationYear(@Param("from") LocalDateTime from,
+                                                      @Param("to") LocalDateTime to);
+
+    // Bucketed in a derived table so the width parameter is not repeated in GROUP BY. The width is cast
+    // to the price column's type; otherwise the cast is taken from the first width bound and cached
+    @Query("SELECT new tech.aerolambda.domain.repository.projection.PriceBucketCount(p.lowerBound, COUNT(*)) " +
+            "FROM (SELECT FLOOR(b.price / CAST(:width AS BigDecimal(10, 2))) * CAST(:width AS BigDecimal(10, 2)) " +
+            "AS lowerBound FROM Book b " +
+            "WHERE b.price IS NOT NULL AND b.createdAt >= :from AND b.createdAt < :to) p " +
+            "GROUP BY p.lowerBound ORDER BY p.lowerBound")
+    List<PriceBucketCount> countGroupedByPriceBucket(@Param("width") BigDecimal width,
+                                                     @Param("from") LocalDateTime from,
+                                                     @Param("to") LocalDateTime to);
+
+    @Query("SELECT new tech.aerolambda.domain.repository.projection.InventoryValue(" +
+            "s.id, s.name, COUNT(b), SUM(b.price), CAST(AVG(b.price) AS BigDecimal)) " +
+            "FROM Store s LEFT JOIN Book b ON b.store = s AND b.createdAt >= :from AND b.createdAt < :to " +
+            "GROUP BY s.id, s.name ORDER BY s.name, s.id")
+    List<InventoryValue> sumInventoryPerStore(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("SELECT new tech.aerolambda.domain.repository.projection.InventoryValue(" +
+            "a.id, a.name, COUNT(b), SUM(b.price), CAST(AVG(b.price) AS BigDecimal)) " +
+            "FROM Author a LEFT JOIN Book b ON b.author = a AND b.createdAt >= :from AND b.createdAt < :to " +
+            "GROUP BY a.id, a.name ORDER BY a.name, a.id")
+    List<InventoryValue> sumInventoryPerAuthor(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * First {@code limit} books matching {@code specification} in {@code sort} order, with author
+     * and store fetched in the same query and no count query.
+     */
+    default List<Book> findPage(Specification<Book> specification, Sort sort, int limit) {
+        return findBy(specification, query -> query.sortBy(sort).limit(limit).project("author", "store").all());
+    }
+
+    default Map<Long, Long> countByAuthorIds(Collection<Long> authorIds) {
+        return authorIds.isEmpty() ? Map.of() : toCountMap(countGroupedByAuthorId(authorIds));
+    }
+
+    default Map<Long, Long> countByStoreIds(Collection<Long> storeIds) {
+        return storeIds.isEmpty() ? Map.of() : toCountMap(countGroupedByStoreId(storeIds));
+    }
+
+    private static Map<Long, Long> toCountMap(List<BookCount> counts) {
+        return counts.stream().collect(Collectors.toMap(BookCount::ownerId, BookCount::count));
+    }
 }
@@ -0,0 +1,15 @@
+package tech.aerolambda.domain.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import tech.aerolambda.domain.entity.Book;
+
+public interface BookSearchRepository {
+
+    /**
+     * Page of the books matching {@code specification} with their author and store, read as a
+     * Slice: unlike {@code findAll(Specification, Pageable)} it runs no count query.
+     */
+    Slice<Book> findSlice(Specification<Book> specification, Pageable pageable);
+}
@@ -0,0 +1,49 @@
+package tech.aerolambda.domain.repository;
+
+import jakarta.persistence.EntityGraph;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import tech.aerolambda.domain.entity.Book;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+class BookSearchRepositoryImpl implements BookSearchRepository {
+
+    private static final String FETCH_GRAPH = "jakarta.persistence.fetchgraph";
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Slice<Book> findSlice(Specification<Book> specification, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Book> query = cb.createQuery(Book.class);
+        Root<Book> root = query.from(Book.class);
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(root).orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        EntityGraph<Book> graph = entityManager.createEntityGraph(Book.class);
+        graph.addAttributeNodes("author", "store");
+        // One extra row tells whether another page follows
+        List<Book> rows = entityManager.createQuery(query)
+                .setHint(FETCH_GRAPH, graph)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+}
@@ -0,0 +1,28 @@
+package tech.aerolambda.domain.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import tech.aerolambda.domain.entity.RevokedToken;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Long> {
+
+    List<RevokedToken> findByExpiresAtAfter(Instant now);
+
+    List<RevokedToken> findByCreatedAtAfterAndExpiresAtAfter(LocalDateTime createdAfter, Instant now);
+
+    boolean existsByTokenId(String tokenId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RevokedToken r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
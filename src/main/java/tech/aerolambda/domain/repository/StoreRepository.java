@@ -1,11 +1,15 @@
 package tech.aerolambda.domain.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import tech.aerolambda.domain.entity.Store;
+import tech.aerolambda.domain.repository.projection.IndexedText;
 
 import java.util.List;
 import java.util.Optional;
@@ -21,7 +25,17 @@ public interface StoreRepository extends JpaRepository<Store, Long>, JpaSpecific
 
     boolean existsByNameIgnoreCase(String name);
 
-    Page<Store> findByNameContainingIgnoreCase(String name, Pageable pageable);
+    @Query("SELECT s FROM Store s")
+    Slice<Store> findSlice(Pageable pageable);
 
-    Page<Store> findByAddressContainingIgnoreCase(String address, Pageable pageable);
+    Slice<Store> findByNameContainingIgnoreCase(String name, Pageable pageable);
+
+    long countByNameContainingIgnoreCase(String name);
+
+    @Query("SELECT new tech.aerolambda.domain.repository.projection.IndexedText(s.id, s.name) FROM Store s")
+    List<IndexedText> findAllNames();
+
+    default List<Store> findPage(Specification<Store> specification, Sort sort, int limit) {
+        return findBy(specification, query -> query.sortBy(sort).limit(limit).all());
+    }
 }
@@ -2,9 +2,11 @@ package tech.aerolambda.domain.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import tech.aerolambda.domain.entity.User;
 import tech.aerolambda.domain.enums.UserRole;
+import tech.aerolambda.domain.repository.projection.AccountVersion;
 
 import java.util.List;
 import java.util.Optional;
@@ -19,4 +21,7 @@ public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificat
     List<User> findByNameContainingIgnoreCase(String name);
 
     boolean existsByEmail(String email);
+
+    @Query("SELECT new tech.aerolambda.domain.repository.projection.AccountVersion(u.id, u.accountVersion) FROM User u")
+    List<AccountVersion> findAllAccountVersions();
 }
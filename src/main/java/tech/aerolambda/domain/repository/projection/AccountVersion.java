@@ -0,0 +1,3 @@
+package tech.aerolambda.domain.repository.projection;
+
+public record AccountVersion(Long id, long version) {}
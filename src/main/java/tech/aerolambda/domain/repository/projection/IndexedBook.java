@@ -0,0 +1,3 @@
+package tech.aerolambda.domain.repository.projection;
+
+public record IndexedBook(Long id, String title, Long authorId) {}
@@ -0,0 +1,3 @@
+package tech.aerolambda.domain.repository.projection;
+
+public record IndexedText(Long id, String text) {}
@@ -0,0 +1,6 @@
+package tech.aerolambda.domain.repository.projection;
+
+import java.math.BigDecimal;
+
+public record InventoryValue(Long ownerId, String ownerName, long bookCount, BigDecimal totalValue,
+                             BigDecimal averagePrice) {}
@@ -0,0 +1,5 @@
+package tech.aerolambda.domain.repository.projection;
+
+import java.math.BigDecimal;
+
+public record PriceBucketCount(BigDecimal lowerBound, long count) {}
@@ -0,0 +1,71 @@
+package tech.aerolambda.domain.specification;
+
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+import tech.aerolambda.domain.entity.Book;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+public final class BookSpecifications {
+
+    private BookSpecifications() {
+    }
+
+    public static Specification<Book> hasAuthorId(Long authorId) {
+        return (root, query, cb) -> cb.equal(root.get("author").get("id"), authorId);
+    }
+
+    public static Specification<Book> hasStoreId(Long storeId) {
+        return (root, query, cb) -> cb.equal(root.get("store").get("id"), storeId);
+    }
+
+    public static Specification<Book> titleContains(String text) {
+        return (root, query, cb) -> cb.like(cb.lower(root.get("title")), containing(text), '!');
+    }
+
+    public static Specification<Book> authorNameContains(String text) {
+        return (root, query, cb) -> cb.like(cb.lower(root.join("author").get("name")), containing(text), '!');
+    }
+
+    /**
+     * Matches books priced from {@code minPrice} to {@code maxPrice}, both inclusive and either
+     * may be null.
+     */
+    public static Specification<Book> priceBetween(BigDecimal minPrice, BigDecimal maxPrice) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (minPrice != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("price"), minPrice));
+            }
+            if (maxPrice != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("price"), maxPrice));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Matches books published from {@code minYear} to {@code maxYear}, both inclusive and either
+     * may be null.
+     */
+    public static Specification<Book> publishedBetween(Integer minYear, Integer maxYear) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (minYear != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("publicationYear"), minYear));
+            }
+            if (maxYear != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("publicationYear"), maxYear));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    // Case-insensitive substring pattern with LIKE wildcards in the text escaped by '!'
+    private static String containing(String text) {
+        return "%" + text.toLowerCase(Locale.ROOT).replaceAll("[!%_]", "!$0") + "%";
+    }
+}
@@ -0,0 +1,34 @@
+package tech.aerolambda.domain.specification;
+
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+import tech.aerolambda.domain.entity.BaseEntity;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class EntitySpecifications {
+
+    private EntitySpecifications() {
+    }
+
+    /**
+     * Matches entities created on or after {@code startDate} and on or before {@code endDate}
+     * (both inclusive, either may be null), expressed as a half-open timestamp range so the
+     * predicate stays sargable on {@code created_at}.
+     */
+    public static <T extends BaseEntity> Specification<T> createdBetween(LocalDate startDate, LocalDate endDate) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (startDate != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.<LocalDateTime>get("createdAt"), startDate.atStartOfDay()));
+            }
+            if (endDate != null) {
+                predicates.add(cb.lessThan(root.<LocalDateTime>get("createdAt"), endDate.plusDays(1).atStartOfDay()));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+}
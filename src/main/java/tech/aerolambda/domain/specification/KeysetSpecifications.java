@@ -0,0 +1,47 @@
+package tech.aerolambda.domain.specification;
+
+import jakarta.persistence.criteria.Path;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import tech.aerolambda.domain.entity.BaseEntity;
+
+public final class KeysetSpecifications {
+
+    private static final String ID = "id";
+
+    private KeysetSpecifications() {
+    }
+
+    /**
+     * Order used for keyset pagination: {@code property}, then {@code id} in the same direction
+     * so rows with equal keys still have a stable position.
+     */
+    public static Sort orderBy(String property, boolean descending) {
+        Sort.Direction direction = descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort sort = Sort.by(direction, property);
+        return ID.equals(property) ? sort : sort.and(Sort.by(direction, ID));
+    }
+
+    /**
+     * Matches rows that come after ({@code value}, {@code id}) in {@link #orderBy} order. The
+     * redundant leading bound on {@code property} lets the database seek straight to the
+     * position through an index on ({@code property}, {@code id}) instead of filtering every
+     * row before it.
+     */
+    public static <T extends BaseEntity, Y extends Comparable<? super Y>> Specification<T> after(
+            String property, boolean descending, Y value, Long id) {
+        return (root, query, cb) -> {
+            Path<Y> key = root.get(property);
+            Path<Long> rowId = root.get(ID);
+            if (ID.equals(property)) {
+                return descending ? cb.lessThan(rowId, id) : cb.greaterThan(rowId, id);
+            }
+            if (descending) {
+                return cb.and(cb.lessThanOrEqualTo(key, value),
+                        cb.or(cb.lessThan(key, value), cb.lessThan(rowId, id)));
+            }
+            return cb.and(cb.greaterThanOrEqualTo(key, value),
+                    cb.or(cb.greaterThan(key, value), cb.greaterThan(rowId, id)));
+        };
+    }
+}
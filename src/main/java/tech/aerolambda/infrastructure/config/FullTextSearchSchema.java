@@ -0,0 +1,93 @@
+package tech.aerolambda.infrastructure.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Maintains {@code books.search_vector}, the weighted document behind full-text book search:
+ * title (A), author name (B) and description (C), kept current by triggers on {@code books} and
+ * {@code authors} and served by a GIN index. Hibernate's schema update cannot create any of this,
+ * so it is applied idempotently at startup, before data is seeded. It needs PostgreSQL; on other
+ * databases full-text search falls back to title matching.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class FullTextSearchSchema implements ApplicationRunner {
+
+    // The text search configuration here must match the one BookRepository queries with
+    private static final List<String> DDL = List.of(
+            "ALTER TABLE books ADD COLUMN IF NOT EXISTS search_vector tsvector",
+            "CREATE INDEX IF NOT EXISTS idx_books_search_vector ON books USING GIN (search_vector)",
+            """
+            CREATE OR REPLACE FUNCTION book_search_document(title text, description text, author_name text)
+            RETURNS tsvector LANGUAGE sql IMMUTABLE AS $$
+                SELECT setweight(to_tsvector('english', coalesce(title, '')), 'A')
+                    || setweight(to_tsvector('english', coalesce(author_name, '')), 'B')
+                    || setweight(to_tsvector('english', coalesce(description, '')), 'C')
+            $$""",
+            """
+            CREATE OR REPLACE FUNCTION books_refresh_search_vector() RETURNS trigger LANGUAGE plpgsql AS $$
+            BEGIN
+                NEW.search_vector := book_search_document(NEW.title, NEW.description,
+                        (SELECT name FROM authors WHERE id = NEW.author_id));
+                RETURN NEW;
+            END
+            $$""",
+            """
+            CREATE OR REPLACE FUNCTION authors_refresh_book_search_vectors() RETURNS trigger LANGUAGE plpgsql AS $$
+            BEGIN
+                UPDATE books SET search_vector = book_search_document(title, description, NEW.name)
+                WHERE author_id = NEW.id;
+                RETURN NULL;
+            END
+            $$""",
+            "DROP TRIGGER IF EXISTS books_search_vector ON books",
+            """
+            CREATE TRIGGER books_search_vector BEFORE INSERT OR UPDATE OF title, description, author_id ON books
+            FOR EACH ROW EXECUTE FUNCTION books_refresh_search_vector()""",
+            "DROP TRIGGER IF EXISTS authors_book_search_vectors ON authors",
+            """
+            CREATE TRIGGER authors_book_search_vectors AFTER UPDATE OF name ON authors
+            FOR EACH ROW WHEN (OLD.name IS DISTINCT FROM NEW.name)
+            EXECUTE FUNCTION authors_refresh_book_search_vectors()""",
+            """
+            UPDATE books b SET search_vector = book_search_document(b.title, b.description,
+                    (SELECT a.name FROM authors a WHERE a.id = b.author_id))
+            WHERE b.search_vector IS NULL"""
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile boolean available;
+
+    @Override
+    @Transactional
+    public void run(ApplicationArguments args) {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(database)) {
+            log.warn("Full-text search needs PostgreSQL, {} detected; searches will match titles only", database);
+            return;
+        }
+
+        DDL.forEach(jdbcTemplate::execute);
+        available = true;
+        log.info("Full-text search index is ready");
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+}
@@ -1,5 +1,6 @@
 package tech.aerolambda.infrastructure.config;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -14,16 +15,17 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.web.cors.CorsConfigurationSource;
-import tech.aerolambda.domain.repository.UserRepository;
 import tech.aerolambda.infrastructure.exception.ResourceNotFoundException;
+import tech.aerolambda.infrastructure.security.AccountVersions;
+import tech.aerolambda.infrastructure.security.BoundedPasswordEncoder;
 import tech.aerolambda.infrastructure.security.JwtAuthenticationFilter;
 import tech.aerolambda.infrastructure.security.JwtService;
+import tech.aerolambda.infrastructure.security.TokenRevocations;
+import tech.aerolambda.infrastructure.security.UserDetailsCache;
 
 @Configuration
 @EnableWebSecurity
@@ -31,8 +33,11 @@ import tech.aerolambda.infrastructure.security.JwtService;
 @RequiredArgsConstructor
 public class SecurityConfig {
 
-    private final UserRepository userRepository;
+    private final UserDetailsCache userDetailsCache;
     private final JwtService jwtService;
+    private final AccountVersions accountVersions;
+    private final TokenRevocations tokenRevocations;
+    private final BoundedPasswordEncoder passwordEncoder;
     private final CorsConfigurationSource corsConfigurationSource;
 
     @Bean
@@ -41,6 +46,7 @@ public class SecurityConfig {
                 .cors(cors -> cors.configurationSource(corsConfigurationSource))
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
                         .requestMatchers("/api/v1/auth/**").permitAll()
                         .requestMatchers("/api/health").permitAll()
@@ -59,6 +65,8 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.PUT, "/api/v1/stores/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.DELETE, "/api/v1/stores/**").hasRole("ADMIN")
                         .requestMatchers("/api/v1/users/**").hasRole("ADMIN")
+                        .requestMatchers("/api/v1/search-index/**").hasRole("ADMIN")
+                        .requestMatchers("/api/v1/security/**").hasRole("ADMIN")
                         .requestMatchers("/api/v1/reports/**").authenticated()
                         .anyRequest().authenticated()
                 )
@@ -71,12 +79,12 @@ public class SecurityConfig {
 
     @Bean
     public JwtAuthenticationFilter jwtAuthenticationFilter() {
-        return new JwtAuthenticationFilter(jwtService, userDetailsService());
+        return new JwtAuthenticationFilter(jwtService, userDetailsService(), accountVersions, tokenRevocations);
     }
 
     @Bean
     public UserDetailsService userDetailsService() {
-        return username -> userRepository.findByEmail(username)
+        return username -> userDetailsCache.find(username)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "email", username));
     }
 
@@ -84,7 +92,7 @@ public class SecurityConfig {
     public AuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService());
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
         return authProvider;
     }
 
@@ -93,11 +101,6 @@ public class SecurityConfig {
         return config.getAuthenticationManager();
     }
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
-    }
-
     @Bean
     public FilterRegistrationBean<JwtAuthenticationFilter> jwtFilterRegistration(JwtAuthenticationFilter filter) {
         FilterRegistrationBean<JwtAuthenticationFilter> registration = new FilterRegistrationBean<>(filter);
@@ -0,0 +1,8 @@
+package tech.aerolambda.infrastructure.exception;
+
+public class ResourceNotReadyException extends RuntimeException {
+
+    public ResourceNotReadyException(String message) {
+        super(message);
+    }
+}
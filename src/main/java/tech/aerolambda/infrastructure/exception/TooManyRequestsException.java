@@ -0,0 +1,8 @@
+package tech.aerolambda.infrastructure.exception;
+
+public class TooManyRequestsException extends RuntimeException {
+
+    public TooManyRequestsException(String message) {
+        super(message);
+    }
+}
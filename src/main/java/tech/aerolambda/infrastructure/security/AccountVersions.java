@@ -0,0 +1,133 @@
+package tech.aerolambda.infrastructure.security;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tech.aerolambda.domain.entity.User;
+import tech.aerolambda.domain.repository.UserRepository;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Account version of every user, so that with {@code app.security.stateless.enabled} requests are
+ * authenticated from the claims of their token without loading the user. A token carries the
+ * version its user had when it was issued; once the user's email, password, role or enabled flag
+ * changes, the version moves on and older tokens are turned away.
+ *
+ * <p>Versions only grow, so an update seen late never rolls an entry back, and a deleted user
+ * keeps an entry that no token can match. Changes made by another instance are picked up by
+ * re-reading the table every {@code app.security.stateless.refresh-interval}, so a demoted,
+ * disabled or deleted user's older tokens are trusted here for at most that long. If a refresh
+ * fails, requests load their user until one succeeds. A token newer than its entry is checked
+ * against the database, which also catches up the entry.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AccountVersions {
+
+    private static final long DELETED = Long.MAX_VALUE;
+
+    private final UserRepository userRepository;
+
+    private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    @Value("${app.security.stateless.enabled:false}")
+    private boolean enabled;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        refresh();
+        log.info("Loaded account versions of {} users, requests are authenticated from token claims",
+                versions.size());
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.stateless.refresh-interval:PT30S}",
+            initialDelayString = "${app.security.stateless.refresh-interval:PT30S}")
+    void refresh() {
+        if (!enabled) {
+            return;
+        }
+        // Only users known before the read can be missing from it because they were deleted;
+        // one recorded while it runs may have been created after it started
+        Set<Long> known = new HashSet<>(versions.keySet());
+        try {
+            userRepository.findAllAccountVersions().forEach(account -> {
+                record(account.id(), account.version());
+                known.remove(account.id());
+            });
+        } catch (RuntimeException e) {
+            ready = false;
+            log.warn("Could not refresh account versions, requests will load their user until a refresh succeeds",
+                    e);
+            return;
+        }
+        known.forEach(userId -> record(userId, DELETED));
+        ready = true;
+    }
+
+    /**
+     * Whether tokens can be checked here; until the versions are loaded, and when stateless
+     * authentication is off, every request loads its user.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public Freshness check(Long userId, long version) {
+        Long current = versions.get(userId);
+        if (current == null || version > current) {
+            return Freshness.UNKNOWN;
+        }
+        return version == current ? Freshness.CURRENT : Freshness.STALE;
+    }
+
+    public void record(Long userId, long version) {
+        if (enabled) {
+            versions.merge(userId, version, Math::max);
+        }
+    }
+
+    public void userSaved(User user) {
+        afterCommit(() -> record(user.getId(), user.getAccountVersion()));
+    }
+
+    public void userDeleted(Long userId) {
+        afterCommit(() -> record(userId, DELETED));
+    }
+
+    private void afterCommit(Runnable update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+
+    public enum Freshness {
+        /** The token carries the user's current version. */
+        CURRENT,
+        /** The user changed after the token was issued. */
+        STALE,
+        /** The user is not known here yet, or changed on another instance; ask the database. */
+        UNKNOWN
+    }
+}
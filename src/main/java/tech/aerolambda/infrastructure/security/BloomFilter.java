@@ -0,0 +1,70 @@
+package tech.aerolambda.infrastructure.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Set of strings that may answer "maybe" for strings never added, at about a 1% rate while it
+ * holds no more than its capacity, but never "no" for one that was. Adding is safe alongside
+ * lookups; strings cannot be removed, so the filter is rebuilt instead.
+ */
+final class BloomFilter {
+
+    private static final int HASHES = 7;
+    private static final int BITS_PER_ENTRY = 10;
+
+    private final AtomicLongArray words;
+    private final long bits;
+    private final int capacity;
+
+    BloomFilter(int capacity) {
+        this.capacity = Math.max(capacity, 64);
+        int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, ((long) this.capacity * BITS_PER_ENTRY + 63) / 64);
+        this.words = new AtomicLongArray(wordCount);
+        this.bits = (long) wordCount * 64;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    void add(String value) {
+        long hash = hash(value);
+        long step = mix(hash) | 1;
+        for (int i = 0; i < HASHES; i++) {
+            long bit = Long.remainderUnsigned(hash + i * step, bits);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = words.get(word);
+            while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+                current = words.get(word);
+            }
+        }
+    }
+
+    boolean mightContain(String value) {
+        long hash = hash(value);
+        long step = mix(hash) | 1;
+        for (int i = 0; i < HASHES; i++) {
+            long bit = Long.remainderUnsigned(hash + i * step, bits);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // FNV-1a over the chars, then mixed so that both halves of the double hash are well spread
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+        value = (value ^ (value >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return value ^ (value >>> 33);
+    }
+}
@@ -0,0 +1,122 @@
+package tech.aerolambda.infrastructure.security;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import tech.aerolambda.infrastructure.exception.TooManyRequestsException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * BCrypt run on a pool of at most one thread per core, so a burst of logins cannot take every
+ * core from other requests. The caller waits for its hash; once
+ * {@code app.security.password-hashing.queue-capacity} hashes are waiting, further ones are
+ * turned away with a 429 at once instead of queueing behind them.
+ */
+@Component
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate = new BCryptPasswordEncoder();
+
+    private final LongAdder hashes = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final AtomicLong maxHashNanos = new AtomicLong();
+    private final LongAdder rejected = new LongAdder();
+
+    @Value("${app.security.password-hashing.threads:0}")
+    private int threads;
+
+    @Value("${app.security.password-hashing.queue-capacity:64}")
+    private int queueCapacity;
+
+    private ThreadPoolTaskExecutor executor;
+
+    @PostConstruct
+    void init() {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("password-hash-");
+        executor.initialize();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return hash(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return hash(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    public Stats stats() {
+        long count = hashes.sum();
+        return new Stats(
+                executor.getMaxPoolSize(),
+                executor.getActiveCount(),
+                executor.getThreadPoolExecutor().getQueue().size(),
+                queueCapacity,
+                count,
+                rejected.sum(),
+                count > 0 ? hashNanos.sum() / count / 1e6 : 0,
+                count > 0 ? waitNanos.sum() / count / 1e6 : 0,
+                maxHashNanos.get() / 1e6);
+    }
+
+    private <T> T hash(Supplier<T> work) {
+        long submitted = System.nanoTime();
+        CompletableFuture<T> result;
+        try {
+            result = CompletableFuture.supplyAsync(() -> {
+                long started = System.nanoTime();
+                try {
+                    return work.get();
+                } finally {
+                    long elapsed = System.nanoTime() - started;
+                    hashes.increment();
+                    hashNanos.add(elapsed);
+                    waitNanos.add(started - submitted);
+                    maxHashNanos.accumulateAndGet(elapsed, Math::max);
+                }
+            }, executor);
+        } catch (TaskRejectedException e) {
+            rejected.increment();
+            throw new TooManyRequestsException("Too many sign-in requests in progress, try again shortly");
+        }
+
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing a password", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getCause());
+        }
+    }
+
+    public record Stats(int threads, int active, int queued, int queueCapacity, long hashes, long rejected,
+                        double averageHashMillis, double averageWaitMillis, double maxHashMillis) {}
+}
@@ -12,6 +12,8 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.web.filter.OncePerRequestFilter;
+import tech.aerolambda.domain.entity.User;
+import tech.aerolambda.infrastructure.security.AccountVersions.Freshness;
 
 import java.io.IOException;
 
@@ -20,6 +22,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final AccountVersions accountVersions;
+    private final TokenRevocations tokenRevocations;
 
     @Override
     protected void doFilterInternal(
@@ -29,7 +33,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     ) throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String userEmail;
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
@@ -39,17 +42,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         jwt = authHeader.substring(7);
 
         try {
-            userEmail = jwtService.extractUsername(jwt);
+            VerifiedToken token = jwtService.verify(jwt);
 
-            if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-
-                if (jwtService.isTokenValid(jwt, userDetails)) {
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails,
-                            null,
-                            userDetails.getAuthorities()
-                    );
+            if (token.subject() != null && !tokenRevocations.isRevoked(token)
+                    && SecurityContextHolder.getContext().getAuthentication() == null) {
+                UsernamePasswordAuthenticationToken authToken = authenticate(token);
+                if (authToken != null) {
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
                 }
@@ -60,4 +58,34 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * The authentication {@code token} stands for, or null if it must be turned away. Tokens
+     * carrying the current account version are trusted as they are; the rest load their user.
+     */
+    private UsernamePasswordAuthenticationToken authenticate(VerifiedToken token) {
+        if (accountVersions.isReady() && token.hasAccountClaims()) {
+            Freshness freshness = accountVersions.check(token.userId(), token.accountVersion());
+            if (freshness == Freshness.STALE) {
+                return null;
+            }
+            if (freshness == Freshness.CURRENT) {
+                TokenPrincipal principal = new TokenPrincipal(token.userId(), token.subject(), token.role());
+                return new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+            }
+        }
+
+        UserDetails userDetails = this.userDetailsService.loadUserByUsername(token.subject());
+        if (!jwtService.isTokenValid(token, userDetails)) {
+            return null;
+        }
+        if (userDetails instanceof User user) {
+            if (accountVersions.isReady() && token.hasAccountClaims()
+                    && token.accountVersion() < user.getAccountVersion()) {
+                return null;
+            }
+            accountVersions.record(user.getId(), user.getAccountVersion());
+        }
+        return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+    }
 }
@@ -0,0 +1,78 @@
+package tech.aerolambda.infrastructure.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import tech.aerolambda.infrastructure.exception.TooManyRequestsException;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Login attempts per client address and per email, counted in fixed windows of
+ * {@code app.security.login.window}. An attempt over either limit is turned away before its
+ * password is checked, so it costs no hashing. A successful login clears the count for its email.
+ */
+@Component
+public class LoginThrottle {
+
+    private static final String ADDRESS = "address:";
+    private static final String EMAIL = "email:";
+
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+    private final LongAdder rejected = new LongAdder();
+
+    @Value("${app.security.login.window:PT1M}")
+    private Duration window;
+
+    @Value("${app.security.login.max-attempts-per-email:10}")
+    private int maxAttemptsPerEmail;
+
+    @Value("${app.security.login.max-attempts-per-address:60}")
+    private int maxAttemptsPerAddress;
+
+    /**
+     * Counts a login attempt for {@code email} from {@code clientAddress}.
+     *
+     * @throws TooManyRequestsException if either has used up its attempts for this window
+     */
+    public void attempt(String email, String clientAddress) {
+        long now = System.nanoTime();
+        count(ADDRESS + clientAddress, maxAttemptsPerAddress, now);
+        count(EMAIL + normalize(email), maxAttemptsPerEmail, now);
+    }
+
+    public void succeeded(String email) {
+        windows.remove(EMAIL + normalize(email));
+    }
+
+    public long rejected() {
+        return rejected.sum();
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.login.window:PT1M}")
+    void removeExpired() {
+        long now = System.nanoTime();
+        windows.values().removeIf(current -> now - current.start() >= window.toNanos());
+    }
+
+    private void count(String key, int limit, long now) {
+        Window counted = windows.compute(key, (ignored, current) ->
+                current == null || now - current.start() >= window.toNanos()
+                        ? new Window(now, 1)
+                        : new Window(current.start(), current.attempts() + 1));
+        if (counted.attempts() > limit) {
+            rejected.increment();
+            throw new TooManyRequestsException("Too many login attempts, try again later");
+        }
+    }
+
+    private static String normalize(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Window(long start, int attempts) {}
+}
@@ -0,0 +1,25 @@
+package tech.aerolambda.infrastructure.security;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import tech.aerolambda.domain.enums.UserRole;
+
+import java.util.List;
+
+/**
+ * The authenticated user as described by the claims of a verified token, standing in for the
+ * {@link tech.aerolambda.domain.entity.User} entity when requests are authenticated statelessly.
+ * Its name is the email, as with the entity.
+ */
+public record TokenPrincipal(Long id, String email, UserRole role) implements AuthenticatedPrincipal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    public List<GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+}
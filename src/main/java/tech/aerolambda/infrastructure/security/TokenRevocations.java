@@ -0,0 +1,133 @@
+package tech.aerolambda.infrastructure.security;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import tech.aerolambda.domain.entity.RevokedToken;
+import tech.aerolambda.domain.repository.RevokedTokenRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tokens revoked before they expire, by their {@code jti} claim. Revocations are stored in the
+ * database so they survive restarts, and held in memory for the per-request check: a Bloom
+ * filter answers for nearly every token that was not revoked, and only a possible match is
+ * looked up in the exact set. Entries are dropped once their token would have expired anyway.
+ *
+ * <p>Revocations made by another instance are picked up by reading the ones created since the
+ * last read every {@code app.security.revocation.refresh-interval}, so a token signed out there
+ * is accepted here for at most that long. Tokens without a {@code jti}, issued before revocation
+ * existed, cannot be revoked.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TokenRevocations {
+
+    // Rows are stamped by the clock of the instance that wrote them, before their transaction
+    // commits, so each read goes back this far to catch ones that committed late or on a slow clock
+    private static final Duration READ_OVERLAP = Duration.ofMinutes(1);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    private final Map<String, Instant> revoked = new ConcurrentHashMap<>();
+    private final Object lock = new Object();
+    private volatile BloomFilter filter;
+    private volatile LocalDateTime readUpTo;
+
+    @Value("${app.security.revocation.expected-tokens:100000}")
+    private int expectedTokens;
+
+    // Loaded before the web server starts, so no request is let through on a revoked token
+    @PostConstruct
+    void load() {
+        LocalDateTime started = LocalDateTime.now();
+        revokedTokenRepository.findByExpiresAtAfter(Instant.now())
+                .forEach(token -> revoked.put(token.getTokenId(), token.getExpiresAt()));
+        filter = rebuild();
+        readUpTo = started;
+        log.info("Loaded {} revoked tokens", revoked.size());
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.revocation.refresh-interval:PT30S}",
+            initialDelayString = "${app.security.revocation.refresh-interval:PT30S}")
+    void refresh() {
+        LocalDateTime started = LocalDateTime.now();
+        List<RevokedToken> created;
+        try {
+            created = revokedTokenRepository.findByCreatedAtAfterAndExpiresAtAfter(
+                    readUpTo.minus(READ_OVERLAP), Instant.now());
+        } catch (RuntimeException e) {
+            log.warn("Could not read new token revocations, will retry on the next refresh", e);
+            return;
+        }
+        created.forEach(token -> add(token.getTokenId(), token.getExpiresAt()));
+        readUpTo = started;
+    }
+
+    public boolean isRevoked(VerifiedToken token) {
+        String id = token.id();
+        return id != null && filter.mightContain(id) && revoked.containsKey(id);
+    }
+
+    /**
+     * Revokes {@code token} until it expires. Revoking it again, or revoking a token without an
+     * id, does nothing.
+     */
+    public void revoke(VerifiedToken token) {
+        String id = token.id();
+        if (id == null || revoked.containsKey(id) || !token.expiresAt().isAfter(Instant.now())) {
+            return;
+        }
+        try {
+            if (!revokedTokenRepository.existsByTokenId(id)) {
+                revokedTokenRepository.save(RevokedToken.builder().tokenId(id).expiresAt(token.expiresAt()).build());
+            }
+        } catch (DataIntegrityViolationException e) {
+            // Revoked concurrently by another request
+        }
+        add(id, token.expiresAt());
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.revocation.sweep-interval:PT10M}")
+    void removeExpired() {
+        Instant now = Instant.now();
+        int deleted = revokedTokenRepository.deleteExpired(now);
+        synchronized (lock) {
+            if (revoked.values().removeIf(expiresAt -> !expiresAt.isAfter(now))) {
+                filter = rebuild();
+            }
+        }
+        if (deleted > 0) {
+            log.debug("Removed {} expired token revocations", deleted);
+        }
+    }
+
+    private void add(String id, Instant expiresAt) {
+        synchronized (lock) {
+            if (revoked.putIfAbsent(id, expiresAt) != null) {
+                return;
+            }
+            if (revoked.size() > filter.capacity()) {
+                filter = rebuild();
+            } else {
+                filter.add(id);
+            }
+        }
+    }
+
+    private BloomFilter rebuild() {
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedTokens, revoked.size() * 2));
+        revoked.keySet().forEach(rebuilt::add);
+        return rebuilt;
+    }
+}
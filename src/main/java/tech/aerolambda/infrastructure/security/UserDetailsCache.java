@@ -0,0 +1,165 @@
+package tech.aerolambda.infrastructure.security;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tech.aerolambda.domain.entity.User;
+import tech.aerolambda.domain.repository.UserRepository;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Users by email for authentication, kept for {@code app.security.user-cache.ttl} so that
+ * requests, logins and refreshes do not each load their user. The user services evict a user
+ * once a change to it commits; changes made by another instance are seen when the entry
+ * expires.
+ *
+ * <p>Concurrent lookups of a user that is not cached wait for a single load instead of each
+ * querying the database. Unknown emails are not cached. Every lookup gets its own detached copy,
+ * so callers cannot change what others see.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserDetailsCache {
+
+    private final UserRepository userRepository;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @Value("${app.security.user-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.security.user-cache.ttl:PT30S}")
+    private Duration ttl;
+
+    @Value("${app.security.user-cache.max-size:10000}")
+    private int maxEntries;
+
+    public Optional<User> find(String email) {
+        if (!enabled) {
+            return userRepository.findByEmail(email);
+        }
+
+        long now = System.nanoTime();
+        Entry entry = entries.get(email);
+        if (entry != null && now - entry.expiresAt() < 0) {
+            if (entry.user().isDone()) {
+                hits.increment();
+            } else {
+                coalesced.increment();
+            }
+            return Optional.ofNullable(await(entry)).map(UserDetailsCache::copy);
+        }
+
+        Entry loading = new Entry(new CompletableFuture<>(), now + ttl.toNanos());
+        Entry current = entry == null ? entries.putIfAbsent(email, loading)
+                : entries.replace(email, entry, loading) ? null : entries.get(email);
+        if (current != null) {
+            // Another lookup started loading first
+            coalesced.increment();
+            return Optional.ofNullable(await(current)).map(UserDetailsCache::copy);
+        }
+
+        misses.increment();
+        makeRoom(now);
+        User user;
+        try {
+            user = userRepository.findByEmail(email).orElse(null);
+        } catch (RuntimeException e) {
+            entries.remove(email, loading);
+            loading.user().completeExceptionally(e);
+            throw e;
+        }
+        if (user == null) {
+            entries.remove(email, loading);
+        }
+        loading.user().complete(user);
+        return Optional.ofNullable(user).map(UserDetailsCache::copy);
+    }
+
+    /**
+     * Drops the users with these emails once the surrounding transaction commits. A lookup still
+     * loading one of them is dropped as well, so nothing read before the commit is kept.
+     */
+    public void evict(String... emails) {
+        if (!enabled) {
+            return;
+        }
+        Runnable eviction = () -> {
+            for (String email : emails) {
+                entries.remove(email);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        } else {
+            eviction.run();
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(enabled, entries.size(), hits.sum(), misses.sum(), coalesced.sum(), evictions.sum());
+    }
+
+    private void makeRoom(long now) {
+        if (entries.size() <= maxEntries) {
+            return;
+        }
+        int before = entries.size();
+        entries.values().removeIf(entry -> now - entry.expiresAt() >= 0);
+        // Still full of live users: drop an arbitrary quarter rather than clearing everyone
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (entries.size() > maxEntries * 3L / 4 && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+        evictions.add(Math.max(0, before - entries.size()));
+    }
+
+    private static User await(Entry entry) {
+        try {
+            return entry.user().join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private static User copy(User user) {
+        return User.builder()
+                .id(user.getId())
+                .createdAt(user.getCreatedAt())
+                .updatedAt(user.getUpdatedAt())
+                .name(user.getName())
+                .email(user.getEmail())
+                .password(user.getPassword())
+                .role(user.getRole())
+                .enabled(user.isEnabled())
+                .accountVersion(user.getAccountVersion())
+                .build();
+    }
+
+    /**
+     * A user as loaded, or being loaded, and when it stops being served.
+     */
+    private record Entry(CompletableFuture<User> user, long expiresAt) {}
+
+    public record Stats(boolean enabled, int size, long hits, long misses, long coalesced, long evictions) {}
+}
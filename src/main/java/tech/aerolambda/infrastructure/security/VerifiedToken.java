@@ -0,0 +1,50 @@
+package tech.aerolambda.infrastructure.security;
+
+import io.jsonwebtoken.Claims;
+import tech.aerolambda.domain.enums.UserRole;
+
+import java.time.Instant;
+
+/**
+ * A JWT whose signature and expiry have been checked, and its claims. {@link JwtService#verify}
+ * produces one per request, so a token is parsed and its HMAC computed only once.
+ */
+public record VerifiedToken(String subject, Instant expiresAt, Claims claims) {
+
+    static final String USER_ID = "uid";
+    static final String ROLE = "role";
+    static final String ACCOUNT_VERSION = "ver";
+
+    static VerifiedToken of(Claims claims) {
+        return new VerifiedToken(claims.getSubject(), claims.getExpiration().toInstant(), claims);
+    }
+
+    /**
+     * Whether the token describes its user fully, as tokens issued by
+     * {@link JwtService#generateToken(tech.aerolambda.domain.entity.User)} do; older tokens only
+     * name the user.
+     */
+    public boolean hasAccountClaims() {
+        return claims.get(USER_ID) != null && claims.get(ROLE) != null && claims.get(ACCOUNT_VERSION) != null;
+    }
+
+    /**
+     * The token's {@code jti}, which identifies it for revocation; null for tokens issued before
+     * tokens had one.
+     */
+    public String id() {
+        return claims.getId();
+    }
+
+    public Long userId() {
+        return claims.get(USER_ID, Long.class);
+    }
+
+    public UserRole role() {
+        return UserRole.valueOf(claims.get(ROLE, String.class));
+    }
+
+    public long accountVersion() {
+        return claims.get(ACCOUNT_VERSION, Long.class);
+    }
+}
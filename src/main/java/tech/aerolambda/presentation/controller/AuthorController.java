@@ -19,6 +19,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import tech.aerolambda.application.dto.CursorPageResponse;
 import tech.aerolambda.application.dto.PageResponse;
 import tech.aerolambda.application.dto.author.AuthorRequest;
 import tech.aerolambda.application.dto.author.AuthorResponse;
@@ -41,12 +42,23 @@ public class AuthorController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(defaultValue = "name") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDir) {
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(defaultValue = "true") boolean includeTotal) {
         Sort sort = sortDir.equalsIgnoreCase("desc")
                 ? Sort.by(sortBy).descending()
                 : Sort.by(sortBy).ascending();
         Pageable pageable = PageRequest.of(page, size, sort);
-        return ResponseEntity.ok(authorService.findAll(pageable));
+        return ResponseEntity.ok(authorService.findAll(pageable, includeTotal));
+    }
+
+    @GetMapping("/scroll")
+    @Operation(summary = "Get all authors (cursor-paginated, constant cost per page and no total count)")
+    public ResponseEntity<CursorPageResponse<AuthorResponse>> scroll(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "name") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir) {
+        return ResponseEntity.ok(authorService.scroll(cursor, size, sortBy, sortDir));
     }
 
     @GetMapping("/all")
@@ -66,9 +78,20 @@ public class AuthorController {
     public ResponseEntity<PageResponse<AuthorResponse>> searchByName(
             @RequestParam String name,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "true") boolean includeTotal) {
         Pageable pageable = PageRequest.of(page, size, Sort.by("name").ascending());
-        return ResponseEntity.ok(authorService.searchByName(name, pageable));
+        return ResponseEntity.ok(authorService.searchByName(name, pageable, includeTotal));
+    }
+
+    @GetMapping("/search/fuzzy")
+    @Operation(summary = "Search authors by name, tolerating typos, closest first (paginated)")
+    public ResponseEntity<PageResponse<AuthorResponse>> fuzzySearchByName(
+            @RequestParam String name,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "true") boolean includeTotal) {
+        return ResponseEntity.ok(authorService.fuzzySearchByName(name, PageRequest.of(page, size), includeTotal));
     }
 
     @PostMapping
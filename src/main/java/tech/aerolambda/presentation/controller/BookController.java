@@ -9,6 +9,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -20,12 +21,16 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import tech.aerolambda.application.dto.CursorPageResponse;
 import tech.aerolambda.application.dto.PageResponse;
+import tech.aerolambda.application.dto.book.AutocompleteResponse;
 import tech.aerolambda.application.dto.book.BookRequest;
 import tech.aerolambda.application.dto.book.BookResponse;
+import tech.aerolambda.application.dto.book.BookSearchCriteria;
 import tech.aerolambda.application.service.BookService;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -43,12 +48,23 @@ public class BookController {
             @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size,
             @Parameter(description = "Sort field") @RequestParam(defaultValue = "title") String sortBy,
-            @Parameter(description = "Sort direction") @RequestParam(defaultValue = "asc") String sortDir) {
+            @Parameter(description = "Sort direction") @RequestParam(defaultValue = "asc") String sortDir,
+            @Parameter(description = "Include total counts (cached briefly)") @RequestParam(defaultValue = "true") boolean includeTotal) {
         Sort sort = sortDir.equalsIgnoreCase("desc")
                 ? Sort.by(sortBy).descending()
                 : Sort.by(sortBy).ascending();
         Pageable pageable = PageRequest.of(page, size, sort);
-        return ResponseEntity.ok(bookService.findAll(pageable));
+        return ResponseEntity.ok(bookService.findAll(pageable, includeTotal));
+    }
+
+    @GetMapping("/scroll")
+    @Operation(summary = "Get all books (cursor-paginated, constant cost per page and no total count)")
+    public ResponseEntity<CursorPageResponse<BookResponse>> scroll(
+            @Parameter(description = "Cursor from the previous page, omitted for the first page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Sort field: title, isbn, createdAt or id") @RequestParam(defaultValue = "title") String sortBy,
+            @Parameter(description = "Sort direction") @RequestParam(defaultValue = "asc") String sortDir) {
+        return ResponseEntity.ok(bookService.scroll(cursor, size, sortBy, sortDir));
     }
 
     @GetMapping("/all")
@@ -70,12 +86,70 @@ public class BookController {
             @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size,
             @Parameter(description = "Sort field") @RequestParam(defaultValue = "title") String sortBy,
-            @Parameter(description = "Sort direction") @RequestParam(defaultValue = "asc") String sortDir) {
+            @Parameter(description = "Sort direction") @RequestParam(defaultValue = "asc") String sortDir,
+            @Parameter(description = "Include total counts (cached briefly)") @RequestParam(defaultValue = "true") boolean includeTotal) {
+        Sort sort = sortDir.equalsIgnoreCase("desc")
+                ? Sort.by(sortBy).descending()
+                : Sort.by(sortBy).ascending();
+        Pageable pageable = PageRequest.of(page, size, sort);
+        return ResponseEntity.ok(bookService.searchByTitle(title, pageable, includeTotal));
+    }
+
+    @GetMapping("/filter")
+    @Operation(summary = "Search books by any combination of filters (paginated)")
+    public ResponseEntity<PageResponse<BookResponse>> filter(
+            @Parameter(description = "Text contained in the title") @RequestParam(required = false) String title,
+            @RequestParam(required = false) Long authorId,
+            @Parameter(description = "Text contained in the author's name") @RequestParam(required = false) String authorName,
+            @RequestParam(required = false) Long storeId,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @Parameter(description = "Earliest publication year") @RequestParam(required = false) Integer minYear,
+            @Parameter(description = "Latest publication year") @RequestParam(required = false) Integer maxYear,
+            @Parameter(description = "Created on or after (yyyy-MM-dd)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate createdFrom,
+            @Parameter(description = "Created on or before (yyyy-MM-dd)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate createdTo,
+            @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Sort field: title, price, publicationYear, createdAt or id") @RequestParam(defaultValue = "title") String sortBy,
+            @Parameter(description = "Sort direction") @RequestParam(defaultValue = "asc") String sortDir,
+            @Parameter(description = "Include total counts (cached briefly)") @RequestParam(defaultValue = "true") boolean includeTotal) {
+        BookSearchCriteria criteria = new BookSearchCriteria(title, authorId, authorName, storeId, minPrice, maxPrice,
+                minYear, maxYear, createdFrom, createdTo);
         Sort sort = sortDir.equalsIgnoreCase("desc")
                 ? Sort.by(sortBy).descending()
                 : Sort.by(sortBy).ascending();
         Pageable pageable = PageRequest.of(page, size, sort);
-        return ResponseEntity.ok(bookService.searchByTitle(title, pageable));
+        return ResponseEntity.ok(bookService.search(criteria, pageable, includeTotal));
+    }
+
+    @GetMapping("/search/fuzzy")
+    @Operation(summary = "Search books by title, tolerating typos, closest first (paginated)")
+    public ResponseEntity<PageResponse<BookResponse>> fuzzySearchByTitle(
+            @RequestParam String title,
+            @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Include total counts") @RequestParam(defaultValue = "true") boolean includeTotal) {
+        return ResponseEntity.ok(bookService.fuzzySearchByTitle(title, PageRequest.of(page, size), includeTotal));
+    }
+
+    @GetMapping("/autocomplete")
+    @Operation(summary = "Complete a partly typed title or author name, most books first")
+    public ResponseEntity<AutocompleteResponse> autocomplete(
+            @Parameter(description = "Typed text; matches the start of any word") @RequestParam String prefix,
+            @Parameter(description = "Maximum suggestions of each kind") @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(bookService.autocomplete(prefix, limit));
+    }
+
+    @GetMapping("/search/full-text")
+    @Operation(summary = "Search books by title, author and description, most relevant first (paginated)")
+    public ResponseEntity<PageResponse<BookResponse>> searchFullText(
+            @Parameter(description = "Words to search for; each also matches as a prefix") @RequestParam String q,
+            @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Include total counts (cached briefly)") @RequestParam(defaultValue = "true") boolean includeTotal) {
+        return ResponseEntity.ok(bookService.searchFullText(q, PageRequest.of(page, size), includeTotal));
     }
 
     @GetMapping("/author/{authorId}")
@@ -83,9 +157,10 @@ public class BookController {
     public ResponseEntity<PageResponse<BookResponse>> getByAuthorId(
             @PathVariable Long authorId,
             @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
-            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size) {
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Include total counts (cached briefly)") @RequestParam(defaultValue = "true") boolean includeTotal) {
         Pageable pageable = PageRequest.of(page, size, Sort.by("title").ascending());
-        return ResponseEntity.ok(bookService.findByAuthorId(authorId, pageable));
+        return ResponseEntity.ok(bookService.findByAuthorId(authorId, pageable, includeTotal));
     }
 
     @GetMapping("/store/{storeId}")
@@ -93,9 +168,10 @@ public class BookController {
     public ResponseEntity<PageResponse<BookResponse>> getByStoreId(
             @PathVariable Long storeId,
             @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
-            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size) {
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Include total counts (cached briefly)") @RequestParam(defaultValue = "true") boolean includeTotal) {
         Pageable pageable = PageRequest.of(page, size, Sort.by("title").ascending());
-        return ResponseEntity.ok(bookService.findByStoreId(storeId, pageable));
+        return ResponseEntity.ok(bookService.findByStoreId(storeId, pageable, includeTotal));
     }
 
     @GetMapping("/price-range")
@@ -104,9 +180,10 @@ public class BookController {
             @RequestParam BigDecimal minPrice,
             @RequestParam BigDecimal maxPrice,
             @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
-            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size) {
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Include total counts (cached briefly)") @RequestParam(defaultValue = "true") boolean includeTotal) {
         Pageable pageable = PageRequest.of(page, size, Sort.by("price").ascending());
-        return ResponseEntity.ok(bookService.findByPriceRange(minPrice, maxPrice, pageable));
+        return ResponseEntity.ok(bookService.findByPriceRange(minPrice, maxPrice, pageable, includeTotal));
     }
 
     @PostMapping
@@ -5,6 +5,7 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -12,13 +13,19 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import tech.aerolambda.application.service.ReportService;
 import tech.aerolambda.domain.enums.ReportFormat;
 import tech.aerolambda.domain.enums.ReportType;
 import tech.aerolambda.presentation.dto.report.ReportRequest;
+import tech.aerolambda.report.cache.ReportCacheKey;
+import tech.aerolambda.report.compression.ReportCompression;
+import tech.aerolambda.report.compression.ReportCompressor;
 
 import java.time.LocalDate;
 
@@ -30,33 +37,39 @@ import java.time.LocalDate;
 public class ReportController {
 
     private final ReportService reportService;
+    private final ReportCompressor reportCompressor;
 
     @GetMapping("/books/{format}")
     @Operation(summary = "Generate books report in specified format (PDF, CSV, XML, JSON)")
-    public ResponseEntity<byte[]> generateBooksReport(
+    public ResponseEntity<StreamingResponseBody> generateBooksReport(
             @PathVariable ReportFormat format,
-            @RequestParam(required = false) Integer limit) {
-        byte[] reportData = reportService.generateBooksReport(format, limit);
-        String contentType = reportService.getContentType(format);
-        String fileExtension = reportService.getFileExtension(format);
-        String filename = "books_report_" + LocalDate.now() + fileExtension;
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) ReportCompression archive,
+            @RequestParam(required = false) Integer compressionLevel,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        ReportCompression compression = selectCompression(format, archive, acceptEncoding);
+        int level = resolveLevel(compression, archive, compressionLevel);
 
-        return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(contentType))
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
-                .body(reportData);
+        StreamingResponseBody reportBody = outputStream -> reportService.writeBooksReport(format, limit, outputStream);
+        String filename = "books_report_" + LocalDate.now() + reportService.getFileExtension(format);
+
+        return buildReportResponse(ResponseEntity.ok(), format, archive, compression, level, filename, reportBody);
     }
 
     @GetMapping("/{type}/{format}")
     @Operation(summary = "Generate report by type and format with optional filters")
-    public ResponseEntity<byte[]> generateReport(
+    public ResponseEntity<StreamingResponseBody> generateReport(
             @PathVariable ReportType type,
             @PathVariable ReportFormat format,
             @RequestParam(required = false) Integer limit,
             @RequestParam(required = false) LocalDate startDate,
             @RequestParam(required = false) LocalDate endDate,
             @RequestParam(required = false) Long authorId,
-            Authentication authentication) {
+            @RequestParam(required = false) ReportCompression archive,
+            @RequestParam(required = false) Integer compressionLevel,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            Authentication authentication,
+            WebRequest webRequest) {
 
         if (type == ReportType.USERS && !isAdmin(authentication)) {
             return ResponseEntity.status(403).build();
@@ -69,15 +82,27 @@ public class ReportController {
                 .authorId(authorId)
                 .build();
 
-        byte[] reportData = reportService.generateReport(type, format, request);
-        String contentType = reportService.getContentType(format);
-        String fileExtension = reportService.getFileExtension(format);
-        String filename = type.name().toLowerCase() + "_report_" + LocalDate.now() + fileExtension;
+        reportService.validateReportRequest(type, request);
+        ReportCompression compression = selectCompression(format, archive, acceptEncoding);
+        int level = resolveLevel(compression, archive, compressionLevel);
 
-        return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(contentType))
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
-                .body(reportData);
+        // The body is written later; it must be the version the ETag names, not whatever is current then
+        ReportCacheKey key = reportService.getReportKey(type, format, request);
+        // Each encoding is a separate representation and needs its own validator
+        String eTag = representationETag(reportService.getReportETag(key), archive, compression);
+        if (webRequest.checkNotModified(eTag)) {
+            ResponseEntity.HeadersBuilder<?> notModified = ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag);
+            if (archive == null && reportService.isCompressible(format)) {
+                notModified.varyBy(HttpHeaders.ACCEPT_ENCODING);
+            }
+            return notModified.build();
+        }
+
+        StreamingResponseBody reportBody = outputStream -> reportService.writeReport(key, request, outputStream);
+        String filename = type.name().toLowerCase() + "_report_" + LocalDate.now() + reportService.getFileExtension(format);
+
+        return buildReportResponse(ResponseEntity.ok().eTag(eTag), format, archive, compression, level, filename,
+                reportBody);
     }
 
     @GetMapping("/types")
@@ -93,6 +118,56 @@ public class ReportController {
         return ResponseEntity.ok(ReportFormat.values());
     }
 
+    private ReportCompression selectCompression(ReportFormat format, ReportCompression archive, String acceptEncoding) {
+        if (archive != null) {
+            return archive;
+        }
+        return reportService.isCompressible(format) ? reportCompressor.negotiate(acceptEncoding) : null;
+    }
+
+    private int resolveLevel(ReportCompression compression, ReportCompression archive, Integer compressionLevel) {
+        if (compression == null) {
+            return 0;
+        }
+        return reportCompressor.resolveLevel(compression, compressionLevel, archive == null);
+    }
+
+    private String representationETag(String eTag, ReportCompression archive, ReportCompression compression) {
+        if (compression == null) {
+            return eTag;
+        }
+        String suffix = archive != null ? compression.getFileExtension().substring(1) : compression.getContentCoding();
+        return eTag.substring(0, eTag.length() - 1) + "-" + suffix + "\"";
+    }
+
+    private ResponseEntity<StreamingResponseBody> buildReportResponse(ResponseEntity.BodyBuilder response,
+                                                                      ReportFormat format,
+                                                                      ReportCompression archive,
+                                                                      ReportCompression compression,
+                                                                      int level,
+                                                                      String filename,
+                                                                      StreamingResponseBody reportBody) {
+        String contentType = reportService.getContentType(format);
+        if (archive != null) {
+            contentType = archive.getContentType();
+            reportBody = reportCompressor.compress(reportBody, archive, level, filename);
+            filename = archive == ReportCompression.ZIP
+                    ? filename.substring(0, filename.lastIndexOf('.')) + archive.getFileExtension()
+                    : filename + archive.getFileExtension();
+        } else if (reportService.isCompressible(format)) {
+            response.varyBy(HttpHeaders.ACCEPT_ENCODING);
+            if (compression != null) {
+                response.header(HttpHeaders.CONTENT_ENCODING, compression.getContentCoding());
+                reportBody = reportCompressor.compress(reportBody, compression, level, filename);
+            }
+        }
+
+        return response
+                .contentType(MediaType.parseMediaType(contentType))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(reportBody);
+    }
+
     private boolean isAdmin(Authentication authentication) {
         if (authentication == null) return false;
         return authentication.getAuthorities().contains(new SimpleGrantedAuthority("ROLE_ADMIN"));
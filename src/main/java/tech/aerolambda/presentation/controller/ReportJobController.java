@@ -0,0 +1,100 @@
+package tech.aerolambda.presentation.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import tech.aerolambda.application.dto.report.ReportJobDownload;
+import tech.aerolambda.application.dto.report.ReportJobResponse;
+import tech.aerolambda.application.service.ReportJobService;
+import tech.aerolambda.domain.enums.ReportFormat;
+import tech.aerolambda.domain.enums.ReportType;
+import tech.aerolambda.presentation.dto.report.ReportRequest;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/reports/jobs")
+@RequiredArgsConstructor
+@Tag(name = "Report Jobs", description = "Asynchronous report generation APIs")
+@SecurityRequirement(name = "bearerAuth")
+public class ReportJobController {
+
+    private final ReportJobService reportJobService;
+
+    @PostMapping("/{type}/{format}")
+    @Operation(summary = "Queue a report for background generation")
+    public ResponseEntity<ReportJobResponse> submit(
+            @PathVariable ReportType type,
+            @PathVariable ReportFormat format,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) LocalDate startDate,
+            @RequestParam(required = false) LocalDate endDate,
+            @RequestParam(required = false) Long authorId,
+            Authentication authentication) {
+
+        if (type == ReportType.USERS && !isAdmin(authentication)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        ReportRequest request = ReportRequest.builder()
+                .limit(limit)
+                .startDate(startDate)
+                .endDate(endDate)
+                .authorId(authorId)
+                .build();
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(reportJobService.submit(type, format, request, authentication.getName()));
+    }
+
+    @GetMapping
+    @Operation(summary = "List the current user's report jobs")
+    public ResponseEntity<List<ReportJobResponse>> getAll(Authentication authentication) {
+        return ResponseEntity.ok(reportJobService.findAll(authentication.getName()));
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get report job status")
+    public ResponseEntity<ReportJobResponse> getById(@PathVariable String id, Authentication authentication) {
+        return ResponseEntity.ok(reportJobService.findById(id, authentication.getName()));
+    }
+
+    @GetMapping("/{id}/download")
+    @Operation(summary = "Download a completed report (supports Range requests)")
+    public ResponseEntity<Resource> download(@PathVariable String id, Authentication authentication) {
+        ReportJobDownload download = reportJobService.download(id, authentication.getName());
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(download.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + download.filename() + "\"")
+                .body(download.resource());
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Delete a finished report job and its file")
+    public ResponseEntity<Void> delete(@PathVariable String id, Authentication authentication) {
+        reportJobService.delete(id, authentication.getName());
+        return ResponseEntity.noContent().build();
+    }
+
+    private boolean isAdmin(Authentication authentication) {
+        if (authentication == null) return false;
+        return authentication.getAuthorities().contains(new SimpleGrantedAuthority("ROLE_ADMIN"));
+    }
+}
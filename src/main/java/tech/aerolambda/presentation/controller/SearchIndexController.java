@@ -0,0 +1,35 @@
+package tech.aerolambda.presentation.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import tech.aerolambda.application.search.SearchIndex;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/search-index")
+@RequiredArgsConstructor
+@Tag(name = "Search index", description = "In-memory search index status")
+@SecurityRequirement(name = "bearerAuth")
+public class SearchIndexController {
+
+    private final SearchIndex searchIndex;
+
+    @GetMapping
+    @Operation(summary = "Get search index status and approximate memory use per index")
+    public ResponseEntity<Map<String, Object>> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", searchIndex.isEnabled());
+        status.put("ready", searchIndex.isReady());
+        status.put("indexes", searchIndex.footprint());
+        status.put("completions", searchIndex.completionFootprint());
+        return ResponseEntity.ok(status);
+    }
+}
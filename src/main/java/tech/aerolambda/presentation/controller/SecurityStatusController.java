@@ -0,0 +1,43 @@
+package tech.aerolambda.presentation.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import tech.aerolambda.infrastructure.security.BoundedPasswordEncoder;
+import tech.aerolambda.infrastructure.security.LoginThrottle;
+import tech.aerolambda.infrastructure.security.UserDetailsCache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/security")
+@RequiredArgsConstructor
+@Tag(name = "Security", description = "Authentication cache and password hashing status (Admin only)")
+@SecurityRequirement(name = "bearerAuth")
+public class SecurityStatusController {
+
+    private final UserDetailsCache userDetailsCache;
+    private final BoundedPasswordEncoder passwordEncoder;
+    private final LoginThrottle loginThrottle;
+
+    @GetMapping("/user-cache")
+    @Operation(summary = "Get size and hit/miss counts of the authentication user cache")
+    public ResponseEntity<UserDetailsCache.Stats> getUserCacheStats() {
+        return ResponseEntity.ok(userDetailsCache.stats());
+    }
+
+    @GetMapping("/password-hashing")
+    @Operation(summary = "Get password hashing pool load and latency, and throttled logins")
+    public ResponseEntity<Map<String, Object>> getPasswordHashingStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hashing", passwordEncoder.stats());
+        stats.put("throttledLogins", loginThrottle.rejected());
+        return ResponseEntity.ok(stats);
+    }
+}
@@ -19,6 +19,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import tech.aerolambda.application.dto.CursorPageResponse;
 import tech.aerolambda.application.dto.PageResponse;
 import tech.aerolambda.application.dto.store.StoreRequest;
 import tech.aerolambda.application.dto.store.StoreResponse;
@@ -41,12 +42,23 @@ public class StoreController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(defaultValue = "name") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDir) {
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(defaultValue = "true") boolean includeTotal) {
         Sort sort = sortDir.equalsIgnoreCase("desc")
                 ? Sort.by(sortBy).descending()
                 : Sort.by(sortBy).ascending();
         Pageable pageable = PageRequest.of(page, size, sort);
-        return ResponseEntity.ok(storeService.findAll(pageable));
+        return ResponseEntity.ok(storeService.findAll(pageable, includeTotal));
+    }
+
+    @GetMapping("/scroll")
+    @Operation(summary = "Get all stores (cursor-paginated, constant cost per page and no total count)")
+    public ResponseEntity<CursorPageResponse<StoreResponse>> scroll(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "name") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir) {
+        return ResponseEntity.ok(storeService.scroll(cursor, size, sortBy, sortDir));
     }
 
     @GetMapping("/all")
@@ -66,9 +78,20 @@ public class StoreController {
     public ResponseEntity<PageResponse<StoreResponse>> searchByName(
             @RequestParam String name,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "true") boolean includeTotal) {
         Pageable pageable = PageRequest.of(page, size, Sort.by("name").ascending());
-        return ResponseEntity.ok(storeService.searchByName(name, pageable));
+        return ResponseEntity.ok(storeService.searchByName(name, pageable, includeTotal));
+    }
+
+    @GetMapping("/search/fuzzy")
+    @Operation(summary = "Search stores by name, tolerating typos, closest first (paginated)")
+    public ResponseEntity<PageResponse<StoreResponse>> fuzzySearchByName(
+            @RequestParam String name,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "true") boolean includeTotal) {
+        return ResponseEntity.ok(storeService.fuzzySearchByName(name, PageRequest.of(page, size), includeTotal));
     }
 
     @PostMapping
@@ -0,0 +1,90 @@
+package tech.aerolambda.report;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+/**
+ * Typed column of a report. Extractors may return {@code null} for missing values; how values
+ * are rendered is left to each format.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ReportColumn<T> {
+
+    public enum Type {
+        LONG,
+        INTEGER,
+        DECIMAL,
+        STRING,
+        BOOLEAN,
+        TIMESTAMP
+    }
+
+    private final String name;
+    private final Type type;
+    private final int precision;
+    private final int scale;
+    private final boolean currency;
+    private final Function<T, ?> extractor;
+
+    public Object valueOf(T item) {
+        return extractor.apply(item);
+    }
+
+    /**
+     * Writes this column's value for {@code item} to {@code sink} as a typed cell.
+     */
+    public void write(T item, RowSink sink) throws IOException {
+        Object value = extractor.apply(item);
+        if (value == null) {
+            sink.nullCell();
+            return;
+        }
+
+        switch (type) {
+            case LONG -> sink.longCell((Long) value);
+            case INTEGER -> sink.intCell((Integer) value);
+            case DECIMAL -> sink.decimalCell((BigDecimal) value);
+            case STRING -> sink.stringCell((String) value);
+            case BOOLEAN -> sink.booleanCell((Boolean) value);
+            case TIMESTAMP -> sink.timestampCell((LocalDateTime) value);
+        }
+    }
+
+    public static <T> ReportColumn<T> ofLong(String name, Function<T, Long> extractor) {
+        return new ReportColumn<>(name, Type.LONG, 0, 0, false, extractor);
+    }
+
+    public static <T> ReportColumn<T> ofInteger(String name, Function<T, Integer> extractor) {
+        return new ReportColumn<>(name, Type.INTEGER, 0, 0, false, extractor);
+    }
+
+    public static <T> ReportColumn<T> ofDecimal(String name, int precision, int scale, Function<T, BigDecimal> extractor) {
+        return new ReportColumn<>(name, Type.DECIMAL, precision, scale, false, extractor);
+    }
+
+    /**
+     * Decimal column holding an amount of money, which text formats show with a currency sign.
+     */
+    public static <T> ReportColumn<T> ofCurrency(String name, int precision, int scale, Function<T, BigDecimal> extractor) {
+        return new ReportColumn<>(name, Type.DECIMAL, precision, scale, true, extractor);
+    }
+
+    public static <T> ReportColumn<T> ofString(String name, Function<T, String> extractor) {
+        return new ReportColumn<>(name, Type.STRING, 0, 0, false, extractor);
+    }
+
+    public static <T> ReportColumn<T> ofBoolean(String name, Function<T, Boolean> extractor) {
+        return new ReportColumn<>(name, Type.BOOLEAN, 0, 0, false, extractor);
+    }
+
+    public static <T> ReportColumn<T> ofTimestamp(String name, Function<T, LocalDateTime> extractor) {
+        return new ReportColumn<>(name, Type.TIMESTAMP, 0, 0, false, extractor);
+    }
+}
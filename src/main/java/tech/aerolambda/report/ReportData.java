@@ -4,19 +4,45 @@ import lombok.Builder;
 import lombok.Getter;
 import tech.aerolambda.domain.enums.ReportType;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
 
 @Getter
 @Builder
-public class ReportData<T> {
+public class ReportData<T> implements AutoCloseable {
     private final ReportType reportType;
     private final String title;
-    private final List<String> headers;
-    private final List<T> data;
-    private final RowMapper<T> rowMapper;
+    private final Stream<T> data;
+    private final LongSupplier recordCount;
+    private final List<ReportColumn<T>> columns;
 
-    @FunctionalInterface
-    public interface RowMapper<T> {
-        List<String> mapRow(T item);
+    public List<String> getHeaders() {
+        return columns.stream().map(ReportColumn::getName).toList();
+    }
+
+    /**
+     * Total number of records in {@link #getData()}. Evaluated on demand, so formats that do
+     * not print a record count up front never pay for the count query.
+     */
+    public long countRecords() {
+        return recordCount.getAsLong();
+    }
+
+    /**
+     * Writes {@code item} to {@code sink} as one row of typed cells.
+     */
+    public void writeRow(T item, RowSink sink) throws IOException {
+        sink.startRow();
+        for (ReportColumn<T> column : columns) {
+            column.write(item, sink);
+        }
+        sink.endRow();
+    }
+
+    @Override
+    public void close() {
+        data.close();
     }
 }
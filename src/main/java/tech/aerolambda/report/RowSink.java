@@ -0,0 +1,33 @@
+package tech.aerolambda.report;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Receives report rows as typed cells, in column order, between {@link #startRow()} and
+ * {@link #endRow()}. Each format implements it to write values in its own representation, so
+ * rows never pass through an intermediate list of strings.
+ */
+public interface RowSink {
+
+    default void startRow() throws IOException {
+    }
+
+    void nullCell() throws IOException;
+
+    void longCell(long value) throws IOException;
+
+    void intCell(int value) throws IOException;
+
+    void decimalCell(BigDecimal value) throws IOException;
+
+    void stringCell(String value) throws IOException;
+
+    void booleanCell(boolean value) throws IOException;
+
+    void timestampCell(LocalDateTime value) throws IOException;
+
+    default void endRow() throws IOException {
+    }
+}
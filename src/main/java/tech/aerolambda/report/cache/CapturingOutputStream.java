@@ -0,0 +1,54 @@
+package tech.aerolambda.report.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Passes everything through to the target stream while keeping a copy of up to
+ * {@code maxCapture} bytes. Once the output grows past that the copy is dropped.
+ */
+class CapturingOutputStream extends FilterOutputStream {
+
+    private final int maxCapture;
+    private ByteArrayOutputStream capture = new ByteArrayOutputStream();
+
+    CapturingOutputStream(OutputStream out, int maxCapture) {
+        super(out);
+        this.maxCapture = maxCapture;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        out.write(b);
+        capture(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        out.write(b, off, len);
+        capture(b, off, len);
+    }
+
+    @Override
+    public void close() throws IOException {
+        // The target belongs to the caller
+        flush();
+    }
+
+    byte[] captured() {
+        return capture != null ? capture.toByteArray() : null;
+    }
+
+    private void capture(byte[] b, int off, int len) {
+        if (capture == null) {
+            return;
+        }
+        if (capture.size() + len > maxCapture) {
+            capture = null;
+            return;
+        }
+        capture.write(b, off, len);
+    }
+}
@@ -0,0 +1,122 @@
+package tech.aerolambda.report.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tech.aerolambda.domain.enums.ReportFormat;
+import tech.aerolambda.domain.enums.ReportType;
+import tech.aerolambda.presentation.dto.report.ReportRequest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps rendered reports in memory, keyed on the normalized request and the current data
+ * version. Any write to reportable data calls {@link #invalidate()}, which bumps the version
+ * once the surrounding transaction commits, so stale output can never be served. Entries are
+ * evicted least-recently-used once {@code app.report.cache.max-bytes} is exceeded; reports
+ * larger than {@code app.report.cache.max-entry-bytes} are streamed but not kept.
+ */
+@Component
+public class ReportCache {
+
+    private final long epoch = System.currentTimeMillis();
+    private final AtomicLong dataVersion = new AtomicLong();
+    private final LinkedHashMap<ReportCacheKey, byte[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    @Value("${app.report.cache.max-bytes:67108864}")
+    private long maxBytes;
+
+    @Value("${app.report.cache.max-entry-bytes:8388608}")
+    private int maxEntryBytes;
+
+    public ReportCacheKey keyFor(ReportType type, ReportFormat format, ReportRequest request) {
+        return ReportCacheKey.of(type, format, request, dataVersion.get());
+    }
+
+    /**
+     * Weak validator for the report identified by {@code key}; it changes whenever the data
+     * version does, and differs between application restarts. A report written for a key whose
+     * version has since moved on holds newer data than this names, so revalidating with it
+     * fetches the report again rather than keeping stale data.
+     */
+    public String eTag(ReportCacheKey key) {
+        return "W/\"" + Long.toHexString(epoch) + "-" + key.dataVersion() + "-"
+                + Integer.toHexString(key.toString().hashCode()) + "\"";
+    }
+
+    /**
+     * Writes the cached report for {@code key} to {@code outputStream} if present, otherwise
+     * renders it with {@code writer} and caches the result when it is small enough.
+     */
+    public void write(ReportCacheKey key, OutputStream outputStream, ReportWriter writer) throws IOException {
+        byte[] cached = get(key);
+        if (cached != null) {
+            outputStream.write(cached);
+            outputStream.flush();
+            return;
+        }
+
+        CapturingOutputStream capturing = new CapturingOutputStream(outputStream, maxEntryBytes);
+        writer.write(capturing);
+        capturing.flush();
+
+        byte[] rendered = capturing.captured();
+        if (rendered != null) {
+            put(key, rendered);
+        }
+    }
+
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bumpVersion();
+                }
+            });
+        } else {
+            bumpVersion();
+        }
+    }
+
+    private synchronized byte[] get(ReportCacheKey key) {
+        return entries.get(key);
+    }
+
+    private synchronized void put(ReportCacheKey key, byte[] report) {
+        // A write committed while this report was rendering; it may not reflect it
+        if (key.dataVersion() != dataVersion.get() || report.length > maxBytes) {
+            return;
+        }
+
+        byte[] previous = entries.put(key, report);
+        if (previous != null) {
+            totalBytes -= previous.length;
+        }
+        totalBytes += report.length;
+
+        Iterator<Map.Entry<ReportCacheKey, byte[]>> eldest = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            totalBytes -= eldest.next().getValue().length;
+            eldest.remove();
+        }
+    }
+
+    private synchronized void bumpVersion() {
+        dataVersion.incrementAndGet();
+        entries.clear();
+        totalBytes = 0;
+    }
+
+    @FunctionalInterface
+    public interface ReportWriter {
+        void write(OutputStream outputStream) throws IOException;
+    }
+}
@@ -0,0 +1,27 @@
+package tech.aerolambda.report.cache;
+
+import tech.aerolambda.domain.enums.ReportFormat;
+import tech.aerolambda.domain.enums.ReportType;
+import tech.aerolambda.presentation.dto.report.ReportRequest;
+
+import java.time.LocalDate;
+
+public record ReportCacheKey(
+        ReportType type,
+        ReportFormat format,
+        Integer limit,
+        LocalDate startDate,
+        LocalDate endDate,
+        Long authorId,
+        long dataVersion
+) {
+    /**
+     * Builds a key in which equivalent requests compare equal: non-positive limits mean "no
+     * limit" and the author filter only counts for the report type that uses it.
+     */
+    public static ReportCacheKey of(ReportType type, ReportFormat format, ReportRequest request, long dataVersion) {
+        Integer limit = request.getLimit() != null && request.getLimit() > 0 ? request.getLimit() : null;
+        Long authorId = type == ReportType.BOOKS_BY_AUTHOR ? request.getAuthorId() : null;
+        return new ReportCacheKey(type, format, limit, request.getStartDate(), request.getEndDate(), authorId, dataVersion);
+    }
+}
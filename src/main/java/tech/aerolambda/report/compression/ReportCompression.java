@@ -0,0 +1,26 @@
+package tech.aerolambda.report.compression;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Compressions a report can be delivered with. {@link #GZIP} and {@link #ZSTD} are also HTTP
+ * content codings; {@link #ZIP} is only available as a downloadable archive.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ReportCompression {
+    GZIP("gzip", ".gz", "application/gzip", 1, 9),
+    ZSTD("zstd", ".zst", "application/zstd", 1, 19),
+    ZIP(null, ".zip", "application/zip", 1, 9);
+
+    private final String contentCoding;
+    private final String fileExtension;
+    private final String contentType;
+    private final int minLevel;
+    private final int maxLevel;
+
+    public boolean isContentCoding() {
+        return contentCoding != null;
+    }
+}
@@ -0,0 +1,180 @@
+package tech.aerolambda.report.compression;
+
+import com.github.luben.zstd.ZstdOutputStream;
+import com.github.luben.zstd.util.Native;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Compresses reports while they stream, so nothing is buffered beyond the compressor's own
+ * window. Content codings are negotiated from {@code Accept-Encoding} unless
+ * {@code app.report.compression.enabled} is off; archives are only produced on request.
+ * <p>
+ * The compressed stream is finished only when the report completes, so a failed report never
+ * ends in a well-formed but truncated download.
+ */
+@Slf4j
+@Component
+public class ReportCompressor {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    // Preferred first when the client accepts several codings with the same quality
+    private static final List<ReportCompression> CONTENT_CODINGS = List.of(ReportCompression.ZSTD, ReportCompression.GZIP);
+
+    @Value("${app.report.compression.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.report.compression.gzip-level:6}")
+    private int gzipLevel;
+
+    @Value("${app.report.compression.zstd-level:3}")
+    private int zstdLevel;
+
+    private boolean zstdAvailable;
+
+    @PostConstruct
+    void init() {
+        try {
+            Native.load();
+            zstdAvailable = true;
+        } catch (UnsatisfiedLinkError | RuntimeException e) {
+            log.warn("zstd is not available on this platform, reports will not be zstd-compressed: {}", e.getMessage());
+        }
+
+        resolveLevel(ReportCompression.GZIP, gzipLevel, false);
+        if (zstdAvailable) {
+            resolveLevel(ReportCompression.ZSTD, zstdLevel, false);
+        }
+    }
+
+    /**
+     * Picks the content coding to answer {@code acceptEncoding} with, or {@code null} if the
+     * report should be sent unencoded.
+     */
+    public ReportCompression negotiate(String acceptEncoding) {
+        if (!enabled || acceptEncoding == null || acceptEncoding.isBlank()) {
+            return null;
+        }
+
+        Map<String, Double> qualities = new HashMap<>();
+        for (String element : acceptEncoding.split(",")) {
+            String[] parameters = element.split(";");
+            String coding = parameters[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1.0;
+            for (int i = 1; i < parameters.length; i++) {
+                String parameter = parameters[i].trim();
+                if (parameter.startsWith("q=")) {
+                    quality = parseQuality(parameter.substring(2));
+                }
+            }
+            if (!coding.isEmpty()) {
+                qualities.put(coding, quality);
+            }
+        }
+
+        ReportCompression selected = null;
+        double selectedQuality = 0;
+        for (ReportCompression compression : CONTENT_CODINGS) {
+            if (!isAvailable(compression)) {
+                continue;
+            }
+            double quality = qualities.getOrDefault(compression.getContentCoding(), qualities.getOrDefault("*", 0.0));
+            if (quality > selectedQuality) {
+                selected = compression;
+                selectedQuality = quality;
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Returns {@code level}, or the configured default when it is {@code null}. A level outside
+     * the range {@code compression} supports is rejected, unless the compression was
+     * {@code negotiated} from {@code Accept-Encoding}: the client cannot know which coding
+     * applies, so the level is clamped into its range instead.
+     */
+    public int resolveLevel(ReportCompression compression, Integer level, boolean negotiated) {
+        if (!isAvailable(compression)) {
+            throw new IllegalArgumentException(compression + " compression is not available");
+        }
+        int resolved = level != null ? level : defaultLevel(compression);
+        if (resolved >= compression.getMinLevel() && resolved <= compression.getMaxLevel()) {
+            return resolved;
+        }
+        if (negotiated) {
+            return Math.max(compression.getMinLevel(), Math.min(compression.getMaxLevel(), resolved));
+        }
+        throw new IllegalArgumentException(String.format("%s compression level must be between %d and %d",
+                compression, compression.getMinLevel(), compression.getMaxLevel()));
+    }
+
+    /**
+     * Wraps {@code body} so it is written through {@code compression}. {@code entryName} names
+     * the single file inside a {@link ReportCompression#ZIP} archive and is otherwise unused.
+     */
+    public StreamingResponseBody compress(StreamingResponseBody body, ReportCompression compression, int level,
+                                          String entryName) {
+        return outputStream -> {
+            OutputStream compressed = new BufferedOutputStream(
+                    open(StreamUtils.nonClosing(outputStream), compression, level, entryName), BUFFER_SIZE);
+            body.writeTo(compressed);
+            // Writes the trailer; the response stream itself stays open
+            compressed.close();
+            outputStream.flush();
+        };
+    }
+
+    private OutputStream open(OutputStream outputStream, ReportCompression compression, int level, String entryName)
+            throws IOException {
+        return switch (compression) {
+            case GZIP -> new LevelGZIPOutputStream(outputStream, level);
+            case ZSTD -> new ZstdOutputStream(outputStream, level);
+            case ZIP -> {
+                ZipOutputStream zip = new ZipOutputStream(outputStream);
+                zip.setLevel(level);
+                zip.putNextEntry(new ZipEntry(entryName));
+                yield zip;
+            }
+        };
+    }
+
+    public boolean isAvailable(ReportCompression compression) {
+        return compression != ReportCompression.ZSTD || zstdAvailable;
+    }
+
+    private int defaultLevel(ReportCompression compression) {
+        return compression == ReportCompression.ZSTD ? zstdLevel : gzipLevel;
+    }
+
+    private static double parseQuality(String value) {
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static final class LevelGZIPOutputStream extends GZIPOutputStream {
+
+        LevelGZIPOutputStream(OutputStream outputStream, int level) throws IOException {
+            super(outputStream, BUFFER_SIZE);
+            def.setLevel(level);
+        }
+    }
+}
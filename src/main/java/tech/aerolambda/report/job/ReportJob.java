@@ -0,0 +1,60 @@
+package tech.aerolambda.report.job;
+
+import lombok.Getter;
+import tech.aerolambda.domain.enums.ReportFormat;
+import tech.aerolambda.domain.enums.ReportJobStatus;
+import tech.aerolambda.domain.enums.ReportType;
+import tech.aerolambda.presentation.dto.report.ReportRequest;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+@Getter
+public class ReportJob {
+
+    private final String id;
+    private final String owner;
+    private final ReportType type;
+    private final ReportFormat format;
+    private final ReportRequest request;
+    private final Path file;
+    private final LocalDateTime createdAt;
+
+    private volatile ReportJobStatus status;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime completedAt;
+    private volatile long size;
+    private volatile String error;
+
+    public ReportJob(String id, String owner, ReportType type, ReportFormat format, ReportRequest request, Path file) {
+        this.id = id;
+        this.owner = owner;
+        this.type = type;
+        this.format = format;
+        this.request = request;
+        this.file = file;
+        this.createdAt = LocalDateTime.now();
+        this.status = ReportJobStatus.QUEUED;
+    }
+
+    public boolean isActive() {
+        return status == ReportJobStatus.QUEUED || status == ReportJobStatus.RUNNING;
+    }
+
+    void markRunning() {
+        this.startedAt = LocalDateTime.now();
+        this.status = ReportJobStatus.RUNNING;
+    }
+
+    void markCompleted(long size) {
+        this.size = size;
+        this.completedAt = LocalDateTime.now();
+        this.status = ReportJobStatus.COMPLETED;
+    }
+
+    void markFailed(String error) {
+        this.error = error;
+        this.completedAt = LocalDateTime.now();
+        this.status = ReportJobStatus.FAILED;
+    }
+}
@@ -0,0 +1,52 @@
+package tech.aerolambda.report.job;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import tech.aerolambda.application.service.ReportService;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Renders a queued report into its spill file. Output goes to a {@code .part} sibling that is
+ * moved into place only once the report is complete, so a download never sees a partial file.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReportJobRunner {
+
+    public static final String FILE_PREFIX = "report-job-";
+
+    private final ReportService reportService;
+
+    public void run(ReportJob job) {
+        job.markRunning();
+        Path partial = job.getFile().resolveSibling(job.getFile().getFileName() + ".part");
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(partial))) {
+                reportService.writeReport(job.getType(), job.getFormat(), job.getRequest(), out);
+            }
+            Files.move(partial, job.getFile(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            job.markCompleted(Files.size(job.getFile()));
+            log.info("Report job {} completed ({} bytes)", job.getId(), job.getSize());
+        } catch (Exception e) {
+            log.error("Report job {} failed", job.getId(), e);
+            deleteQuietly(partial);
+            job.markFailed(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete partial report file {}", file, e);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package tech.aerolambda.report.parquet;
+
+import com.github.luben.zstd.Zstd;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Page compression codecs, numbered as in the Parquet format's {@code CompressionCodec}.
+ */
+public enum ParquetCodec {
+    UNCOMPRESSED(0),
+    GZIP(2),
+    ZSTD(6);
+
+    private final int id;
+
+    ParquetCodec(int id) {
+        this.id = id;
+    }
+
+    int id() {
+        return id;
+    }
+
+    byte[] compress(byte[] data) throws IOException {
+        return switch (this) {
+            case UNCOMPRESSED -> data;
+            case GZIP -> {
+                ByteArrayOutputStream compressed = new ByteArrayOutputStream(data.length / 4 + 64);
+                try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                    gzip.write(data);
+                }
+                yield compressed.toByteArray();
+            }
+            case ZSTD -> Zstd.compress(data);
+        };
+    }
+}
@@ -0,0 +1,393 @@
+package tech.aerolambda.report.parquet;
+
+import tech.aerolambda.report.ReportColumn;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes rows as a Parquet file with one flat, optional column per {@link ReportColumn}.
+ * <p>
+ * Values are buffered column by column and written out as a row group every
+ * {@code rowGroupSize} rows, so memory is bounded by the row group rather than the report. Each
+ * column chunk is a single PLAIN-encoded data page with RLE definition levels, compressed with
+ * the chosen codec. {@link #finish()} writes the footer and leaves the stream open.
+ */
+public final class ParquetWriter<T> {
+
+    private static final byte[] MAGIC = "PAR1".getBytes(StandardCharsets.US_ASCII);
+    // "<application> version <version>", the form readers parse before trusting column statistics
+    private static final String CREATED_BY = "book-search version 1.0";
+
+    // Physical types
+    private static final int BOOLEAN = 0;
+    private static final int INT32 = 1;
+    private static final int INT64 = 2;
+    private static final int BYTE_ARRAY = 6;
+
+    // Converted types, kept alongside logical types for older readers
+    private static final int CONVERTED_UTF8 = 0;
+    private static final int CONVERTED_DECIMAL = 5;
+
+    private static final int OPTIONAL = 1;
+    private static final int DATA_PAGE = 0;
+    private static final int ENCODING_PLAIN = 0;
+    private static final int ENCODING_RLE = 3;
+
+    private final PositionOutputStream out;
+    private final List<ReportColumn<T>> columns;
+    private final List<String> columnNames;
+    private final ColumnBuffer[] buffers;
+    private final ParquetCodec codec;
+    private final int rowGroupSize;
+    private final Map<String, String> metadata;
+    private final List<RowGroup> rowGroups = new ArrayList<>();
+    private long totalRows;
+    private int bufferedRows;
+
+    public ParquetWriter(OutputStream outputStream, List<ReportColumn<T>> columns, ParquetCodec codec, int rowGroupSize,
+                         Map<String, String> metadata) throws IOException {
+        this.out = new PositionOutputStream(outputStream);
+        this.columns = columns;
+        this.columnNames = columns.stream()
+                .map(column -> column.getName().toLowerCase().replace(" ", "_"))
+                .toList();
+        this.buffers = new ColumnBuffer[columns.size()];
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = new ColumnBuffer();
+        }
+        this.codec = codec;
+        this.rowGroupSize = rowGroupSize;
+        this.metadata = metadata;
+        out.write(MAGIC);
+    }
+
+    public void write(T item) throws IOException {
+        for (int i = 0; i < buffers.length; i++) {
+            ReportColumn<T> column = columns.get(i);
+            buffers[i].append(column, column.valueOf(item));
+        }
+        if (++bufferedRows == rowGroupSize) {
+            writeRowGroup();
+        }
+    }
+
+    public void finish() throws IOException {
+        if (bufferedRows > 0) {
+            writeRowGroup();
+        }
+        byte[] footer = fileMetaData();
+        out.write(footer);
+        writeIntLE(out, footer.length);
+        out.write(MAGIC);
+        out.flush();
+    }
+
+    private void writeRowGroup() throws IOException {
+        long fileOffset = out.position;
+        List<ColumnChunk> chunks = new ArrayList<>(buffers.length);
+        long totalByteSize = 0;
+        long totalCompressedSize = 0;
+
+        for (ColumnBuffer buffer : buffers) {
+            byte[] page = buffer.page();
+            byte[] compressed = codec.compress(page);
+            byte[] header = pageHeader(bufferedRows, page.length, compressed.length);
+
+            ColumnChunk chunk = new ColumnChunk(out.position, header.length + page.length,
+                    header.length + compressed.length, buffer.nullCount);
+            out.write(header);
+            out.write(compressed);
+            buffer.reset();
+
+            chunks.add(chunk);
+            totalByteSize += chunk.uncompressedSize();
+            totalCompressedSize += chunk.compressedSize();
+        }
+
+        rowGroups.add(new RowGroup(chunks, bufferedRows, fileOffset, totalByteSize, totalCompressedSize));
+        totalRows += bufferedRows;
+        bufferedRows = 0;
+        out.flush();
+    }
+
+    private byte[] pageHeader(int numValues, int uncompressedSize, int compressedSize) {
+        ThriftCompactWriter thrift = new ThriftCompactWriter();
+        thrift.fieldI32(1, DATA_PAGE);
+        thrift.fieldI32(2, uncompressedSize);
+        thrift.fieldI32(3, compressedSize);
+        thrift.beginStruct(5);
+        thrift.fieldI32(1, numValues);
+        thrift.fieldI32(2, ENCODING_PLAIN);
+        thrift.fieldI32(3, ENCODING_RLE);
+        thrift.fieldI32(4, ENCODING_RLE);
+        thrift.endStruct();
+        return thrift.finish();
+    }
+
+    private byte[] fileMetaData() {
+        ThriftCompactWriter thrift = new ThriftCompactWriter();
+        thrift.fieldI32(1, 1);
+
+        thrift.beginList(2, ThriftCompactWriter.TYPE_STRUCT, columns.size() + 1);
+        thrift.beginStructElement();
+        thrift.fieldString(4, "schema");
+        thrift.fieldI32(5, columns.size());
+        thrift.endStruct();
+        for (int i = 0; i < columns.size(); i++) {
+            writeSchemaElement(thrift, columns.get(i), columnNames.get(i));
+        }
+
+        thrift.fieldI64(3, totalRows);
+
+        thrift.beginList(4, ThriftCompactWriter.TYPE_STRUCT, rowGroups.size());
+        for (int i = 0; i < rowGroups.size(); i++) {
+            writeRowGroupMetaData(thrift, rowGroups.get(i), i);
+        }
+
+        if (!metadata.isEmpty()) {
+            thrift.beginList(5, ThriftCompactWriter.TYPE_STRUCT, metadata.size());
+            for (Map.Entry<String, String> entry : metadata.entrySet()) {
+                thrift.beginStructElement();
+                thrift.fieldString(1, entry.getKey());
+                thrift.fieldString(2, entry.getValue());
+                thrift.endStruct();
+            }
+        }
+
+        thrift.fieldString(6, CREATED_BY);
+        return thrift.finish();
+    }
+
+    private void writeSchemaElement(ThriftCompactWriter thrift, ReportColumn<T> column, String name) {
+        thrift.beginStructElement();
+        thrift.fieldI32(1, physicalType(column.getType()));
+        thrift.fieldI32(3, OPTIONAL);
+        thrift.fieldString(4, name);
+
+        switch (column.getType()) {
+            case STRING -> {
+                thrift.fieldI32(6, CONVERTED_UTF8);
+                thrift.beginStruct(10);
+                thrift.beginStruct(1);
+                thrift.endStruct();
+                thrift.endStruct();
+            }
+            case DECIMAL -> {
+                thrift.fieldI32(6, CONVERTED_DECIMAL);
+                thrift.fieldI32(7, column.getScale());
+                thrift.fieldI32(8, column.getPrecision());
+                thrift.beginStruct(10);
+                thrift.beginStruct(5);
+                thrift.fieldI32(1, column.getScale());
+                thrift.fieldI32(2, column.getPrecision());
+                thrift.endStruct();
+                thrift.endStruct();
+            }
+            case TIMESTAMP -> {
+                // Local date-times: microseconds, not adjusted to UTC
+                thrift.beginStruct(10);
+                thrift.beginStruct(8);
+                thrift.fieldBool(1, false);
+                thrift.beginStruct(2);
+                thrift.beginStruct(2);
+                thrift.endStruct();
+                thrift.endStruct();
+                thrift.endStruct();
+                thrift.endStruct();
+            }
+            default -> {
+            }
+        }
+        thrift.endStruct();
+    }
+
+    private void writeRowGroupMetaData(ThriftCompactWriter thrift, RowGroup rowGroup, int ordinal) {
+        thrift.beginStructElement();
+        thrift.beginList(1, ThriftCompactWriter.TYPE_STRUCT, rowGroup.chunks().size());
+        for (int i = 0; i < rowGroup.chunks().size(); i++) {
+            ColumnChunk chunk = rowGroup.chunks().get(i);
+            thrift.beginStructElement();
+            thrift.fieldI64(2, chunk.offset());
+            thrift.beginStruct(3);
+            thrift.fieldI32(1, physicalType(columns.get(i).getType()));
+            thrift.beginList(2, ThriftCompactWriter.TYPE_I32, 2);
+            thrift.elementI32(ENCODING_PLAIN);
+            thrift.elementI32(ENCODING_RLE);
+            thrift.beginList(3, ThriftCompactWriter.TYPE_BINARY, 1);
+            thrift.elementString(columnNames.get(i));
+            thrift.fieldI32(4, codec.id());
+            thrift.fieldI64(5, rowGroup.numRows());
+            thrift.fieldI64(6, chunk.uncompressedSize());
+            thrift.fieldI64(7, chunk.compressedSize());
+            thrift.fieldI64(9, chunk.offset());
+            thrift.beginStruct(12);
+            thrift.fieldI64(3, chunk.nullCount());
+            thrift.endStruct();
+            thrift.endStruct();
+            thrift.endStruct();
+        }
+        thrift.fieldI64(2, rowGroup.totalByteSize());
+        thrift.fieldI64(3, rowGroup.numRows());
+        thrift.fieldI64(5, rowGroup.fileOffset());
+        thrift.fieldI64(6, rowGroup.totalCompressedSize());
+        thrift.fieldI16(7, (short) ordinal);
+        thrift.endStruct();
+    }
+
+    private static int physicalType(ReportColumn.Type type) {
+        return switch (type) {
+            case BOOLEAN -> BOOLEAN;
+            case INTEGER -> INT32;
+            case LONG, DECIMAL, TIMESTAMP -> INT64;
+            case STRING -> BYTE_ARRAY;
+        };
+    }
+
+    private static void writeIntLE(OutputStream out, int value) throws IOException {
+        out.write(value);
+        out.write(value >>> 8);
+        out.write(value >>> 16);
+        out.write(value >>> 24);
+    }
+
+    private static void writeLongLE(OutputStream out, long value) throws IOException {
+        writeIntLE(out, (int) value);
+        writeIntLE(out, (int) (value >>> 32));
+    }
+
+    /**
+     * Definition levels and PLAIN-encoded values of one column for the current row group.
+     * Definition levels are run-length encoded as they arrive.
+     */
+    private static final class ColumnBuffer {
+
+        private final ByteArrayOutputStream levels = new ByteArrayOutputStream();
+        private final ByteArrayOutputStream values = new ByteArrayOutputStream();
+        private int runLevel;
+        private int runLength;
+        private int bits;
+        private int bitCount;
+        private long nullCount;
+
+        <T> void append(ReportColumn<T> column, Object value) throws IOException {
+            level(value != null ? 1 : 0);
+            if (value == null) {
+                nullCount++;
+                return;
+            }
+
+            switch (column.getType()) {
+                case LONG -> writeLongLE(values, ((Number) value).longValue());
+                case INTEGER -> writeIntLE(values, ((Number) value).intValue());
+                case DECIMAL -> writeLongLE(values, ((BigDecimal) value)
+                        .setScale(column.getScale(), RoundingMode.HALF_UP).unscaledValue().longValueExact());
+                case STRING -> {
+                    byte[] bytes = ((String) value).getBytes(StandardCharsets.UTF_8);
+                    writeIntLE(values, bytes.length);
+                    values.write(bytes);
+                }
+                case BOOLEAN -> {
+                    if ((Boolean) value) {
+                        bits |= 1 << bitCount;
+                    }
+                    if (++bitCount == 8) {
+                        flushBits();
+                    }
+                }
+                case TIMESTAMP -> {
+                    LocalDateTime dateTime = (LocalDateTime) value;
+                    writeLongLE(values, dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + dateTime.getNano() / 1_000);
+                }
+            }
+        }
+
+        /**
+         * Data page body: length-prefixed definition levels followed by the values.
+         */
+        byte[] page() throws IOException {
+            flushRun();
+            if (bitCount > 0) {
+                flushBits();
+            }
+            ByteArrayOutputStream page = new ByteArrayOutputStream(4 + levels.size() + values.size());
+            writeIntLE(page, levels.size());
+            levels.writeTo(page);
+            values.writeTo(page);
+            return page.toByteArray();
+        }
+
+        void reset() {
+            levels.reset();
+            values.reset();
+            nullCount = 0;
+        }
+
+        private void level(int level) {
+            if (runLength > 0 && level != runLevel) {
+                flushRun();
+            }
+            runLevel = level;
+            runLength++;
+        }
+
+        private void flushRun() {
+            if (runLength == 0) {
+                return;
+            }
+            // RLE run header is the run length shifted left by one; the level fits in one byte
+            int header = runLength << 1;
+            while ((header & ~0x7F) != 0) {
+                levels.write((header & 0x7F) | 0x80);
+                header >>>= 7;
+            }
+            levels.write(header);
+            levels.write(runLevel);
+            runLength = 0;
+        }
+
+        private void flushBits() {
+            values.write(bits);
+            bits = 0;
+            bitCount = 0;
+        }
+    }
+
+    private record ColumnChunk(long offset, long uncompressedSize, long compressedSize, long nullCount) {
+    }
+
+    private record RowGroup(List<ColumnChunk> chunks, long numRows, long fileOffset, long totalByteSize,
+                            long totalCompressedSize) {
+    }
+
+    private static final class PositionOutputStream extends FilterOutputStream {
+
+        private long position;
+
+        PositionOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            position++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            position += len;
+        }
+    }
+}
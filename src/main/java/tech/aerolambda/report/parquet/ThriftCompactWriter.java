@@ -0,0 +1,128 @@
+package tech.aerolambda.report.parquet;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Minimal encoder for the Thrift compact protocol, covering the field types Parquet metadata
+ * uses. The writer starts inside the top-level struct. Fields of every struct are written in
+ * ascending id order, and each {@link #beginStruct(int)} or {@link #beginStructElement()} must be
+ * matched by {@link #endStruct()}.
+ */
+final class ThriftCompactWriter {
+
+    static final byte TYPE_I32 = 5;
+    static final byte TYPE_I64 = 6;
+    static final byte TYPE_BINARY = 8;
+    static final byte TYPE_STRUCT = 12;
+
+    private static final byte TYPE_BOOLEAN_TRUE = 1;
+    private static final byte TYPE_BOOLEAN_FALSE = 2;
+    private static final byte TYPE_I16 = 4;
+    private static final byte TYPE_LIST = 9;
+    private static final int MAX_DEPTH = 16;
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final int[] lastFieldIds = new int[MAX_DEPTH];
+    private int depth;
+
+    void fieldBool(int id, boolean value) {
+        fieldHeader(id, value ? TYPE_BOOLEAN_TRUE : TYPE_BOOLEAN_FALSE);
+    }
+
+    void fieldI16(int id, short value) {
+        fieldHeader(id, TYPE_I16);
+        writeVarLong(zigZag(value));
+    }
+
+    void fieldI32(int id, int value) {
+        fieldHeader(id, TYPE_I32);
+        writeVarLong(zigZag(value));
+    }
+
+    void fieldI64(int id, long value) {
+        fieldHeader(id, TYPE_I64);
+        writeVarLong(zigZag(value));
+    }
+
+    void fieldString(int id, String value) {
+        fieldHeader(id, TYPE_BINARY);
+        writeBinary(value);
+    }
+
+    void beginStruct(int id) {
+        fieldHeader(id, TYPE_STRUCT);
+        push();
+    }
+
+    void beginList(int id, byte elementType, int size) {
+        fieldHeader(id, TYPE_LIST);
+        if (size < 15) {
+            out.write((size << 4) | elementType);
+        } else {
+            out.write(0xF0 | elementType);
+            writeVarLong(size);
+        }
+    }
+
+    void beginStructElement() {
+        push();
+    }
+
+    void elementI32(int value) {
+        writeVarLong(zigZag(value));
+    }
+
+    void elementString(String value) {
+        writeBinary(value);
+    }
+
+    void endStruct() {
+        out.write(0);
+        depth--;
+    }
+
+    /**
+     * Ends the top-level struct and returns its encoding.
+     */
+    byte[] finish() {
+        if (depth != 0) {
+            throw new IllegalStateException("Unbalanced Thrift struct");
+        }
+        out.write(0);
+        return out.toByteArray();
+    }
+
+    private void push() {
+        lastFieldIds[++depth] = 0;
+    }
+
+    private void fieldHeader(int id, byte type) {
+        int delta = id - lastFieldIds[depth];
+        if (delta > 0 && delta <= 15) {
+            out.write((delta << 4) | type);
+        } else {
+            out.write(type);
+            writeVarLong(zigZag(id));
+        }
+        lastFieldIds[depth] = id;
+    }
+
+    private void writeBinary(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(bytes.length);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    private void writeVarLong(long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+}
@@ -0,0 +1,115 @@
+package tech.aerolambda.report.render;
+
+import tech.aerolambda.report.RowSink;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * Rows recorded as typed cells so they can be mapped on one thread and formatted on another.
+ * Primitive values are kept unboxed, and a chunk is reused after {@link #clear()} rather than
+ * reallocated.
+ */
+public final class RowChunk implements RowSink {
+
+    private static final byte NULL = 0;
+    private static final byte LONG = 1;
+    private static final byte INT = 2;
+    private static final byte DECIMAL = 3;
+    private static final byte STRING = 4;
+    private static final byte BOOLEAN = 5;
+    private static final byte TIMESTAMP = 6;
+
+    private final int columns;
+    private final byte[] kinds;
+    private final long[] primitives;
+    private final Object[] objects;
+    private int cells;
+
+    RowChunk(int columns, int rows) {
+        this.columns = columns;
+        this.kinds = new byte[columns * rows];
+        this.primitives = new long[columns * rows];
+        this.objects = new Object[columns * rows];
+    }
+
+    public int size() {
+        return cells / columns;
+    }
+
+    /**
+     * Writes every recorded row to {@code sink}, in order.
+     */
+    public void replay(RowSink sink) throws IOException {
+        for (int cell = 0; cell < cells; cell++) {
+            if (cell % columns == 0) {
+                sink.startRow();
+            }
+            switch (kinds[cell]) {
+                case NULL -> sink.nullCell();
+                case LONG -> sink.longCell(primitives[cell]);
+                case INT -> sink.intCell((int) primitives[cell]);
+                case DECIMAL -> sink.decimalCell((BigDecimal) objects[cell]);
+                case STRING -> sink.stringCell((String) objects[cell]);
+                case BOOLEAN -> sink.booleanCell(primitives[cell] != 0);
+                case TIMESTAMP -> sink.timestampCell((LocalDateTime) objects[cell]);
+                default -> throw new IllegalStateException("Unknown cell kind " + kinds[cell]);
+            }
+            if (cell % columns == columns - 1) {
+                sink.endRow();
+            }
+        }
+    }
+
+    void clear() {
+        Arrays.fill(objects, 0, cells, null);
+        cells = 0;
+    }
+
+    @Override
+    public void nullCell() {
+        kinds[cells++] = NULL;
+    }
+
+    @Override
+    public void longCell(long value) {
+        primitive(LONG, value);
+    }
+
+    @Override
+    public void intCell(int value) {
+        primitive(INT, value);
+    }
+
+    @Override
+    public void decimalCell(BigDecimal value) {
+        object(DECIMAL, value);
+    }
+
+    @Override
+    public void stringCell(String value) {
+        object(STRING, value);
+    }
+
+    @Override
+    public void booleanCell(boolean value) {
+        primitive(BOOLEAN, value ? 1 : 0);
+    }
+
+    @Override
+    public void timestampCell(LocalDateTime value) {
+        object(TIMESTAMP, value);
+    }
+
+    private void primitive(byte kind, long value) {
+        kinds[cells] = kind;
+        primitives[cells++] = value;
+    }
+
+    private void object(byte kind, Object value) {
+        kinds[cells] = kind;
+        objects[cells++] = value;
+    }
+}
@@ -0,0 +1,170 @@
+package tech.aerolambda.report.render;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import tech.aerolambda.report.ReportData;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Renders report rows in ordered chunks of {@code app.report.render.chunk-size}.
+ * <p>
+ * Rows are always read and mapped into typed {@link RowChunk}s on the calling thread, since
+ * mapping may touch the persistence context; chunks are reused once formatted. With
+ * {@code app.report.render.parallelism} above one, each full chunk is then formatted into its
+ * own buffer on a dedicated fork-join pool and the buffers are written in order; at most two
+ * chunks per worker are in flight, so memory stays bounded. Otherwise,
+ * and for reports that fit in a single chunk, chunks are formatted straight into the output.
+ * Both paths use the same {@link ChunkFormatter}, so the output is byte-identical.
+ */
+@Component
+public class RowRenderer {
+
+    @Value("${app.report.render.parallelism:0}")
+    private int parallelism;
+
+    @Value("${app.report.render.chunk-size:500}")
+    private int chunkSize;
+
+    private ForkJoinPool pool;
+
+    @PostConstruct
+    void init() {
+        if (parallelism <= 0) {
+            parallelism = Runtime.getRuntime().availableProcessors();
+        }
+        if (parallelism > 1) {
+            pool = new ForkJoinPool(parallelism);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Maps and formats every row of {@code reportData} into {@code outputStream}.
+     *
+     * @return the number of rows rendered
+     */
+    public <T> long render(ReportData<T> reportData, OutputStream outputStream, ChunkFormatter formatter)
+            throws IOException {
+        int columns = reportData.getColumns().size();
+        Iterator<T> rows = reportData.getData().iterator();
+        Deque<PendingChunk> inFlight = new ArrayDeque<>();
+        Deque<RowChunk> free = new ArrayDeque<>();
+
+        long count = 0;
+        int chunkIndex = 0;
+        RowChunk chunk = new RowChunk(columns, chunkSize);
+        try {
+            while (rows.hasNext()) {
+                reportData.writeRow(rows.next(), chunk);
+                count++;
+                if (chunk.size() == chunkSize) {
+                    if (submit(chunk, chunkIndex++, !rows.hasNext(), formatter, outputStream, inFlight, free)) {
+                        chunk = free.isEmpty() ? new RowChunk(columns, chunkSize) : free.poll();
+                    }
+                }
+            }
+            if (chunk.size() > 0) {
+                submit(chunk, chunkIndex, true, formatter, outputStream, inFlight, free);
+            }
+            while (!inFlight.isEmpty()) {
+                writeCompleted(inFlight, free, outputStream);
+            }
+        } finally {
+            inFlight.forEach(pending -> pending.result().cancel(true));
+        }
+        return count;
+    }
+
+    /**
+     * Formats {@code chunk} in place or hands it to the pool.
+     *
+     * @return whether the chunk was handed off; otherwise it has been cleared for reuse
+     */
+    private boolean submit(RowChunk chunk, int chunkIndex, boolean last, ChunkFormatter formatter,
+                           OutputStream outputStream, Deque<PendingChunk> inFlight, Deque<RowChunk> free)
+            throws IOException {
+        if (pool == null || (chunkIndex == 0 && last)) {
+            formatter.format(chunk, chunkIndex, outputStream);
+            chunk.clear();
+            return false;
+        }
+
+        inFlight.add(new PendingChunk(chunk, pool.submit(() -> {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            try {
+                formatter.format(chunk, chunkIndex, buffer);
+            } catch (IOException e) {
+                // Otherwise the pool wraps it in a plain RuntimeException
+                throw new UncheckedIOException(e);
+            }
+            return buffer.toByteArray();
+        })));
+        while (inFlight.size() >= parallelism * 2) {
+            writeCompleted(inFlight, free, outputStream);
+        }
+        return true;
+    }
+
+    private void writeCompleted(Deque<PendingChunk> inFlight, Deque<RowChunk> free, OutputStream outputStream)
+            throws IOException {
+        PendingChunk pending = inFlight.poll();
+        outputStream.write(await(pending.result()));
+        pending.chunk().clear();
+        free.add(pending.chunk());
+    }
+
+    private byte[] await(Future<byte[]> pending) throws IOException {
+        try {
+            return pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while rendering report", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            // A fork-join task rethrows a copy of what it threw on another thread, wrapping the original
+            if (cause != null && cause.getCause() != null && cause.getCause().getClass() == cause.getClass()) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (cause instanceof UncheckedIOException uncheckedIOException) {
+                throw uncheckedIOException.getCause();
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Report chunk rendering failed", cause);
+        }
+    }
+
+    /**
+     * Formats one chunk of mapped rows. Must depend only on its arguments; chunks may be
+     * formatted concurrently and out of order.
+     */
+    @FunctionalInterface
+    public interface ChunkFormatter {
+        void format(RowChunk rows, int chunkIndex, OutputStream outputStream) throws IOException;
+    }
+
+    private record PendingChunk(RowChunk chunk, Future<byte[]> result) {
+    }
+}
@@ -0,0 +1,71 @@
+package tech.aerolambda.report.render;
+
+import tech.aerolambda.report.ReportColumn;
+import tech.aerolambda.report.RowSink;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Renders typed cells as display text for the text formats: missing values as {@code N/A},
+ * currency amounts with a dollar sign, timestamps as dates and flags as {@code Yes}/{@code No}.
+ */
+public abstract class TextRowSink implements RowSink {
+
+    private static final String MISSING = "N/A";
+
+    private final List<? extends ReportColumn<?>> columns;
+    private int column;
+
+    protected TextRowSink(List<? extends ReportColumn<?>> columns) {
+        this.columns = columns;
+    }
+
+    /**
+     * Receives the text of the cell in position {@code column} of the current row.
+     */
+    protected abstract void cell(int column, String text) throws IOException;
+
+    @Override
+    public void nullCell() throws IOException {
+        text(MISSING);
+    }
+
+    @Override
+    public void longCell(long value) throws IOException {
+        text(Long.toString(value));
+    }
+
+    @Override
+    public void intCell(int value) throws IOException {
+        text(Integer.toString(value));
+    }
+
+    @Override
+    public void decimalCell(BigDecimal value) throws IOException {
+        text(columns.get(column).isCurrency() ? "$" + value : value.toString());
+    }
+
+    @Override
+    public void stringCell(String value) throws IOException {
+        text(value);
+    }
+
+    @Override
+    public void booleanCell(boolean value) throws IOException {
+        text(value ? "Yes" : "No");
+    }
+
+    @Override
+    public void timestampCell(LocalDateTime value) throws IOException {
+        text(value.toLocalDate().toString());
+    }
+
+    private void text(String text) throws IOException {
+        int current = column;
+        column = (column + 1) % columns.size();
+        cell(current, text);
+    }
+}
@@ -0,0 +1,172 @@
+package tech.aerolambda.report.source;
+
+import jakarta.persistence.EntityGraph;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+import tech.aerolambda.domain.entity.BaseEntity;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads report rows through a forward-only database cursor. Filters and the row limit are
+ * applied by the query, rows are fetched in batches of {@code app.report.fetch-size}, and the
+ * persistence context is cleared every {@code app.report.clear-interval} rows so memory stays
+ * flat regardless of how many rows the report covers.
+ * <p>
+ * Associations the row mapper reads should be listed as {@code fetchAttributes}; they are joined
+ * into the same query instead of being loaded one row at a time.
+ * <p>
+ * Streams must be consumed and closed inside the caller's transaction.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReportDataSource {
+
+    private final EntityManager entityManager;
+
+    @Value("${app.report.fetch-size:500}")
+    private int fetchSize;
+
+    @Value("${app.report.clear-interval:1000}")
+    private int clearInterval;
+
+    public <T extends BaseEntity> Stream<T> stream(Class<T> entityType, Specification<T> specification, Integer limit,
+                                                   String... fetchAttributes) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(entityType);
+        Root<T> root = query.from(entityType);
+
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(cb.asc(root.get("id")));
+
+        TypedQuery<T> typedQuery = entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true);
+        if (isLimited(limit)) {
+            typedQuery.setMaxResults(limit);
+        }
+        if (fetchAttributes.length > 0) {
+            EntityGraph<T> fetchGraph = entityManager.createEntityGraph(entityType);
+            fetchGraph.addAttributeNodes(fetchAttributes);
+            typedQuery.setHint(SpecHints.HINT_SPEC_FETCH_GRAPH, fetchGraph);
+        }
+
+        return clearingPersistenceContext(typedQuery.getResultStream());
+    }
+
+    /**
+     * Pairs every row of {@code rows} with the value {@code lookup} finds for its id. Rows are
+     * taken {@code app.report.fetch-size} at a time and looked up together, so a lookup costs one
+     * query per chunk and only one chunk's values are held at once.
+     */
+    public <T extends BaseEntity, V> Stream<WithLookup<T, V>> withLookup(
+            Stream<T> rows, Function<Collection<Long>, Map<Long, V>> lookup) {
+        Iterator<T> source = rows.iterator();
+
+        Iterator<WithLookup<T, V>> pairedRows = new Iterator<>() {
+            private final List<T> chunk = new ArrayList<>(fetchSize);
+            private Map<Long, V> values = Map.of();
+            private int position;
+
+            @Override
+            public boolean hasNext() {
+                if (position < chunk.size()) {
+                    return true;
+                }
+                chunk.clear();
+                position = 0;
+                while (chunk.size() < fetchSize && source.hasNext()) {
+                    chunk.add(source.next());
+                }
+                values = chunk.isEmpty() ? Map.of() : lookup.apply(chunk.stream().map(BaseEntity::getId).toList());
+                return !chunk.isEmpty();
+            }
+
+            @Override
+            public WithLookup<T, V> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                T row = chunk.get(position++);
+                return new WithLookup<>(row, values.get(row.getId()));
+            }
+        };
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(pairedRows, Spliterator.ORDERED), false)
+                .onClose(rows::close);
+    }
+
+    public <T extends BaseEntity> long count(Class<T> entityType, Specification<T> specification, Integer limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<T> root = query.from(entityType);
+
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(cb.count(root));
+
+        long count = entityManager.createQuery(query).getSingleResult();
+        return isLimited(limit) ? Math.min(count, limit) : count;
+    }
+
+    private boolean isLimited(Integer limit) {
+        return limit != null && limit > 0;
+    }
+
+    private <T> Stream<T> clearingPersistenceContext(Stream<T> results) {
+        Iterator<T> rows = results.iterator();
+
+        Iterator<T> clearingRows = new Iterator<>() {
+            private long consumed;
+            private long clearedAt;
+
+            @Override
+            public boolean hasNext() {
+                // Clear before the cursor hydrates the next row, never while the caller still
+                // holds a managed row whose lazy associations it may touch.
+                if (consumed > 0 && consumed % clearInterval == 0 && clearedAt != consumed) {
+                    entityManager.clear();
+                    clearedAt = consumed;
+                }
+                return rows.hasNext();
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                consumed++;
+                return rows.next();
+            }
+        };
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(clearingRows, Spliterator.ORDERED), false)
+                .onClose(results::close);
+    }
+}
@@ -0,0 +1,12 @@
+package tech.aerolambda.report.source;
+
+/**
+ * A report row and the value looked up for it by {@link ReportDataSource#withLookup}; the value is
+ * null when the lookup had nothing for the row.
+ */
+public record WithLookup<T, V>(T row, V value) {
+
+    public V valueOr(V fallback) {
+        return value != null ? value : fallback;
+    }
+}
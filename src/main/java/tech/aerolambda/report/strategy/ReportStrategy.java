@@ -4,17 +4,54 @@ import tech.aerolambda.domain.entity.Book;
 import tech.aerolambda.domain.enums.ReportFormat;
 import tech.aerolambda.report.ReportData;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.function.LongSupplier;
 
 public interface ReportStrategy {
 
-    byte[] generate(List<Book> books);
-
-    <T> byte[] generate(ReportData<T> reportData);
+    /**
+     * Writes the report to the given stream as rows are produced. Implementations flush but
+     * never close the stream, which stays owned by the caller. {@code books} may be a database
+     * cursor and is iterated once; {@code totalBooks} is only asked for by formats that print it.
+     */
+    void write(Iterable<Book> books, LongSupplier totalBooks, OutputStream outputStream) throws IOException;
+
+    <T> void write(ReportData<T> reportData, OutputStream outputStream) throws IOException;
+
+    default byte[] generate(List<Book> books) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try {
+            write(books, books::size, baos);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to generate " + getFormat() + " report", e);
+        }
+        return baos.toByteArray();
+    }
+
+    default <T> byte[] generate(ReportData<T> reportData) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try {
+            write(reportData, baos);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to generate " + getFormat() + " report", e);
+        }
+        return baos.toByteArray();
+    }
 
     ReportFormat getFormat();
 
     String getContentType();
 
     String getFileExtension();
+
+    /**
+     * Whether a content coding is worth applying to this format's output.
+     */
+    default boolean isCompressible() {
+        return true;
+    }
 }
@@ -1,70 +1,82 @@
 package tech.aerolambda.report.strategy.impl;
 
 import com.opencsv.CSVWriter;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 import tech.aerolambda.domain.entity.Book;
 import tech.aerolambda.domain.enums.ReportFormat;
+import tech.aerolambda.report.ReportColumn;
 import tech.aerolambda.report.ReportData;
+import tech.aerolambda.report.render.RowChunk;
+import tech.aerolambda.report.render.RowRenderer;
+import tech.aerolambda.report.render.TextRowSink;
 import tech.aerolambda.report.strategy.ReportStrategy;
 
-import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.function.LongSupplier;
 
 @Component
+@RequiredArgsConstructor
 public class CsvReportStrategy implements ReportStrategy {
 
+    private final RowRenderer rowRenderer;
+
     @Override
-    public byte[] generate(List<Book> books) {
-        try (ByteArrayOutputStream baos = new ByteArrayOutputStream();
-             CSVWriter writer = new CSVWriter(new OutputStreamWriter(baos, StandardCharsets.UTF_8))) {
-
-            String[] header = {"ID", "Title", "ISBN", "Price", "Description", "Publication Year", "Author", "Store"};
-            writer.writeNext(header);
-
-            for (Book book : books) {
-                String[] row = {
-                        String.valueOf(book.getId()),
-                        book.getTitle(),
-                        book.getIsbn(),
-                        book.getPrice() != null ? book.getPrice().toString() : "",
-                        book.getDescription() != null ? book.getDescription() : "",
-                        book.getPublicationYear() != null ? String.valueOf(book.getPublicationYear()) : "",
-                        book.getAuthor() != null ? book.getAuthor().getName() : "",
-                        book.getStore() != null ? book.getStore().getName() : ""
-                };
-                writer.writeNext(row);
-            }
+    public void write(Iterable<Book> books, LongSupplier totalBooks, OutputStream outputStream) throws IOException {
+        CSVWriter writer = new CSVWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+
+        String[] header = {"ID", "Title", "ISBN", "Price", "Description", "Publication Year", "Author", "Store"};
+        writer.writeNext(header);
 
-            writer.flush();
-            return baos.toByteArray();
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to generate CSV report", e);
+        for (Book book : books) {
+            String[] row = {
+                    String.valueOf(book.getId()),
+                    book.getTitle(),
+                    book.getIsbn(),
+                    book.getPrice() != null ? book.getPrice().toString() : "",
+                    book.getDescription() != null ? book.getDescription() : "",
+                    book.getPublicationYear() != null ? String.valueOf(book.getPublicationYear()) : "",
+                    book.getAuthor() != null ? book.getAuthor().getName() : "",
+                    book.getStore() != null ? book.getStore().getName() : ""
+            };
+            writer.writeNext(row);
         }
+
+        writer.flush();
     }
 
     @Override
-    public <T> byte[] generate(ReportData<T> reportData) {
-        try (ByteArrayOutputStream baos = new ByteArrayOutputStream();
-             CSVWriter writer = new CSVWriter(new OutputStreamWriter(baos, StandardCharsets.UTF_8))) {
-
-            String[] header = reportData.getHeaders().toArray(new String[0]);
-            writer.writeNext(header);
-
-            for (T item : reportData.getData()) {
-                List<String> rowData = reportData.getRowMapper().mapRow(item);
-                String[] row = rowData.stream()
-                        .map(s -> s != null ? s : "")
-                        .toArray(String[]::new);
-                writer.writeNext(row);
+    public <T> void write(ReportData<T> reportData, OutputStream outputStream) throws IOException {
+        CSVWriter writer = new CSVWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+
+        String[] header = reportData.getHeaders().toArray(new String[0]);
+        writer.writeNext(header);
+        writer.flush();
+
+        List<ReportColumn<T>> columns = reportData.getColumns();
+        rowRenderer.render(reportData, outputStream, (rows, chunkIndex, out) -> writeRows(rows, columns, out));
+    }
+
+    private void writeRows(RowChunk rows, List<? extends ReportColumn<?>> columns, OutputStream outputStream)
+            throws IOException {
+        CSVWriter writer = new CSVWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        String[] row = new String[columns.size()];
+        rows.replay(new TextRowSink(columns) {
+            @Override
+            protected void cell(int column, String text) {
+                row[column] = text;
             }
 
-            writer.flush();
-            return baos.toByteArray();
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to generate CSV report", e);
-        }
+            @Override
+            public void endRow() {
+                writer.writeNext(row);
+            }
+        });
+        writer.flush();
     }
 
     @Override
@@ -1,111 +1,153 @@
 package tech.aerolambda.report.strategy.impl;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import tech.aerolambda.domain.entity.Author;
 import tech.aerolambda.domain.entity.Book;
+import tech.aerolambda.domain.entity.Store;
 import tech.aerolambda.domain.enums.ReportFormat;
 import tech.aerolambda.report.ReportData;
+import tech.aerolambda.report.RowSink;
+import tech.aerolambda.report.render.RowChunk;
+import tech.aerolambda.report.render.RowRenderer;
 import tech.aerolambda.report.strategy.ReportStrategy;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.function.LongSupplier;
 
+/**
+ * Writes JSON reports token by token: field names are encoded once per report and records are
+ * emitted straight from the typed row cells. Output is pretty-printed unless
+ * {@code app.report.json.compact} is enabled.
+ */
 @Component
 public class JsonReportStrategy implements ReportStrategy {
 
-    private final ObjectMapper objectMapper;
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final RowRenderer rowRenderer;
+    private final boolean compact;
 
-    public JsonReportStrategy() {
-        this.objectMapper = new ObjectMapper();
-        this.objectMapper.registerModule(new JavaTimeModule());
-        this.objectMapper.enable(SerializationFeature.INDENT_OUTPUT);
-        this.objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    public JsonReportStrategy(RowRenderer rowRenderer, @Value("${app.report.json.compact:false}") boolean compact) {
+        this.rowRenderer = rowRenderer;
+        this.compact = compact;
     }
 
     @Override
-    public byte[] generate(List<Book> books) {
-        try {
-            Map<String, Object> report = new HashMap<>();
-
-            Map<String, Object> metadata = new HashMap<>();
-            metadata.put("totalBooks", books.size());
-            metadata.put("generatedAt", LocalDateTime.now().toString());
-            report.put("metadata", metadata);
-
-            List<Map<String, Object>> booksData = books.stream()
-                    .map(this::mapBook)
-                    .collect(Collectors.toList());
-            report.put("books", booksData);
+    public void write(Iterable<Book> books, LongSupplier totalBooks, OutputStream outputStream) throws IOException {
+        try (JsonGenerator generator = createGenerator(outputStream)) {
+            generator.writeStartObject();
+
+            generator.writeObjectFieldStart("metadata");
+            generator.writeNumberField("totalBooks", totalBooks.getAsLong());
+            generator.writeStringField("generatedAt", LocalDateTime.now().toString());
+            generator.writeEndObject();
+
+            generator.writeArrayFieldStart("books");
+            for (Book book : books) {
+                writeBook(generator, book);
+            }
+            generator.writeEndArray();
 
-            return objectMapper.writeValueAsBytes(report);
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to generate JSON report", e);
+            generator.writeEndObject();
         }
     }
 
     @Override
-    public <T> byte[] generate(ReportData<T> reportData) {
-        try {
-            Map<String, Object> report = new LinkedHashMap<>();
-
-            Map<String, Object> metadata = new LinkedHashMap<>();
-            metadata.put("title", reportData.getTitle());
-            metadata.put("totalRecords", reportData.getData().size());
-            metadata.put("generatedAt", LocalDateTime.now().toString());
-            report.put("metadata", metadata);
-
-            List<Map<String, String>> records = new ArrayList<>();
-            List<String> headers = reportData.getHeaders();
-
-            for (T item : reportData.getData()) {
-                Map<String, String> record = new LinkedHashMap<>();
-                List<String> rowData = reportData.getRowMapper().mapRow(item);
-                for (int i = 0; i < headers.size(); i++) {
-                    String key = headers.get(i).toLowerCase().replace(" ", "_");
-                    String value = i < rowData.size() ? rowData.get(i) : "";
-                    record.put(key, value);
-                }
-                records.add(record);
-            }
-            report.put("records", records);
+    public <T> void write(ReportData<T> reportData, OutputStream outputStream) throws IOException {
+        try (JsonGenerator generator = createGenerator(outputStream)) {
+            generator.writeStartObject();
+
+            generator.writeObjectFieldStart("metadata");
+            generator.writeStringField("title", reportData.getTitle());
+            generator.writeNumberField("totalRecords", reportData.countRecords());
+            generator.writeStringField("generatedAt", LocalDateTime.now().toString());
+            generator.writeEndObject();
+
+            List<SerializableString> fieldNames = reportData.getHeaders().stream()
+                    .map(header -> (SerializableString) new SerializedString(header.toLowerCase().replace(" ", "_")))
+                    .toList();
+
+            generator.writeArrayFieldStart("records");
+            generator.flush();
+            rowRenderer.render(reportData, outputStream,
+                    (rows, chunkIndex, out) -> writeRecords(rows, chunkIndex, fieldNames, out));
+            generator.writeEndArray();
+
+            generator.writeEndObject();
+        }
+    }
 
-            return objectMapper.writeValueAsBytes(report);
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to generate JSON report", e);
+    private void writeRecords(RowChunk rows, int chunkIndex, List<SerializableString> fieldNames,
+                              OutputStream outputStream) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (JsonGenerator generator = createGenerator(buffer)) {
+            // Open the same enclosing structure as the full document so indentation and
+            // separators come out exactly as if the chunk had been written in place
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("records");
+            generator.flush();
+            int start = buffer.size();
+
+            rows.replay(new JsonRecordSink(generator, fieldNames));
+            generator.flush();
+
+            if (chunkIndex > 0) {
+                outputStream.write(',');
+            }
+            outputStream.write(buffer.toByteArray(), start, buffer.size() - start);
         }
     }
 
-    private Map<String, Object> mapBook(Book book) {
-        Map<String, Object> bookMap = new HashMap<>();
-        bookMap.put("id", book.getId());
-        bookMap.put("title", book.getTitle());
-        bookMap.put("isbn", book.getIsbn());
-        bookMap.put("price", book.getPrice());
-        bookMap.put("description", book.getDescription());
-        bookMap.put("publicationYear", book.getPublicationYear());
+    private void writeBook(JsonGenerator generator, Book book) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("id", book.getId());
+        generator.writeStringField("title", book.getTitle());
+        generator.writeStringField("isbn", book.getIsbn());
+        generator.writeNumberField("price", book.getPrice());
+        generator.writeStringField("description", book.getDescription());
+        generator.writeFieldName("publicationYear");
+        if (book.getPublicationYear() != null) {
+            generator.writeNumber(book.getPublicationYear());
+        } else {
+            generator.writeNull();
+        }
 
-        if (book.getAuthor() != null) {
-            Map<String, Object> authorMap = new HashMap<>();
-            authorMap.put("id", book.getAuthor().getId());
-            authorMap.put("name", book.getAuthor().getName());
-            bookMap.put("author", authorMap);
+        Author author = book.getAuthor();
+        if (author != null) {
+            generator.writeObjectFieldStart("author");
+            generator.writeNumberField("id", author.getId());
+            generator.writeStringField("name", author.getName());
+            generator.writeEndObject();
         }
 
-        if (book.getStore() != null) {
-            Map<String, Object> storeMap = new HashMap<>();
-            storeMap.put("id", book.getStore().getId());
-            storeMap.put("name", book.getStore().getName());
-            bookMap.put("store", storeMap);
+        Store store = book.getStore();
+        if (store != null) {
+            generator.writeObjectFieldStart("store");
+            generator.writeNumberField("id", store.getId());
+            generator.writeStringField("name", store.getName());
+            generator.writeEndObject();
         }
 
-        return bookMap;
+        generator.writeEndObject();
+    }
+
+    private JsonGenerator createGenerator(OutputStream outputStream) throws IOException {
+        JsonGenerator generator = jsonFactory.createGenerator(outputStream, JsonEncoding.UTF8);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        if (!compact) {
+            generator.useDefaultPrettyPrinter();
+        }
+        return generator;
     }
 
     @Override
@@ -122,4 +164,73 @@ public class JsonReportStrategy implements ReportStrategy {
     public String getFileExtension() {
         return ".json";
     }
+
+    /**
+     * Writes each row as an object of native JSON values: numbers, booleans, {@code null} and
+     * ISO-8601 timestamps.
+     */
+    private static final class JsonRecordSink implements RowSink {
+
+        private final JsonGenerator generator;
+        private final List<SerializableString> fieldNames;
+        private int column;
+
+        JsonRecordSink(JsonGenerator generator, List<SerializableString> fieldNames) {
+            this.generator = generator;
+            this.fieldNames = fieldNames;
+        }
+
+        @Override
+        public void startRow() throws IOException {
+            generator.writeStartObject();
+            column = 0;
+        }
+
+        @Override
+        public void nullCell() throws IOException {
+            generator.writeFieldName(fieldNames.get(column++));
+            generator.writeNull();
+        }
+
+        @Override
+        public void longCell(long value) throws IOException {
+            generator.writeFieldName(fieldNames.get(column++));
+            generator.writeNumber(value);
+        }
+
+        @Override
+        public void intCell(int value) throws IOException {
+            generator.writeFieldName(fieldNames.get(column++));
+            generator.writeNumber(value);
+        }
+
+        @Override
+        public void decimalCell(BigDecimal value) throws IOException {
+            generator.writeFieldName(fieldNames.get(column++));
+            generator.writeNumber(value);
+        }
+
+        @Override
+        public void stringCell(String value) throws IOException {
+            generator.writeFieldName(fieldNames.get(column++));
+            generator.writeString(value);
+        }
+
+        @Override
+        public void booleanCell(boolean value) throws IOException {
+            generator.writeFieldName(fieldNames.get(column++));
+            generator.writeBoolean(value);
+        }
+
+        @Override
+        public void timestampCell(LocalDateTime value) throws IOException {
+            generator.writeFieldName(fieldNames.get(column++));
+            generator.writeString(value.toString());
+        }
+
+        @Override
+        public void endRow() throws IOException {
+            generator.writeEndObject();
+        }
+    }
 }
@@ -0,0 +1,111 @@
+package tech.aerolambda.report.strategy.impl;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import tech.aerolambda.domain.entity.Book;
+import tech.aerolambda.domain.enums.ReportFormat;
+import tech.aerolambda.report.ReportColumn;
+import tech.aerolambda.report.ReportData;
+import tech.aerolambda.report.compression.ReportCompression;
+import tech.aerolambda.report.compression.ReportCompressor;
+import tech.aerolambda.report.parquet.ParquetCodec;
+import tech.aerolambda.report.parquet.ParquetWriter;
+import tech.aerolambda.report.strategy.ReportStrategy;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Writes reports as Parquet files with typed columns taken from {@link ReportData#getColumns()},
+ * for analytics consumers that would otherwise re-parse the text formats.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ParquetReportStrategy implements ReportStrategy {
+
+    private static final List<ReportColumn<Book>> BOOK_COLUMNS = List.of(
+            ReportColumn.ofLong("ID", Book::getId),
+            ReportColumn.ofString("Title", Book::getTitle),
+            ReportColumn.ofString("ISBN", Book::getIsbn),
+            ReportColumn.ofDecimal("Price", 10, 2, Book::getPrice),
+            ReportColumn.ofString("Description", Book::getDescription),
+            ReportColumn.ofInteger("Publication Year", Book::getPublicationYear),
+            ReportColumn.ofString("Author", book -> book.getAuthor() != null ? book.getAuthor().getName() : null),
+            ReportColumn.ofString("Store", book -> book.getStore() != null ? book.getStore().getName() : null)
+    );
+
+    private final ReportCompressor reportCompressor;
+
+    @Value("${app.report.parquet.codec:ZSTD}")
+    private ParquetCodec codec;
+
+    @Value("${app.report.parquet.row-group-rows:65536}")
+    private int rowGroupRows;
+
+    @PostConstruct
+    void init() {
+        if (codec == ParquetCodec.ZSTD && !reportCompressor.isAvailable(ReportCompression.ZSTD)) {
+            log.warn("zstd is not available, Parquet reports will use GZIP pages");
+            codec = ParquetCodec.GZIP;
+        }
+    }
+
+    @Override
+    public void write(Iterable<Book> books, LongSupplier totalBooks, OutputStream outputStream) throws IOException {
+        ParquetWriter<Book> writer = new ParquetWriter<>(outputStream, BOOK_COLUMNS, codec, rowGroupRows,
+                metadata("Books Report"));
+        for (Book book : books) {
+            writer.write(book);
+        }
+        writer.finish();
+    }
+
+    @Override
+    public <T> void write(ReportData<T> reportData, OutputStream outputStream) throws IOException {
+        ParquetWriter<T> writer = new ParquetWriter<>(outputStream, reportData.getColumns(), codec, rowGroupRows,
+                metadata(reportData.getTitle()));
+        Iterator<T> items = reportData.getData().iterator();
+        while (items.hasNext()) {
+            writer.write(items.next());
+        }
+        writer.finish();
+    }
+
+    private Map<String, String> metadata(String title) {
+        Map<String, String> metadata = new LinkedHashMap<>();
+        metadata.put("title", title);
+        metadata.put("generated_at", LocalDateTime.now().toString());
+        return metadata;
+    }
+
+    @Override
+    public ReportFormat getFormat() {
+        return ReportFormat.PARQUET;
+    }
+
+    @Override
+    public String getContentType() {
+        return "application/vnd.apache.parquet";
+    }
+
+    @Override
+    public String getFileExtension() {
+        return ".parquet";
+    }
+
+    @Override
+    public boolean isCompressible() {
+        // Pages are already compressed with the configured codec
+        return false;
+    }
+}
@@ -10,16 +10,29 @@ import com.itextpdf.text.Phrase;
 import com.itextpdf.text.pdf.PdfPCell;
 import com.itextpdf.text.pdf.PdfPTable;
 import com.itextpdf.text.pdf.PdfWriter;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import tech.aerolambda.domain.entity.Book;
 import tech.aerolambda.domain.enums.ReportFormat;
 import tech.aerolambda.report.ReportData;
+import tech.aerolambda.report.render.TextRowSink;
 import tech.aerolambda.report.strategy.ReportStrategy;
 
-import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
 import java.util.List;
-import java.util.stream.Stream;
-
+import java.util.function.LongSupplier;
+
+/**
+ * Renders PDF reports with the table in iText's large-element mode: the table is added to the
+ * document before it is complete and re-added every {@code app.report.pdf.flush-rows} rows, so
+ * finished rows are laid out and released instead of being held until the end of the report.
+ * Body cells are all filled from one template per table, which iText copies as each is added.
+ */
+@Slf4j
 @Component
 public class PdfReportStrategy implements ReportStrategy {
 
@@ -27,11 +40,23 @@ public class PdfReportStrategy implements ReportStrategy {
     private static final Font HEADER_FONT = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12);
     private static final Font CELL_FONT = FontFactory.getFont(FontFactory.HELVETICA, 10);
 
+    @Value("${app.report.pdf.flush-rows:100}")
+    private int flushRows;
+
+    @PostConstruct
+    void init() {
+        if (flushRows < 1) {
+            log.warn("app.report.pdf.flush-rows must be at least 1, was {}; flushing every row", flushRows);
+            flushRows = 1;
+        }
+    }
+
     @Override
-    public byte[] generate(List<Book> books) {
-        try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
+    public void write(Iterable<Book> books, LongSupplier totalBooks, OutputStream outputStream) throws IOException {
+        try {
             Document document = new Document();
-            PdfWriter.getInstance(document, baos);
+            PdfWriter pdfWriter = PdfWriter.getInstance(document, outputStream);
+            pdfWriter.setCloseStream(false);
             document.open();
 
             Paragraph title = new Paragraph("Books Report", TITLE_FONT);
@@ -39,35 +64,35 @@ public class PdfReportStrategy implements ReportStrategy {
             title.setSpacingAfter(20);
             document.add(title);
 
-            PdfPTable table = new PdfPTable(6);
-            table.setWidthPercentage(100);
+            PdfPTable table = createTable(6);
             table.setWidths(new float[]{1, 3, 2, 1.5f, 2, 2});
 
-            addTableHeader(table);
-            addTableRows(table, books);
-
+            addTableHeader(table, List.of("ID", "Title", "ISBN", "Price", "Author", "Store"));
             document.add(table);
+            addTableRows(document, new BodyCells(table), books);
+            completeTable(document, table);
 
             Paragraph footer = new Paragraph(
                     String.format("\nTotal books: %d | Generated on: %s",
-                            books.size(),
+                            totalBooks.getAsLong(),
                             java.time.LocalDateTime.now().toString()),
                     CELL_FONT);
             footer.setSpacingBefore(10);
             document.add(footer);
 
             document.close();
-            return baos.toByteArray();
-        } catch (DocumentException | java.io.IOException e) {
+            outputStream.flush();
+        } catch (DocumentException e) {
             throw new RuntimeException("Failed to generate PDF report", e);
         }
     }
 
     @Override
-    public <T> byte[] generate(ReportData<T> reportData) {
-        try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
+    public <T> void write(ReportData<T> reportData, OutputStream outputStream) throws IOException {
+        try {
             Document document = new Document();
-            PdfWriter.getInstance(document, baos);
+            PdfWriter pdfWriter = PdfWriter.getInstance(document, outputStream);
+            pdfWriter.setCloseStream(false);
             document.open();
 
             Paragraph title = new Paragraph(reportData.getTitle(), TITLE_FONT);
@@ -76,72 +101,87 @@ public class PdfReportStrategy implements ReportStrategy {
             document.add(title);
 
             List<String> headers = reportData.getHeaders();
-            PdfPTable table = new PdfPTable(headers.size());
-            table.setWidthPercentage(100);
-
-            addGenericTableHeader(table, headers);
-            addGenericTableRows(table, reportData);
+            PdfPTable table = createTable(headers.size());
 
+            addTableHeader(table, headers);
             document.add(table);
+            long recordCount = addGenericTableRows(document, new BodyCells(table), reportData);
+            completeTable(document, table);
 
             Paragraph footer = new Paragraph(
                     String.format("\nTotal records: %d | Generated on: %s",
-                            reportData.getData().size(),
+                            recordCount,
                             java.time.LocalDateTime.now().toString()),
                     CELL_FONT);
             footer.setSpacingBefore(10);
             document.add(footer);
 
             document.close();
-            return baos.toByteArray();
-        } catch (DocumentException | java.io.IOException e) {
+            outputStream.flush();
+        } catch (DocumentException e) {
             throw new RuntimeException("Failed to generate PDF report", e);
         }
     }
 
-    private void addTableHeader(PdfPTable table) {
-        Stream.of("ID", "Title", "ISBN", "Price", "Author", "Store")
-                .forEach(columnTitle -> {
-                    PdfPCell header = new PdfPCell();
-                    header.setPhrase(new Phrase(columnTitle, HEADER_FONT));
-                    header.setHorizontalAlignment(Element.ALIGN_CENTER);
-                    header.setPadding(5);
-                    table.addCell(header);
-                });
+    private PdfPTable createTable(int columns) {
+        PdfPTable table = new PdfPTable(columns);
+        table.setWidthPercentage(100);
+        table.setComplete(false);
+        return table;
     }
 
-    private void addGenericTableHeader(PdfPTable table, List<String> headers) {
-        headers.forEach(columnTitle -> {
-            PdfPCell header = new PdfPCell();
+    private void addTableHeader(PdfPTable table, List<String> headers) {
+        PdfPCell template = new PdfPCell();
+        template.setHorizontalAlignment(Element.ALIGN_CENTER);
+        template.setPadding(5);
+
+        for (String columnTitle : headers) {
+            PdfPCell header = new PdfPCell(template);
             header.setPhrase(new Phrase(columnTitle, HEADER_FONT));
-            header.setHorizontalAlignment(Element.ALIGN_CENTER);
-            header.setPadding(5);
             table.addCell(header);
-        });
+        }
     }
 
-    private void addTableRows(PdfPTable table, List<Book> books) {
+    private void addTableRows(Document document, BodyCells cells, Iterable<Book> books) throws DocumentException {
+        long rowCount = 0;
         for (Book book : books) {
-            addCell(table, String.valueOf(book.getId()));
-            addCell(table, book.getTitle());
-            addCell(table, book.getIsbn());
-            addCell(table, book.getPrice() != null ? "$" + book.getPrice().toString() : "N/A");
-            addCell(table, book.getAuthor() != null ? book.getAuthor().getName() : "N/A");
-            addCell(table, book.getStore() != null ? book.getStore().getName() : "N/A");
+            cells.add(String.valueOf(book.getId()));
+            cells.add(book.getTitle());
+            cells.add(book.getIsbn());
+            cells.add(book.getPrice() != null ? "$" + book.getPrice().toString() : "N/A");
+            cells.add(book.getAuthor() != null ? book.getAuthor().getName() : "N/A");
+            cells.add(book.getStore() != null ? book.getStore().getName() : "N/A");
+            flushCompletedRows(document, cells.table(), ++rowCount);
+        }
+    }
+
+    private <T> long addGenericTableRows(Document document, BodyCells cells, ReportData<T> reportData)
+            throws DocumentException, IOException {
+        TextRowSink sink = new TextRowSink(reportData.getColumns()) {
+            @Override
+            protected void cell(int column, String text) {
+                cells.add(text);
+            }
+        };
+
+        long recordCount = 0;
+        Iterator<T> rows = reportData.getData().iterator();
+        while (rows.hasNext()) {
+            reportData.writeRow(rows.next(), sink);
+            flushCompletedRows(document, cells.table(), ++recordCount);
         }
+        return recordCount;
     }
 
-    private <T> void addGenericTableRows(PdfPTable table, ReportData<T> reportData) {
-        for (T item : reportData.getData()) {
-            List<String> rowData = reportData.getRowMapper().mapRow(item);
-            rowData.forEach(cellValue -> addCell(table, cellValue != null ? cellValue : "N/A"));
+    private void flushCompletedRows(Document document, PdfPTable table, long rowCount) throws DocumentException {
+        if (rowCount % flushRows == 0) {
+            document.add(table);
         }
     }
 
-    private void addCell(PdfPTable table, String text) {
-        PdfPCell cell = new PdfPCell(new Phrase(text, CELL_FONT));
-        cell.setPadding(4);
-        table.addCell(cell);
+    private void completeTable(Document document, PdfPTable table) throws DocumentException {
+        table.setComplete(true);
+        document.add(table);
     }
 
     @Override
@@ -158,4 +198,34 @@ public class PdfReportStrategy implements ReportStrategy {
     public String getFileExtension() {
         return ".pdf";
     }
+
+    @Override
+    public boolean isCompressible() {
+        // Page content streams are already deflated by iText
+        return false;
+    }
+
+    /**
+     * Adds body cells to one table from a single template cell. Only the text changes between
+     * cells: the table copies the template as each one is added, so it is safe to refill.
+     */
+    private static final class BodyCells {
+
+        private final PdfPTable table;
+        private final PdfPCell template = new PdfPCell();
+
+        BodyCells(PdfPTable table) {
+            this.table = table;
+            template.setPadding(4);
+        }
+
+        void add(String text) {
+            template.setPhrase(new Phrase(text, CELL_FONT));
+            table.addCell(template);
+        }
+
+        PdfPTable table() {
+            return table;
+        }
+    }
 }
@@ -1,103 +1,183 @@
 package tech.aerolambda.report.strategy.impl;
 
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 import tech.aerolambda.domain.entity.Book;
 import tech.aerolambda.domain.enums.ReportFormat;
+import tech.aerolambda.report.ReportColumn;
 import tech.aerolambda.report.ReportData;
+import tech.aerolambda.report.render.RowChunk;
+import tech.aerolambda.report.render.RowRenderer;
+import tech.aerolambda.report.render.TextRowSink;
 import tech.aerolambda.report.strategy.ReportStrategy;
 
-import java.nio.charset.StandardCharsets;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.LongSupplier;
 
 @Component
+@RequiredArgsConstructor
 public class XmlReportStrategy implements ReportStrategy {
 
+    private static final String ENCODING = "UTF-8";
+    private static final String[] INDENTS = {"\n", "\n  ", "\n    ", "\n      ", "\n        "};
+
+    // The JDK's own writer: records are written by one fragment writer per chunk, which stricter
+    // implementations found on the classpath (Woodstox) reject as a second root element
+    private final XMLOutputFactory xmlOutputFactory = XMLOutputFactory.newDefaultFactory();
+    private final RowRenderer rowRenderer;
+
     @Override
-    public byte[] generate(List<Book> books) {
-        StringBuilder xml = new StringBuilder();
-        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
-        xml.append("<booksReport>\n");
-        xml.append("  <metadata>\n");
-        xml.append("    <totalBooks>").append(books.size()).append("</totalBooks>\n");
-        xml.append("    <generatedAt>").append(java.time.LocalDateTime.now()).append("</generatedAt>\n");
-        xml.append("  </metadata>\n");
-        xml.append("  <books>\n");
-
-        for (Book book : books) {
-            xml.append("    <book>\n");
-            xml.append("      <id>").append(book.getId()).append("</id>\n");
-            xml.append("      <title>").append(escapeXml(book.getTitle())).append("</title>\n");
-            xml.append("      <isbn>").append(escapeXml(book.getIsbn())).append("</isbn>\n");
-            xml.append("      <price>").append(book.getPrice() != null ? book.getPrice() : "").append("</price>\n");
-            xml.append("      <description>").append(escapeXml(book.getDescription())).append("</description>\n");
-            xml.append("      <publicationYear>").append(book.getPublicationYear() != null ? book.getPublicationYear() : "").append("</publicationYear>\n");
-            xml.append("      <author>\n");
-            if (book.getAuthor() != null) {
-                xml.append("        <id>").append(book.getAuthor().getId()).append("</id>\n");
-                xml.append("        <name>").append(escapeXml(book.getAuthor().getName())).append("</name>\n");
-            }
-            xml.append("      </author>\n");
-            xml.append("      <store>\n");
-            if (book.getStore() != null) {
-                xml.append("        <id>").append(book.getStore().getId()).append("</id>\n");
-                xml.append("        <name>").append(escapeXml(book.getStore().getName())).append("</name>\n");
+    public void write(Iterable<Book> books, LongSupplier totalBooks, OutputStream outputStream) throws IOException {
+        try {
+            XMLStreamWriter xml = xmlOutputFactory.createXMLStreamWriter(outputStream, ENCODING);
+            xml.writeStartDocument(ENCODING, "1.0");
+            newLine(xml, 0);
+            xml.writeStartElement("booksReport");
+            newLine(xml, 1);
+            xml.writeStartElement("metadata");
+            writeElement(xml, 2, "totalBooks", String.valueOf(totalBooks.getAsLong()));
+            writeElement(xml, 2, "generatedAt", LocalDateTime.now().toString());
+            endElement(xml, 1);
+            newLine(xml, 1);
+            xml.writeStartElement("books");
+
+            for (Book book : books) {
+                newLine(xml, 2);
+                xml.writeStartElement("book");
+                writeElement(xml, 3, "id", String.valueOf(book.getId()));
+                writeElement(xml, 3, "title", book.getTitle());
+                writeElement(xml, 3, "isbn", book.getIsbn());
+                writeElement(xml, 3, "price", book.getPrice() != null ? book.getPrice().toString() : "");
+                writeElement(xml, 3, "description", book.getDescription());
+                writeElement(xml, 3, "publicationYear",
+                        book.getPublicationYear() != null ? String.valueOf(book.getPublicationYear()) : "");
+                newLine(xml, 3);
+                xml.writeStartElement("author");
+                if (book.getAuthor() != null) {
+                    writeElement(xml, 4, "id", String.valueOf(book.getAuthor().getId()));
+                    writeElement(xml, 4, "name", book.getAuthor().getName());
+                }
+                endElement(xml, 3);
+                newLine(xml, 3);
+                xml.writeStartElement("store");
+                if (book.getStore() != null) {
+                    writeElement(xml, 4, "id", String.valueOf(book.getStore().getId()));
+                    writeElement(xml, 4, "name", book.getStore().getName());
+                }
+                endElement(xml, 3);
+                endElement(xml, 2);
             }
-            xml.append("      </store>\n");
-            xml.append("    </book>\n");
-        }
-
-        xml.append("  </books>\n");
-        xml.append("</booksReport>");
 
-        return xml.toString().getBytes(StandardCharsets.UTF_8);
+            endElement(xml, 1);
+            newLine(xml, 0);
+            xml.writeEndElement();
+            xml.writeEndDocument();
+            xml.flush();
+        } catch (XMLStreamException e) {
+            throw new IOException("Failed to write XML books report", e);
+        }
     }
 
     @Override
-    public <T> byte[] generate(ReportData<T> reportData) {
-        StringBuilder xml = new StringBuilder();
+    public <T> void write(ReportData<T> reportData, OutputStream outputStream) throws IOException {
         String rootElement = reportData.getReportType().name().toLowerCase() + "Report";
         String itemElement = reportData.getReportType().name().toLowerCase().replace("_", "");
         if (itemElement.endsWith("s")) {
             itemElement = itemElement.substring(0, itemElement.length() - 1);
         }
 
-        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
-        xml.append("<").append(rootElement).append(">\n");
-        xml.append("  <metadata>\n");
-        xml.append("    <title>").append(escapeXml(reportData.getTitle())).append("</title>\n");
-        xml.append("    <totalRecords>").append(reportData.getData().size()).append("</totalRecords>\n");
-        xml.append("    <generatedAt>").append(java.time.LocalDateTime.now()).append("</generatedAt>\n");
-        xml.append("  </metadata>\n");
-        xml.append("  <records>\n");
-
-        List<String> headers = reportData.getHeaders();
-        for (T item : reportData.getData()) {
-            xml.append("    <").append(itemElement).append(">\n");
-            List<String> rowData = reportData.getRowMapper().mapRow(item);
-            for (int i = 0; i < headers.size(); i++) {
-                String header = headers.get(i).toLowerCase().replace(" ", "_");
-                String value = i < rowData.size() ? rowData.get(i) : "";
-                xml.append("      <").append(header).append(">")
-                        .append(escapeXml(value))
-                        .append("</").append(header).append(">\n");
-            }
-            xml.append("    </").append(itemElement).append(">\n");
+        try {
+            XMLStreamWriter xml = xmlOutputFactory.createXMLStreamWriter(outputStream, ENCODING);
+            xml.writeStartDocument(ENCODING, "1.0");
+            newLine(xml, 0);
+            xml.writeStartElement(rootElement);
+            newLine(xml, 1);
+            xml.writeStartElement("metadata");
+            writeElement(xml, 2, "title", reportData.getTitle());
+            writeElement(xml, 2, "totalRecords", String.valueOf(reportData.countRecords()));
+            writeElement(xml, 2, "generatedAt", LocalDateTime.now().toString());
+            endElement(xml, 1);
+            newLine(xml, 1);
+            xml.writeStartElement("records");
+            // Close the start tag before chunks are appended directly to the stream
+            xml.writeCharacters("");
+            xml.flush();
+
+            String recordElement = itemElement;
+            List<ReportColumn<T>> columns = reportData.getColumns();
+            List<String> fieldElements = reportData.getHeaders().stream()
+                    .map(header -> header.toLowerCase().replace(" ", "_"))
+                    .toList();
+            rowRenderer.render(reportData, outputStream,
+                    (rows, chunkIndex, out) -> writeRecords(rows, columns, recordElement, fieldElements, out));
+
+            endElement(xml, 1);
+            newLine(xml, 0);
+            xml.writeEndElement();
+            xml.writeEndDocument();
+            xml.flush();
+        } catch (XMLStreamException e) {
+            throw new IOException("Failed to write XML report", e);
         }
+    }
 
-        xml.append("  </records>\n");
-        xml.append("</").append(rootElement).append(">");
+    private void writeRecords(RowChunk rows, List<? extends ReportColumn<?>> columns, String recordElement,
+                              List<String> fieldElements, OutputStream outputStream) throws IOException {
+        try {
+            XMLStreamWriter xml = xmlOutputFactory.createXMLStreamWriter(outputStream, ENCODING);
+            rows.replay(new TextRowSink(columns) {
+                @Override
+                public void startRow() throws IOException {
+                    write(() -> {
+                        newLine(xml, 2);
+                        xml.writeStartElement(recordElement);
+                    });
+                }
+
+                @Override
+                protected void cell(int column, String text) throws IOException {
+                    write(() -> writeElement(xml, 3, fieldElements.get(column), text));
+                }
+
+                @Override
+                public void endRow() throws IOException {
+                    write(() -> endElement(xml, 2));
+                }
+            });
+            xml.flush();
+        } catch (XMLStreamException e) {
+            throw new IOException("Failed to write XML report records", e);
+        }
+    }
+
+    private void write(XmlWrite write) throws IOException {
+        try {
+            write.run();
+        } catch (XMLStreamException e) {
+            throw new IOException("Failed to write XML report record", e);
+        }
+    }
 
-        return xml.toString().getBytes(StandardCharsets.UTF_8);
+    private void writeElement(XMLStreamWriter xml, int depth, String name, String value) throws XMLStreamException {
+        newLine(xml, depth);
+        xml.writeStartElement(name);
+        xml.writeCharacters(value != null ? value : "");
+        xml.writeEndElement();
     }
 
-    private String escapeXml(String text) {
-        if (text == null) return "";
-        return text
-                .replace("&", "&amp;")
-                .replace("<", "&lt;")
-                .replace(">", "&gt;")
-                .replace("\"", "&quot;")
-                .replace("'", "&apos;");
+    private void endElement(XMLStreamWriter xml, int depth) throws XMLStreamException {
+        newLine(xml, depth);
+        xml.writeEndElement();
+    }
+
+    private void newLine(XMLStreamWriter xml, int depth) throws XMLStreamException {
+        xml.writeCharacters(INDENTS[depth]);
     }
 
     @Override
@@ -114,4 +194,9 @@ public class XmlReportStrategy implements ReportStrategy {
     public String getFileExtension() {
         return ".xml";
     }
+
+    @FunctionalInterface
+    private interface XmlWrite {
+        void run() throws XMLStreamException;
+    }
 }
@@ -0,0 +1,193 @@
+package tech.aerolambda.application.search;
+
+import org.junit.jupiter.api.Test;
+import tech.aerolambda.application.search.CompletionIndex.Completion;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks completions against a scan over a plain map of the same texts, through adjustments,
+ * renames and removals on both sides of the overlay being folded into the base.
+ */
+class CompletionIndexTest {
+
+    private static final String[] WORDS = {"the", "lord", "of", "rings", "ring", "Ringo", "war", "and", "peace",
+            "a", "ab", "abc", "Éclair", "l'été", "x-ray"};
+    private static final List<String> PREFIXES = List.of("a", "ab", "r", "ring", "rings", "the l", "lord of",
+            "éc", "l ét", "x ray", "RI", "  war ", "zzz", "of the r");
+    private static final Comparator<Completion> BY_WEIGHT = Comparator.comparingInt(Completion::weight).reversed()
+            .thenComparing(Completion::text);
+
+    private final CompletionIndex index = new CompletionIndex();
+    private final Map<String, Completion> model = new HashMap<>();
+    private final Random random = new Random(7);
+
+    @Test
+    void completionsMatchScanThroughChangesAndFolds() {
+        Map<String, Integer> initial = new HashMap<>();
+        for (int i = 0; i < 300; i++) {
+            String text = randomText();
+            if (model.putIfAbsent(CompletionIndex.normalize(text), new Completion(text, 1 + random.nextInt(3))) == null) {
+                initial.put(text, model.get(CompletionIndex.normalize(text)).weight());
+            }
+        }
+        index.load(initial);
+        assertMatchesModel();
+
+        // Enough distinct changes to fold the overlay into the base several times
+        for (int step = 0; step < 2_000; step++) {
+            switch (random.nextInt(4)) {
+                case 0, 1 -> adjust(randomText(), random.nextInt(5) - 2);
+                case 2 -> rename(randomExisting(), randomText());
+                default -> {
+                    Completion existing = model.get(CompletionIndex.normalize(randomExisting()));
+                    if (existing != null) {
+                        adjust(existing.text(), -existing.weight());
+                    }
+                }
+            }
+            if (step % 50 == 0) {
+                assertMatchesModel();
+            }
+        }
+        assertMatchesModel();
+    }
+
+    @Test
+    void equalWeightsAreOrderedByTextInTheBaseAndTheOverlay() {
+        index.load(Map.of("b apple", 1, "apple z", 1, "c apple", 1));
+        List<Completion> fromBase = index.complete("ap", 2);
+
+        CompletionIndex changed = new CompletionIndex();
+        changed.adjust("c apple", 1);
+        changed.adjust("b apple", 1);
+        changed.adjust("apple z", 1);
+        List<Completion> fromOverlay = changed.complete("ap", 2);
+
+        assertThat(fromBase).containsExactly(new Completion("apple z", 1), new Completion("b apple", 1));
+        assertThat(fromOverlay).isEqualTo(fromBase);
+    }
+
+    @Test
+    void adjustKeepsFirstSpellingAndRemovesAtZero() {
+        index.adjust("The Hobbit", 2);
+        index.adjust("the hobbit!", 1);
+        assertThat(index.complete("hob", 5)).containsExactly(new Completion("The Hobbit", 3));
+
+        index.adjust("THE HOBBIT", -3);
+        assertThat(index.complete("hob", 5)).isEmpty();
+        assertThat(index.footprint().pending()).isEqualTo(1);
+    }
+
+    @Test
+    void renameMovesWeightAndMergesIntoAnExistingText() {
+        index.load(Map.of("Dune", 4, "Dune Messiah", 2));
+
+        index.rename("Dune", "dune messiah");
+        assertThat(index.complete("dune", 5)).containsExactly(new Completion("Dune Messiah", 6));
+
+        index.rename("Dune Messiah", "Dune: Messiah");
+        assertThat(index.complete("mess", 5)).containsExactly(new Completion("Dune: Messiah", 6));
+
+        index.rename("Unknown", "Dune");
+        assertThat(index.complete("dune", 5)).containsExactly(new Completion("Dune: Messiah", 6));
+    }
+
+    @Test
+    void blankPrefixAndNonPositiveLimitCompleteNothing() {
+        index.load(Map.of("Dune", 1));
+
+        assertThat(index.complete("", 5)).isEmpty();
+        assertThat(index.complete(" - ", 5)).isEmpty();
+        assertThat(index.complete("d", 0)).isEmpty();
+    }
+
+    private void adjust(String text, int delta) {
+        index.adjust(text, delta);
+        String key = CompletionIndex.normalize(text);
+        if (key.isEmpty() || delta == 0) {
+            return;
+        }
+        Completion current = model.get(key);
+        int weight = (current != null ? current.weight() : 0) + delta;
+        if (weight > 0) {
+            model.put(key, new Completion(current != null ? current.text() : text, weight));
+        } else {
+            model.remove(key);
+        }
+    }
+
+    private void rename(String from, String to) {
+        index.rename(from, to);
+        String fromKey = CompletionIndex.normalize(from);
+        String toKey = CompletionIndex.normalize(to);
+        Completion current = model.get(fromKey);
+        if (current == null) {
+            return;
+        }
+        if (fromKey.equals(toKey)) {
+            model.put(fromKey, new Completion(to, current.weight()));
+            return;
+        }
+        model.remove(fromKey);
+        Completion target = model.get(toKey);
+        model.put(toKey, new Completion(target != null ? target.text() : to,
+                current.weight() + (target != null ? target.weight() : 0)));
+    }
+
+    private void assertMatchesModel() {
+        for (String prefix : PREFIXES) {
+            for (int limit : new int[]{1, 3, 10, 1_000}) {
+                assertThat(index.complete(prefix, limit))
+                        .as("%s, limit %d", prefix, limit)
+                        .containsExactlyElementsOf(scan(prefix, limit));
+            }
+        }
+    }
+
+    private List<Completion> scan(String prefix, int limit) {
+        String normalized = CompletionIndex.normalize(prefix);
+        List<Completion> matches = new ArrayList<>();
+        model.forEach((key, completion) -> {
+            boolean wordMatches = key.startsWith(normalized);
+            for (int space = key.indexOf(' '); !wordMatches && space >= 0; space = key.indexOf(' ', space + 1)) {
+                wordMatches = key.startsWith(normalized, space + 1);
+            }
+            if (wordMatches) {
+                matches.add(completion);
+            }
+        });
+        matches.sort(BY_WEIGHT);
+        return matches.subList(0, Math.min(limit, matches.size()));
+    }
+
+    private String randomExisting() {
+        List<String> keys = new ArrayList<>(model.keySet());
+        // Sometimes a text that is not there, or one spelled differently
+        if (keys.isEmpty() || random.nextInt(10) == 0) {
+            return randomText();
+        }
+        String key = keys.get(random.nextInt(keys.size()));
+        return random.nextBoolean() ? model.get(key).text() : key.toUpperCase(Locale.ROOT);
+    }
+
+    private String randomText() {
+        int words = 1 + random.nextInt(3);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                text.append(random.nextBoolean() ? " " : ", ");
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,179 @@
+package tech.aerolambda.application.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+import tech.aerolambda.application.search.CompletionIndex.Completion;
+import tech.aerolambda.application.search.TrigramIndex.Match;
+import tech.aerolambda.domain.repository.AuthorRepository;
+import tech.aerolambda.domain.repository.BookRepository;
+import tech.aerolambda.domain.repository.StoreRepository;
+import tech.aerolambda.domain.repository.projection.IndexedBook;
+import tech.aerolambda.domain.repository.projection.IndexedText;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SearchIndexTest {
+
+    private final BookRepository bookRepository = mock(BookRepository.class);
+    private final AuthorRepository authorRepository = mock(AuthorRepository.class);
+    private final StoreRepository storeRepository = mock(StoreRepository.class);
+
+    private SearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() {
+        searchIndex = new SearchIndex(bookRepository, authorRepository, storeRepository);
+        ReflectionTestUtils.setField(searchIndex, "enabled", true);
+        ReflectionTestUtils.setField(searchIndex, "minSimilarity", 0.5);
+
+        when(bookRepository.findAllTitles()).thenReturn(new ArrayList<>(List.of(
+                new IndexedBook(1L, "Dune", 10L),
+                new IndexedBook(2L, "Dune", 10L),
+                new IndexedBook(3L, "Emma", 20L))));
+        when(authorRepository.findAllNames()).thenReturn(new ArrayList<>(List.of(
+                new IndexedText(10L, "Frank Herbert"),
+                new IndexedText(20L, "Jane Austen"))));
+        when(storeRepository.findAllNames()).thenReturn(new ArrayList<>(List.of(new IndexedText(100L, "Corner Books"))));
+    }
+
+    @Test
+    void buildLoadsWeightsFromBooksAndAuthors() {
+        searchIndex.build();
+
+        assertThat(searchIndex.isReady()).isTrue();
+        assertThat(searchIndex.completeTitles("d", 5)).containsExactly(new Completion("Dune", 2));
+        // Each author weighs the number of books they wrote, plus one
+        assertThat(searchIndex.completeAuthors("herb", 5)).containsExactly(new Completion("Frank Herbert", 3));
+        assertThat(searchIndex.completeAuthors("aus", 5)).containsExactly(new Completion("Jane Austen", 2));
+        assertThat(searchIndex.stores("corner", false)).extracting(Match::id).containsExactly(100L);
+    }
+
+    @Test
+    void writesBeforeTheBuildAreLeftToIt() {
+        searchIndex.bookSaved(4L, "Persuasion", 20L);
+
+        searchIndex.build();
+
+        assertThat(searchIndex.books("persuasion", false)).isEmpty();
+    }
+
+    @Test
+    void writesCommittedDuringTheBuildAreReplayedAfterIt() {
+        // These commit while the books are being read: the titles loaded do not have them yet
+        when(bookRepository.findAllTitles()).thenAnswer(invocation -> {
+            searchIndex.bookSaved(4L, "Persuasion", 20L);
+            searchIndex.bookDeleted(2L);
+            searchIndex.authorSaved(20L, "J. Austen");
+            searchIndex.storeSaved(101L, "Harbour Books");
+            assertThat(searchIndex.isReady()).isFalse();
+            return new ArrayList<>(List.of(
+                    new IndexedBook(1L, "Dune", 10L),
+                    new IndexedBook(2L, "Dune", 10L),
+                    new IndexedBook(3L, "Emma", 20L)));
+        });
+
+        searchIndex.build();
+
+        assertThat(searchIndex.books("persuasion", false)).extracting(Match::id).containsExactly(4L);
+        assertThat(searchIndex.books("dune", false)).extracting(Match::id).containsExactly(1L);
+        assertThat(searchIndex.completeTitles("dune", 5)).containsExactly(new Completion("Dune", 1));
+        assertThat(searchIndex.authors("austen", false)).extracting(Match::text).containsExactly("j. austen");
+        // Renamed after it was loaded, and one book heavier
+        assertThat(searchIndex.completeAuthors("austen", 5)).containsExactly(new Completion("J. Austen", 3));
+        assertThat(searchIndex.completeAuthors("herbert", 5)).containsExactly(new Completion("Frank Herbert", 2));
+        assertThat(searchIndex.stores("books", false)).extracting(Match::id).containsExactly(100L, 101L);
+    }
+
+    @Test
+    void replayingAWriteTheBuildAlreadyReadChangesNothing() {
+        when(bookRepository.findAllTitles()).thenAnswer(invocation -> {
+            searchIndex.bookSaved(3L, "Emma", 20L);
+            return new ArrayList<>(List.of(new IndexedBook(3L, "Emma", 20L)));
+        });
+
+        searchIndex.build();
+
+        assertThat(searchIndex.completeTitles("emma", 5)).containsExactly(new Completion("Emma", 1));
+        assertThat(searchIndex.completeAuthors("jane", 5)).containsExactly(new Completion("Jane Austen", 2));
+    }
+
+    @Test
+    void retitledBookMovesItsWeight() {
+        searchIndex.build();
+
+        searchIndex.bookSaved(2L, "Dune Messiah", 10L);
+
+        assertThat(searchIndex.completeTitles("dune", 5))
+                .containsExactly(new Completion("Dune", 1), new Completion("Dune Messiah", 1));
+        assertThat(searchIndex.completeAuthors("frank", 5)).containsExactly(new Completion("Frank Herbert", 3));
+    }
+
+    @Test
+    void bookMovedToAnotherAuthorMovesAuthorWeight() {
+        searchIndex.build();
+
+        searchIndex.bookSaved(2L, "Dune", 20L);
+
+        assertThat(searchIndex.completeTitles("dune", 5)).containsExactly(new Completion("Dune", 2));
+        assertThat(searchIndex.completeAuthors("frank", 5)).containsExactly(new Completion("Frank Herbert", 2));
+        assertThat(searchIndex.completeAuthors("jane", 5)).containsExactly(new Completion("Jane Austen", 3));
+    }
+
+    @Test
+    void deletedAuthorTakesItsBooksAndCompletionsAlong() {
+        searchIndex.build();
+
+        searchIndex.authorDeleted(10L, List.of(1L, 2L));
+
+        assertThat(searchIndex.books("dune", false)).isEmpty();
+        assertThat(searchIndex.completeTitles("dune", 5)).isEmpty();
+        assertThat(searchIndex.completeAuthors("frank", 5)).isEmpty();
+        assertThat(searchIndex.authors("herbert", true)).isEmpty();
+    }
+
+    @Test
+    void disabledIndexIgnoresWritesAndIsNeverReady() {
+        ReflectionTestUtils.setField(searchIndex, "enabled", false);
+
+        searchIndex.build();
+        searchIndex.bookSaved(4L, "Persuasion", 20L);
+
+        assertThat(searchIndex.isReady()).isFalse();
+        assertThat(searchIndex.books("persuasion", false)).isEmpty();
+    }
+
+    @Test
+    void pageSortsByTextThenIdAndLooksAhead() {
+        List<Match> matches = List.of(new Match(5, "b", 1), new Match(3, "a", 1), new Match(4, "b", 1),
+                new Match(1, "c", 1));
+
+        Slice<Long> first = SearchIndex.page(matches, PageRequest.of(0, 3, Sort.by("title")), "title");
+        Slice<Long> second = SearchIndex.page(matches, PageRequest.of(1, 3, Sort.by("title")), "title");
+        Slice<Long> descending = SearchIndex.page(matches, PageRequest.of(0, 4, Sort.by(Sort.Order.desc("title"),
+                Sort.Order.desc("id"))), "title");
+
+        assertThat(first.getContent()).containsExactly(3L, 4L, 5L);
+        assertThat(first.hasNext()).isTrue();
+        assertThat(second.getContent()).containsExactly(1L);
+        assertThat(second.hasNext()).isFalse();
+        assertThat(descending.getContent()).containsExactly(1L, 5L, 4L, 3L);
+        assertThat(SearchIndex.page(matches, PageRequest.of(0, 4), "title").getContent())
+                .containsExactly(5L, 3L, 4L, 1L);
+    }
+
+    @Test
+    void onlyTextAndIdSortsAreServedFromTheIndex() {
+        assertThat(SearchIndex.canSort(Sort.unsorted(), "title")).isTrue();
+        assertThat(SearchIndex.canSort(Sort.by("title", "id"), "title")).isTrue();
+        assertThat(SearchIndex.canSort(Sort.by("title", "price"), "title")).isFalse();
+    }
+}
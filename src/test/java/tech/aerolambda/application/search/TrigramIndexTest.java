@@ -0,0 +1,154 @@
+package tech.aerolambda.application.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tech.aerolambda.application.search.TrigramIndex.Match;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the index against a scan over the same texts after random puts, replacements and
+ * removals, so slots are reused and postings shrink as well as grow.
+ */
+class TrigramIndexTest {
+
+    private static final String[] WORDS = {"the", "lord", "of", "rings", "ring", "Ringo", "Straße", "war", "and",
+            "peace", "ΣΟΦΙΑ", "a", "ab", "abc", "abab"};
+    private static final List<String> QUERIES = List.of("", "a", "ab", "abc", "aba", "bab", "ring", "RING", "ings",
+            "the lord", "lord of the", "lrod", "pease", "war and peace", "straße", "σοφια", "xyz", "o r", "ngo");
+    private static final double[] SIMILARITIES = {0.0, 0.3, 0.5, 0.75, 1.0};
+
+    private final TrigramIndex index = new TrigramIndex();
+    private final Map<Long, String> texts = new TreeMap<>();
+    private final Random random = new Random(42);
+
+    @BeforeEach
+    void populate() {
+        for (int step = 0; step < 3_000; step++) {
+            long id = random.nextInt(400);
+            if (random.nextInt(4) == 0) {
+                index.remove(id);
+                texts.remove(id);
+            } else {
+                String text = randomText();
+                index.put(id, text);
+                texts.put(id, text);
+            }
+        }
+    }
+
+    @Test
+    void containsMatchesScanInIdOrder() {
+        for (String query : QUERIES) {
+            String needle = query.toLowerCase(Locale.ROOT);
+            List<Long> expected = texts.entrySet().stream()
+                    .filter(entry -> entry.getValue().toLowerCase(Locale.ROOT).contains(needle))
+                    .map(Map.Entry::getKey)
+                    .toList();
+
+            assertThat(index.contains(query)).as(query).extracting(Match::id).containsExactlyElementsOf(expected);
+        }
+    }
+
+    @Test
+    void similarMatchesScanInScoreOrder() {
+        for (String query : QUERIES) {
+            for (double minSimilarity : SIMILARITIES) {
+                assertThat(index.similar(query, minSimilarity))
+                        .as("%s at %s", query, minSimilarity)
+                        .containsExactlyElementsOf(similarByScan(query, minSimilarity));
+            }
+        }
+    }
+
+    @Test
+    void matchesCarryLowerCasedText() {
+        index.put(1_000, "The RING");
+
+        assertThat(index.contains("ring")).filteredOn(match -> match.id() == 1_000)
+                .singleElement()
+                .satisfies(match -> assertThat(match.text()).isEqualTo("the ring"));
+    }
+
+    @Test
+    void removedAndReplacedTextsNoLongerMatch() {
+        index.put(1_000, "unique zebra");
+        index.put(1_001, "unique zebra");
+        index.put(1_001, "plain horse");
+        index.remove(1_000);
+        index.remove(1_000);
+
+        assertThat(index.contains("zebra")).isEmpty();
+        assertThat(index.similar("zebra", 0.1)).isEmpty();
+        assertThat(index.contains("horse")).extracting(Match::id).containsExactly(1_001L);
+    }
+
+    @Test
+    void footprintCountsLiveDocumentsAndPostings() {
+        long postings = texts.values().stream().mapToLong(text -> trigrams(text.toLowerCase(Locale.ROOT)).size()).sum();
+
+        TrigramIndex.Footprint footprint = index.footprint();
+
+        assertThat(footprint.documents()).isEqualTo(texts.size());
+        assertThat(footprint.postings()).isEqualTo(postings);
+    }
+
+    private List<Match> similarByScan(String query, double minSimilarity) {
+        String needle = query.toLowerCase(Locale.ROOT);
+        Set<String> queryTrigrams = trigrams(needle);
+        Comparator<Match> byScore = Comparator.comparingDouble(Match::score).reversed()
+                .thenComparingInt(match -> match.text().length())
+                .thenComparingLong(Match::id);
+        List<Match> matches = new ArrayList<>();
+        if (needle.length() < 3) {
+            texts.forEach((id, text) -> {
+                String lower = text.toLowerCase(Locale.ROOT);
+                if (lower.contains(needle)) {
+                    matches.add(new Match(id, lower, 1));
+                }
+            });
+        } else {
+            int required = Math.max(1, (int) Math.ceil(minSimilarity * queryTrigrams.size()));
+            texts.forEach((id, text) -> {
+                String lower = text.toLowerCase(Locale.ROOT);
+                Set<String> shared = trigrams(lower);
+                shared.retainAll(queryTrigrams);
+                if (shared.size() >= required) {
+                    matches.add(new Match(id, lower, (double) shared.size() / queryTrigrams.size()));
+                }
+            });
+        }
+        matches.sort(byScore);
+        return matches;
+    }
+
+    private static Set<String> trigrams(String text) {
+        Set<String> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            trigrams.add(text.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    private String randomText() {
+        int words = 1 + random.nextInt(4);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+}
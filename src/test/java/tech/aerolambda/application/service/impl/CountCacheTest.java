@@ -0,0 +1,90 @@
+package tech.aerolambda.application.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CountCacheTest {
+
+    private CountCache countCache;
+    private final AtomicInteger counted = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        countCache = new CountCache();
+        ReflectionTestUtils.setField(countCache, "ttl", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(countCache, "maxEntries", 3);
+    }
+
+    @Test
+    void lastPageDeterminesTheTotalWithoutCounting() {
+        assertThat(countCache.total(slice(2, 10, 4, false), counter(999), "books")).isEqualTo(24);
+        assertThat(countCache.total(slice(0, 10, 0, false), counter(999), "books")).isZero();
+        assertThat(counted).hasValue(0);
+    }
+
+    @Test
+    void pagePastTheEndIsCounted() {
+        // Nothing on page 5 says how many rows there are before it
+        assertThat(countCache.total(slice(5, 10, 0, false), counter(24), "books")).isEqualTo(24);
+        assertThat(counted).hasValue(1);
+    }
+
+    @Test
+    void totalIsCountedOncePerFilterWhilePaging() {
+        assertThat(countCache.total(slice(0, 10, 10, true), counter(35), "books", "a")).isEqualTo(35);
+        assertThat(countCache.total(slice(1, 10, 10, true), counter(999), "books", "a")).isEqualTo(35);
+        assertThat(countCache.total(slice(0, 10, 10, true), counter(12), "books", "b")).isEqualTo(12);
+
+        assertThat(counted).hasValue(2);
+    }
+
+    @Test
+    void cachedTotalIsNeverBehindThePageJustRead() {
+        countCache.total(slice(0, 10, 10, true), counter(15), "books");
+
+        // Rows were added since the count: page 3 is full and has a next page
+        assertThat(countCache.total(slice(3, 10, 10, true), counter(999), "books")).isEqualTo(41);
+    }
+
+    @Test
+    void expiredTotalIsCountedAgain() {
+        ReflectionTestUtils.setField(countCache, "ttl", Duration.ZERO);
+
+        countCache.total(slice(0, 10, 10, true), counter(30), "books");
+        assertThat(countCache.total(slice(0, 10, 10, true), counter(31), "books")).isEqualTo(31);
+        assertThat(counted).hasValue(2);
+    }
+
+    @Test
+    void fullCacheStillCachesTheNewTotal() {
+        for (int filter = 0; filter < 5; filter++) {
+            countCache.total(slice(0, 10, 10, true), counter(100 + filter), "books", filter);
+        }
+        counted.set(0);
+
+        assertThat(countCache.total(slice(0, 10, 10, true), counter(999), "books", 4)).isEqualTo(104);
+        assertThat(counted).hasValue(0);
+    }
+
+    private LongSupplier counter(long total) {
+        return () -> {
+            counted.incrementAndGet();
+            return total;
+        };
+    }
+
+    private static Slice<Object> slice(int page, int size, int elements, boolean hasNext) {
+        return new SliceImpl<>(Collections.nCopies(elements, new Object()), PageRequest.of(page, size), hasNext);
+    }
+}
@@ -0,0 +1,193 @@
+package tech.aerolambda.application.service.impl;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import tech.aerolambda.application.dto.CursorPageResponse;
+import tech.aerolambda.application.service.impl.KeysetPaginator.SortKey;
+import tech.aerolambda.domain.entity.Author;
+import tech.aerolambda.domain.entity.Book;
+import tech.aerolambda.domain.entity.Store;
+import tech.aerolambda.domain.repository.BookRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Walks keyset pages over books whose sort keys repeat, and compares them with the same rows
+ * sorted in memory by (key, id).
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class KeysetPaginatorTest {
+
+    private static final int BOOKS = 23;
+
+    private final KeysetPaginator<Book> paginator = new KeysetPaginator<>(Map.of(
+            "title", SortKey.ofString(Book::getTitle),
+            "createdAt", SortKey.ofTimestamp(Book::getCreatedAt),
+            "id", SortKey.ofLong(Book::getId)
+    ));
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final List<Integer> limits = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        Author author = Author.builder().name("Author").build();
+        Store store = Store.builder().name("Store").build();
+        entityManager.persist(author);
+        entityManager.persist(store);
+        // Five distinct titles, some with the cursor separator in them, and three distinct creation
+        // times with a sub-second part that must survive the cursor
+        LocalDateTime base = LocalDateTime.of(2024, 3, 1, 12, 0, 0, 123_456_000);
+        for (int i = 0; i < BOOKS; i++) {
+            Book book = Book.builder().title("title:" + (i * 7 % 5)).isbn("isbn-" + i)
+                    .author(author).store(store).build();
+            entityManager.persist(book);
+            entityManager.flush();
+            entityManager.createNativeQuery("UPDATE books SET created_at = ?1 WHERE id = ?2")
+                    .setParameter(1, base.plusSeconds(i * 2 % 3))
+                    .setParameter(2, book.getId())
+                    .executeUpdate();
+        }
+        entityManager.clear();
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "title, asc, 4", "title, desc, 4", "title, asc, 1", "title, desc, 23", "title, asc, 50",
+            "createdAt, asc, 5", "createdAt, desc, 3",
+            "id, asc, 6", "id, desc, 7"
+    })
+    void pagesVisitEveryRowOnceInKeyThenIdOrder(String sortBy, String sortDir, int size) {
+        List<Long> visited = walk(sortBy, sortDir, size);
+
+        assertThat(visited).containsExactlyElementsOf(bruteForce(sortBy, sortDir.equals("desc")));
+    }
+
+    @Test
+    void lookaheadRowDecidesHasNextWithoutCounting() {
+        // 23 rows in pages of 23: the only page is also the last one
+        CursorPageResponse<Long> only = page(null, BOOKS, "title", "asc");
+        assertThat(only.hasNext()).isFalse();
+        assertThat(only.nextCursor()).isNull();
+        assertThat(only.content()).hasSize(BOOKS);
+
+        CursorPageResponse<Long> first = page(null, BOOKS - 1, "title", "asc");
+        assertThat(first.hasNext()).isTrue();
+        CursorPageResponse<Long> last = page(first.nextCursor(), BOOKS - 1, "title", "asc");
+        assertThat(last.content()).hasSize(1);
+        assertThat(last.hasNext()).isFalse();
+        assertThat(last.nextCursor()).isNull();
+
+        assertThat(limits).containsOnly(BOOKS + 1, BOOKS);
+    }
+
+    @Test
+    void cursorCarriesSortKeyAndIdOfLastRow() {
+        CursorPageResponse<Long> first = page(null, 3, "title", "desc");
+
+        String decoded = new String(Base64.getUrlDecoder().decode(first.nextCursor()), StandardCharsets.UTF_8);
+        Book last = bookRepository.findById(first.content().get(2)).orElseThrow();
+        assertThat(decoded).isEqualTo("title:desc:" + last.getId() + ":" + last.getTitle());
+    }
+
+    @Test
+    void cursorIsOnlyValidForTheSortItWasIssuedFor() {
+        String cursor = page(null, 3, "title", "asc").nextCursor();
+
+        assertThatThrownBy(() -> page(cursor, 3, "title", "desc"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Cursor was issued for a different sort order");
+        assertThatThrownBy(() -> page(cursor, 3, "createdAt", "asc"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Cursor was issued for a different sort order");
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "not base64!",
+            "dGl0bGU6YXNj",                 // title:asc
+            "dGl0bGU6YXNjOm5vdC1hbi1pZDp4", // title:asc:not-an-id:x
+    })
+    void malformedCursorIsRejected(String cursor) {
+        assertThatThrownBy(() -> page(cursor, 3, "title", "asc"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+    }
+
+    @Test
+    void malformedTimestampInCursorIsRejected() {
+        String cursor = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("createdAt:asc:1:yesterday".getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> page(cursor, 3, "createdAt", "asc"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+    }
+
+    @Test
+    void unknownSortAndEmptyPagesAreRejected() {
+        assertThatThrownBy(() -> page(null, 3, "price", "asc"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Cursor pagination cannot sort by 'price'");
+        assertThatThrownBy(() -> page(null, 0, "title", "asc"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Page size must be at least 1");
+    }
+
+    private List<Long> walk(String sortBy, String sortDir, int size) {
+        List<Long> visited = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPageResponse<Long> page = page(cursor, size, sortBy, sortDir);
+            assertThat(page.content()).hasSizeLessThanOrEqualTo(size);
+            assertThat(page.hasNext()).isEqualTo(page.nextCursor() != null);
+            visited.addAll(page.content());
+            cursor = page.nextCursor();
+            // A cursor that does not move past its page would otherwise loop forever
+            assertThat(visited).as("rows visited so far").hasSizeLessThanOrEqualTo(BOOKS);
+        } while (cursor != null);
+        return visited;
+    }
+
+    private CursorPageResponse<Long> page(String cursor, int size, String sortBy, String sortDir) {
+        entityManager.clear();
+        return paginator.page(cursor, size, sortBy, sortDir, (specification, sort, limit) -> {
+            limits.add(limit);
+            return bookRepository.findPage(specification, sort, limit);
+        }, books -> books.stream().map(Book::getId).toList());
+    }
+
+    private List<Long> bruteForce(String sortBy, boolean descending) {
+        Comparator<Book> byKey = switch (sortBy) {
+            case "title" -> Comparator.comparing(Book::getTitle);
+            case "createdAt" -> Comparator.comparing(Book::getCreatedAt);
+            default -> Comparator.comparing(Book::getId);
+        };
+        Comparator<Book> order = byKey.thenComparing(Book::getId);
+        return bookRepository.findAll().stream()
+                .sorted(descending ? order.reversed() : order)
+                .map(Book::getId)
+                .toList();
+    }
+}
@@ -0,0 +1,89 @@
+package tech.aerolambda.application.service.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import tech.aerolambda.application.dto.report.ReportJobResponse;
+import tech.aerolambda.application.service.ReportService;
+import tech.aerolambda.domain.enums.ReportFormat;
+import tech.aerolambda.domain.enums.ReportJobStatus;
+import tech.aerolambda.domain.enums.ReportType;
+import tech.aerolambda.presentation.dto.report.ReportRequest;
+import tech.aerolambda.report.job.ReportJobRunner;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReportJobServiceImplTest {
+
+    private static final String OWNER = "owner@example.com";
+
+    @TempDir
+    Path directory;
+
+    private ReportJobServiceImpl service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ReportService reportService = mock(ReportService.class);
+        when(reportService.getFileExtension(any())).thenReturn(".csv");
+
+        service = new ReportJobServiceImpl(reportService, new ReportJobRunner(reportService));
+        ReflectionTestUtils.setField(service, "directory", directory.toString());
+        ReflectionTestUtils.setField(service, "poolSize", 1);
+        ReflectionTestUtils.setField(service, "queueCapacity", 10);
+        ReflectionTestUtils.setField(service, "maxActivePerUser", 10);
+        ReflectionTestUtils.setField(service, "retention", Duration.ZERO);
+        service.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void sweepRemovesOtherExpiredJobsWhenOneFileCannotBeDeleted() throws Exception {
+        List<String> ids = List.of(submitAndAwait(), submitAndAwait(), submitAndAwait());
+        // A non-empty directory in place of the first job's file makes its delete fail
+        Path stuck = fileOf(ids.get(0));
+        Files.delete(stuck);
+        Files.createDirectories(stuck.resolve("child"));
+        Thread.sleep(5);
+
+        service.removeExpiredJobs();
+
+        assertThat(service.findAll(OWNER)).extracting(ReportJobResponse::id).containsExactly(ids.get(0));
+        assertThat(fileOf(ids.get(1))).doesNotExist();
+        assertThat(fileOf(ids.get(2))).doesNotExist();
+
+        // Kept for the next sweep, which succeeds once the file can go
+        Files.delete(stuck.resolve("child"));
+        service.removeExpiredJobs();
+
+        assertThat(service.findAll(OWNER)).isEmpty();
+        assertThat(stuck).doesNotExist();
+    }
+
+    private String submitAndAwait() throws InterruptedException {
+        String id = service.submit(ReportType.BOOKS, ReportFormat.CSV, new ReportRequest(), OWNER).id();
+        for (int i = 0; i < 500 && service.findById(id, OWNER).status() != ReportJobStatus.COMPLETED; i++) {
+            Thread.sleep(10);
+        }
+        assertThat(service.findById(id, OWNER).status()).isEqualTo(ReportJobStatus.COMPLETED);
+        return id;
+    }
+
+    private Path fileOf(String id) {
+        return directory.resolve(ReportJobRunner.FILE_PREFIX + id + ".csv");
+    }
+}
@@ -0,0 +1,96 @@
+package tech.aerolambda.application.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import tech.aerolambda.application.dto.auth.RegisterRequest;
+import tech.aerolambda.application.dto.user.UserRequest;
+import tech.aerolambda.application.dto.user.UserUpdateRequest;
+import tech.aerolambda.application.mapper.UserMapperImpl;
+import tech.aerolambda.domain.entity.User;
+import tech.aerolambda.domain.enums.UserRole;
+import tech.aerolambda.infrastructure.exception.DuplicateResourceException;
+import tech.aerolambda.infrastructure.exception.ResourceNotFoundException;
+import tech.aerolambda.infrastructure.security.AccountVersions;
+import tech.aerolambda.infrastructure.security.UserDetailsCache;
+import tech.aerolambda.report.cache.ReportCache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({UserWriter.class, UserMapperImpl.class})
+class UserWriterTest {
+
+    @Autowired
+    private UserWriter userWriter;
+
+    @MockBean
+    private ReportCache reportCache;
+
+    @MockBean
+    private AccountVersions accountVersions;
+
+    @MockBean
+    private UserDetailsCache userDetailsCache;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userWriter.create(new UserRequest("Reader", "reader@example.com", "password1", UserRole.USER), "hash-1");
+    }
+
+    @Test
+    void registeredUserGetsTheHashAndIsAnEnabledUser() {
+        User registered = userWriter.register(new RegisterRequest("New", "new@example.com", "password1"), "hash-2");
+
+        assertThat(registered.getPassword()).isEqualTo("hash-2");
+        assertThat(registered.getRole()).isEqualTo(UserRole.USER);
+        assertThat(registered.isEnabled()).isTrue();
+        verify(accountVersions).userSaved(registered);
+    }
+
+    @Test
+    void takenEmailIsRejectedInsideTheTransaction() {
+        assertThatThrownBy(() -> userWriter.register(new RegisterRequest("Other", "reader@example.com", "password1"),
+                "hash-2"))
+                .isInstanceOf(DuplicateResourceException.class);
+    }
+
+    @Test
+    void updateWithoutHashKeepsThePassword() {
+        // A password of spaces passes validation but is not a new password
+        User updated = userWriter.update(user.getId(), new UserUpdateRequest("Renamed", null, "        ", null, null), null);
+
+        assertThat(updated.getName()).isEqualTo("Renamed");
+        assertThat(updated.getPassword()).isEqualTo("hash-1");
+        assertThat(updated.getAccountVersion()).isZero();
+        verify(userDetailsCache).evict("reader@example.com");
+    }
+
+    @Test
+    void newPasswordVoidsOlderTokens() {
+        User updated = userWriter.update(user.getId(), new UserUpdateRequest(null, null, "password2", null, null), "hash-2");
+
+        assertThat(updated.getPassword()).isEqualTo("hash-2");
+        assertThat(updated.getAccountVersion()).isEqualTo(1);
+    }
+
+    @Test
+    void updateRejectsATakenEmailAndAnUnknownUser() {
+        userWriter.create(new UserRequest("Other", "other@example.com", "password1", UserRole.USER), "hash-2");
+
+        assertThatThrownBy(() -> userWriter.update(user.getId(),
+                new UserUpdateRequest(null, "other@example.com", null, null, null), null))
+                .isInstanceOf(DuplicateResourceException.class);
+        assertThatThrownBy(() -> userWriter.update(-1L, new UserUpdateRequest("Nobody", null, null, null, null), null))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+}
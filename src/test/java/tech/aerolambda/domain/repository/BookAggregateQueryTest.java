@@ -0,0 +1,178 @@
+package tech.aerolambda.domain.repository;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import tech.aerolambda.domain.entity.Author;
+import tech.aerolambda.domain.entity.Book;
+import tech.aerolambda.domain.entity.Store;
+import tech.aerolambda.domain.repository.projection.InventoryValue;
+import tech.aerolambda.domain.repository.projection.PriceBucketCount;
+import tech.aerolambda.domain.repository.projection.YearBookCount;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The grouped counts and sums behind the aggregate reports, checked against a small fixture:
+ * <pre>
+ *  price  year  author  store
+ *   0.00  1999  Ann     North
+ *   9.99  1999  Ann     North
+ *  10.00  2001  Ann     South
+ *  19.90  2001  Bob     South
+ *  20.00  -     Bob     North
+ *  -      2001  Bob     South
+ *  25.50  1999  Ann     North   created before the window
+ * </pre>
+ * Cid and West have no books.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class BookAggregateQueryTest {
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private LocalDateTime from;
+    private LocalDateTime to;
+
+    @BeforeEach
+    void seed() {
+        Author ann = persist(Author.builder().name("Ann").build());
+        Author bob = persist(Author.builder().name("Bob").build());
+        persist(Author.builder().name("Cid").build());
+        Store north = persist(Store.builder().name("North").build());
+        Store south = persist(Store.builder().name("South").build());
+        persist(Store.builder().name("West").build());
+
+        book("0.00", 1999, ann, north);
+        book("9.99", 1999, ann, north);
+        book("10.00", 2001, ann, south);
+        book("19.90", 2001, bob, south);
+        book("20.00", null, bob, north);
+        book(null, 2001, bob, south);
+        Book old = book("25.50", 1999, ann, north);
+        entityManager.flush();
+
+        // created_at is set on insert and never updated through the entity
+        entityManager.createNativeQuery("UPDATE books SET created_at = :createdAt WHERE id = :id")
+                .setParameter("createdAt", LocalDateTime.of(2020, 1, 1, 0, 0))
+                .setParameter("id", old.getId())
+                .executeUpdate();
+        entityManager.clear();
+
+        from = LocalDateTime.now().minusDays(1);
+        to = LocalDateTime.now().plusDays(1);
+    }
+
+    @Test
+    void priceBucketsIncludeTheLowerEdgeAndSkipUnpricedBooks() {
+        List<PriceBucketCount> buckets = bookRepository.countGroupedByPriceBucket(BigDecimal.TEN, from, to);
+
+        assertBuckets(buckets, "0", 2, "10", 2, "20", 1);
+    }
+
+    @Test
+    void priceBucketsKeepAFractionalWidth() {
+        List<PriceBucketCount> buckets = bookRepository.countGroupedByPriceBucket(new BigDecimal("2.5"), from, to);
+
+        assertBuckets(buckets, "0", 1, "7.5", 1, "10", 1, "17.5", 1, "20", 1);
+    }
+
+    @Test
+    void priceBucketsOnlyCountBooksCreatedInTheWindow() {
+        List<PriceBucketCount> buckets = bookRepository.countGroupedByPriceBucket(BigDecimal.TEN,
+                LocalDateTime.of(2019, 1, 1, 0, 0), LocalDateTime.of(2021, 1, 1, 0, 0));
+
+        assertBuckets(buckets, "20", 1);
+    }
+
+    @Test
+    void publicationYearsAreCountedInOrderWithoutUnknownYears() {
+        assertThat(bookRepository.countGroupedByPublicationYear(from, to))
+                .containsExactly(new YearBookCount(1999, 2), new YearBookCount(2001, 3));
+        assertThat(bookRepository.countGroupedByPublicationYear(LocalDateTime.of(2019, 1, 1, 0, 0), from))
+                .containsExactly(new YearBookCount(1999, 1));
+    }
+
+    @Test
+    void storeInventoryCountsEveryBookAndSumsPricedOnes() {
+        List<InventoryValue> stores = bookRepository.sumInventoryPerStore(from, to);
+
+        assertThat(stores).extracting(InventoryValue::ownerName).containsExactly("North", "South", "West");
+        assertInventory(stores.get(0), 3, "29.99", "10.00");
+        assertInventory(stores.get(1), 3, "29.90", "14.95");
+        assertEmptyInventory(stores.get(2));
+    }
+
+    @Test
+    void authorInventoryCountsEveryBookAndSumsPricedOnes() {
+        List<InventoryValue> authors = bookRepository.sumInventoryPerAuthor(from, to);
+
+        assertThat(authors).extracting(InventoryValue::ownerName).containsExactly("Ann", "Bob", "Cid");
+        assertInventory(authors.get(0), 3, "19.99", "6.66");
+        assertInventory(authors.get(1), 3, "39.90", "19.95");
+        assertEmptyInventory(authors.get(2));
+    }
+
+    @Test
+    void inventoryOutsideTheWindowListsOwnersWithoutBooks() {
+        List<InventoryValue> stores = bookRepository.sumInventoryPerStore(LocalDateTime.of(2019, 1, 1, 0, 0),
+                LocalDateTime.of(2021, 1, 1, 0, 0));
+
+        assertThat(stores).extracting(InventoryValue::ownerName).containsExactly("North", "South", "West");
+        assertInventory(stores.get(0), 1, "25.50", "25.50");
+        assertEmptyInventory(stores.get(1));
+        assertEmptyInventory(stores.get(2));
+    }
+
+    /**
+     * Checks bucket lower bounds and counts, given as alternating pairs.
+     */
+    private static void assertBuckets(List<PriceBucketCount> buckets, Object... expected) {
+        assertThat(buckets).hasSize(expected.length / 2);
+        for (int i = 0; i < buckets.size(); i++) {
+            assertThat(buckets.get(i).lowerBound()).isEqualByComparingTo((String) expected[i * 2]);
+            assertThat(buckets.get(i).count()).isEqualTo(((Integer) expected[i * 2 + 1]).longValue());
+        }
+    }
+
+    private static void assertInventory(InventoryValue value, long books, String total, String average) {
+        assertThat(value.bookCount()).isEqualTo(books);
+        assertThat(value.totalValue()).isEqualByComparingTo(total);
+        assertThat(value.averagePrice().setScale(2, RoundingMode.HALF_UP)).isEqualByComparingTo(average);
+    }
+
+    private static void assertEmptyInventory(InventoryValue value) {
+        assertThat(value.bookCount()).isZero();
+        assertThat(value.totalValue()).isNull();
+        assertThat(value.averagePrice()).isNull();
+    }
+
+    private Book book(String price, Integer year, Author author, Store store) {
+        return persist(Book.builder()
+                .title("Book " + price)
+                .isbn("isbn-" + price + "-" + year)
+                .price(price != null ? new BigDecimal(price) : null)
+                .publicationYear(year)
+                .author(author)
+                .store(store)
+                .build());
+    }
+
+    private <T> T persist(T entity) {
+        entityManager.persist(entity);
+        return entity;
+    }
+}
@@ -0,0 +1,139 @@
+package tech.aerolambda.domain.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.ActiveProfiles;
+import tech.aerolambda.domain.entity.Author;
+import tech.aerolambda.domain.entity.Book;
+import tech.aerolambda.domain.entity.Store;
+import tech.aerolambda.report.source.ReportDataSource;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Book list and report queries must load each book's author and store with the book: the number
+ * of statements they issue may not grow with the number of rows. Every book gets its own author
+ * and store, the worst case for per-row loading.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(ReportDataSource.class)
+class BookFetchStatementCountTest {
+
+    private static final int ROWS = 10;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private ReportDataSource reportDataSource;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private int seeded;
+
+    @BeforeEach
+    void enableStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    void findAllLoadsAuthorsAndStoresWithTheBooks() {
+        assertConstantStatements(() -> bookRepository.findAll());
+    }
+
+    @Test
+    void titleQueryLoadsAuthorsAndStoresWithTheBooks() {
+        assertConstantStatements(() -> bookRepository.findByTitleContainingIgnoreCase("book"));
+    }
+
+    @Test
+    void priceQueryLoadsAuthorsAndStoresWithTheBooks() {
+        assertConstantStatements(() -> bookRepository.findByPriceBetween(BigDecimal.ZERO, BigDecimal.valueOf(1_000_000)));
+    }
+
+    @Test
+    void yearQueryLoadsAuthorsAndStoresWithTheBooks() {
+        assertConstantStatements(() -> bookRepository.findByPublicationYear(2000));
+    }
+
+    @Test
+    void authorNameQueryLoadsAuthorsAndStoresWithTheBooks() {
+        assertConstantStatements(() -> bookRepository.findByAuthorNameContaining("Author"));
+    }
+
+    @Test
+    void reportCursorLoadsRequestedAssociationsWithTheBooks() {
+        assertConstantStatements(() -> {
+            try (Stream<Book> books = reportDataSource.stream(Book.class, Specification.where(null), null,
+                    "author", "store")) {
+                return books.toList();
+            }
+        });
+    }
+
+    /**
+     * Runs {@code query} over {@value #ROWS} and then ten times as many books, reading every
+     * book's author and store name, and checks both runs issue the same number of statements.
+     */
+    private void assertConstantStatements(Supplier<List<Book>> query) {
+        seedUpTo(ROWS);
+        long few = statementsFor(query, ROWS);
+
+        seedUpTo(ROWS * 10);
+        long many = statementsFor(query, ROWS * 10);
+
+        assertThat(many).isEqualTo(few);
+    }
+
+    private long statementsFor(Supplier<List<Book>> query, int expectedRows) {
+        entityManager.clear();
+        statistics.clear();
+
+        List<Book> books = query.get();
+        books.forEach(book -> {
+            book.getAuthor().getName();
+            book.getStore().getName();
+        });
+
+        assertThat(books).hasSize(expectedRows);
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void seedUpTo(int rows) {
+        for (; seeded < rows; seeded++) {
+            Author author = Author.builder().name("Author " + seeded).build();
+            Store store = Store.builder().name("Store " + seeded).build();
+            entityManager.persist(author);
+            entityManager.persist(store);
+            entityManager.persist(Book.builder()
+                    .title("Book " + seeded)
+                    .isbn("isbn-" + seeded)
+                    .price(BigDecimal.valueOf(10 + seeded))
+                    .publicationYear(2000)
+                    .author(author)
+                    .store(store)
+                    .build());
+        }
+        entityManager.flush();
+    }
+}
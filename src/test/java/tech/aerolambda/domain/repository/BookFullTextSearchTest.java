@@ -0,0 +1,149 @@
+package tech.aerolambda.domain.repository;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import tech.aerolambda.domain.entity.Author;
+import tech.aerolambda.domain.entity.Book;
+import tech.aerolambda.domain.entity.Store;
+import tech.aerolambda.infrastructure.config.FullTextSearchSchema;
+
+import java.sql.ResultSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Full-text book search through {@link FullTextSearchSchema} and the native queries on
+ * {@link BookRepository}. These run against the embedded H2 database unless
+ * {@code test.postgres.url} (with {@code test.postgres.username} and {@code test.postgres.password})
+ * names a PostgreSQL database; the search itself is only tested there. Changes are rolled back,
+ * and the seeded words are unlikely to match existing rows.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=${test.postgres.url:jdbc:h2:mem:full-text-search}",
+        "spring.datasource.username=${test.postgres.username:sa}",
+        "spring.datasource.password=${test.postgres.password:}",
+        "spring.datasource.driver-class-name=",
+        "spring.jpa.database-platform="
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(FullTextSearchSchema.class)
+class BookFullTextSearchTest {
+
+    @Autowired
+    private FullTextSearchSchema fullTextSearchSchema;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private boolean postgres;
+
+    @BeforeEach
+    void applySchema() {
+        postgres = "PostgreSQL".equals(jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName()));
+        fullTextSearchSchema.run(null);
+    }
+
+    @Test
+    void schemaIsANoOpOnOtherDatabases() {
+        assumeFalse(postgres, "Runs on databases other than PostgreSQL");
+
+        assertThat(fullTextSearchSchema.isAvailable()).isFalse();
+        assertThat(hasSearchVector()).isFalse();
+        // And the books table is still usable
+        Book book = seedBook("Quillfeather Chronicles", "A tale", "Orla Brennagh");
+        assertThat(bookRepository.findByTitleContainingIgnoreCase("quillfeather")).containsExactly(book);
+    }
+
+    @Test
+    void findsBooksByTitleAuthorAndDescriptionPrefixes() {
+        assumePostgres();
+
+        Book title = seedBook("Quillfeather Chronicles", "A tale of ink", "Orla Brennagh");
+        Book author = seedBook("Lantern Roads", "Travels", "Quillfeatherson Pike");
+        Book description = seedBook("Harbour Lights", "Mentions quillfeathers once", "Tamsin Vey");
+        seedBook("Unrelated", "Nothing here", "Somebody Else");
+
+        // Title words weigh more than the author's name, which weighs more than the description
+        Slice<Long> ids = bookRepository.searchIdsByText("quillfeather:*", PageRequest.of(0, 10));
+        assertThat(ids.getContent()).containsExactly(title.getId(), author.getId(), description.getId());
+        assertThat(ids.hasNext()).isFalse();
+        assertThat(bookRepository.countByText("quillfeather:*")).isEqualTo(3);
+
+        assertThat(bookRepository.searchIdsByText("quillfeather:* & chronicl:*", PageRequest.of(0, 10)).getContent())
+                .containsExactly(title.getId());
+        assertThat(bookRepository.searchIdsByText("quillfeather:*", PageRequest.of(1, 2)).getContent())
+                .containsExactly(description.getId());
+    }
+
+    @Test
+    void renamingAnAuthorReindexesTheirBooks() {
+        assumePostgres();
+
+        Book book = seedBook("Lantern Roads", "Travels", "Orla Brennagh");
+        assertThat(bookRepository.countByText("brennagh:*")).isEqualTo(1);
+
+        book.getAuthor().setName("Orla Quillfeather");
+        entityManager.flush();
+
+        assertThat(bookRepository.countByText("brennagh:*")).isZero();
+        assertThat(bookRepository.searchIdsByText("quillfeather:*", PageRequest.of(0, 10)).getContent())
+                .containsExactly(book.getId());
+    }
+
+    private void assumePostgres() {
+        assumeTrue(postgres, "Full-text search needs PostgreSQL; set test.postgres.url to run this");
+        assertThat(fullTextSearchSchema.isAvailable()).isTrue();
+        assertThat(hasSearchVector()).isTrue();
+    }
+
+    private boolean hasSearchVector() {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            try (ResultSet columns = connection.getMetaData().getColumns(null, null, "%", "%")) {
+                while (columns.next()) {
+                    if ("books".equalsIgnoreCase(columns.getString("TABLE_NAME"))
+                            && "search_vector".equalsIgnoreCase(columns.getString("COLUMN_NAME"))) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+        }));
+    }
+
+    private Book seedBook(String title, String description, String authorName) {
+        Author author = Author.builder().name(authorName).build();
+        Store store = Store.builder().name("Store").build();
+        entityManager.persist(author);
+        entityManager.persist(store);
+        Book book = Book.builder()
+                .title(title)
+                .isbn("fts-" + System.nanoTime())
+                .description(description)
+                .author(author)
+                .store(store)
+                .build();
+        entityManager.persist(book);
+        entityManager.flush();
+        return book;
+    }
+}
@@ -0,0 +1,133 @@
+package tech.aerolambda.domain.repository;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.ActiveProfiles;
+import tech.aerolambda.domain.entity.Author;
+import tech.aerolambda.domain.entity.Book;
+import tech.aerolambda.domain.entity.Store;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Offset slices of a filtered search, sorted on repeated keys in mixed directions, compared with
+ * the same rows filtered and sorted in memory.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class BookSearchRepositoryImplTest {
+
+    private static final int BOOKS = 30;
+    private static final BigDecimal MIN_PRICE = BigDecimal.valueOf(12);
+
+    // Price ascending, then title descending, then id as the tie-breaker
+    private static final Sort MIXED = Sort.by(Sort.Order.asc("price"), Sort.Order.desc("title"), Sort.Order.asc("id"));
+    private static final Comparator<Book> MIXED_ORDER = Comparator.comparing(Book::getPrice)
+            .thenComparing(Book::getTitle, Comparator.reverseOrder())
+            .thenComparing(Book::getId);
+
+    private static final Specification<Book> PRICED_FROM_MIN = (root, query, cb) ->
+            cb.greaterThanOrEqualTo(root.get("price"), MIN_PRICE);
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void seed() {
+        Author author = Author.builder().name("Author").build();
+        Store store = Store.builder().name("Store").build();
+        entityManager.persist(author);
+        entityManager.persist(store);
+        for (int i = 0; i < BOOKS; i++) {
+            // Prices 10..15 and titles a..c repeat, so whole runs of rows share both sort keys
+            entityManager.persist(Book.builder()
+                    .title(String.valueOf((char) ('a' + i % 3)))
+                    .isbn("isbn-" + i)
+                    .price(BigDecimal.valueOf(10 + i * 7 % 6))
+                    .author(author)
+                    .store(store)
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 4, 5, 19, 20, 21, 100})
+    void slicesFollowMixedDirectionSortAcrossPages(int size) {
+        List<Long> expected = bookRepository.findAll().stream()
+                .filter(book -> book.getPrice().compareTo(MIN_PRICE) >= 0)
+                .sorted(MIXED_ORDER)
+                .map(Book::getId)
+                .toList();
+
+        List<Long> visited = new ArrayList<>();
+        Slice<Book> slice;
+        int page = 0;
+        do {
+            entityManager.clear();
+            slice = bookRepository.findSlice(PRICED_FROM_MIN, PageRequest.of(page++, size, MIXED));
+            assertThat(slice.getContent()).hasSizeLessThanOrEqualTo(size);
+            slice.forEach(book -> visited.add(book.getId()));
+        } while (slice.hasNext());
+
+        assertThat(visited).containsExactlyElementsOf(expected);
+        // The lookahead row ends the walk on the page holding the last row, even when it is full
+        assertThat(page).isEqualTo(Math.max(1, (expected.size() + size - 1) / size));
+    }
+
+    @Test
+    void lastFullPageHasNoNext() {
+        long matching = bookRepository.count(PRICED_FROM_MIN);
+
+        Slice<Book> slice = bookRepository.findSlice(PRICED_FROM_MIN, PageRequest.of(0, (int) matching, MIXED));
+
+        assertThat(slice.getNumberOfElements()).isEqualTo((int) matching);
+        assertThat(slice.hasNext()).isFalse();
+    }
+
+    @Test
+    void pagePastTheEndIsEmpty() {
+        Slice<Book> slice = bookRepository.findSlice(PRICED_FROM_MIN, PageRequest.of(50, 10, MIXED));
+
+        assertThat(slice.hasContent()).isFalse();
+        assertThat(slice.hasNext()).isFalse();
+    }
+
+    @Test
+    void emptySpecificationMatchesEveryBook() {
+        Slice<Book> slice = bookRepository.findSlice(Specification.where(null), PageRequest.of(0, BOOKS, MIXED));
+
+        assertThat(slice.getNumberOfElements()).isEqualTo(BOOKS);
+        assertThat(slice.hasNext()).isFalse();
+    }
+
+    @Test
+    void authorAndStoreAreLoadedWithTheSlice() {
+        Slice<Book> slice = bookRepository.findSlice(PRICED_FROM_MIN, PageRequest.of(0, 5, MIXED));
+        entityManager.clear();
+
+        // Detached: reading them would fail had they not been fetched with the books
+        assertThat(slice.getContent()).allSatisfy(book -> {
+            assertThat(book.getAuthor().getName()).isEqualTo("Author");
+            assertThat(book.getStore().getName()).isEqualTo("Store");
+        });
+    }
+}
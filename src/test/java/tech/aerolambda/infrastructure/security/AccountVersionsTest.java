@@ -0,0 +1,108 @@
+package tech.aerolambda.infrastructure.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import tech.aerolambda.domain.repository.UserRepository;
+import tech.aerolambda.domain.repository.projection.AccountVersion;
+import tech.aerolambda.infrastructure.security.AccountVersions.Freshness;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Another instance's changes only reach this one through the users table, which the mocked
+ * repository stands in for.
+ */
+class AccountVersionsTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private AccountVersions accountVersions;
+
+    @BeforeEach
+    void setUp() {
+        accountVersions = new AccountVersions(userRepository);
+        ReflectionTestUtils.setField(accountVersions, "enabled", true);
+        when(userRepository.findAllAccountVersions()).thenReturn(List.of(
+                new AccountVersion(1L, 0L), new AccountVersion(2L, 4L)));
+        accountVersions.load();
+    }
+
+    @Test
+    void loadedVersionsAreTrustedAndOlderOnesRejected() {
+        assertThat(accountVersions.isReady()).isTrue();
+        assertThat(accountVersions.check(2L, 4)).isEqualTo(Freshness.CURRENT);
+        assertThat(accountVersions.check(2L, 3)).isEqualTo(Freshness.STALE);
+        assertThat(accountVersions.check(2L, 5)).isEqualTo(Freshness.UNKNOWN);
+        assertThat(accountVersions.check(3L, 0)).isEqualTo(Freshness.UNKNOWN);
+    }
+
+    @Test
+    void refreshSeesUsersChangedOnAnotherInstance() {
+        // User 1 was demoted or disabled elsewhere, which moved its version on
+        when(userRepository.findAllAccountVersions()).thenReturn(List.of(
+                new AccountVersion(1L, 1L), new AccountVersion(2L, 4L)));
+
+        accountVersions.refresh();
+
+        assertThat(accountVersions.check(1L, 0)).isEqualTo(Freshness.STALE);
+        assertThat(accountVersions.check(1L, 1)).isEqualTo(Freshness.CURRENT);
+    }
+
+    @Test
+    void refreshTreatsUsersMissingFromTheTableAsDeleted() {
+        when(userRepository.findAllAccountVersions()).thenReturn(List.of(new AccountVersion(1L, 0L)));
+
+        accountVersions.refresh();
+
+        assertThat(accountVersions.check(2L, 4)).isEqualTo(Freshness.STALE);
+        assertThat(accountVersions.check(1L, 0)).isEqualTo(Freshness.CURRENT);
+    }
+
+    @Test
+    void userRecordedDuringARefreshIsNotTakenForDeleted() {
+        when(userRepository.findAllAccountVersions()).thenAnswer(invocation -> {
+            // Created and committed here after the read started, so the read does not have it
+            accountVersions.record(7L, 0);
+            return List.of(new AccountVersion(1L, 0L), new AccountVersion(2L, 4L));
+        });
+
+        accountVersions.refresh();
+
+        assertThat(accountVersions.check(7L, 0)).isEqualTo(Freshness.CURRENT);
+    }
+
+    @Test
+    void refreshNeverRollsAVersionBack() {
+        accountVersions.record(2L, 6);
+        // A read that started before the change committed
+        accountVersions.refresh();
+
+        assertThat(accountVersions.check(2L, 6)).isEqualTo(Freshness.CURRENT);
+    }
+
+    @Test
+    void failedRefreshStopsTrustingClaimsUntilOneSucceeds() {
+        when(userRepository.findAllAccountVersions()).thenThrow(new IllegalStateException("database is down"));
+        accountVersions.refresh();
+        assertThat(accountVersions.isReady()).isFalse();
+
+        doReturn(List.of(new AccountVersion(1L, 0L))).when(userRepository).findAllAccountVersions();
+        accountVersions.refresh();
+        assertThat(accountVersions.isReady()).isTrue();
+    }
+
+    @Test
+    void disabledTableIsNeverReady() {
+        AccountVersions disabled = new AccountVersions(userRepository);
+
+        disabled.load();
+        disabled.refresh();
+
+        assertThat(disabled.isReady()).isFalse();
+    }
+}
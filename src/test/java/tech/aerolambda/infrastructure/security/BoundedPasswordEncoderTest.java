@@ -0,0 +1,90 @@
+package tech.aerolambda.infrastructure.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import tech.aerolambda.infrastructure.exception.TooManyRequestsException;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundedPasswordEncoderTest {
+
+    private final BoundedPasswordEncoder encoder = new BoundedPasswordEncoder();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(encoder, "threads", 1);
+        ReflectionTestUtils.setField(encoder, "queueCapacity", 1);
+        encoder.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        encoder.shutdown();
+    }
+
+    @Test
+    void hashesOnThePool() {
+        String hash = encoder.encode("password1");
+
+        assertThat(encoder.matches("password1", hash)).isTrue();
+        assertThat(encoder.matches("password2", hash)).isFalse();
+        assertThat(encoder.upgradeEncoding(hash)).isFalse();
+        BoundedPasswordEncoder.Stats stats = encoder.stats();
+        assertThat(stats.threads()).isEqualTo(1);
+        assertThat(stats.hashes()).isEqualTo(3);
+        assertThat(stats.rejected()).isZero();
+        assertThat(stats.maxHashMillis()).isPositive();
+    }
+
+    @Test
+    void fullQueueIsTurnedAwayAtOnce() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        ThreadPoolTaskExecutor executor = (ThreadPoolTaskExecutor) ReflectionTestUtils.getField(encoder, "executor");
+        // One hash running and one waiting fill a pool of one thread with a queue of one
+        executor.execute(() -> {
+            running.countDown();
+            await(release);
+        });
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+        CountDownLatch drained = new CountDownLatch(1);
+        executor.execute(() -> {
+            drained.countDown();
+            await(release);
+        });
+
+        long started = System.nanoTime();
+        assertThatThrownBy(() -> encoder.encode("password1")).isInstanceOf(TooManyRequestsException.class);
+        assertThat(System.nanoTime() - started).isLessThan(TimeUnit.SECONDS.toNanos(1));
+        assertThat(encoder.stats().rejected()).isEqualTo(1);
+        assertThat(encoder.stats().queued()).isEqualTo(1);
+
+        // Once the waiting one runs, the queue has room again
+        release.countDown();
+        assertThat(drained.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(encoder.matches("password1", encoder.encode("password1"))).isTrue();
+    }
+
+    @Test
+    void delegateErrorsReachTheCaller() {
+        assertThatThrownBy(() -> encoder.encode(null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("rawPassword");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
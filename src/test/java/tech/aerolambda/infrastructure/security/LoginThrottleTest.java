@@ -0,0 +1,103 @@
+package tech.aerolambda.infrastructure.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import tech.aerolambda.infrastructure.exception.TooManyRequestsException;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoginThrottleTest {
+
+    private static final String ADDRESS = "10.0.0.1";
+
+    private final LoginThrottle throttle = new LoginThrottle();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(throttle, "window", Duration.ofHours(1));
+        ReflectionTestUtils.setField(throttle, "maxAttemptsPerEmail", 3);
+        ReflectionTestUtils.setField(throttle, "maxAttemptsPerAddress", 5);
+    }
+
+    @Test
+    void emailIsTurnedAwayOnceItsAttemptsAreUsed() {
+        attempts("reader@example.com", ADDRESS, 3);
+
+        assertThatThrownBy(() -> throttle.attempt("reader@example.com", "10.0.0.2"))
+                .isInstanceOf(TooManyRequestsException.class);
+        assertThatCode(() -> throttle.attempt("other@example.com", ADDRESS)).doesNotThrowAnyException();
+        assertThat(throttle.rejected()).isEqualTo(1);
+    }
+
+    @Test
+    void emailsDifferingInCaseOrSpacesShareTheirAttempts() {
+        throttle.attempt("reader@example.com", ADDRESS);
+        throttle.attempt("Reader@Example.com", ADDRESS);
+        throttle.attempt(" READER@example.com ", ADDRESS);
+
+        assertThatThrownBy(() -> throttle.attempt("reader@EXAMPLE.com", ADDRESS))
+                .isInstanceOf(TooManyRequestsException.class);
+    }
+
+    @Test
+    void addressIsTurnedAwayAcrossEmails() {
+        for (int i = 0; i < 5; i++) {
+            throttle.attempt("user" + i + "@example.com", ADDRESS);
+        }
+
+        assertThatThrownBy(() -> throttle.attempt("user5@example.com", ADDRESS))
+                .isInstanceOf(TooManyRequestsException.class);
+        assertThatCode(() -> throttle.attempt("user5@example.com", "10.0.0.2")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void successClearsTheEmailButNotTheAddress() {
+        attempts("reader@example.com", ADDRESS, 3);
+
+        throttle.succeeded("Reader@example.com");
+
+        assertThatCode(() -> attempts("reader@example.com", ADDRESS, 2)).doesNotThrowAnyException();
+        assertThatThrownBy(() -> throttle.attempt("reader@example.com", ADDRESS))
+                .isInstanceOf(TooManyRequestsException.class);
+    }
+
+    @Test
+    void attemptsStartOverInANewWindow() {
+        attempts("reader@example.com", ADDRESS, 3);
+        assertThatThrownBy(() -> throttle.attempt("reader@example.com", ADDRESS))
+                .isInstanceOf(TooManyRequestsException.class);
+
+        // Every window seen so far has ended
+        ReflectionTestUtils.setField(throttle, "window", Duration.ZERO);
+
+        assertThatCode(() -> throttle.attempt("reader@example.com", ADDRESS)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void removeExpiredKeepsWindowsStillRunning() {
+        attempts("reader@example.com", ADDRESS, 3);
+
+        throttle.removeExpired();
+        assertThat(windows()).hasSize(2);
+
+        ReflectionTestUtils.setField(throttle, "window", Duration.ZERO);
+        throttle.removeExpired();
+        assertThat(windows()).isEmpty();
+    }
+
+    private void attempts(String email, String clientAddress, int count) {
+        for (int i = 0; i < count; i++) {
+            throttle.attempt(email, clientAddress);
+        }
+    }
+
+    private Map<?, ?> windows() {
+        return (Map<?, ?>) ReflectionTestUtils.getField(throttle, "windows");
+    }
+}
@@ -0,0 +1,139 @@
+package tech.aerolambda.infrastructure.security;
+
+import io.jsonwebtoken.Jwts;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import tech.aerolambda.domain.entity.RevokedToken;
+import tech.aerolambda.domain.repository.RevokedTokenRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Two instances sharing the revocation table: tokens signed out on one must be turned away by the
+ * other once it refreshes.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class TokenRevocationsTest {
+
+    private static final Instant IN_AN_HOUR = Instant.now().plus(Duration.ofHours(1));
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private TokenRevocations here;
+    private TokenRevocations there;
+
+    @BeforeEach
+    void setUp() {
+        here = start(revokedTokenRepository, 100);
+        there = start(revokedTokenRepository, 100);
+    }
+
+    @Test
+    void loadsUnexpiredRevocations() {
+        revokedTokenRepository.save(RevokedToken.builder().tokenId("live").expiresAt(IN_AN_HOUR).build());
+        revokedTokenRepository.save(RevokedToken.builder().tokenId("expired")
+                .expiresAt(Instant.now().minusSeconds(1)).build());
+
+        TokenRevocations started = start(revokedTokenRepository, 100);
+
+        assertThat(started.isRevoked(token("live", IN_AN_HOUR))).isTrue();
+        assertThat(started.isRevoked(token("expired", IN_AN_HOUR))).isFalse();
+    }
+
+    @Test
+    void revocationOnAnotherInstanceAppliesAfterRefresh() {
+        there.revoke(token("signed-out", IN_AN_HOUR));
+        assertThat(here.isRevoked(token("signed-out", IN_AN_HOUR))).isFalse();
+
+        here.refresh();
+
+        assertThat(here.isRevoked(token("signed-out", IN_AN_HOUR))).isTrue();
+        assertThat(here.isRevoked(token("still-valid", IN_AN_HOUR))).isFalse();
+    }
+
+    @Test
+    void refreshReadsRowsStampedJustBeforeTheLastRead() {
+        here.refresh();
+        there.revoke(token("committed-late", IN_AN_HOUR));
+        // Stamped before this instance's last read, as by a slow clock or a long transaction
+        entityManager.flush();
+        entityManager.createNativeQuery("UPDATE revoked_tokens SET created_at = ?1 WHERE token_id = 'committed-late'")
+                .setParameter(1, LocalDateTime.now().minusSeconds(20))
+                .executeUpdate();
+        entityManager.clear();
+
+        here.refresh();
+
+        assertThat(here.isRevoked(token("committed-late", IN_AN_HOUR))).isTrue();
+    }
+
+    @Test
+    void refreshSkipsRowsThatExpired() {
+        revokedTokenRepository.save(RevokedToken.builder().tokenId("expired")
+                .expiresAt(Instant.now().minusSeconds(1)).build());
+
+        here.refresh();
+
+        assertThat(here.isRevoked(token("expired", IN_AN_HOUR))).isFalse();
+    }
+
+    @Test
+    void refreshGrowsTheFilterPastItsCapacity() {
+        TokenRevocations small = start(revokedTokenRepository, 4);
+        List<String> ids = IntStream.range(0, 40).mapToObj(i -> "token-" + i).toList();
+        ids.forEach(id -> there.revoke(token(id, IN_AN_HOUR)));
+
+        small.refresh();
+
+        assertThat(ids).allSatisfy(id -> assertThat(small.isRevoked(token(id, IN_AN_HOUR))).isTrue());
+    }
+
+    @Test
+    void failedRefreshIsRetried() {
+        RevokedTokenRepository failing = mock(RevokedTokenRepository.class, delegatesTo(revokedTokenRepository));
+        doThrow(new IllegalStateException("database is down"))
+                .doAnswer(delegatesTo(revokedTokenRepository))
+                .when(failing).findByCreatedAtAfterAndExpiresAtAfter(any(), any());
+        TokenRevocations flaky = start(failing, 100);
+        there.revoke(token("signed-out", IN_AN_HOUR));
+
+        flaky.refresh();
+        assertThat(flaky.isRevoked(token("signed-out", IN_AN_HOUR))).isFalse();
+
+        flaky.refresh();
+        assertThat(flaky.isRevoked(token("signed-out", IN_AN_HOUR))).isTrue();
+    }
+
+    private static TokenRevocations start(RevokedTokenRepository repository, int expectedTokens) {
+        TokenRevocations revocations = new TokenRevocations(repository);
+        ReflectionTestUtils.setField(revocations, "expectedTokens", expectedTokens);
+        revocations.load();
+        return revocations;
+    }
+
+    private static VerifiedToken token(String id, Instant expiresAt) {
+        return new VerifiedToken("reader@example.com", expiresAt,
+                Jwts.claims().id(id).expiration(Date.from(expiresAt)).build());
+    }
+}
@@ -0,0 +1,223 @@
+package tech.aerolambda.infrastructure.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tech.aerolambda.domain.entity.User;
+import tech.aerolambda.domain.enums.UserRole;
+import tech.aerolambda.domain.repository.UserRepository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserDetailsCacheTest {
+
+    private static final String EMAIL = "reader@example.com";
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final AtomicInteger version = new AtomicInteger();
+    private UserDetailsCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new UserDetailsCache(userRepository);
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "ttl", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(cache, "maxEntries", 100);
+        // Every load reads the user as it is now, at a version the test can move on
+        when(userRepository.findByEmail(EMAIL)).thenAnswer(invocation -> Optional.of(user(version.get())));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void cachedUserIsServedWithoutLoading() {
+        cache.find(EMAIL);
+        cache.find(EMAIL);
+
+        verify(userRepository, times(1)).findByEmail(EMAIL);
+        assertThat(cache.stats()).extracting(UserDetailsCache.Stats::hits, UserDetailsCache.Stats::misses)
+                .containsExactly(1L, 1L);
+    }
+
+    @Test
+    void everyLookupGetsItsOwnCopy() {
+        User first = cache.find(EMAIL).orElseThrow();
+        first.setRole(UserRole.ADMIN);
+
+        User second = cache.find(EMAIL).orElseThrow();
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getRole()).isEqualTo(UserRole.USER);
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(userRepository.findByEmail(EMAIL)).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await();
+            return Optional.of(user(0));
+        });
+
+        List<Future<Optional<User>>> lookups = new ArrayList<>();
+        lookups.add(executor.submit(() -> cache.find(EMAIL)));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        for (int i = 0; i < 31; i++) {
+            lookups.add(executor.submit(() -> cache.find(EMAIL)));
+        }
+        // Give the waiters time to reach the load in flight before it completes
+        awaitCoalesced(31);
+        release.countDown();
+
+        List<User> users = new ArrayList<>();
+        for (Future<Optional<User>> lookup : lookups) {
+            users.add(lookup.get(5, TimeUnit.SECONDS).orElseThrow());
+        }
+        verify(userRepository, times(1)).findByEmail(EMAIL);
+        assertThat(users).allSatisfy(user -> assertThat(user.getEmail()).isEqualTo(EMAIL));
+        assertThat(users.stream().distinct()).hasSize(32);
+        assertThat(cache.stats().coalesced()).isEqualTo(31);
+    }
+
+    @Test
+    void evictionDuringALoadDropsWhatItRead() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(userRepository.findByEmail(EMAIL)).thenAnswer(invocation -> {
+            User read = user(version.get());
+            loading.countDown();
+            release.await();
+            return Optional.of(read);
+        });
+        Future<Optional<User>> inFlight = executor.submit(() -> cache.find(EMAIL));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // The user changes and the change commits while the old row is being loaded
+        version.set(1);
+        cache.evict(EMAIL);
+        release.countDown();
+        assertThat(inFlight.get(5, TimeUnit.SECONDS).orElseThrow().getAccountVersion()).isZero();
+
+        when(userRepository.findByEmail(EMAIL)).thenAnswer(invocation -> Optional.of(user(version.get())));
+        assertThat(cache.find(EMAIL).orElseThrow().getAccountVersion()).isEqualTo(1);
+    }
+
+    @Test
+    void evictionWaitsForTheTransactionToCommit() {
+        cache.find(EMAIL);
+        version.set(1);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.evict(EMAIL);
+            // Not committed yet: others still see the user as it was
+            assertThat(cache.find(EMAIL).orElseThrow().getAccountVersion()).isZero();
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(cache.find(EMAIL).orElseThrow().getAccountVersion()).isEqualTo(1);
+    }
+
+    @Test
+    void expiredUserIsLoadedAgain() {
+        ReflectionTestUtils.setField(cache, "ttl", Duration.ZERO);
+
+        cache.find(EMAIL);
+        version.set(1);
+
+        assertThat(cache.find(EMAIL).orElseThrow().getAccountVersion()).isEqualTo(1);
+        verify(userRepository, times(2)).findByEmail(EMAIL);
+    }
+
+    @Test
+    void unknownEmailsAreNotCached() {
+        when(userRepository.findByEmail(anyString())).thenReturn(Optional.empty());
+
+        assertThat(cache.find("nobody@example.com")).isEmpty();
+        assertThat(cache.find("nobody@example.com")).isEmpty();
+
+        verify(userRepository, times(2)).findByEmail("nobody@example.com");
+        assertThat(cache.stats().size()).isZero();
+    }
+
+    @Test
+    void failedLoadIsNotCached() {
+        when(userRepository.findByEmail(EMAIL)).thenThrow(new IllegalStateException("database is down"));
+        assertThatThrownBy(() -> cache.find(EMAIL)).hasMessage("database is down");
+
+        doReturn(Optional.of(user(0))).when(userRepository).findByEmail(EMAIL);
+        assertThat(cache.find(EMAIL)).isPresent();
+    }
+
+    @Test
+    void fullCacheMakesRoom() {
+        ReflectionTestUtils.setField(cache, "maxEntries", 8);
+        when(userRepository.findByEmail(anyString())).thenAnswer(invocation ->
+                Optional.of(User.builder().id(1L).email(invocation.getArgument(0)).build()));
+
+        for (int i = 0; i < 50; i++) {
+            cache.find("user" + i + "@example.com");
+        }
+
+        assertThat(cache.stats().size()).isLessThanOrEqualTo(9);
+        assertThat(cache.stats().evictions()).isPositive();
+    }
+
+    @Test
+    void disabledCacheLoadsEveryTime() {
+        ReflectionTestUtils.setField(cache, "enabled", false);
+
+        cache.find(EMAIL);
+        cache.find(EMAIL);
+
+        verify(userRepository, times(2)).findByEmail(EMAIL);
+        assertThat(cache.stats().size()).isZero();
+    }
+
+    private void awaitCoalesced(long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (cache.stats().coalesced() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static User user(long accountVersion) {
+        return User.builder()
+                .id(1L)
+                .name("Reader")
+                .email(EMAIL)
+                .password("hash")
+                .role(UserRole.USER)
+                .enabled(true)
+                .accountVersion(accountVersion)
+                .build();
+    }
+}
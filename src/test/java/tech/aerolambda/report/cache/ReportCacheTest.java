@@ -0,0 +1,162 @@
+package tech.aerolambda.report.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tech.aerolambda.domain.enums.ReportFormat;
+import tech.aerolambda.domain.enums.ReportType;
+import tech.aerolambda.presentation.dto.report.ReportRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReportCacheTest {
+
+    private ReportCache reportCache;
+    private final AtomicInteger renders = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        reportCache = new ReportCache();
+        ReflectionTestUtils.setField(reportCache, "maxBytes", 100L);
+        ReflectionTestUtils.setField(reportCache, "maxEntryBytes", 60);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void servesARenderedReportFromTheCache() throws IOException {
+        ReportCacheKey key = key(ReportType.BOOKS, 10);
+
+        assertThat(write(key, 40)).hasSize(40);
+        assertThat(write(key, 40)).hasSize(40);
+
+        assertThat(renders).hasValue(1);
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedReportsOnceTheBytesExceedTheLimit() throws IOException {
+        ReportCacheKey first = key(ReportType.BOOKS, 1);
+        ReportCacheKey second = key(ReportType.BOOKS, 2);
+        ReportCacheKey third = key(ReportType.BOOKS, 3);
+        write(first, 40);
+        write(second, 40);
+        // Reading the first makes the second the least recently used
+        write(first, 40);
+
+        write(third, 40);
+        assertThat(renders).hasValue(3);
+
+        write(first, 40);
+        write(third, 40);
+        assertThat(renders).hasValue(3);
+        write(second, 40);
+        assertThat(renders).hasValue(4);
+    }
+
+    @Test
+    void streamsButDoesNotKeepReportsOverTheEntryLimit() throws IOException {
+        ReportCacheKey key = key(ReportType.BOOKS, null);
+
+        assertThat(write(key, 61)).hasSize(61);
+        assertThat(write(key, 61)).hasSize(61);
+
+        assertThat(renders).hasValue(2);
+    }
+
+    @Test
+    void invalidatingOutsideATransactionBumpsTheVersionAtOnce() throws IOException {
+        ReportCacheKey before = key(ReportType.BOOKS, null);
+        write(before, 10);
+
+        reportCache.invalidate();
+
+        ReportCacheKey after = key(ReportType.BOOKS, null);
+        assertThat(after.dataVersion()).isEqualTo(before.dataVersion() + 1);
+        assertThat(reportCache.eTag(after)).isNotEqualTo(reportCache.eTag(before));
+        write(after, 10);
+        assertThat(renders).hasValue(2);
+    }
+
+    @Test
+    void invalidatingInATransactionBumpsTheVersionAfterCommit() throws IOException {
+        ReportCacheKey before = key(ReportType.BOOKS, null);
+        write(before, 10);
+        TransactionSynchronizationManager.initSynchronization();
+
+        reportCache.invalidate();
+
+        // Until the commit, readers still see the committed data and its cached report
+        assertThat(key(ReportType.BOOKS, null)).isEqualTo(before);
+        write(before, 10);
+        assertThat(renders).hasValue(1);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertThat(key(ReportType.BOOKS, null).dataVersion()).isEqualTo(before.dataVersion() + 1);
+        write(before, 10);
+        assertThat(renders).hasValue(2);
+    }
+
+    @Test
+    void rolledBackInvalidationKeepsTheVersion() {
+        ReportCacheKey before = key(ReportType.BOOKS, null);
+        TransactionSynchronizationManager.initSynchronization();
+
+        reportCache.invalidate();
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertThat(key(ReportType.BOOKS, null)).isEqualTo(before);
+    }
+
+    @Test
+    void reportRenderedForAnOlderVersionIsNotKept() throws IOException {
+        ReportCacheKey stale = key(ReportType.BOOKS, null);
+        reportCache.invalidate();
+
+        assertThat(write(stale, 10)).hasSize(10);
+        write(stale, 10);
+        assertThat(renders).hasValue(2);
+    }
+
+    @Test
+    void eTagIsWeakAndNamesTheEpochVersionAndRequest() {
+        ReportCacheKey books = key(ReportType.BOOKS, 10);
+        long epoch = (long) ReflectionTestUtils.getField(reportCache, "epoch");
+
+        assertThat(reportCache.eTag(books))
+                .isEqualTo("W/\"" + Long.toHexString(epoch) + "-0-" + Integer.toHexString(books.toString().hashCode()) + "\"")
+                .matches("W/\"[0-9a-f]+-0-[0-9a-f]+\"");
+        assertThat(reportCache.eTag(key(ReportType.BOOKS, 10))).isEqualTo(reportCache.eTag(books));
+        assertThat(reportCache.eTag(key(ReportType.BOOKS, 20))).isNotEqualTo(reportCache.eTag(books));
+        assertThat(reportCache.eTag(key(ReportType.AUTHORS, 10))).isNotEqualTo(reportCache.eTag(books));
+
+        // Equivalent requests share a representation
+        assertThat(reportCache.eTag(key(ReportType.BOOKS, 0))).isEqualTo(reportCache.eTag(key(ReportType.BOOKS, null)));
+    }
+
+    private ReportCacheKey key(ReportType type, Integer limit) {
+        return reportCache.keyFor(type, ReportFormat.CSV, ReportRequest.builder().limit(limit).build());
+    }
+
+    private byte[] write(ReportCacheKey key, int size) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        reportCache.write(key, out, target -> {
+            renders.incrementAndGet();
+            target.write(new byte[size]);
+        });
+        return out.toByteArray();
+    }
+}
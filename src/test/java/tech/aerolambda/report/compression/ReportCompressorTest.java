@@ -0,0 +1,116 @@
+package tech.aerolambda.report.compression;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReportCompressorTest {
+
+    private ReportCompressor compressor;
+
+    @BeforeEach
+    void setUp() {
+        compressor = compressor(6, 3);
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "gzip                          | GZIP",
+            "zstd                          | ZSTD",
+            "GZip                          | GZIP",
+            "gzip, zstd                    | ZSTD",
+            "zstd, gzip                    | ZSTD",
+            "gzip;q=1.0, zstd;q=0.5        | GZIP",
+            "gzip;q=0.4, zstd;q=0.5        | ZSTD",
+            "gzip ; q=0.8 , deflate, br    | GZIP",
+            "*                             | ZSTD",
+            "*;q=0.5, gzip                 | GZIP",
+            "*, zstd;q=0                   | GZIP",
+            "gzip;q=0.5, *;q=0.9           | ZSTD",
+    })
+    void negotiatesThePreferredCoding(String acceptEncoding, ReportCompression expected) {
+        assertThat(compressor.negotiate(acceptEncoding)).isEqualTo(expected);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "  ", "identity", "deflate, br", "gzip;q=0", "gzip;q=0, zstd;q=0.0",
+            "*;q=0", "gzip;q=abc", ", ;"})
+    void leavesTheReportUnencodedWithoutAnAcceptableCoding(String acceptEncoding) {
+        assertThat(compressor.negotiate(acceptEncoding)).isNull();
+    }
+
+    @Test
+    void leavesTheReportUnencodedWithoutAHeaderOrWhenDisabled() {
+        assertThat(compressor.negotiate(null)).isNull();
+
+        ReflectionTestUtils.setField(compressor, "enabled", false);
+        assertThat(compressor.negotiate("gzip, zstd")).isNull();
+    }
+
+    @Test
+    void fallsBackToGzipWithoutZstd() {
+        ReflectionTestUtils.setField(compressor, "zstdAvailable", false);
+
+        assertThat(compressor.negotiate("zstd, gzip")).isEqualTo(ReportCompression.GZIP);
+        assertThat(compressor.negotiate("*")).isEqualTo(ReportCompression.GZIP);
+        assertThat(compressor.negotiate("zstd")).isNull();
+        assertThat(compressor.isAvailable(ReportCompression.ZSTD)).isFalse();
+        assertThatThrownBy(() -> compressor.resolveLevel(ReportCompression.ZSTD, 3, false))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("ZSTD compression is not available");
+    }
+
+    @Test
+    void resolvesTheConfiguredDefaultLevel() {
+        assertThat(compressor.resolveLevel(ReportCompression.GZIP, null, false)).isEqualTo(6);
+        assertThat(compressor.resolveLevel(ReportCompression.ZIP, null, false)).isEqualTo(6);
+        assertThat(compressor.resolveLevel(ReportCompression.ZSTD, null, true)).isEqualTo(3);
+    }
+
+    @ParameterizedTest
+    @CsvSource({"GZIP, 1", "GZIP, 9", "ZIP, 1", "ZIP, 9", "ZSTD, 1", "ZSTD, 19"})
+    void acceptsEveryLevelInRange(ReportCompression compression, int level) {
+        assertThat(compressor.resolveLevel(compression, level, false)).isEqualTo(level);
+        assertThat(compressor.resolveLevel(compression, level, true)).isEqualTo(level);
+    }
+
+    @ParameterizedTest
+    @CsvSource({"GZIP, 0", "GZIP, 10", "ZIP, -1", "ZIP, 10", "ZSTD, 0", "ZSTD, 20"})
+    void rejectsARequestedLevelOutOfRange(ReportCompression compression, int level) {
+        assertThatThrownBy(() -> compressor.resolveLevel(compression, level, false))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage(compression + " compression level must be between " + compression.getMinLevel()
+                        + " and " + compression.getMaxLevel());
+    }
+
+    @ParameterizedTest
+    @CsvSource({"GZIP, 0, 1", "GZIP, 12, 9", "ZSTD, -5, 1", "ZSTD, 22, 19", "ZSTD, 12, 12"})
+    void clampsANegotiatedLevelIntoRange(ReportCompression compression, int level, int expected) {
+        assertThat(compressor.resolveLevel(compression, level, true)).isEqualTo(expected);
+    }
+
+    @Test
+    void rejectsAConfiguredLevelOutOfRange() {
+        assertThatThrownBy(() -> compressor(10, 3))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("GZIP compression level must be between 1 and 9");
+        assertThatThrownBy(() -> compressor(6, 20))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("ZSTD compression level must be between 1 and 19");
+    }
+
+    private static ReportCompressor compressor(int gzipLevel, int zstdLevel) {
+        ReportCompressor compressor = new ReportCompressor();
+        ReflectionTestUtils.setField(compressor, "enabled", true);
+        ReflectionTestUtils.setField(compressor, "gzipLevel", gzipLevel);
+        ReflectionTestUtils.setField(compressor, "zstdLevel", zstdLevel);
+        compressor.init();
+        return compressor;
+    }
+}
@@ -0,0 +1,285 @@
+package tech.aerolambda.report.parquet;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.VersionParser;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.convert.GroupRecordConverter;
+import org.apache.parquet.format.ColumnChunk;
+import org.apache.parquet.format.CompressionCodec;
+import org.apache.parquet.format.FileMetaData;
+import org.apache.parquet.format.KeyValue;
+import org.apache.parquet.format.RowGroup;
+import org.apache.parquet.format.Util;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
+import org.apache.parquet.io.ColumnIOFactory;
+import org.apache.parquet.io.RecordReader;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.apache.parquet.schema.Type;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import tech.aerolambda.report.ReportColumn;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Writes rows of every column type, with nulls, over several row groups and reads them back with
+ * the reference Parquet reader, so the hand-written pages and Thrift footer are checked against
+ * the format rather than against themselves.
+ */
+class ParquetWriterTest {
+
+    private static final byte[] MAGIC = "PAR1".getBytes(StandardCharsets.US_ASCII);
+    private static final int ROWS = 45;
+    private static final int ROW_GROUP_ROWS = 16;
+
+    private static final List<ReportColumn<Row>> COLUMNS = List.of(
+            ReportColumn.ofLong("ID", Row::id),
+            ReportColumn.ofInteger("Copies", Row::copies),
+            ReportColumn.ofDecimal("Price", 10, 2, Row::price),
+            ReportColumn.ofString("Sale Title", Row::title),
+            ReportColumn.ofBoolean("In Stock", Row::inStock),
+            ReportColumn.ofTimestamp("Updated At", Row::updatedAt)
+    );
+
+    @TempDir
+    java.nio.file.Path directory;
+
+    @ParameterizedTest
+    @EnumSource(ParquetCodec.class)
+    void referenceReaderReadsBackEveryValue(ParquetCodec codec) throws IOException {
+        List<Row> rows = rows();
+        java.nio.file.Path file = write(rows, codec);
+
+        List<Group> read = readWithReferenceReader(file);
+
+        assertThat(read).hasSize(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            Row row = rows.get(i);
+            Group group = read.get(i);
+            assertThat(longOrNull(group, "id")).as("id of row %d", i).isEqualTo(row.id());
+            assertThat(intOrNull(group, "copies")).as("copies of row %d", i).isEqualTo(row.copies());
+            assertThat(decimalOrNull(group, "price")).as("price of row %d", i).isEqualTo(row.price());
+            assertThat(stringOrNull(group, "sale_title")).as("title of row %d", i).isEqualTo(row.title());
+            assertThat(booleanOrNull(group, "in_stock")).as("in stock of row %d", i).isEqualTo(row.inStock());
+            assertThat(timestampOrNull(group, "updated_at")).as("updated at of row %d", i).isEqualTo(row.updatedAt());
+        }
+    }
+
+    @Test
+    void schemaCarriesPhysicalAndLogicalTypes() throws IOException {
+        java.nio.file.Path file = write(rows(), ParquetCodec.UNCOMPRESSED);
+
+        MessageType schema;
+        try (ParquetFileReader reader = open(file)) {
+            schema = reader.getFooter().getFileMetaData().getSchema();
+        }
+
+        assertThat(schema.getFields()).extracting(Type::getName)
+                .containsExactly("id", "copies", "price", "sale_title", "in_stock", "updated_at");
+        assertThat(schema.getFields()).allMatch(field -> field.isRepetition(Type.Repetition.OPTIONAL));
+        assertPrimitive(schema, "id", PrimitiveTypeName.INT64, null);
+        assertPrimitive(schema, "copies", PrimitiveTypeName.INT32, null);
+        assertPrimitive(schema, "price", PrimitiveTypeName.INT64, LogicalTypeAnnotation.decimalType(2, 10));
+        assertPrimitive(schema, "sale_title", PrimitiveTypeName.BINARY, LogicalTypeAnnotation.stringType());
+        assertPrimitive(schema, "in_stock", PrimitiveTypeName.BOOLEAN, null);
+        assertPrimitive(schema, "updated_at", PrimitiveTypeName.INT64,
+                LogicalTypeAnnotation.timestampType(false, LogicalTypeAnnotation.TimeUnit.MICROS));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ParquetCodec.class)
+    void footerDescribesRowGroupsAndColumnChunks(ParquetCodec codec) throws Exception {
+        List<Row> rows = rows();
+        byte[] bytes = Files.readAllBytes(write(rows, codec));
+
+        assertThat(Arrays.copyOfRange(bytes, 0, 4)).isEqualTo(MAGIC);
+        assertThat(Arrays.copyOfRange(bytes, bytes.length - 4, bytes.length)).isEqualTo(MAGIC);
+        int footerLength = ByteBuffer.wrap(bytes, bytes.length - 8, 4).order(ByteOrder.LITTLE_ENDIAN).getInt();
+        int footerStart = bytes.length - 8 - footerLength;
+        assertThat(footerStart).isGreaterThan(MAGIC.length);
+
+        FileMetaData metaData = Util.readFileMetaData(new ByteArrayInputStream(bytes, footerStart, footerLength));
+
+        assertThat(metaData.getNum_rows()).isEqualTo(ROWS);
+        assertThat(metaData.getSchema()).hasSize(COLUMNS.size() + 1);
+        assertThat(VersionParser.parse(metaData.getCreated_by()).application).isEqualTo("book-search");
+        assertThat(metaData.getKey_value_metadata()).extracting(KeyValue::getKey, KeyValue::getValue)
+                .containsExactly(org.assertj.core.groups.Tuple.tuple("title", "Test Report"));
+
+        List<RowGroup> rowGroups = metaData.getRow_groups();
+        assertThat(rowGroups).extracting(RowGroup::getNum_rows).containsExactly(16L, 16L, 13L);
+        long expectedOffset = MAGIC.length;
+        for (int g = 0; g < rowGroups.size(); g++) {
+            RowGroup rowGroup = rowGroups.get(g);
+            assertThat(rowGroup.getFile_offset()).isEqualTo(expectedOffset);
+            assertThat(rowGroup.getOrdinal()).isEqualTo((short) g);
+            assertThat(rowGroup.getColumns()).hasSize(COLUMNS.size());
+
+            int first = g * ROW_GROUP_ROWS;
+            List<Row> groupRows = rows.subList(first, (int) Math.min(first + ROW_GROUP_ROWS, ROWS));
+            long compressed = 0;
+            for (int c = 0; c < COLUMNS.size(); c++) {
+                ColumnChunk chunk = rowGroup.getColumns().get(c);
+                int column = c;
+                assertThat(chunk.getMeta_data().getData_page_offset()).isEqualTo(expectedOffset);
+                assertThat(chunk.getMeta_data().getCodec()).isEqualTo(CompressionCodec.findByValue(codec.id()));
+                assertThat(chunk.getMeta_data().getNum_values()).isEqualTo(groupRows.size());
+                long nulls = groupRows.stream().filter(row -> COLUMNS.get(column).valueOf(row) == null).count();
+                assertThat(chunk.getMeta_data().getStatistics().getNull_count()).isEqualTo(nulls);
+                expectedOffset += chunk.getMeta_data().getTotal_compressed_size();
+                compressed += chunk.getMeta_data().getTotal_compressed_size();
+            }
+            assertThat(rowGroup.getTotal_compressed_size()).isEqualTo(compressed);
+        }
+        assertThat(expectedOffset).isEqualTo(footerStart);
+    }
+
+    @Test
+    void referenceReaderTrustsNullCounts() throws IOException {
+        List<Row> rows = rows();
+        java.nio.file.Path file = write(rows, ParquetCodec.GZIP);
+
+        try (ParquetFileReader reader = open(file)) {
+            List<BlockMetaData> blocks = reader.getFooter().getBlocks();
+            assertThat(blocks).hasSize(3);
+            for (int g = 0; g < blocks.size(); g++) {
+                List<Row> groupRows = rows.subList(g * ROW_GROUP_ROWS, Math.min((g + 1) * ROW_GROUP_ROWS, ROWS));
+                for (int c = 0; c < COLUMNS.size(); c++) {
+                    ReportColumn<Row> column = COLUMNS.get(c);
+                    ColumnChunkMetaData chunk = blocks.get(g).getColumns().get(c);
+                    assertThat(chunk.getStatistics().isNumNullsSet()).isTrue();
+                    assertThat(chunk.getStatistics().getNumNulls())
+                            .isEqualTo(groupRows.stream().filter(row -> column.valueOf(row) == null).count());
+                }
+            }
+        }
+    }
+
+    @Test
+    void emptyReportHasFooterAndNoRowGroups() throws IOException {
+        java.nio.file.Path file = write(List.of(), ParquetCodec.ZSTD);
+
+        try (ParquetFileReader reader = open(file)) {
+            assertThat(reader.getRecordCount()).isZero();
+            assertThat(reader.getRowGroups()).isEmpty();
+        }
+    }
+
+    private java.nio.file.Path write(List<Row> rows, ParquetCodec codec) throws IOException {
+        java.nio.file.Path file = directory.resolve(codec + "-" + rows.size() + ".parquet");
+        Map<String, String> metadata = new LinkedHashMap<>();
+        metadata.put("title", "Test Report");
+        try (OutputStream out = Files.newOutputStream(file)) {
+            ParquetWriter<Row> writer = new ParquetWriter<>(out, COLUMNS, codec, ROW_GROUP_ROWS, metadata);
+            for (Row row : rows) {
+                writer.write(row);
+            }
+            writer.finish();
+        }
+        return file;
+    }
+
+    private static List<Group> readWithReferenceReader(java.nio.file.Path file) throws IOException {
+        List<Group> groups = new ArrayList<>();
+        try (ParquetFileReader reader = open(file)) {
+            MessageType schema = reader.getFooter().getFileMetaData().getSchema();
+            PageReadStore pages;
+            while ((pages = reader.readNextRowGroup()) != null) {
+                RecordReader<Group> records = new ColumnIOFactory().getColumnIO(schema)
+                        .getRecordReader(pages, new GroupRecordConverter(schema));
+                for (long i = 0; i < pages.getRowCount(); i++) {
+                    groups.add(records.read());
+                }
+            }
+        }
+        return groups;
+    }
+
+    private static ParquetFileReader open(java.nio.file.Path file) throws IOException {
+        return ParquetFileReader.open(HadoopInputFile.fromPath(new Path(file.toUri()), new Configuration()));
+    }
+
+    private static void assertPrimitive(MessageType schema, String name, PrimitiveTypeName physical,
+                                        LogicalTypeAnnotation logical) {
+        Type field = schema.getType(name);
+        assertThat(field.asPrimitiveType().getPrimitiveTypeName()).as(name).isEqualTo(physical);
+        assertThat(field.getLogicalTypeAnnotation()).as(name).isEqualTo(logical);
+    }
+
+    private static Long longOrNull(Group group, String field) {
+        return present(group, field) ? group.getLong(field, 0) : null;
+    }
+
+    private static Integer intOrNull(Group group, String field) {
+        return present(group, field) ? group.getInteger(field, 0) : null;
+    }
+
+    private static BigDecimal decimalOrNull(Group group, String field) {
+        return present(group, field) ? BigDecimal.valueOf(group.getLong(field, 0), 2) : null;
+    }
+
+    private static String stringOrNull(Group group, String field) {
+        return present(group, field) ? group.getString(field, 0) : null;
+    }
+
+    private static Boolean booleanOrNull(Group group, String field) {
+        return present(group, field) ? group.getBoolean(field, 0) : null;
+    }
+
+    private static LocalDateTime timestampOrNull(Group group, String field) {
+        if (!present(group, field)) {
+            return null;
+        }
+        long micros = group.getLong(field, 0);
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1_000, java.time.ZoneOffset.UTC);
+    }
+
+    private static boolean present(Group group, String field) {
+        return group.getFieldRepetitionCount(field) > 0;
+    }
+
+    /**
+     * Each column is null on its own cadence, so null runs start and end at different rows and
+     * some row groups begin with a null. Booleans cover partial bytes of packed bits.
+     */
+    private static List<Row> rows() {
+        LocalDateTime base = LocalDateTime.of(2024, 2, 29, 23, 59, 58, 123_456_000);
+        return IntStream.range(0, ROWS).mapToObj(i -> new Row(
+                i % 11 == 5 ? null : (long) i * 1_000_000_007L - 3,
+                i % 3 == 0 ? null : i * (i % 2 == 0 ? 1 : -1),
+                i % 4 == 1 ? null : BigDecimal.valueOf(i * 1_234L - 500, 2),
+                i % 5 == 2 ? null : i % 7 == 0 ? "" : "Titel " + i + " üß☃ " + "x".repeat(i),
+                i % 6 == 4 ? null : i % 3 == 1,
+                i % 9 == 8 ? null : base.plusSeconds(i * 3_601L).plusNanos(i * 1_000L)
+        )).toList();
+    }
+
+    private record Row(Long id, Integer copies, BigDecimal price, String title, Boolean inStock,
+                       LocalDateTime updatedAt) {}
+}
@@ -0,0 +1,208 @@
+package tech.aerolambda.report.render;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import tech.aerolambda.domain.enums.ReportType;
+import tech.aerolambda.report.ReportColumn;
+import tech.aerolambda.report.ReportData;
+import tech.aerolambda.report.strategy.ReportStrategy;
+import tech.aerolambda.report.strategy.impl.CsvReportStrategy;
+import tech.aerolambda.report.strategy.impl.JsonReportStrategy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Chunks formatted in parallel must come out exactly as the same rows formatted in one piece on
+ * the calling thread. Chunks hold {@value #CHUNK_SIZE} rows; the sizes tested fall below, on and
+ * past chunk boundaries.
+ */
+class RowRendererTest {
+
+    private static final int CHUNK_SIZE = 4;
+
+    private static final List<ReportColumn<Item>> COLUMNS = List.of(
+            ReportColumn.ofLong("ID", Item::id),
+            ReportColumn.ofString("Name", Item::name),
+            ReportColumn.ofCurrency("Price", 10, 2, Item::price),
+            ReportColumn.ofInteger("Quantity", Item::quantity),
+            ReportColumn.ofBoolean("Active", Item::active),
+            ReportColumn.ofTimestamp("Created At", Item::createdAt));
+
+    private final List<RowRenderer> renderers = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        renderers.forEach(RowRenderer::shutdown);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 3, 4, 5, 8, 12, 13, 37})
+    void parallelCsvMatchesASingleChunk(int size) throws IOException {
+        assertSameOutput(size, CsvReportStrategy::new);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 3, 4, 5, 8, 12, 13, 37})
+    void parallelJsonMatchesASingleChunk(int size) throws IOException {
+        assertSameOutput(size, renderer -> new JsonReportStrategy(renderer, false));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 4, 5, 12, 37})
+    void parallelCompactJsonMatchesASingleChunk(int size) throws IOException {
+        assertSameOutput(size, renderer -> new JsonReportStrategy(renderer, true));
+    }
+
+    @Test
+    void chunksAreWrittenInRowOrder() throws IOException {
+        RowRenderer renderer = renderer(3, CHUNK_SIZE);
+        List<Integer> chunkIndexes = Collections.synchronizedList(new ArrayList<>());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rendered = renderer.render(reportData(items(12)), out, (rows, chunkIndex, chunkOut) -> {
+            chunkIndexes.add(chunkIndex);
+            writeIds(rows, chunkIndex, chunkOut);
+        });
+
+        // Exactly three full chunks, and no empty fourth one
+        assertThat(rendered).isEqualTo(12);
+        assertThat(chunkIndexes).containsExactlyInAnyOrder(0, 1, 2);
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("0:0,1,2,3;1:4,5,6,7;2:8,9,10,11;");
+    }
+
+    @Test
+    void emptyDataFormatsNothing() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rendered = renderer(3, CHUNK_SIZE).render(reportData(items(0)), out, (rows, chunkIndex, chunkOut) -> {
+            throw new AssertionError("Nothing to format");
+        });
+
+        assertThat(rendered).isZero();
+        assertThat(out.size()).isZero();
+    }
+
+    @Test
+    void failureInOneChunkReachesTheCaller() throws IOException {
+        RowRenderer renderer = renderer(3, CHUNK_SIZE);
+        RowRenderer.ChunkFormatter failingThirdChunk = (rows, chunkIndex, out) -> {
+            if (chunkIndex == 2) {
+                throw new IllegalStateException("cannot format chunk 2");
+            }
+            writeIds(rows, chunkIndex, out);
+        };
+
+        assertThatThrownBy(() -> renderer.render(reportData(items(37)), new ByteArrayOutputStream(), failingThirdChunk))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("cannot format chunk 2");
+        assertThatThrownBy(() -> renderer.render(reportData(items(37)), new ByteArrayOutputStream(),
+                (rows, chunkIndex, out) -> {
+                    throw new IOException("disk full");
+                }))
+                .isInstanceOf(IOException.class)
+                .hasMessage("disk full");
+
+        // The pool is still usable afterwards
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertThat(renderer.render(reportData(items(9)), out, RowRendererTest::writeIds)).isEqualTo(9);
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("0:0,1,2,3;1:4,5,6,7;2:8;");
+    }
+
+    private void assertSameOutput(int size, Function<RowRenderer, ReportStrategy> strategy) throws IOException {
+        List<Item> items = items(size);
+
+        String sequential = write(strategy.apply(renderer(1, 1_000)), items);
+        String parallel = write(strategy.apply(renderer(3, CHUNK_SIZE)), items);
+
+        assertThat(parallel).isEqualTo(sequential);
+        for (Item item : items) {
+            if (item.id() % 4 == 0) {
+                assertThat(parallel).contains(item.name());
+            }
+        }
+    }
+
+    private static String write(ReportStrategy strategy, List<Item> items) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        strategy.write(reportData(items), out);
+        // The only part that differs between runs
+        return out.toString(StandardCharsets.UTF_8).replaceAll("\"generatedAt\" ?: ?\"[^\"]*\"", "\"generatedAt\"");
+    }
+
+    private RowRenderer renderer(int parallelism, int chunkSize) {
+        RowRenderer renderer = new RowRenderer();
+        ReflectionTestUtils.setField(renderer, "parallelism", parallelism);
+        ReflectionTestUtils.setField(renderer, "chunkSize", chunkSize);
+        renderer.init();
+        renderers.add(renderer);
+        return renderer;
+    }
+
+    private static void writeIds(RowChunk rows, int chunkIndex, OutputStream out) throws IOException {
+        List<String> ids = new ArrayList<>();
+        rows.replay(new TextRowSink(COLUMNS) {
+            @Override
+            protected void cell(int column, String text) {
+                if (column == 0) {
+                    ids.add(text);
+                }
+            }
+
+            @Override
+            public void startRow() {
+            }
+
+            @Override
+            public void endRow() {
+            }
+        });
+        out.write((chunkIndex + ":" + String.join(",", ids) + ";").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ReportData<Item> reportData(List<Item> items) {
+        return ReportData.<Item>builder()
+                .reportType(ReportType.BOOKS)
+                .title("Items")
+                .data(items.stream())
+                .recordCount(items::size)
+                .columns(COLUMNS)
+                .build();
+    }
+
+    private static List<Item> items(int count) {
+        LocalDateTime start = LocalDateTime.of(2024, 2, 29, 23, 30);
+        return IntStream.range(0, count)
+                .mapToObj(i -> new Item(
+                        i,
+                        switch (i % 4) {
+                            case 0 -> "Plain " + i;
+                            case 1 -> "Quoted \"" + i + "\", with comma";
+                            case 2 -> "Line\nbreak " + i + " é中";
+                            default -> null;
+                        },
+                        i % 5 == 0 ? null : BigDecimal.valueOf(i * 125L, 2),
+                        i % 3 == 0 ? null : i,
+                        i % 2 == 0,
+                        i % 7 == 0 ? null : start.plusHours(i)))
+                .toList();
+    }
+
+    private record Item(long id, String name, BigDecimal price, Integer quantity, Boolean active,
+                        LocalDateTime createdAt) {}
+}
@@ -0,0 +1,95 @@
+package tech.aerolambda.report.source;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import tech.aerolambda.domain.entity.Author;
+import tech.aerolambda.domain.entity.Book;
+import tech.aerolambda.domain.repository.BookRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(ReportDataSource.class)
+@TestPropertySource(properties = "app.report.fetch-size=4")
+class ReportDataSourceTest {
+
+    @Autowired
+    private ReportDataSource reportDataSource;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final List<Author> authors = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        // Author i has i books
+        for (int i = 0; i < 10; i++) {
+            Author author = Author.builder().name("Author " + i).build();
+            entityManager.persist(author);
+            authors.add(author);
+            for (int j = 0; j < i; j++) {
+                entityManager.persist(Book.builder().title("Book " + i + "-" + j).isbn("isbn-" + i + "-" + j)
+                        .author(author).build());
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void withLookupPairsEveryRowWithItsValue() {
+        List<Collection<Long>> lookups = new ArrayList<>();
+
+        List<WithLookup<Author, Long>> rows;
+        try (Stream<WithLookup<Author, Long>> stream = reportDataSource.withLookup(
+                reportDataSource.stream(Author.class, Specification.where(null), null),
+                ids -> {
+                    lookups.add(ids);
+                    return bookRepository.countByAuthorIds(ids);
+                })) {
+            rows = stream.toList();
+        }
+
+        assertThat(rows).hasSize(10);
+        for (int i = 0; i < rows.size(); i++) {
+            assertThat(rows.get(i).row().getId()).isEqualTo(authors.get(i).getId());
+            assertThat(rows.get(i).valueOr(0L)).isEqualTo(i);
+        }
+        // One lookup per chunk of the fetch size
+        assertThat(lookups).extracting(Collection::size).containsExactly(4, 4, 2);
+    }
+
+    @Test
+    void withLookupOnlyLooksUpRowsWithinTheLimit() {
+        List<Long> looked = new ArrayList<>();
+
+        try (Stream<WithLookup<Author, Long>> stream = reportDataSource.withLookup(
+                reportDataSource.stream(Author.class, Specification.where(null), 3),
+                ids -> {
+                    looked.addAll(ids);
+                    return Map.of();
+                })) {
+            assertThat(stream.map(row -> row.valueOr(0L))).containsExactly(0L, 0L, 0L);
+        }
+
+        assertThat(looked).containsExactly(authors.get(0).getId(), authors.get(1).getId(), authors.get(2).getId());
+    }
+}
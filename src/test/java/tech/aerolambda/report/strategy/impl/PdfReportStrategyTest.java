@@ -0,0 +1,74 @@
+package tech.aerolambda.report.strategy.impl;
+
+import com.itextpdf.text.pdf.PdfReader;
+import com.itextpdf.text.pdf.parser.PdfTextExtractor;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import tech.aerolambda.domain.entity.Author;
+import tech.aerolambda.domain.entity.Book;
+import tech.aerolambda.domain.entity.Store;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PdfReportStrategyTest {
+
+    @Test
+    void nonPositiveFlushRowsIsRaisedToOne() throws Exception {
+        PdfReportStrategy strategy = strategy(0);
+
+        assertThat(ReflectionTestUtils.getField(strategy, "flushRows")).isEqualTo(1);
+        assertThat(render(strategy, books(3))).contains("Book 0", "Book 2", "Total books: 3");
+    }
+
+    @Test
+    void everyBookIsRenderedAcrossFlushesAndPages() throws Exception {
+        List<Book> books = books(250);
+
+        String text = render(strategy(7), books);
+
+        assertThat(text).contains("Book 0", "Book 123", "Book 249", "$10.5", "Author 249", "Store 249",
+                "Total books: 250");
+    }
+
+    private static PdfReportStrategy strategy(int flushRows) {
+        PdfReportStrategy strategy = new PdfReportStrategy();
+        ReflectionTestUtils.setField(strategy, "flushRows", flushRows);
+        strategy.init();
+        return strategy;
+    }
+
+    private static String render(PdfReportStrategy strategy, List<Book> books) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        strategy.write(books, books::size, out);
+
+        PdfReader reader = new PdfReader(out.toByteArray());
+        try {
+            StringBuilder text = new StringBuilder();
+            for (int page = 1; page <= reader.getNumberOfPages(); page++) {
+                text.append(PdfTextExtractor.getTextFromPage(reader, page)).append('\n');
+            }
+            return text.toString();
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static List<Book> books(int count) {
+        List<Book> books = new ArrayList<>();
+        IntStream.range(0, count).forEach(i -> books.add(Book.builder()
+                .id((long) i)
+                .title("Book " + i)
+                .isbn("isbn-" + i)
+                .price(BigDecimal.valueOf(10.5))
+                .author(Author.builder().name("Author " + i).build())
+                .store(Store.builder().name("Store " + i).build())
+                .build()));
+        return books;
+    }
+}
@@ -0,0 +1,96 @@
+package tech.aerolambda.report.strategy.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import tech.aerolambda.domain.entity.Author;
+import tech.aerolambda.domain.entity.Book;
+import tech.aerolambda.domain.enums.ReportType;
+import tech.aerolambda.report.ReportColumn;
+import tech.aerolambda.report.ReportData;
+import tech.aerolambda.report.render.RowRenderer;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class XmlReportStrategyTest {
+
+    private static final List<ReportColumn<Book>> COLUMNS = List.of(
+            ReportColumn.ofLong("ID", Book::getId),
+            ReportColumn.ofString("Title", Book::getTitle),
+            ReportColumn.ofCurrency("Price", 10, 2, Book::getPrice),
+            ReportColumn.ofString("Author", book -> book.getAuthor() != null ? book.getAuthor().getName() : null));
+
+    private final RowRenderer rowRenderer = new RowRenderer();
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.invokeMethod(rowRenderer, "shutdown");
+    }
+
+    @Test
+    void recordsWrittenInChunksFormOneDocument() throws Exception {
+        // Chunks are formatted concurrently, each by its own writer
+        ReflectionTestUtils.setField(rowRenderer, "parallelism", 3);
+        ReflectionTestUtils.setField(rowRenderer, "chunkSize", 4);
+        ReflectionTestUtils.invokeMethod(rowRenderer, "init");
+        List<Book> books = books(23);
+
+        Document document = parse(render(books));
+
+        Element root = document.getDocumentElement();
+        assertThat(root.getTagName()).isEqualTo("booksReport");
+        assertThat(text(root, "totalRecords")).isEqualTo("23");
+        NodeList records = root.getElementsByTagName("book");
+        assertThat(records.getLength()).isEqualTo(23);
+        for (int i = 0; i < books.size(); i++) {
+            Element record = (Element) records.item(i);
+            assertThat(text(record, "id")).isEqualTo(String.valueOf(i));
+            assertThat(text(record, "title")).isEqualTo(books.get(i).getTitle());
+        }
+        Element missing = (Element) records.item(22);
+        assertThat(text(missing, "author")).isEqualTo("N/A");
+        assertThat(text((Element) records.item(1), "price")).isEqualTo("$10.50");
+    }
+
+    private byte[] render(List<Book> books) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new XmlReportStrategy(rowRenderer).write(ReportData.<Book>builder()
+                .reportType(ReportType.BOOKS)
+                .title("Books <&> Report")
+                .data(books.stream())
+                .recordCount(books::size)
+                .columns(COLUMNS)
+                .build(), out);
+        return out.toByteArray();
+    }
+
+    private static Document parse(byte[] xml) throws Exception {
+        return DocumentBuilderFactory.newDefaultInstance().newDocumentBuilder().parse(new ByteArrayInputStream(xml));
+    }
+
+    private static String text(Element parent, String tag) {
+        return parent.getElementsByTagName(tag).item(0).getTextContent();
+    }
+
+    private static List<Book> books(int count) {
+        List<Book> books = new ArrayList<>();
+        IntStream.range(0, count).forEach(i -> books.add(Book.builder()
+                .id((long) i)
+                .title("Book <" + i + "> & \"friends\"")
+                .price(new BigDecimal("10.50"))
+                .author(i == count - 1 ? null : Author.builder().name("Author " + i).build())
+                .build()));
+        return books;
+    }
+}